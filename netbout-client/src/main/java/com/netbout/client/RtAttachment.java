@@ -158,6 +158,19 @@ final class RtAttachment implements Attachment {
         );
     }
 
+    @Override
+    public long size() throws IOException {
+        return Long.parseLong(
+            this.request.fetch()
+                .as(RestResponse.class)
+                .assertStatus(HttpURLConnection.HTTP_OK)
+                .as(XmlResponse.class)
+                .xml()
+                .xpath(this.xpath("size/text()"))
+                .get(0)
+        );
+    }
+
     @Override
     public void write(final InputStream stream, final String ctype,
         final String etag) throws IOException {
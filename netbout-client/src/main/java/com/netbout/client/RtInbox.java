@@ -122,6 +122,11 @@ final class RtInbox implements Inbox {
         };
     }
 
+    @Override
+    public Pageable.Page<Bout> page(final int size) {
+        throw new UnsupportedOperationException("#page()");
+    }
+
     @Override
     public Iterable<Bout> search(final String term) throws IOException {
         final List<Bout> result = new ArrayList<>(16);
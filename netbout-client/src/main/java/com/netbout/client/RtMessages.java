@@ -102,6 +102,11 @@ final class RtMessages implements Messages {
         };
     }
 
+    @Override
+    public Pageable.Page<Message> page(final int size) {
+        throw new UnsupportedOperationException("#page()");
+    }
+
     @Override
     public Iterable<Message> search(final String term) throws IOException {
         final List<Message> result = new ArrayList<>(16);
@@ -103,6 +103,12 @@ public final class CdAttachment implements Attachment {
         return this.origin.read();
     }
 
+    @Override
+    @Cacheable
+    public long size() throws IOException {
+        return this.origin.size();
+    }
+
     @Override
     public void write(final InputStream stream, final String ctype,
         final String etag) throws IOException {
@@ -100,6 +100,23 @@ public final class CdInbox implements Inbox {
         );
     }
 
+    @Override
+    public Pageable.Page<Bout> page(final int size) throws IOException {
+        final Pageable.Page<Bout> page = this.origin.page(size);
+        return new Pageable.Page<Bout>(
+            Iterables.transform(
+                page.items(),
+                new Function<Bout, Bout>() {
+                    @Override
+                    public Bout apply(final Bout bout) {
+                        return new CdBout(bout);
+                    }
+                }
+            ),
+            page.next()
+        );
+    }
+
     @Override
     @Cacheable
     public Iterable<Bout> search(final String term) throws IOException {
@@ -94,6 +94,24 @@ public final class CdMessages implements Messages {
         );
     }
 
+    @Override
+    @Cacheable.FlushBefore
+    public Pageable.Page<Message> page(final int size) throws IOException {
+        final Pageable.Page<Message> page = this.origin.page(size);
+        return new Pageable.Page<Message>(
+            Iterables.transform(
+                page.items(),
+                new Function<Message, Message>() {
+                    @Override
+                    public Message apply(final Message message) {
+                        return new CdMessage(message);
+                    }
+                }
+            ),
+            page.next()
+        );
+    }
+
     @Override
     @Cacheable.FlushBefore
     public Iterable<Message> search(final String term) throws IOException {
@@ -129,6 +129,15 @@ public final class ReAttachment implements Attachment {
         return this.origin.read();
     }
 
+    @Override
+    @RetryOnFailure(
+        verbose = false, attempts = Tv.TWENTY,
+        delay = Tv.FIVE, unit = TimeUnit.SECONDS
+    )
+    public long size() throws IOException {
+        return this.origin.size();
+    }
+
     @Override
     public void write(final InputStream stream, final String ctype,
         final String etag) throws IOException {
@@ -119,6 +119,27 @@ public final class ReInbox implements Inbox {
         );
     }
 
+    @Override
+    @RetryOnFailure(
+        verbose = false, attempts = Tv.TWENTY,
+        delay = Tv.FIVE, unit = TimeUnit.SECONDS
+    )
+    public Pageable.Page<Bout> page(final int size) throws IOException {
+        final Pageable.Page<Bout> page = this.origin.page(size);
+        return new Pageable.Page<Bout>(
+            Iterables.transform(
+                page.items(),
+                new Function<Bout, Bout>() {
+                    @Override
+                    public Bout apply(final Bout bout) {
+                        return new ReBout(bout);
+                    }
+                }
+            ),
+            page.next()
+        );
+    }
+
     @Override
     @RetryOnFailure(
         verbose = false, attempts = Tv.TWENTY,
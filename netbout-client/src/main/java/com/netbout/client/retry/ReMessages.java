@@ -110,6 +110,27 @@ public final class ReMessages implements Messages {
         );
     }
 
+    @Override
+    @RetryOnFailure(
+        verbose = false, attempts = Tv.TWENTY,
+        delay = Tv.FIVE, unit = TimeUnit.SECONDS
+    )
+    public Pageable.Page<Message> page(final int size) throws IOException {
+        final Pageable.Page<Message> page = this.origin.page(size);
+        return new Pageable.Page<Message>(
+            Iterables.transform(
+                page.items(),
+                new Function<Message, Message>() {
+                    @Override
+                    public Message apply(final Message message) {
+                        return new ReMessage(message);
+                    }
+                }
+            ),
+            page.next()
+        );
+    }
+
     @Override
     @RetryOnFailure(
         verbose = false, attempts = Tv.TWENTY,
@@ -0,0 +1,98 @@
+/**
+ * Copyright (c) 2009-2016, netbout.com
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are PROHIBITED without prior written permission from
+ * the author. This product may NOT be used anywhere and on any computer
+ * except the server platform of netbout Inc. located at www.netbout.com.
+ * Federal copyright law prohibits unauthorized reproduction by any means
+ * and imposes fines up to $25,000 for violation. If you received
+ * this code accidentally and without intent to use it, please report this
+ * incident to the author by email.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS
+ * "AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT
+ * LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR
+ * A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT
+ * OWNER OR CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL,
+ * SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT
+ * LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE,
+ * DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON
+ * ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY,
+ * OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT
+ * OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF
+ * SUCH DAMAGE.
+ */
+package com.netbout.memory;
+
+import com.jcabi.aspects.Immutable;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicLong;
+import lombok.EqualsAndHashCode;
+import lombok.ToString;
+
+/**
+ * Handle of an in-memory storage.
+ *
+ * <p>The storage itself is mutable, that's why it is kept in a static
+ * registry, while the handle has nothing but its number and can be
+ * passed around by immutable objects, the way {@code Sql} is passed
+ * around in the H2 mock.
+ *
+ * @author Yegor Bugayenko (yegor@teamed.io)
+ * @version $Id$
+ * @since 3.0
+ */
+@Immutable
+@ToString
+@EqualsAndHashCode(of = "number")
+final class Heap {
+
+    /**
+     * All storages, by their numbers.
+     */
+    private static final ConcurrentMap<Long, Memory> ALL =
+        new ConcurrentHashMap<>(0);
+
+    /**
+     * Sequence of storage numbers.
+     */
+    private static final AtomicLong SEQUENCE = new AtomicLong();
+
+    /**
+     * Number of the storage.
+     */
+    private final transient long number;
+
+    /**
+     * Ctor, with a new empty storage.
+     */
+    Heap() {
+        this.number = Heap.SEQUENCE.incrementAndGet();
+        Heap.ALL.put(this.number, new Memory());
+    }
+
+    /**
+     * Get the storage.
+     * @return Storage
+     */
+    public Memory memory() {
+        final Memory memory = Heap.ALL.get(this.number);
+        if (memory == null) {
+            throw new IllegalStateException(
+                String.format("storage #%d is closed", this.number)
+            );
+        }
+        return memory;
+    }
+
+    /**
+     * Drop the storage and all its data.
+     */
+    public void close() {
+        Heap.ALL.remove(this.number);
+    }
+
+}
@@ -0,0 +1,139 @@
+/**
+ * Copyright (c) 2009-2016, netbout.com
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are PROHIBITED without prior written permission from
+ * the author. This product may NOT be used anywhere and on any computer
+ * except the server platform of netbout Inc. located at www.netbout.com.
+ * Federal copyright law prohibits unauthorized reproduction by any means
+ * and imposes fines up to $25,000 for violation. If you received
+ * this code accidentally and without intent to use it, please report this
+ * incident to the author by email.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS
+ * "AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT
+ * LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR
+ * A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT
+ * OWNER OR CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL,
+ * SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT
+ * LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE,
+ * DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON
+ * ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY,
+ * OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT
+ * OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF
+ * SUCH DAMAGE.
+ */
+package com.netbout.memory;
+
+import com.jcabi.aspects.Immutable;
+import com.jcabi.aspects.Loggable;
+import com.netbout.spi.Alias;
+import com.netbout.spi.Bout;
+import com.netbout.spi.Inbox;
+import java.net.URI;
+import java.util.Locale;
+import java.util.regex.Pattern;
+import lombok.EqualsAndHashCode;
+import lombok.ToString;
+
+/**
+ * In-memory alias.
+ *
+ * @author Yegor Bugayenko (yegor@teamed.io)
+ * @version $Id$
+ * @since 3.0
+ */
+@Immutable
+@ToString
+@Loggable(Loggable.DEBUG)
+@EqualsAndHashCode(of = { "heap", "label" })
+final class ImAlias implements Alias {
+
+    /**
+     * Valid pattern.
+     * @checkstyle LineLengthCheck (2 line)
+     */
+    private static final String VALID = "([a-z0-9_-]+\\.)*[a-z0-9_-]+@[a-z0-9_-]+(\\.[a-z0-9_-]+)*\\.[a-z]{2,6}";
+
+    /**
+     * Valid email pattern.
+     */
+    private static final Pattern MAIL = Pattern.compile(
+        String.format(
+            "!?%s|%s!%s",
+            ImAlias.VALID, ImAlias.VALID, ImAlias.VALID
+        ),
+        Pattern.CASE_INSENSITIVE
+    );
+
+    /**
+     * Storage.
+     */
+    private final transient Heap heap;
+
+    /**
+     * Name of it.
+     */
+    private final transient String label;
+
+    /**
+     * Ctor.
+     * @param hep Storage
+     * @param name Name of the alias
+     */
+    ImAlias(final Heap hep, final String name) {
+        this.heap = hep;
+        this.label = name;
+    }
+
+    @Override
+    public String name() {
+        return this.label;
+    }
+
+    @Override
+    public URI photo() {
+        return URI.create(this.heap.memory().profile(this.label).photo());
+    }
+
+    @Override
+    public Locale locale() {
+        return Locale.ENGLISH;
+    }
+
+    @Override
+    public void photo(final URI uri) {
+        this.heap.memory().profile(this.label).photo(uri.toString());
+    }
+
+    @Override
+    public String email() {
+        return this.heap.memory().profile(this.label).email();
+    }
+
+    @Override
+    public void email(final String email) throws Alias.InvalidEmailException {
+        if (!ImAlias.MAIL.matcher(email).matches()) {
+            throw new Alias.InvalidEmailException(email);
+        }
+        this.heap.memory().profile(this.label).email(email);
+    }
+
+    @Override
+    public void email(final String email, final String urn, final Bout bout)
+        throws Alias.InvalidEmailException {
+        this.email(email);
+    }
+
+    @Override
+    public void email(final String email, final String link)
+        throws Alias.InvalidEmailException {
+        this.email(email);
+    }
+
+    @Override
+    public Inbox inbox() {
+        return new ImInbox(this.heap, this.label, Inbox.NEVER);
+    }
+}
@@ -0,0 +1,104 @@
+/**
+ * Copyright (c) 2009-2016, netbout.com
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are PROHIBITED without prior written permission from
+ * the author. This product may NOT be used anywhere and on any computer
+ * except the server platform of netbout Inc. located at www.netbout.com.
+ * Federal copyright law prohibits unauthorized reproduction by any means
+ * and imposes fines up to $25,000 for violation. If you received
+ * this code accidentally and without intent to use it, please report this
+ * incident to the author by email.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS
+ * "AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT
+ * LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR
+ * A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT
+ * OWNER OR CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL,
+ * SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT
+ * LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE,
+ * DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON
+ * ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY,
+ * OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT
+ * OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF
+ * SUCH DAMAGE.
+ */
+package com.netbout.memory;
+
+import com.google.common.base.Function;
+import com.google.common.collect.Iterables;
+import com.jcabi.aspects.Immutable;
+import com.jcabi.aspects.Loggable;
+import com.netbout.spi.Alias;
+import com.netbout.spi.Aliases;
+import lombok.EqualsAndHashCode;
+import lombok.ToString;
+
+/**
+ * In-memory aliases.
+ *
+ * @author Yegor Bugayenko (yegor@teamed.io)
+ * @version $Id$
+ * @since 3.0
+ */
+@Immutable
+@ToString
+@Loggable(Loggable.DEBUG)
+@EqualsAndHashCode(of = { "heap", "urn" })
+final class ImAliases implements Aliases {
+
+    /**
+     * Storage.
+     */
+    private final transient Heap heap;
+
+    /**
+     * URN of the user.
+     */
+    private final transient String urn;
+
+    /**
+     * Ctor.
+     * @param hep Storage
+     * @param name URN of the user
+     */
+    ImAliases(final Heap hep, final String name) {
+        this.heap = hep;
+        this.urn = name;
+    }
+
+    @Override
+    public String check(final String name) {
+        final String msg;
+        if (this.heap.memory().exists(name)) {
+            msg = String.format("alias '%s' occupied", name);
+        } else {
+            msg = "";
+        }
+        return msg;
+    }
+
+    @Override
+    public Alias add(final String name) {
+        if (!this.heap.memory().register(name, this.urn)) {
+            throw new IllegalArgumentException(
+                String.format("alias '%s' occupied", name)
+            );
+        }
+        return new ImAlias(this.heap, name);
+    }
+
+    @Override
+    public Iterable<Alias> iterate() {
+        return Iterables.transform(
+            this.heap.memory().names(this.urn),
+            new Function<String, Alias>() {
+                @Override
+                public Alias apply(final String name) {
+                    return new ImAlias(ImAliases.this.heap, name);
+                }
+            }
+        );
+    }
+}
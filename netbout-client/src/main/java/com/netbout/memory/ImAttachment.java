@@ -0,0 +1,164 @@
+/**
+ * Copyright (c) 2009-2016, netbout.com
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are PROHIBITED without prior written permission from
+ * the author. This product may NOT be used anywhere and on any computer
+ * except the server platform of netbout Inc. located at www.netbout.com.
+ * Federal copyright law prohibits unauthorized reproduction by any means
+ * and imposes fines up to $25,000 for violation. If you received
+ * this code accidentally and without intent to use it, please report this
+ * incident to the author by email.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS
+ * "AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT
+ * LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR
+ * A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT
+ * OWNER OR CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL,
+ * SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT
+ * LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE,
+ * DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON
+ * ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY,
+ * OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT
+ * OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF
+ * SUCH DAMAGE.
+ */
+package com.netbout.memory;
+
+import com.jcabi.aspects.Immutable;
+import com.jcabi.aspects.Loggable;
+import com.netbout.spi.Attachment;
+import com.netbout.spi.Attachments;
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.Date;
+import lombok.EqualsAndHashCode;
+import lombok.ToString;
+import org.apache.commons.io.IOUtils;
+
+/**
+ * In-memory attachment.
+ *
+ * @author Yegor Bugayenko (yegor@teamed.io)
+ * @version $Id$
+ * @since 3.0
+ */
+@Immutable
+@ToString
+@Loggable(Loggable.DEBUG)
+@EqualsAndHashCode(of = { "heap", "bout", "self", "label" })
+final class ImAttachment implements Attachment {
+
+    /**
+     * Storage.
+     */
+    private final transient Heap heap;
+
+    /**
+     * Number of the bout.
+     */
+    private final transient long bout;
+
+    /**
+     * Self alias.
+     */
+    private final transient String self;
+
+    /**
+     * Name of it.
+     */
+    private final transient String label;
+
+    /**
+     * Ctor.
+     * @param hep Storage
+     * @param bot Number of the bout
+     * @param slf Self alias
+     * @param name Name of it
+     * @checkstyle ParameterNumberCheck (4 lines)
+     */
+    ImAttachment(final Heap hep, final long bot, final String slf,
+        final String name) {
+        this.heap = hep;
+        this.bout = bot;
+        this.self = slf;
+        this.label = name;
+    }
+
+    @Override
+    public String name() {
+        return this.label;
+    }
+
+    @Override
+    public String ctype() throws IOException {
+        return this.file().ctype();
+    }
+
+    @Override
+    public String etag() throws IOException {
+        return this.file().etag();
+    }
+
+    @Override
+    public boolean unseen() throws IOException {
+        return this.heap.memory().talk(this.bout).unseen(this.self)
+            .contains(this.label);
+    }
+
+    @Override
+    public Date date() throws IOException {
+        return new Date(this.file().date());
+    }
+
+    @Override
+    public String author() throws IOException {
+        return this.file().author();
+    }
+
+    @Override
+    public InputStream read() throws IOException {
+        final InputStream input = new ByteArrayInputStream(
+            this.file().bytes()
+        );
+        this.heap.memory().talk(this.bout).seen(this.label, this.self);
+        return input;
+    }
+
+    @Override
+    public long size() throws IOException {
+        return this.file().size();
+    }
+
+    @Override
+    public void write(final InputStream stream, final String ctype,
+        final String etag) throws IOException {
+        final Memory memory = this.heap.memory();
+        final long stamp = memory.stamp();
+        memory.talk(this.bout).write(
+            new Talk.File(
+                this.label, this.file().author(), ctype, etag,
+                IOUtils.toByteArray(stream), stamp
+            ),
+            this.self, stamp
+        );
+    }
+
+    /**
+     * Get the attachment from memory.
+     * @return Attachment
+     * @throws IOException If it's absent
+     */
+    private Talk.File file() throws IOException {
+        final Talk.File file = this.heap.memory().talk(this.bout)
+            .file(this.label);
+        if (file == null) {
+            throw new Attachments.NotFoundException(
+                String.format("attachment \"%s\" not found", this.label)
+            );
+        }
+        return file;
+    }
+}
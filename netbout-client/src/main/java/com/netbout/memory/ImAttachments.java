@@ -0,0 +1,126 @@
+/**
+ * Copyright (c) 2009-2016, netbout.com
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are PROHIBITED without prior written permission from
+ * the author. This product may NOT be used anywhere and on any computer
+ * except the server platform of netbout Inc. located at www.netbout.com.
+ * Federal copyright law prohibits unauthorized reproduction by any means
+ * and imposes fines up to $25,000 for violation. If you received
+ * this code accidentally and without intent to use it, please report this
+ * incident to the author by email.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS
+ * "AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT
+ * LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR
+ * A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT
+ * OWNER OR CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL,
+ * SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT
+ * LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE,
+ * DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON
+ * ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY,
+ * OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT
+ * OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF
+ * SUCH DAMAGE.
+ */
+package com.netbout.memory;
+
+import com.google.common.base.Function;
+import com.google.common.collect.Iterables;
+import com.jcabi.aspects.Immutable;
+import com.jcabi.aspects.Loggable;
+import com.netbout.spi.Attachment;
+import com.netbout.spi.Attachments;
+import java.io.IOException;
+import lombok.EqualsAndHashCode;
+import lombok.ToString;
+
+/**
+ * In-memory attachments.
+ *
+ * @author Yegor Bugayenko (yegor@teamed.io)
+ * @version $Id$
+ * @since 3.0
+ */
+@Immutable
+@ToString
+@Loggable(Loggable.DEBUG)
+@EqualsAndHashCode(of = { "heap", "bout", "self" })
+final class ImAttachments implements Attachments {
+
+    /**
+     * Storage.
+     */
+    private final transient Heap heap;
+
+    /**
+     * Number of the bout.
+     */
+    private final transient long bout;
+
+    /**
+     * Self alias.
+     */
+    private final transient String self;
+
+    /**
+     * Ctor.
+     * @param hep Storage
+     * @param bot Number of the bout
+     * @param slf Self alias
+     */
+    ImAttachments(final Heap hep, final long bot, final String slf) {
+        this.heap = hep;
+        this.bout = bot;
+        this.self = slf;
+    }
+
+    @Override
+    public int unseen() throws IOException {
+        return this.heap.memory().talk(this.bout).unseen(this.self).size();
+    }
+
+    @Override
+    public void create(final String name) throws IOException {
+        final Memory memory = this.heap.memory();
+        memory.talk(this.bout).create(name, this.self, memory.stamp());
+    }
+
+    @Override
+    public void delete(final String name) throws IOException {
+        if (!this.heap.memory().talk(this.bout).delete(name)) {
+            throw new Attachments.InvalidNameException(
+                String.format(
+                    "attachment \"%s\" not found, can't delete", name
+                )
+            );
+        }
+    }
+
+    @Override
+    public Attachment get(final String name) throws IOException {
+        if (this.heap.memory().talk(this.bout).file(name) == null) {
+            throw new Attachments.NotFoundException(
+                String.format("attachment \"%s\" not found", name)
+            );
+        }
+        return new ImAttachment(this.heap, this.bout, this.self, name);
+    }
+
+    @Override
+    public Iterable<Attachment> iterate() throws IOException {
+        return Iterables.transform(
+            this.heap.memory().talk(this.bout).files(),
+            new Function<String, Attachment>() {
+                @Override
+                public Attachment apply(final String name) {
+                    return new ImAttachment(
+                        ImAttachments.this.heap, ImAttachments.this.bout,
+                        ImAttachments.this.self, name
+                    );
+                }
+            }
+        );
+    }
+}
@@ -0,0 +1,136 @@
+/**
+ * Copyright (c) 2009-2016, netbout.com
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are PROHIBITED without prior written permission from
+ * the author. This product may NOT be used anywhere and on any computer
+ * except the server platform of netbout Inc. located at www.netbout.com.
+ * Federal copyright law prohibits unauthorized reproduction by any means
+ * and imposes fines up to $25,000 for violation. If you received
+ * this code accidentally and without intent to use it, please report this
+ * incident to the author by email.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS
+ * "AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT
+ * LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR
+ * A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT
+ * OWNER OR CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL,
+ * SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT
+ * LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE,
+ * DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON
+ * ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY,
+ * OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT
+ * OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF
+ * SUCH DAMAGE.
+ */
+package com.netbout.memory;
+
+import com.jcabi.aspects.Immutable;
+import com.jcabi.aspects.Loggable;
+import com.netbout.spi.Attachments;
+import com.netbout.spi.Bout;
+import com.netbout.spi.Friends;
+import com.netbout.spi.Messages;
+import java.io.IOException;
+import java.util.Date;
+import lombok.EqualsAndHashCode;
+import lombok.ToString;
+
+/**
+ * In-memory bout.
+ *
+ * @author Yegor Bugayenko (yegor@teamed.io)
+ * @version $Id$
+ * @since 3.0
+ */
+@Immutable
+@ToString
+@Loggable(Loggable.DEBUG)
+@EqualsAndHashCode(of = { "heap", "bout", "self" })
+@SuppressWarnings("PMD.TooManyMethods")
+final class ImBout implements Bout {
+
+    /**
+     * Storage.
+     */
+    private final transient Heap heap;
+
+    /**
+     * Number of the bout.
+     */
+    private final transient long bout;
+
+    /**
+     * Self alias.
+     */
+    private final transient String self;
+
+    /**
+     * Ctor.
+     * @param hep Storage
+     * @param bot Number of the bout
+     * @param slf Self alias
+     */
+    ImBout(final Heap hep, final long bot, final String slf) {
+        this.heap = hep;
+        this.bout = bot;
+        this.self = slf;
+    }
+
+    @Override
+    public long number() {
+        return this.bout;
+    }
+
+    @Override
+    public Date date() throws IOException {
+        return new Date(this.heap.memory().talk(this.bout).date());
+    }
+
+    @Override
+    public Date updated() throws IOException {
+        return new Date(this.heap.memory().talk(this.bout).updated());
+    }
+
+    @Override
+    public String title() throws IOException {
+        return this.heap.memory().talk(this.bout).title();
+    }
+
+    @Override
+    public void rename(final String text) throws IOException {
+        final Memory memory = this.heap.memory();
+        memory.talk(this.bout).rename(text, memory.stamp());
+    }
+
+    @Override
+    public boolean subscription() throws IOException {
+        return this.subscription(this.self);
+    }
+
+    @Override
+    public boolean subscription(final String alias) throws IOException {
+        return this.heap.memory().talk(this.bout).subscription(alias);
+    }
+
+    @Override
+    public void subscribe(final boolean subs) throws IOException {
+        this.heap.memory().talk(this.bout).subscribe(this.self, subs);
+    }
+
+    @Override
+    public Messages messages() {
+        return new ImMessages(this.heap, this.bout, this.self, Long.MAX_VALUE);
+    }
+
+    @Override
+    public Friends friends() {
+        return new Friends.ValidFriends(new ImFriends(this.heap, this.bout));
+    }
+
+    @Override
+    public Attachments attachments() {
+        return new ImAttachments(this.heap, this.bout, this.self);
+    }
+}
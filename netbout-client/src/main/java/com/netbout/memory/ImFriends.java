@@ -0,0 +1,105 @@
+/**
+ * Copyright (c) 2009-2016, netbout.com
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are PROHIBITED without prior written permission from
+ * the author. This product may NOT be used anywhere and on any computer
+ * except the server platform of netbout Inc. located at www.netbout.com.
+ * Federal copyright law prohibits unauthorized reproduction by any means
+ * and imposes fines up to $25,000 for violation. If you received
+ * this code accidentally and without intent to use it, please report this
+ * incident to the author by email.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS
+ * "AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT
+ * LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR
+ * A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT
+ * OWNER OR CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL,
+ * SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT
+ * LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE,
+ * DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON
+ * ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY,
+ * OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT
+ * OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF
+ * SUCH DAMAGE.
+ */
+package com.netbout.memory;
+
+import com.google.common.base.Function;
+import com.google.common.collect.Iterables;
+import com.jcabi.aspects.Immutable;
+import com.jcabi.aspects.Loggable;
+import com.netbout.spi.Friend;
+import com.netbout.spi.Friends;
+import java.io.IOException;
+import lombok.EqualsAndHashCode;
+import lombok.ToString;
+
+/**
+ * In-memory friends.
+ *
+ * @author Yegor Bugayenko (yegor@teamed.io)
+ * @version $Id$
+ * @since 3.0
+ */
+@Immutable
+@ToString
+@Loggable(Loggable.DEBUG)
+@EqualsAndHashCode(of = { "heap", "bout" })
+final class ImFriends implements Friends {
+
+    /**
+     * Storage.
+     */
+    private final transient Heap heap;
+
+    /**
+     * Number of the bout.
+     */
+    private final transient long bout;
+
+    /**
+     * Ctor.
+     * @param hep Storage
+     * @param bot Number of the bout
+     */
+    ImFriends(final Heap hep, final long bot) {
+        this.heap = hep;
+        this.bout = bot;
+    }
+
+    @Override
+    public void invite(final String friend) throws IOException {
+        final Memory memory = this.heap.memory();
+        if (!memory.exists(friend)) {
+            throw new Friends.UnknownAliasException(
+                String.format("alias '%s' doesn't exist", friend)
+            );
+        }
+        memory.talk(this.bout).join(friend);
+        memory.profile(friend).bouts().add(this.bout);
+    }
+
+    @Override
+    public void kick(final String friend) throws IOException {
+        final Memory memory = this.heap.memory();
+        memory.talk(this.bout).leave(friend);
+        if (memory.exists(friend)) {
+            memory.profile(friend).bouts().remove(this.bout);
+        }
+    }
+
+    @Override
+    public Iterable<Friend> iterate() throws IOException {
+        return Iterables.transform(
+            this.heap.memory().talk(this.bout).friends(),
+            new Function<String, Friend>() {
+                @Override
+                public Friend apply(final String alias) {
+                    return new ImFriend(ImFriends.this.heap, alias);
+                }
+            }
+        );
+    }
+}
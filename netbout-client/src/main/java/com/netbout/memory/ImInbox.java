@@ -0,0 +1,191 @@
+/**
+ * Copyright (c) 2009-2016, netbout.com
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are PROHIBITED without prior written permission from
+ * the author. This product may NOT be used anywhere and on any computer
+ * except the server platform of netbout Inc. located at www.netbout.com.
+ * Federal copyright law prohibits unauthorized reproduction by any means
+ * and imposes fines up to $25,000 for violation. If you received
+ * this code accidentally and without intent to use it, please report this
+ * incident to the author by email.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS
+ * "AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT
+ * LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR
+ * A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT
+ * OWNER OR CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL,
+ * SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT
+ * LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE,
+ * DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON
+ * ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY,
+ * OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT
+ * OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF
+ * SUCH DAMAGE.
+ */
+package com.netbout.memory;
+
+import com.google.common.base.Function;
+import com.google.common.collect.Collections2;
+import com.jcabi.aspects.Immutable;
+import com.jcabi.aspects.Loggable;
+import com.netbout.spi.Bout;
+import com.netbout.spi.Inbox;
+import com.netbout.spi.Pageable;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import lombok.EqualsAndHashCode;
+import lombok.ToString;
+
+/**
+ * In-memory inbox.
+ *
+ * <p>Bouts are ordered by the time of their latest updates, the latest
+ * first, and paged by that time, the way the DynamoDB inbox does it.
+ *
+ * @author Yegor Bugayenko (yegor@teamed.io)
+ * @version $Id$
+ * @since 3.0
+ */
+@Immutable
+@ToString
+@Loggable(Loggable.DEBUG)
+@EqualsAndHashCode(of = { "heap", "self", "since" })
+final class ImInbox implements Inbox {
+
+    /**
+     * Storage.
+     */
+    private final transient Heap heap;
+
+    /**
+     * Self alias.
+     */
+    private final transient String self;
+
+    /**
+     * Show bouts updated before this time.
+     */
+    private final transient long since;
+
+    /**
+     * Ctor.
+     * @param hep Storage
+     * @param name Self alias
+     * @param time Show bouts updated before this time
+     */
+    ImInbox(final Heap hep, final String name, final long time) {
+        this.heap = hep;
+        this.self = name;
+        this.since = time;
+    }
+
+    @Override
+    public long start() throws IOException {
+        final long number = this.heap.memory().start();
+        this.bout(number).friends().invite(this.self);
+        return number;
+    }
+
+    @Override
+    public long unread() throws IOException {
+        final Memory memory = this.heap.memory();
+        long total = 0L;
+        for (final Long number : memory.profile(this.self).bouts()) {
+            total += memory.talk(number).unread(this.self);
+        }
+        return total;
+    }
+
+    @Override
+    public Bout bout(final long number) throws Inbox.BoutNotFoundException {
+        this.heap.memory().talk(number);
+        return new ImBout(this.heap, number, this.self);
+    }
+
+    @Override
+    public Pageable<Bout> jump(final long number) {
+        return new ImInbox(this.heap, this.self, number);
+    }
+
+    @Override
+    public Iterable<Bout> iterate() throws IOException {
+        return this.bouts(this.talks().values());
+    }
+
+    @Override
+    public Pageable.Page<Bout> page(final int size) throws IOException {
+        final List<Map.Entry<Long, Talk>> talks = new ArrayList<>(
+            this.talks().entrySet()
+        );
+        long next = Pageable.Page.END;
+        final int total = Math.min(size, talks.size());
+        if (talks.size() > size && size > 0) {
+            next = talks.get(size - 1).getKey();
+        }
+        final Collection<Talk> items = new ArrayList<>(total);
+        for (final Map.Entry<Long, Talk> entry : talks.subList(0, total)) {
+            items.add(entry.getValue());
+        }
+        return new Pageable.Page<>(this.bouts(items), next);
+    }
+
+    @Override
+    public Iterable<Bout> search(final String term) throws IOException {
+        final Collection<Talk> found = new ArrayList<>(0);
+        for (final Talk talk : this.talks().values()) {
+            if (talk.title().contains(term)
+                || !talk.search(term).isEmpty()) {
+                found.add(talk);
+            }
+        }
+        return this.bouts(found);
+    }
+
+    /**
+     * Bouts of the alias updated before the time, the latest first.
+     * @return Bouts by their update times
+     * @throws IOException If fails
+     */
+    private Map<Long, Talk> talks() throws IOException {
+        final Memory memory = this.heap.memory();
+        final Map<Long, Talk> talks = new TreeMap<>(
+            Collections.reverseOrder()
+        );
+        for (final Long number : memory.profile(this.self).bouts()) {
+            final Talk talk = memory.talk(number);
+            final long updated = talk.updated();
+            if (updated < this.since) {
+                talks.put(updated, talk);
+            }
+        }
+        return talks;
+    }
+
+    /**
+     * Turn them into bouts.
+     * @param talks Bouts in memory
+     * @return Bouts
+     */
+    private Iterable<Bout> bouts(final Collection<Talk> talks) {
+        return new ArrayList<>(
+            Collections2.transform(
+                talks,
+                new Function<Talk, Bout>() {
+                    @Override
+                    public Bout apply(final Talk talk) {
+                        return new ImBout(
+                            ImInbox.this.heap, talk.number(), ImInbox.this.self
+                        );
+                    }
+                }
+            )
+        );
+    }
+}
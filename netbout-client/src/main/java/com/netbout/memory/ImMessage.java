@@ -0,0 +1,99 @@
+/**
+ * Copyright (c) 2009-2016, netbout.com
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are PROHIBITED without prior written permission from
+ * the author. This product may NOT be used anywhere and on any computer
+ * except the server platform of netbout Inc. located at www.netbout.com.
+ * Federal copyright law prohibits unauthorized reproduction by any means
+ * and imposes fines up to $25,000 for violation. If you received
+ * this code accidentally and without intent to use it, please report this
+ * incident to the author by email.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS
+ * "AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT
+ * LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR
+ * A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT
+ * OWNER OR CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL,
+ * SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT
+ * LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE,
+ * DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON
+ * ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY,
+ * OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT
+ * OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF
+ * SUCH DAMAGE.
+ */
+package com.netbout.memory;
+
+import com.jcabi.aspects.Immutable;
+import com.jcabi.aspects.Loggable;
+import com.netbout.spi.Message;
+import java.util.Date;
+import lombok.EqualsAndHashCode;
+import lombok.ToString;
+
+/**
+ * In-memory message.
+ *
+ * @author Yegor Bugayenko (yegor@teamed.io)
+ * @version $Id$
+ * @since 3.0
+ */
+@Immutable
+@ToString
+@Loggable(Loggable.DEBUG)
+@EqualsAndHashCode(of = "num")
+final class ImMessage implements Message {
+
+    /**
+     * Number of it.
+     */
+    private final transient long num;
+
+    /**
+     * Date of posting.
+     */
+    private final transient long posted;
+
+    /**
+     * Text.
+     */
+    private final transient String content;
+
+    /**
+     * Author.
+     */
+    private final transient String alias;
+
+    /**
+     * Ctor.
+     * @param post Message in memory
+     */
+    ImMessage(final Talk.Post post) {
+        this.num = post.number();
+        this.posted = post.date();
+        this.content = post.text();
+        this.alias = post.author();
+    }
+
+    @Override
+    public long number() {
+        return this.num;
+    }
+
+    @Override
+    public Date date() {
+        return new Date(this.posted);
+    }
+
+    @Override
+    public String text() {
+        return this.content;
+    }
+
+    @Override
+    public String author() {
+        return this.alias;
+    }
+}
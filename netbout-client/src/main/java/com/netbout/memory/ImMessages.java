@@ -0,0 +1,155 @@
+/**
+ * Copyright (c) 2009-2016, netbout.com
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are PROHIBITED without prior written permission from
+ * the author. This product may NOT be used anywhere and on any computer
+ * except the server platform of netbout Inc. located at www.netbout.com.
+ * Federal copyright law prohibits unauthorized reproduction by any means
+ * and imposes fines up to $25,000 for violation. If you received
+ * this code accidentally and without intent to use it, please report this
+ * incident to the author by email.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS
+ * "AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT
+ * LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR
+ * A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT
+ * OWNER OR CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL,
+ * SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT
+ * LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE,
+ * DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON
+ * ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY,
+ * OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT
+ * OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF
+ * SUCH DAMAGE.
+ */
+package com.netbout.memory;
+
+import com.google.common.base.Function;
+import com.google.common.collect.Lists;
+import com.jcabi.aspects.Immutable;
+import com.jcabi.aspects.Loggable;
+import com.netbout.spi.Message;
+import com.netbout.spi.Messages;
+import com.netbout.spi.Pageable;
+import java.io.IOException;
+import java.util.List;
+import lombok.EqualsAndHashCode;
+import lombok.ToString;
+
+/**
+ * In-memory messages.
+ *
+ * <p>Messages are numbered in every bout, starting from one, and listed
+ * the latest first. Reading them resets the unread counter of self.
+ *
+ * @author Yegor Bugayenko (yegor@teamed.io)
+ * @version $Id$
+ * @since 3.0
+ */
+@Immutable
+@ToString
+@Loggable(Loggable.DEBUG)
+@EqualsAndHashCode(of = { "heap", "bout", "self", "start" })
+final class ImMessages implements Messages {
+
+    /**
+     * Storage.
+     */
+    private final transient Heap heap;
+
+    /**
+     * Number of the bout.
+     */
+    private final transient long bout;
+
+    /**
+     * Self alias.
+     */
+    private final transient String self;
+
+    /**
+     * Show messages with numbers below this one.
+     */
+    private final transient long start;
+
+    /**
+     * Ctor.
+     * @param hep Storage
+     * @param bot Number of the bout
+     * @param slf Self alias
+     * @param number Show messages with numbers below this one
+     * @checkstyle ParameterNumberCheck (4 lines)
+     */
+    ImMessages(final Heap hep, final long bot, final String slf,
+        final long number) {
+        this.heap = hep;
+        this.bout = bot;
+        this.self = slf;
+        this.start = number;
+    }
+
+    @Override
+    public void post(final String text) throws IOException {
+        final Memory memory = this.heap.memory();
+        memory.talk(this.bout).post(this.self, text, memory.stamp());
+    }
+
+    @Override
+    public long unread() throws IOException {
+        return this.heap.memory().talk(this.bout).unread(this.self);
+    }
+
+    @Override
+    public Pageable<Message> jump(final long number) {
+        return new ImMessages(this.heap, this.bout, this.self, number);
+    }
+
+    @Override
+    public Iterable<Message> iterate() throws IOException {
+        return ImMessages.messages(
+            this.heap.memory().talk(this.bout).read(
+                this.self, this.start, Integer.MAX_VALUE
+            )
+        );
+    }
+
+    @Override
+    public Pageable.Page<Message> page(final int size) throws IOException {
+        final List<Talk.Post> posts = this.heap.memory().talk(this.bout)
+            .read(this.self, this.start, size + 1);
+        long next = Pageable.Page.END;
+        final int total = Math.min(size, posts.size());
+        if (posts.size() > size && size > 0) {
+            next = posts.get(size - 1).number();
+        }
+        return new Pageable.Page<>(
+            ImMessages.messages(posts.subList(0, total)), next
+        );
+    }
+
+    @Override
+    public Iterable<Message> search(final String term) throws IOException {
+        return ImMessages.messages(
+            this.heap.memory().talk(this.bout).search(term)
+        );
+    }
+
+    /**
+     * Turn them into messages.
+     * @param posts Messages in memory
+     * @return Messages
+     */
+    private static List<Message> messages(final List<Talk.Post> posts) {
+        return Lists.transform(
+            posts,
+            new Function<Talk.Post, Message>() {
+                @Override
+                public Message apply(final Talk.Post post) {
+                    return new ImMessage(post);
+                }
+            }
+        );
+    }
+}
@@ -0,0 +1,113 @@
+/**
+ * Copyright (c) 2009-2016, netbout.com
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are PROHIBITED without prior written permission from
+ * the author. This product may NOT be used anywhere and on any computer
+ * except the server platform of netbout Inc. located at www.netbout.com.
+ * Federal copyright law prohibits unauthorized reproduction by any means
+ * and imposes fines up to $25,000 for violation. If you received
+ * this code accidentally and without intent to use it, please report this
+ * incident to the author by email.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS
+ * "AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT
+ * LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR
+ * A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT
+ * OWNER OR CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL,
+ * SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT
+ * LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE,
+ * DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON
+ * ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY,
+ * OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT
+ * OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF
+ * SUCH DAMAGE.
+ */
+package com.netbout.memory;
+
+import com.google.common.base.Function;
+import com.google.common.collect.Iterables;
+import com.jcabi.aspects.Immutable;
+import com.jcabi.aspects.Loggable;
+import com.netbout.spi.Aliases;
+import com.netbout.spi.Friend;
+import com.netbout.spi.User;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import lombok.EqualsAndHashCode;
+import lombok.ToString;
+
+/**
+ * In-memory user.
+ *
+ * @author Yegor Bugayenko (yegor@teamed.io)
+ * @version $Id$
+ * @since 3.0
+ */
+@Immutable
+@ToString
+@Loggable(Loggable.DEBUG)
+@EqualsAndHashCode(of = { "heap", "urn" })
+final class ImUser implements User {
+
+    /**
+     * Maximum number of suggested friends.
+     */
+    private static final int SUGGESTIONS = 10;
+
+    /**
+     * Shorter names first, then alphabetically.
+     */
+    private static final Comparator<String> RANK = new Comparator<String>() {
+        @Override
+        public int compare(final String left, final String right) {
+            int diff = Integer.compare(left.length(), right.length());
+            if (diff == 0) {
+                diff = left.compareTo(right);
+            }
+            return diff;
+        }
+    };
+
+    /**
+     * Storage.
+     */
+    private final transient Heap heap;
+
+    /**
+     * URN of the user.
+     */
+    private final transient String urn;
+
+    /**
+     * Ctor.
+     * @param hep Storage
+     * @param name URN of the user
+     */
+    ImUser(final Heap hep, final String name) {
+        this.heap = hep;
+        this.urn = name;
+    }
+
+    @Override
+    public Aliases aliases() {
+        return new ImAliases(this.heap, this.urn);
+    }
+
+    @Override
+    public Iterable<Friend> friends(final String text) {
+        final List<String> names = this.heap.memory().starting(text);
+        Collections.sort(names, ImUser.RANK);
+        return Iterables.transform(
+            names.subList(0, Math.min(names.size(), ImUser.SUGGESTIONS)),
+            new Function<String, Friend>() {
+                @Override
+                public Friend apply(final String name) {
+                    return new ImFriend(ImUser.this.heap, name);
+                }
+            }
+        );
+    }
+}
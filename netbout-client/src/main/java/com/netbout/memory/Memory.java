@@ -0,0 +1,321 @@
+/**
+ * Copyright (c) 2009-2016, netbout.com
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are PROHIBITED without prior written permission from
+ * the author. This product may NOT be used anywhere and on any computer
+ * except the server platform of netbout Inc. located at www.netbout.com.
+ * Federal copyright law prohibits unauthorized reproduction by any means
+ * and imposes fines up to $25,000 for violation. If you received
+ * this code accidentally and without intent to use it, please report this
+ * incident to the author by email.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS
+ * "AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT
+ * LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR
+ * A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT
+ * OWNER OR CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL,
+ * SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT
+ * LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE,
+ * DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON
+ * ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY,
+ * OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT
+ * OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF
+ * SUCH DAMAGE.
+ */
+package com.netbout.memory;
+
+import com.google.common.util.concurrent.Striped;
+import com.netbout.spi.Alias;
+import com.netbout.spi.Inbox;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ConcurrentNavigableMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReadWriteLock;
+
+/**
+ * In-memory storage of aliases and bouts.
+ *
+ * <p>Aliases live in concurrent maps, by name and by URN of the owner.
+ * Every bout is a {@link Talk}, guarded by one of {@link #STRIPES}
+ * read-write locks, picked by its number: operations in different
+ * bouts rarely wait for each other, while the number of locks
+ * doesn't grow with the number of bouts.
+ *
+ * @author Yegor Bugayenko (yegor@teamed.io)
+ * @version $Id$
+ * @since 3.0
+ */
+final class Memory {
+
+    /**
+     * Number of lock stripes.
+     */
+    private static final int STRIPES = 64;
+
+    /**
+     * Aliases by names, sorted.
+     */
+    private final transient ConcurrentNavigableMap<String, Memory.Profile>
+        profiles;
+
+    /**
+     * Names of aliases by URNs of their owners.
+     */
+    private final transient ConcurrentMap<String, Collection<String>> owners;
+
+    /**
+     * Bouts by numbers.
+     */
+    private final transient ConcurrentMap<Long, Talk> talks;
+
+    /**
+     * Sequence of bout numbers.
+     */
+    private final transient AtomicLong sequence;
+
+    /**
+     * Last time stamp given.
+     */
+    private final transient AtomicLong clock;
+
+    /**
+     * Locks of bouts.
+     */
+    private final transient Striped<ReadWriteLock> locks;
+
+    /**
+     * Ctor.
+     */
+    Memory() {
+        this.profiles = new ConcurrentSkipListMap<>();
+        this.owners = new ConcurrentHashMap<>(0);
+        this.talks = new ConcurrentHashMap<>(0);
+        this.sequence = new AtomicLong();
+        this.clock = new AtomicLong();
+        this.locks = Striped.readWriteLock(Memory.STRIPES);
+    }
+
+    /**
+     * Register a new alias.
+     * @param name Name of the alias
+     * @param urn URN of the owner
+     * @return TRUE if registered, FALSE if the name is occupied
+     */
+    public boolean register(final String name, final String urn) {
+        final boolean added = this.profiles.putIfAbsent(
+            name, new Memory.Profile(name, urn)
+        ) == null;
+        if (added) {
+            this.owners.putIfAbsent(
+                urn,
+                Collections.newSetFromMap(
+                    new ConcurrentHashMap<String, Boolean>(1)
+                )
+            );
+            this.owners.get(urn).add(name);
+        }
+        return added;
+    }
+
+    /**
+     * Alias exists?
+     * @param name Name of the alias
+     * @return TRUE if it exists
+     */
+    public boolean exists(final String name) {
+        return this.profiles.containsKey(name);
+    }
+
+    /**
+     * Get an alias.
+     * @param name Name of the alias
+     * @return Alias
+     */
+    public Memory.Profile profile(final String name) {
+        final Memory.Profile profile = this.profiles.get(name);
+        if (profile == null) {
+            throw new IllegalArgumentException(
+                String.format("alias '%s' doesn't exist", name)
+            );
+        }
+        return profile;
+    }
+
+    /**
+     * Names of all aliases of the owner.
+     * @param urn URN of the owner
+     * @return Names
+     */
+    public Collection<String> names(final String urn) {
+        final Collection<String> names = this.owners.get(urn);
+        final Collection<String> list;
+        if (names == null) {
+            list = Collections.emptyList();
+        } else {
+            list = new ArrayList<>(names);
+        }
+        return list;
+    }
+
+    /**
+     * Names of aliases, starting with the prefix, in their natural order.
+     * @param prefix Prefix
+     * @return Names
+     */
+    public List<String> starting(final String prefix) {
+        final List<String> names = new ArrayList<>(0);
+        for (final String name
+            : this.profiles.tailMap(prefix).keySet()) {
+            if (!name.startsWith(prefix)) {
+                break;
+            }
+            names.add(name);
+        }
+        return names;
+    }
+
+    /**
+     * Start a new bout.
+     * @return Its number
+     */
+    public long start() {
+        final long number = this.sequence.incrementAndGet();
+        this.talks.put(
+            number,
+            new Talk(number, this.locks.get(number), this.stamp())
+        );
+        return number;
+    }
+
+    /**
+     * Get a bout.
+     * @param number Number of the bout
+     * @return Bout
+     * @throws Inbox.BoutNotFoundException If it's absent
+     */
+    public Talk talk(final long number) throws Inbox.BoutNotFoundException {
+        final Talk talk = this.talks.get(number);
+        if (talk == null) {
+            throw new Inbox.BoutNotFoundException(number);
+        }
+        return talk;
+    }
+
+    /**
+     * Make a new time stamp, in milliseconds.
+     *
+     * <p>Stamps are strictly growing, even inside one millisecond, in order
+     * to order bouts by the time of their updates without ties.
+     *
+     * @return Stamp
+     */
+    public long stamp() {
+        final long now = System.currentTimeMillis();
+        long last;
+        long next;
+        do {
+            last = this.clock.get();
+            next = Math.max(now, last + 1L);
+        } while (!this.clock.compareAndSet(last, next));
+        return next;
+    }
+
+    /**
+     * One alias.
+     */
+    static final class Profile {
+        /**
+         * Name of it.
+         */
+        private final transient String label;
+        /**
+         * URN of the owner.
+         */
+        private final transient String owner;
+        /**
+         * Numbers of bouts it is in.
+         */
+        private final transient Set<Long> numbers;
+        /**
+         * Photo.
+         */
+        private transient volatile String image;
+        /**
+         * Email.
+         */
+        private transient volatile String mail;
+        /**
+         * Ctor.
+         * @param name Name of the alias
+         * @param urn URN of the owner
+         */
+        Profile(final String name, final String urn) {
+            this.label = name;
+            this.owner = urn;
+            this.numbers = Collections.newSetFromMap(
+                new ConcurrentHashMap<Long, Boolean>(0)
+            );
+            this.image = Alias.BLANK.toString();
+            this.mail = "test@example.com";
+        }
+        /**
+         * Name of it.
+         * @return Name
+         */
+        public String name() {
+            return this.label;
+        }
+        /**
+         * URN of the owner.
+         * @return URN
+         */
+        public String urn() {
+            return this.owner;
+        }
+        /**
+         * Numbers of bouts it is in, live.
+         * @return Numbers
+         */
+        public Set<Long> bouts() {
+            return this.numbers;
+        }
+        /**
+         * Photo.
+         * @return URI of the photo
+         */
+        public String photo() {
+            return this.image;
+        }
+        /**
+         * Change photo.
+         * @param uri URI of the photo
+         */
+        public void photo(final String uri) {
+            this.image = uri;
+        }
+        /**
+         * Email.
+         * @return Email
+         */
+        public String email() {
+            return this.mail;
+        }
+        /**
+         * Change email.
+         * @param email Email
+         */
+        public void email(final String email) {
+            this.mail = email;
+        }
+    }
+
+}
@@ -0,0 +1,682 @@
+/**
+ * Copyright (c) 2009-2016, netbout.com
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are PROHIBITED without prior written permission from
+ * the author. This product may NOT be used anywhere and on any computer
+ * except the server platform of netbout Inc. located at www.netbout.com.
+ * Federal copyright law prohibits unauthorized reproduction by any means
+ * and imposes fines up to $25,000 for violation. If you received
+ * this code accidentally and without intent to use it, please report this
+ * incident to the author by email.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS
+ * "AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT
+ * LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR
+ * A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT
+ * OWNER OR CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL,
+ * SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT
+ * LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE,
+ * DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON
+ * ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY,
+ * OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT
+ * OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF
+ * SUCH DAMAGE.
+ */
+package com.netbout.memory;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReadWriteLock;
+
+/**
+ * One bout in memory.
+ *
+ * <p>All the state of the bout, including friends, their unread counters
+ * and unseen attachments, messages and attachments, is in plain
+ * collections, guarded by the lock given by {@link Memory}. Messages and
+ * attachments are immutable, so they are safe to return outside of the
+ * lock.
+ *
+ * @author Yegor Bugayenko (yegor@teamed.io)
+ * @version $Id$
+ * @since 3.0
+ */
+@SuppressWarnings("PMD.TooManyMethods")
+final class Talk {
+
+    /**
+     * Number of the bout.
+     */
+    private final transient long number;
+
+    /**
+     * Date of creation.
+     */
+    private final transient long created;
+
+    /**
+     * The lock.
+     */
+    private final transient ReadWriteLock lock;
+
+    /**
+     * Friends, in the order of their invitations.
+     */
+    private final transient Map<String, Talk.Member> members;
+
+    /**
+     * Messages, in the order of their numbers, starting from one.
+     */
+    private final transient List<Talk.Post> posts;
+
+    /**
+     * Attachments, by names.
+     */
+    private final transient Map<String, Talk.File> files;
+
+    /**
+     * Title.
+     */
+    private transient String label;
+
+    /**
+     * Stamp of the latest update.
+     */
+    private transient long touched;
+
+    /**
+     * Ctor.
+     * @param num Number of the bout
+     * @param lck Lock
+     * @param stamp Stamp of creation
+     */
+    Talk(final long num, final ReadWriteLock lck, final long stamp) {
+        this.number = num;
+        this.lock = lck;
+        this.created = stamp;
+        this.touched = stamp;
+        this.label = "untitled";
+        this.members = new LinkedHashMap<>(0);
+        this.posts = new ArrayList<>(0);
+        this.files = new TreeMap<>();
+    }
+
+    /**
+     * Number of it.
+     * @return Number
+     */
+    public long number() {
+        return this.number;
+    }
+
+    /**
+     * Date of creation.
+     * @return Milliseconds
+     */
+    public long date() {
+        return this.created;
+    }
+
+    /**
+     * Stamp of the latest update.
+     * @return Milliseconds
+     */
+    public long updated() {
+        final Lock rlock = this.lock.readLock();
+        rlock.lock();
+        try {
+            return this.touched;
+        } finally {
+            rlock.unlock();
+        }
+    }
+
+    /**
+     * Title.
+     * @return Title
+     */
+    public String title() {
+        final Lock rlock = this.lock.readLock();
+        rlock.lock();
+        try {
+            return this.label;
+        } finally {
+            rlock.unlock();
+        }
+    }
+
+    /**
+     * Change title.
+     * @param text Title
+     * @param stamp Stamp of the update
+     */
+    public void rename(final String text, final long stamp) {
+        final Lock wlock = this.lock.writeLock();
+        wlock.lock();
+        try {
+            this.label = text;
+            this.touch(stamp);
+        } finally {
+            wlock.unlock();
+        }
+    }
+
+    /**
+     * Add a friend, unless already there.
+     * @param alias Alias of the friend
+     */
+    public void join(final String alias) {
+        final Lock wlock = this.lock.writeLock();
+        wlock.lock();
+        try {
+            if (!this.members.containsKey(alias)) {
+                this.members.put(alias, new Talk.Member());
+            }
+        } finally {
+            wlock.unlock();
+        }
+    }
+
+    /**
+     * Remove a friend.
+     * @param alias Alias of the friend
+     */
+    public void leave(final String alias) {
+        final Lock wlock = this.lock.writeLock();
+        wlock.lock();
+        try {
+            this.members.remove(alias);
+        } finally {
+            wlock.unlock();
+        }
+    }
+
+    /**
+     * Aliases of all friends.
+     * @return Aliases
+     */
+    public List<String> friends() {
+        final Lock rlock = this.lock.readLock();
+        rlock.lock();
+        try {
+            return new ArrayList<>(this.members.keySet());
+        } finally {
+            rlock.unlock();
+        }
+    }
+
+    /**
+     * Is the friend subscribed?
+     * @param alias Alias of the friend
+     * @return TRUE if subscribed, FALSE if not or not a friend
+     */
+    public boolean subscription(final String alias) {
+        final Lock rlock = this.lock.readLock();
+        rlock.lock();
+        try {
+            final Talk.Member member = this.members.get(alias);
+            return member != null && member.subscribed;
+        } finally {
+            rlock.unlock();
+        }
+    }
+
+    /**
+     * Subscribe or unsubscribe the friend.
+     * @param alias Alias of the friend
+     * @param subs TRUE to subscribe
+     */
+    public void subscribe(final String alias, final boolean subs) {
+        final Lock wlock = this.lock.writeLock();
+        wlock.lock();
+        try {
+            final Talk.Member member = this.members.get(alias);
+            if (member != null) {
+                member.subscribed = subs;
+            }
+        } finally {
+            wlock.unlock();
+        }
+    }
+
+    /**
+     * Number of messages unread by the friend.
+     * @param alias Alias of the friend
+     * @return Number of them
+     */
+    public long unread(final String alias) {
+        final Lock rlock = this.lock.readLock();
+        rlock.lock();
+        try {
+            final Talk.Member member = this.members.get(alias);
+            long unread = 0L;
+            if (member != null) {
+                unread = member.unread;
+            }
+            return unread;
+        } finally {
+            rlock.unlock();
+        }
+    }
+
+    /**
+     * Post a new message.
+     *
+     * <p>Every friend, except the author, gets one more unread message.
+     *
+     * @param author Alias of the author
+     * @param text Text of the message
+     * @param stamp Stamp of the update
+     */
+    public void post(final String author, final String text,
+        final long stamp) {
+        final Lock wlock = this.lock.writeLock();
+        wlock.lock();
+        try {
+            this.posts.add(
+                new Talk.Post(this.posts.size() + 1, author, text, stamp)
+            );
+            for (final Map.Entry<String, Talk.Member> entry
+                : this.members.entrySet()) {
+                if (!entry.getKey().equals(author)) {
+                    ++entry.getValue().unread;
+                }
+            }
+            this.touch(stamp);
+        } finally {
+            wlock.unlock();
+        }
+    }
+
+    /**
+     * Read messages, the latest first, and reset the unread counter of
+     * the reader.
+     * @param reader Alias of the reader
+     * @param before Number of the message to start after
+     * @param size Maximum number of messages
+     * @return Messages
+     */
+    public List<Talk.Post> read(final String reader, final long before,
+        final int size) {
+        final Lock wlock = this.lock.writeLock();
+        wlock.lock();
+        try {
+            final Talk.Member member = this.members.get(reader);
+            if (member != null) {
+                member.unread = 0L;
+            }
+            final int top = (int) Math.min(before - 1L, this.posts.size());
+            final List<Talk.Post> list = new ArrayList<>(
+                Math.max(0, Math.min(top, size))
+            );
+            for (int idx = top - 1; idx >= 0 && list.size() < size; --idx) {
+                list.add(this.posts.get(idx));
+            }
+            return list;
+        } finally {
+            wlock.unlock();
+        }
+    }
+
+    /**
+     * Find messages with the text, the latest first.
+     * @param term Text to find
+     * @return Messages
+     */
+    public List<Talk.Post> search(final String term) {
+        final Lock rlock = this.lock.readLock();
+        rlock.lock();
+        try {
+            final List<Talk.Post> list = new ArrayList<>(0);
+            for (int idx = this.posts.size() - 1; idx >= 0; --idx) {
+                final Talk.Post post = this.posts.get(idx);
+                if (post.text().contains(term)) {
+                    list.add(post);
+                }
+            }
+            return list;
+        } finally {
+            rlock.unlock();
+        }
+    }
+
+    /**
+     * Create an empty attachment, unless it exists.
+     * @param name Name of it
+     * @param author Alias of the author
+     * @param stamp Stamp of creation
+     */
+    public void create(final String name, final String author,
+        final long stamp) {
+        final Lock wlock = this.lock.writeLock();
+        wlock.lock();
+        try {
+            if (!this.files.containsKey(name)) {
+                this.files.put(
+                    name,
+                    new Talk.File(
+                        name, author, "text/plain", "000", new byte[0], stamp
+                    )
+                );
+            }
+        } finally {
+            wlock.unlock();
+        }
+    }
+
+    /**
+     * Delete an attachment.
+     * @param name Name of it
+     * @return TRUE if it was there
+     */
+    public boolean delete(final String name) {
+        final Lock wlock = this.lock.writeLock();
+        wlock.lock();
+        try {
+            final boolean deleted = this.files.remove(name) != null;
+            if (deleted) {
+                for (final Talk.Member member : this.members.values()) {
+                    member.unseen.remove(name);
+                }
+            }
+            return deleted;
+        } finally {
+            wlock.unlock();
+        }
+    }
+
+    /**
+     * Get an attachment.
+     * @param name Name of it
+     * @return Attachment or NULL if it's absent
+     */
+    public Talk.File file(final String name) {
+        final Lock rlock = this.lock.readLock();
+        rlock.lock();
+        try {
+            return this.files.get(name);
+        } finally {
+            rlock.unlock();
+        }
+    }
+
+    /**
+     * Names of all attachments, sorted.
+     * @return Names
+     */
+    public List<String> files() {
+        final Lock rlock = this.lock.readLock();
+        rlock.lock();
+        try {
+            return new ArrayList<>(this.files.keySet());
+        } finally {
+            rlock.unlock();
+        }
+    }
+
+    /**
+     * Replace the content of an attachment.
+     *
+     * <p>It becomes unseen by every friend, except the writer.
+     *
+     * @param file New attachment
+     * @param writer Alias of the writer
+     * @param stamp Stamp of the update
+     */
+    public void write(final Talk.File file, final String writer,
+        final long stamp) {
+        final Lock wlock = this.lock.writeLock();
+        wlock.lock();
+        try {
+            this.files.put(file.name(), file);
+            for (final Map.Entry<String, Talk.Member> entry
+                : this.members.entrySet()) {
+                if (!entry.getKey().equals(writer)) {
+                    entry.getValue().unseen.add(file.name());
+                }
+            }
+            this.touch(stamp);
+        } finally {
+            wlock.unlock();
+        }
+    }
+
+    /**
+     * The attachment is seen by the friend.
+     * @param name Name of the attachment
+     * @param alias Alias of the friend
+     */
+    public void seen(final String name, final String alias) {
+        final Lock wlock = this.lock.writeLock();
+        wlock.lock();
+        try {
+            final Talk.Member member = this.members.get(alias);
+            if (member != null) {
+                member.unseen.remove(name);
+            }
+        } finally {
+            wlock.unlock();
+        }
+    }
+
+    /**
+     * Names of attachments unseen by the friend.
+     * @param alias Alias of the friend
+     * @return Names
+     */
+    public Collection<String> unseen(final String alias) {
+        final Lock rlock = this.lock.readLock();
+        rlock.lock();
+        try {
+            final Talk.Member member = this.members.get(alias);
+            final Collection<String> names = new HashSet<>(0);
+            if (member != null) {
+                names.addAll(member.unseen);
+            }
+            return names;
+        } finally {
+            rlock.unlock();
+        }
+    }
+
+    /**
+     * Move the stamp of the latest update, must be called under the
+     * write lock.
+     * @param stamp Stamp of the update
+     */
+    private void touch(final long stamp) {
+        this.touched = Math.max(this.touched, stamp);
+    }
+
+    /**
+     * Friend in the bout, guarded by the lock of the bout.
+     */
+    private static final class Member {
+        /**
+         * Names of unseen attachments.
+         */
+        private final transient Collection<String> unseen =
+            new HashSet<>(0);
+        /**
+         * Is it subscribed?
+         */
+        private transient boolean subscribed = true;
+        /**
+         * Number of unread messages.
+         */
+        private transient long unread;
+    }
+
+    /**
+     * Message.
+     */
+    static final class Post {
+        /**
+         * Number of it.
+         */
+        private final transient long num;
+        /**
+         * Author.
+         */
+        private final transient String alias;
+        /**
+         * Text.
+         */
+        private final transient String content;
+        /**
+         * Date of posting.
+         */
+        private final transient long posted;
+        /**
+         * Ctor.
+         * @param number Number of it
+         * @param author Author
+         * @param text Text
+         * @param date Date of posting
+         * @checkstyle ParameterNumberCheck (4 lines)
+         */
+        Post(final long number, final String author, final String text,
+            final long date) {
+            this.num = number;
+            this.alias = author;
+            this.content = text;
+            this.posted = date;
+        }
+        /**
+         * Number of it.
+         * @return Number
+         */
+        public long number() {
+            return this.num;
+        }
+        /**
+         * Author.
+         * @return Alias
+         */
+        public String author() {
+            return this.alias;
+        }
+        /**
+         * Text.
+         * @return Text
+         */
+        public String text() {
+            return this.content;
+        }
+        /**
+         * Date of posting.
+         * @return Milliseconds
+         */
+        public long date() {
+            return this.posted;
+        }
+    }
+
+    /**
+     * Attachment.
+     */
+    static final class File {
+        /**
+         * Name of it.
+         */
+        private final transient String label;
+        /**
+         * Author.
+         */
+        private final transient String alias;
+        /**
+         * Content type.
+         */
+        private final transient String type;
+        /**
+         * ETag.
+         */
+        private final transient String tag;
+        /**
+         * Content.
+         */
+        private final transient byte[] data;
+        /**
+         * Date of the latest change.
+         */
+        private final transient long changed;
+        /**
+         * Ctor.
+         * @param name Name of it
+         * @param author Author
+         * @param ctype Content type
+         * @param etag ETag
+         * @param bytes Content
+         * @param date Date of the latest change
+         * @checkstyle ParameterNumberCheck (5 lines)
+         */
+        File(final String name, final String author, final String ctype,
+            final String etag, final byte[] bytes, final long date) {
+            this.label = name;
+            this.alias = author;
+            this.type = ctype;
+            this.tag = etag;
+            this.data = Arrays.copyOf(bytes, bytes.length);
+            this.changed = date;
+        }
+        /**
+         * Name of it.
+         * @return Name
+         */
+        public String name() {
+            return this.label;
+        }
+        /**
+         * Author.
+         * @return Alias
+         */
+        public String author() {
+            return this.alias;
+        }
+        /**
+         * Content type.
+         * @return Type
+         */
+        public String ctype() {
+            return this.type;
+        }
+        /**
+         * ETag.
+         * @return ETag
+         */
+        public String etag() {
+            return this.tag;
+        }
+        /**
+         * Content.
+         * @return Bytes
+         */
+        public byte[] bytes() {
+            return Arrays.copyOf(this.data, this.data.length);
+        }
+        /**
+         * Size of the content.
+         * @return Bytes
+         */
+        public long size() {
+            return this.data.length;
+        }
+        /**
+         * Date of the latest change.
+         * @return Milliseconds
+         */
+        public long date() {
+            return this.changed;
+        }
+    }
+
+}
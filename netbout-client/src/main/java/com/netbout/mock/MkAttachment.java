@@ -179,6 +179,21 @@ final class MkAttachment implements Attachment {
         }
     }
 
+    @Override
+    public long size() throws IOException {
+        try {
+            return (long) new JdbcSession(this.sql.source())
+                // @checkstyle LineLength (1 line)
+                .sql("SELECT COALESCE(data, '') FROM attachment WHERE bout = ? AND name = ?")
+                .set(this.bout)
+                .set(this.label)
+                .select(new SingleOutcome<String>(String.class))
+                .getBytes(StandardCharsets.UTF_8).length;
+        } catch (final SQLException ex) {
+            throw new IOException(ex);
+        }
+    }
+
     @Override
     public void write(final InputStream stream, final String ctype,
         final String etag) throws IOException {
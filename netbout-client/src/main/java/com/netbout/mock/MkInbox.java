@@ -26,6 +26,7 @@
  */
 package com.netbout.mock;
 
+import com.google.common.collect.Iterables;
 import com.jcabi.aspects.Immutable;
 import com.jcabi.aspects.Loggable;
 import com.jcabi.jdbc.JdbcSession;
@@ -151,6 +152,13 @@ final class MkInbox implements Inbox {
         }
     }
 
+    @Override
+    public Pageable.Page<Bout> page(final int size) throws IOException {
+        return new Pageable.Page<Bout>(
+            Iterables.limit(this.iterate(), size), Pageable.Page.END
+        );
+    }
+
     @Override
     public Iterable<Bout> search(final String term) throws IOException {
         final List<Bout> result = new ArrayList<>(16);
@@ -26,6 +26,7 @@
  */
 package com.netbout.mock;
 
+import com.google.common.collect.Iterables;
 import com.jcabi.aspects.Immutable;
 import com.jcabi.aspects.Loggable;
 import com.jcabi.jdbc.JdbcSession;
@@ -141,6 +142,13 @@ final class MkMessages implements Messages {
         }
     }
 
+    @Override
+    public Pageable.Page<Message> page(final int size) throws IOException {
+        return new Pageable.Page<Message>(
+            Iterables.limit(this.iterate(), size), Pageable.Page.END
+        );
+    }
+
     @Override
     public Iterable<Message> search(final String term) throws IOException {
         final List<Message> result = new ArrayList<>(16);
@@ -87,8 +87,19 @@ final class MkUser implements User {
     public Iterable<Friend> friends(final String text) throws IOException {
         try {
             return new JdbcSession(this.sql.source())
-                .sql("SELECT name FROM alias WHERE name = ?")
-                .set(text)
+                .sql(
+                    new StringBuilder("SELECT name FROM alias")
+                        .append(" WHERE name LIKE ? ESCAPE '!'")
+                        .append(" ORDER BY LENGTH(name), name LIMIT 10")
+                        .toString()
+                )
+                .set(
+                    String.format(
+                        "%s%%",
+                        text.replace("!", "!!").replace("%", "!%")
+                            .replace("_", "!_")
+                    )
+                )
                 .select(
                     new Outcome<Iterable<Friend>>() {
                         @Override
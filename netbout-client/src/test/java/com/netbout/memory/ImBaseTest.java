@@ -0,0 +1,172 @@
+/**
+ * Copyright (c) 2009-2016, netbout.com
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are PROHIBITED without prior written permission from
+ * the author. This product may NOT be used anywhere and on any computer
+ * except the server platform of netbout Inc. located at www.netbout.com.
+ * Federal copyright law prohibits unauthorized reproduction by any means
+ * and imposes fines up to $25,000 for violation. If you received
+ * this code accidentally and without intent to use it, please report this
+ * incident to the author by email.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS
+ * "AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT
+ * LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR
+ * A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT
+ * OWNER OR CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL,
+ * SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT
+ * LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE,
+ * DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON
+ * ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY,
+ * OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT
+ * OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF
+ * SUCH DAMAGE.
+ */
+package com.netbout.memory;
+
+import com.google.common.collect.Iterables;
+import com.jcabi.aspects.Tv;
+import com.netbout.spi.Alias;
+import com.netbout.spi.Bout;
+import com.netbout.spi.Message;
+import com.netbout.spi.Messages;
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import org.hamcrest.MatcherAssert;
+import org.hamcrest.Matchers;
+import org.junit.Test;
+
+/**
+ * Test case for {@link ImBase}.
+ * @author Yegor Bugayenko (yegor@teamed.io)
+ * @version $Id$
+ * @since 3.0
+ */
+public final class ImBaseTest {
+
+    /**
+     * ImBase can start a bout and talk in it.
+     * @throws Exception If there is some problem inside
+     */
+    @Test
+    public void startsBoutAndTalks() throws Exception {
+        final Messages messages = new ImBase().randomBout().messages();
+        messages.post("How are you doing?");
+        MatcherAssert.assertThat(
+            messages.iterate(),
+            Matchers.hasItem(
+                new Message.HasText(Matchers.containsString("are you"))
+            )
+        );
+    }
+
+    /**
+     * ImBase can put recently updated bouts first.
+     * @throws Exception If there is some problem inside
+     */
+    @Test
+    public void ordersInboxByUpdates() throws Exception {
+        final Alias alias = new ImBase().randomAlias();
+        final long first = alias.inbox().start();
+        final long second = alias.inbox().start();
+        MatcherAssert.assertThat(
+            alias.inbox().iterate().iterator().next().number(),
+            Matchers.equalTo(second)
+        );
+        alias.inbox().bout(first).messages().post("hey");
+        MatcherAssert.assertThat(
+            alias.inbox().page(1).items().iterator().next().number(),
+            Matchers.equalTo(first)
+        );
+        MatcherAssert.assertThat(
+            alias.inbox().jump(alias.inbox().page(1).next()).page(1)
+                .items().iterator().next().number(),
+            Matchers.equalTo(second)
+        );
+    }
+
+    /**
+     * ImBase can count unread messages and unseen attachments.
+     * @throws Exception If there is some problem inside
+     */
+    @Test
+    public void countsUnreadAndUnseen() throws Exception {
+        final ImBase base = new ImBase();
+        final Alias alias = base.randomAlias();
+        final Alias friend = base.randomAlias();
+        final Bout bout = alias.inbox().bout(alias.inbox().start());
+        bout.friends().invite(friend.name());
+        bout.messages().post("first");
+        bout.messages().post("second");
+        bout.attachments().create("a.txt");
+        bout.attachments().get("a.txt").write(
+            new ByteArrayInputStream("hi".getBytes(StandardCharsets.UTF_8)),
+            "text/plain", "etag-1"
+        );
+        final Bout other = friend.inbox().bout(bout.number());
+        MatcherAssert.assertThat(friend.inbox().unread(), Matchers.is(2L));
+        MatcherAssert.assertThat(
+            other.attachments().unseen(), Matchers.is(1)
+        );
+        MatcherAssert.assertThat(
+            Iterables.size(other.messages().iterate()), Matchers.is(2)
+        );
+        other.attachments().get("a.txt").read().close();
+        MatcherAssert.assertThat(friend.inbox().unread(), Matchers.is(0L));
+        MatcherAssert.assertThat(
+            other.attachments().unseen(), Matchers.is(0)
+        );
+        MatcherAssert.assertThat(alias.inbox().unread(), Matchers.is(0L));
+    }
+
+    /**
+     * ImBase can post to one bout from many threads.
+     * @throws Exception If there is some problem inside
+     */
+    @Test
+    public void postsConcurrently() throws Exception {
+        final ImBase base = new ImBase();
+        final Bout bout = base.randomBout();
+        final Alias friend = base.randomAlias();
+        bout.friends().invite(friend.name());
+        final int total = Tv.HUNDRED;
+        final ExecutorService service = Executors.newFixedThreadPool(Tv.EIGHT);
+        try {
+            final Collection<Future<Void>> futures = new ArrayList<>(total);
+            for (int idx = 0; idx < total; ++idx) {
+                futures.add(
+                    service.submit(
+                        new Callable<Void>() {
+                            @Override
+                            public Void call() throws Exception {
+                                bout.messages().post("hello");
+                                return null;
+                            }
+                        }
+                    )
+                );
+            }
+            for (final Future<Void> future : futures) {
+                future.get();
+            }
+        } finally {
+            service.shutdown();
+        }
+        MatcherAssert.assertThat(
+            friend.inbox().unread(), Matchers.is((long) total)
+        );
+        MatcherAssert.assertThat(
+            bout.messages().page(1).items().iterator().next().number(),
+            Matchers.is((long) total)
+        );
+    }
+
+}
@@ -30,6 +30,8 @@ import com.jcabi.urn.URN;
 import com.netbout.spi.Alias;
 import com.netbout.spi.Friend;
 import com.netbout.spi.User;
+import java.util.Collection;
+import java.util.LinkedList;
 import org.hamcrest.MatcherAssert;
 import org.hamcrest.Matchers;
 import org.junit.Test;
@@ -62,4 +64,24 @@ public final class MkUserTest {
         );
     }
 
+    /**
+     * MkUser can suggest friends by prefix, shorter first.
+     * @throws Exception If there is some problem inside
+     */
+    @Test
+    public void suggestsFriendsByPrefix() throws Exception {
+        final MkBase base = new MkBase();
+        base.user(new URN("urn:test:9990")).aliases().add("jeffrey");
+        base.user(new URN("urn:test:9991")).aliases().add("jeff");
+        base.user(new URN("urn:test:9992")).aliases().add("walter");
+        final Collection<String> names = new LinkedList<>();
+        for (final Friend friend
+            : base.user(new URN("urn:test:9993")).friends("jef")) {
+            names.add(friend.alias());
+        }
+        MatcherAssert.assertThat(
+            names, Matchers.contains("jeff", "jeffrey")
+        );
+    }
+
 }
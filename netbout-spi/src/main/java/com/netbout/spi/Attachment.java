@@ -95,6 +95,14 @@ public interface Attachment {
      */
     InputStream read() throws IOException;
 
+    /**
+     * Size of the content, in bytes.
+     * @return Size
+     * @throws IOException If fails
+     * @since 3.0
+     */
+    long size() throws IOException;
+
     /**
      * Write content (don't touch it if etag is the same as before).
      * @param stream Stream with content
@@ -55,4 +55,69 @@ public interface Pageable<T> {
      */
     Iterable<T> iterate() throws IOException;
 
+    /**
+     * Take one page of items, starting from the current position.
+     *
+     * <p>The page is fetched by a single request to the storage, where
+     * possible. In order to get the next page, jump to
+     * {@link Pageable.Page#next()}, which is a key of the last item
+     * taken, not an offset, and take a page there.
+     *
+     * @param size Maximum number of items in the page
+     * @return The page
+     * @throws IOException If fails
+     * @since 3.0
+     */
+    Pageable.Page<T> page(int size) throws IOException;
+
+    /**
+     * One page of items.
+     * @param <T> The type of items
+     * @since 3.0
+     */
+    final class Page<T> {
+        /**
+         * Position of the next page, when there are no more pages.
+         */
+        public static final long END = 0L;
+        /**
+         * Items of the page.
+         */
+        private final transient Iterable<T> list;
+        /**
+         * Position of the next page.
+         */
+        private final transient long position;
+        /**
+         * Ctor.
+         * @param items Items of the page
+         * @param next Position of the next page or {@link #END}
+         */
+        public Page(final Iterable<T> items, final long next) {
+            this.list = items;
+            this.position = next;
+        }
+        /**
+         * Items of the page.
+         * @return Items
+         */
+        public Iterable<T> items() {
+            return this.list;
+        }
+        /**
+         * Position to jump to for the next page.
+         * @return Position or {@link #END} if this page is the last one
+         */
+        public long next() {
+            return this.position;
+        }
+        /**
+         * Is it the last page?
+         * @return TRUE if there are no more pages after it
+         */
+        public boolean last() {
+            return this.position == Pageable.Page.END;
+        }
+    }
+
 }
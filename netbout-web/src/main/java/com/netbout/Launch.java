@@ -33,8 +33,13 @@ import com.jcabi.log.Logger;
 import com.jcabi.manifests.Manifests;
 import com.netbout.cached.CdBase;
 import com.netbout.dynamo.DyBase;
+import com.netbout.dynamo.DySpool;
 import com.netbout.email.EmBase;
+import com.netbout.email.PostKeepAlive;
+import com.netbout.email.Spool;
+import com.netbout.jdbc.JdBase;
 import com.netbout.rest.TkApp;
+import com.netbout.spi.Base;
 import org.takes.http.Exit;
 import org.takes.http.FtCLI;
 
@@ -62,15 +67,51 @@ public final class Launch {
      */
     public static void main(final String... args) throws Exception {
         Logger.info(Launch.class, "starting...");
-        new FtCLI(
-            new TkApp(
-                new EmBase(
-                    new CdBase(new DyBase()),
-                    new PostNoLoops(Launch.postman())
-                )
-            ),
-            args
-        ).start(Exit.NEVER);
+        final EmBase base = new EmBase(
+            new CdBase(Launch.base()),
+            new PostNoLoops(Launch.postman()),
+            Launch.spool()
+        );
+        base.resume();
+        new FtCLI(new TkApp(base), args).start(Exit.NEVER);
+    }
+
+    /**
+     * Create a base, in DynamoDB or, if JDBC URL is configured,
+     * in an embedded H2 database.
+     * @return Base
+     */
+    private static Base base() {
+        final Base base;
+        if (Launch.jdbc()) {
+            base = new JdBase(Manifests.read("Netbout-JdbcUrl"));
+        } else {
+            base = new DyBase();
+        }
+        return base;
+    }
+
+    /**
+     * Create a spool of email notifications, in DynamoDB or, with
+     * an embedded H2 database, in memory.
+     * @return Spool
+     */
+    private static Spool spool() {
+        final Spool spool;
+        if (Launch.jdbc()) {
+            spool = new Spool.Memory();
+        } else {
+            spool = new DySpool();
+        }
+        return spool;
+    }
+
+    /**
+     * Is JDBC URL configured?
+     * @return TRUE if the data are in an embedded H2 database
+     */
+    private static boolean jdbc() {
+        return Manifests.read("Netbout-JdbcUrl").startsWith("jdbc:");
     }
 
     /**
@@ -83,7 +124,7 @@ public final class Launch {
         if (port == 0) {
             postman = Postman.CONSOLE;
         } else {
-            postman = new Postman.Default(
+            postman = new PostKeepAlive(
                 new SMTP(
                     Manifests.read("Netbout-SmtpHost"),
                     port,
@@ -26,17 +26,14 @@
  */
 package com.netbout.cached;
 
-import com.jcabi.aspects.Cacheable;
 import com.jcabi.aspects.Immutable;
 import com.jcabi.aspects.Loggable;
-import com.jcabi.aspects.Tv;
 import com.netbout.spi.Alias;
 import com.netbout.spi.Bout;
 import com.netbout.spi.Inbox;
 import java.io.IOException;
 import java.net.URI;
 import java.util.Locale;
-import java.util.concurrent.TimeUnit;
 import lombok.EqualsAndHashCode;
 import lombok.ToString;
 
@@ -67,27 +64,40 @@ final class CdAlias implements Alias {
     }
 
     @Override
-    @Cacheable(lifetime = Tv.FIVE, unit = TimeUnit.HOURS)
     public String name() throws IOException {
         return this.origin.name();
     }
 
     @Override
-    @Cacheable(lifetime = Tv.FIVE, unit = TimeUnit.HOURS)
     public URI photo() throws IOException {
-        return this.origin.photo();
+        return Store.SHARED.get(
+            Groups.alias(this.name()), "photo", Groups.LONG,
+            new Store.Source<URI>() {
+                @Override
+                public URI load() throws IOException {
+                    return CdAlias.this.origin.photo();
+                }
+            }
+        );
     }
 
     @Override
-    @Cacheable(lifetime = Tv.FIVE, unit = TimeUnit.HOURS)
     public Locale locale() throws IOException {
-        return this.origin.locale();
+        return Store.SHARED.get(
+            Groups.alias(this.name()), "locale", Groups.LONG,
+            new Store.Source<Locale>() {
+                @Override
+                public Locale load() throws IOException {
+                    return CdAlias.this.origin.locale();
+                }
+            }
+        );
     }
 
     @Override
-    @Cacheable.FlushBefore
     public void photo(final URI uri) throws IOException {
         this.origin.photo(uri);
+        Store.SHARED.invalidate(Groups.alias(this.name()));
     }
 
     @Override
@@ -96,17 +106,17 @@ final class CdAlias implements Alias {
     }
 
     @Override
-    @Cacheable.FlushBefore
     public void email(final String email) throws IOException {
         this.origin.email(email);
+        Store.SHARED.invalidate(Groups.alias(this.name()));
     }
 
     @Override
-    @Cacheable.FlushBefore
     public void email(final String email, final String urn,
         final Bout bout)
         throws IOException {
         this.origin.email(email, urn, bout);
+        Store.SHARED.invalidate(Groups.alias(this.name()));
     }
 
     @Override
@@ -117,6 +127,6 @@ final class CdAlias implements Alias {
 
     @Override
     public Inbox inbox() throws IOException {
-        return new CdInbox(this.origin.inbox());
+        return new CdInbox(this.origin.inbox(), this.name());
     }
 }
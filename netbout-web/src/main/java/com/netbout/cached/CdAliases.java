@@ -29,14 +29,11 @@ package com.netbout.cached;
 import com.google.common.base.Function;
 import com.google.common.collect.Iterables;
 import com.google.common.collect.Lists;
-import com.jcabi.aspects.Cacheable;
 import com.jcabi.aspects.Immutable;
 import com.jcabi.aspects.Loggable;
-import com.jcabi.aspects.Tv;
 import com.netbout.spi.Alias;
 import com.netbout.spi.Aliases;
 import java.io.IOException;
-import java.util.concurrent.TimeUnit;
 import lombok.EqualsAndHashCode;
 import lombok.ToString;
 
@@ -50,7 +47,7 @@ import lombok.ToString;
 @Immutable
 @Loggable(Loggable.DEBUG)
 @ToString(of = "origin")
-@EqualsAndHashCode(of = "origin")
+@EqualsAndHashCode(of = { "origin", "urn" })
 final class CdAliases implements Aliases {
 
     /**
@@ -58,12 +55,19 @@ final class CdAliases implements Aliases {
      */
     private final transient Aliases origin;
 
+    /**
+     * URN of the user.
+     */
+    private final transient String urn;
+
     /**
      * Public ctor.
      * @param org Origin
+     * @param name URN of the user
      */
-    CdAliases(final Aliases org) {
+    CdAliases(final Aliases org, final String name) {
         this.origin = org;
+        this.urn = name;
     }
 
     @Override
@@ -72,24 +76,32 @@ final class CdAliases implements Aliases {
     }
 
     @Override
-    @Cacheable.FlushBefore
     public Alias add(final String name) throws IOException {
-        return new CdAlias(this.origin.add(name));
+        final Alias alias = this.origin.add(name);
+        Store.SHARED.invalidate(Groups.user(this.urn));
+        return new CdAlias(alias);
     }
 
     @Override
-    @Cacheable(lifetime = Tv.FIVE, unit = TimeUnit.HOURS)
     public Iterable<Alias> iterate() throws IOException {
-        return Lists.newArrayList(
-            Iterables.transform(
-                this.origin.iterate(),
-                new Function<Alias, Alias>() {
-                    @Override
-                    public Alias apply(final Alias input) {
-                        return new CdAlias(input);
-                    }
+        return Store.SHARED.get(
+            Groups.user(this.urn), "aliases", Groups.LONG,
+            new Store.Source<Iterable<Alias>>() {
+                @Override
+                public Iterable<Alias> load() throws IOException {
+                    return Lists.newArrayList(
+                        Iterables.transform(
+                            CdAliases.this.origin.iterate(),
+                            new Function<Alias, Alias>() {
+                                @Override
+                                public Alias apply(final Alias input) {
+                                    return new CdAlias(input);
+                                }
+                            }
+                        )
+                    );
                 }
-            )
+            }
         );
     }
 
@@ -26,15 +26,13 @@
  */
 package com.netbout.cached;
 
-import com.jcabi.aspects.Cacheable;
 import com.jcabi.aspects.Immutable;
 import com.jcabi.aspects.Loggable;
-import com.jcabi.aspects.Tv;
 import com.netbout.spi.Attachment;
+import com.netbout.spi.Bout;
 import java.io.IOException;
 import java.io.InputStream;
 import java.util.Date;
-import java.util.concurrent.TimeUnit;
 import lombok.EqualsAndHashCode;
 import lombok.ToString;
 
@@ -48,7 +46,7 @@ import lombok.ToString;
 @Immutable
 @Loggable(Loggable.DEBUG)
 @ToString(of = "origin")
-@EqualsAndHashCode(of = "origin")
+@EqualsAndHashCode(of = { "origin", "bout", "alias" })
 final class CdAttachment implements Attachment {
 
     /**
@@ -56,59 +54,141 @@ final class CdAttachment implements Attachment {
      */
     private final transient Attachment origin;
 
+    /**
+     * The bout it is in.
+     */
+    private final transient Bout bout;
+
+    /**
+     * Alias of the reader.
+     */
+    private final transient String alias;
+
     /**
      * Public ctor.
      * @param org Origin
+     * @param bot The bout it is in
+     * @param name Alias of the reader
      */
-    CdAttachment(final Attachment org) {
+    CdAttachment(final Attachment org, final Bout bot, final String name) {
         this.origin = org;
+        this.bout = bot;
+        this.alias = name;
     }
 
     @Override
-    @Cacheable(lifetime = Tv.FIVE, unit = TimeUnit.HOURS)
     public String name() throws IOException {
         return this.origin.name();
     }
 
     @Override
-    @Cacheable(lifetime = Tv.FIVE, unit = TimeUnit.HOURS)
     public String ctype() throws IOException {
-        return this.origin.ctype();
+        return this.cached(
+            "ctype",
+            new Store.Source<String>() {
+                @Override
+                public String load() throws IOException {
+                    return CdAttachment.this.origin.ctype();
+                }
+            }
+        );
     }
 
     @Override
-    @Cacheable(lifetime = Tv.FIVE, unit = TimeUnit.HOURS)
     public String etag() throws IOException {
-        return this.origin.etag();
+        return this.cached(
+            "etag",
+            new Store.Source<String>() {
+                @Override
+                public String load() throws IOException {
+                    return CdAttachment.this.origin.etag();
+                }
+            }
+        );
     }
 
     @Override
-    @Cacheable(lifetime = Tv.FIVE, unit = TimeUnit.HOURS)
     public boolean unseen() throws IOException {
-        return this.origin.unseen();
+        return this.cached(
+            "unseen",
+            new Store.Source<Boolean>() {
+                @Override
+                public Boolean load() throws IOException {
+                    return CdAttachment.this.origin.unseen();
+                }
+            }
+        );
     }
 
     @Override
-    @Cacheable(lifetime = Tv.FIVE, unit = TimeUnit.HOURS)
     public Date date() throws IOException {
-        return this.origin.date();
+        return this.cached(
+            "date",
+            new Store.Source<Date>() {
+                @Override
+                public Date load() throws IOException {
+                    return CdAttachment.this.origin.date();
+                }
+            }
+        );
     }
 
     @Override
-    @Cacheable(lifetime = Tv.FIVE, unit = TimeUnit.HOURS)
     public String author() throws IOException {
-        return this.origin.author();
+        return this.cached(
+            "author",
+            new Store.Source<String>() {
+                @Override
+                public String load() throws IOException {
+                    return CdAttachment.this.origin.author();
+                }
+            }
+        );
     }
 
     @Override
     public InputStream read() throws IOException {
-        return this.origin.read();
+        final InputStream stream = this.origin.read();
+        final long number = this.bout.number();
+        Store.SHARED.invalidate(Groups.attachments(number, this.alias));
+        Store.SHARED.invalidate(Groups.unread(number, this.alias));
+        return stream;
+    }
+
+    @Override
+    public long size() throws IOException {
+        return this.cached(
+            "size",
+            new Store.Source<Long>() {
+                @Override
+                public Long load() throws IOException {
+                    return CdAttachment.this.origin.size();
+                }
+            }
+        );
     }
 
     @Override
-    @Cacheable.FlushAfter
     public void write(final InputStream stream, final String ctype,
         final String etag) throws IOException {
         this.origin.write(stream, ctype, etag);
+        CdBout.touch(this.bout);
+    }
+
+    /**
+     * Get the property from cache or load it.
+     * @param property Name of the property
+     * @param src Source of it
+     * @param <T> Type of the property
+     * @return The property
+     * @throws IOException If fails
+     */
+    private <T> T cached(final String property, final Store.Source<T> src)
+        throws IOException {
+        return Store.SHARED.get(
+            Groups.attachments(this.bout.number(), this.alias),
+            String.format("%s:%s", this.name(), property),
+            Groups.LONG, src
+        );
     }
 }
@@ -29,14 +29,12 @@ package com.netbout.cached;
 import com.google.common.base.Function;
 import com.google.common.collect.Iterables;
 import com.google.common.collect.Lists;
-import com.jcabi.aspects.Cacheable;
 import com.jcabi.aspects.Immutable;
 import com.jcabi.aspects.Loggable;
-import com.jcabi.aspects.Tv;
 import com.netbout.spi.Attachment;
 import com.netbout.spi.Attachments;
+import com.netbout.spi.Bout;
 import java.io.IOException;
-import java.util.concurrent.TimeUnit;
 import lombok.EqualsAndHashCode;
 import lombok.ToString;
 
@@ -50,7 +48,7 @@ import lombok.ToString;
 @Immutable
 @Loggable(Loggable.DEBUG)
 @ToString(of = "origin")
-@EqualsAndHashCode(of = "origin")
+@EqualsAndHashCode(of = { "origin", "bout", "alias" })
 final class CdAttachments implements Attachments {
 
     /**
@@ -58,51 +56,98 @@ final class CdAttachments implements Attachments {
      */
     private final transient Attachments origin;
 
+    /**
+     * The bout they are in.
+     */
+    private final transient Bout bout;
+
+    /**
+     * Alias of the reader.
+     */
+    private final transient String alias;
+
     /**
      * Public ctor.
      * @param org Origin
+     * @param bot The bout they are in
+     * @param name Alias of the reader
      */
-    CdAttachments(final Attachments org) {
+    CdAttachments(final Attachments org, final Bout bot, final String name) {
         this.origin = org;
+        this.bout = bot;
+        this.alias = name;
     }
 
     @Override
-    @Cacheable(lifetime = Tv.FIVE, unit = TimeUnit.HOURS)
     public int unseen() throws IOException {
-        return this.origin.unseen();
+        return Store.SHARED.get(
+            Groups.unread(this.bout.number(), this.alias), "attachments",
+            Groups.SHORT,
+            new Store.Source<Integer>() {
+                @Override
+                public Integer load() throws IOException {
+                    return CdAttachments.this.origin.unseen();
+                }
+            }
+        );
     }
 
     @Override
-    @Cacheable.FlushBefore
     public void create(final String name) throws IOException {
         this.origin.create(name);
+        CdBout.touch(this.bout);
     }
 
     @Override
-    @Cacheable.FlushBefore
     public void delete(final String name) throws IOException {
         this.origin.delete(name);
+        CdBout.touch(this.bout);
     }
 
     @Override
-    @Cacheable(lifetime = Tv.FIVE, unit = TimeUnit.HOURS)
     public Attachment get(final String name) throws IOException {
-        return new CdAttachment(this.origin.get(name));
+        return Store.SHARED.get(
+            Groups.attachments(this.bout.number(), this.alias),
+            String.format("attachment:%s", name), Groups.LONG,
+            new Store.Source<Attachment>() {
+                @Override
+                public Attachment load() throws IOException {
+                    return new CdAttachment(
+                        CdAttachments.this.origin.get(name),
+                        CdAttachments.this.bout,
+                        CdAttachments.this.alias
+                    );
+                }
+            }
+        );
     }
 
     @Override
-    @Cacheable(lifetime = Tv.FIVE, unit = TimeUnit.HOURS)
     public Iterable<Attachment> iterate() throws IOException {
-        return Lists.newArrayList(
-            Iterables.transform(
-                this.origin.iterate(),
-                new Function<Attachment, Attachment>() {
-                    @Override
-                    public Attachment apply(final Attachment attachment) {
-                        return new CdAttachment(attachment);
-                    }
+        return Store.SHARED.get(
+            Groups.attachments(this.bout.number(), this.alias), "list",
+            Groups.LONG,
+            new Store.Source<Iterable<Attachment>>() {
+                @Override
+                public Iterable<Attachment> load() throws IOException {
+                    return Lists.newArrayList(
+                        Iterables.transform(
+                            CdAttachments.this.origin.iterate(),
+                            new Function<Attachment, Attachment>() {
+                                @Override
+                                public Attachment apply(
+                                    final Attachment attachment) {
+                                    return new CdAttachment(
+                                        attachment,
+                                        CdAttachments.this.bout,
+                                        CdAttachments.this.alias
+                                    );
+                                }
+                            }
+                        )
+                    );
                 }
-            )
+            }
         );
     }
 }
@@ -63,7 +63,7 @@ public final class CdBase implements Base {
 
     @Override
     public User user(final URN urn) throws IOException {
-        return new CdUser(this.origin.user(urn));
+        return new CdUser(this.origin.user(urn), urn.toString());
     }
 
     @Override
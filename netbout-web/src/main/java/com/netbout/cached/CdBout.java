@@ -26,23 +26,33 @@
  */
 package com.netbout.cached;
 
-import com.jcabi.aspects.Cacheable;
 import com.jcabi.aspects.Immutable;
 import com.jcabi.aspects.Loggable;
-import com.jcabi.aspects.Tv;
 import com.netbout.spi.Attachments;
 import com.netbout.spi.Bout;
+import com.netbout.spi.Friend;
 import com.netbout.spi.Friends;
 import com.netbout.spi.Messages;
 import java.io.IOException;
 import java.util.Date;
-import java.util.concurrent.TimeUnit;
 import lombok.EqualsAndHashCode;
 import lombok.ToString;
 
 /**
  * Cached Bout.
  *
+ * <p>Title and date are kept by the alias, since every friend has
+ * a title and a date of their own, in their row of the bout. They are
+ * apart from membership and subscriptions of friends, which don't change
+ * when a message is posted, so that notifications about the message
+ * find subscriptions in the cache.
+ *
+ * <p>The date of the bout is cached only for a short time, since
+ * the origin changes it in background, after a message is posted, and
+ * that's later than {@link #touch(Bout)} invalidates the cache. The time
+ * of the last update is not cached at all: pages are validated by it,
+ * and a stale one would answer "not modified" for a changed bout.
+ *
  * @author Yegor Bugayenko (yegor@teamed.io)
  * @version $Id$
  * @since 2.0
@@ -50,7 +60,7 @@ import lombok.ToString;
 @Immutable
 @Loggable(Loggable.DEBUG)
 @ToString(of = "origin")
-@EqualsAndHashCode(of = "origin")
+@EqualsAndHashCode(of = { "origin", "alias" })
 @SuppressWarnings("PMD.TooManyMethods")
 final class CdBout implements Bout {
 
@@ -59,12 +69,19 @@ final class CdBout implements Bout {
      */
     private final transient Bout origin;
 
+    /**
+     * Alias of the owner.
+     */
+    private final transient String alias;
+
     /**
      * Public ctor.
      * @param org Origin
+     * @param name Alias of the owner
      */
-    CdBout(final Bout org) {
+    CdBout(final Bout org, final String name) {
         this.origin = org;
+        this.alias = name;
     }
 
     @Override
@@ -73,61 +90,112 @@ final class CdBout implements Bout {
     }
 
     @Override
-    @Cacheable(lifetime = Tv.FIVE, unit = TimeUnit.HOURS)
     public Date date() throws IOException {
-        return this.origin.date();
+        return Store.SHARED.get(
+            Groups.view(this.number(), this.alias), "date", Groups.SHORT,
+            new Store.Source<Date>() {
+                @Override
+                public Date load() throws IOException {
+                    return CdBout.this.origin.date();
+                }
+            }
+        );
     }
 
     @Override
-    @Cacheable(lifetime = Tv.FIVE, unit = TimeUnit.HOURS)
     public Date updated() throws IOException {
         return this.origin.updated();
     }
 
     @Override
-    @Cacheable(lifetime = Tv.FIVE, unit = TimeUnit.HOURS)
     public String title() throws IOException {
-        return this.origin.title();
+        return Store.SHARED.get(
+            Groups.view(this.number(), this.alias), "title", Groups.LONG,
+            new Store.Source<String>() {
+                @Override
+                public String load() throws IOException {
+                    return CdBout.this.origin.title();
+                }
+            }
+        );
     }
 
     @Override
-    @Cacheable.FlushBefore
     public void rename(final String text) throws IOException {
         this.origin.rename(text);
+        Store.SHARED.invalidate(Groups.view(this.number(), this.alias));
     }
 
     @Override
-    @Cacheable(lifetime = Tv.FIVE, unit = TimeUnit.HOURS)
     public boolean subscription() throws IOException {
-        return this.origin.subscription();
+        return Store.SHARED.get(
+            Groups.friend(this.number(), this.alias), "subscription",
+            Groups.LONG,
+            new Store.Source<Boolean>() {
+                @Override
+                public Boolean load() throws IOException {
+                    return CdBout.this.origin.subscription();
+                }
+            }
+        );
     }
 
     @Override
-    public boolean subscription(final String alias) throws IOException {
-        return this.origin.subscription(alias);
+    public boolean subscription(final String friend) throws IOException {
+        return Store.SHARED.get(
+            Groups.friend(this.number(), friend), "subscription",
+            Groups.LONG,
+            new Store.Source<Boolean>() {
+                @Override
+                public Boolean load() throws IOException {
+                    return CdBout.this.origin.subscription(friend);
+                }
+            }
+        );
     }
 
     @Override
-    @Cacheable.FlushBefore
     public void subscribe(final boolean subs) throws IOException {
         this.origin.subscribe(subs);
+        Store.SHARED.invalidate(Groups.friend(this.number(), this.alias));
     }
 
     @Override
-    @Cacheable(lifetime = Tv.FIVE, unit = TimeUnit.HOURS)
     public Messages messages() throws IOException {
-        return new CdMessages(this.origin.messages());
+        return new CdMessages(this.origin.messages(), this, this.alias);
     }
 
     @Override
-    @Cacheable(lifetime = Tv.FIVE, unit = TimeUnit.HOURS)
     public Friends friends() throws IOException {
-        return new CdFriends(this.origin.friends());
+        return new CdFriends(this.origin.friends(), this);
     }
 
     @Override
-    @Cacheable(lifetime = Tv.FIVE, unit = TimeUnit.HOURS)
     public Attachments attachments() throws IOException {
-        return new CdAttachments(this.origin.attachments());
+        return new CdAttachments(
+            this.origin.attachments(), this, this.alias
+        );
+    }
+
+    /**
+     * Invalidate everything that depends on the bout: the bout itself,
+     * the title, date, counters and attachments of every friend in it,
+     * and their inboxes;
+     * then tell the listeners of the bout about the change.
+     * @param bout The bout
+     * @throws IOException If fails
+     */
+    static void touch(final Bout bout) throws IOException {
+        final long number = bout.number();
+        Store.SHARED.invalidate(Groups.bout(number));
+        for (final Friend friend : bout.friends().iterate()) {
+            Store.SHARED.invalidate(Groups.view(number, friend.alias()));
+            Store.SHARED.invalidate(Groups.unread(number, friend.alias()));
+            Store.SHARED.invalidate(
+                Groups.attachments(number, friend.alias())
+            );
+            Store.SHARED.invalidate(Groups.inbox(friend.alias()));
+        }
+        new Signals().publish(number);
     }
 }
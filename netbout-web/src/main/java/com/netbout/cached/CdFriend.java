@@ -26,14 +26,11 @@
  */
 package com.netbout.cached;
 
-import com.jcabi.aspects.Cacheable;
 import com.jcabi.aspects.Immutable;
 import com.jcabi.aspects.Loggable;
-import com.jcabi.aspects.Tv;
 import com.netbout.spi.Friend;
 import java.io.IOException;
 import java.net.URI;
-import java.util.concurrent.TimeUnit;
 import lombok.EqualsAndHashCode;
 import lombok.ToString;
 
@@ -64,20 +61,33 @@ final class CdFriend implements Friend {
     }
 
     @Override
-    @Cacheable(lifetime = Tv.FIVE, unit = TimeUnit.HOURS)
     public String alias() throws IOException {
         return this.origin.alias();
     }
 
     @Override
-    @Cacheable(lifetime = Tv.FIVE, unit = TimeUnit.HOURS)
     public URI photo() throws IOException {
-        return this.origin.photo();
+        return Store.SHARED.get(
+            Groups.alias(this.alias()), "photo", Groups.LONG,
+            new Store.Source<URI>() {
+                @Override
+                public URI load() throws IOException {
+                    return CdFriend.this.origin.photo();
+                }
+            }
+        );
     }
 
     @Override
-    @Cacheable(lifetime = Tv.FIVE, unit = TimeUnit.HOURS)
     public String email() throws IOException {
-        return this.origin.email();
+        return Store.SHARED.get(
+            Groups.alias(this.alias()), "email", Groups.LONG,
+            new Store.Source<String>() {
+                @Override
+                public String load() throws IOException {
+                    return CdFriend.this.origin.email();
+                }
+            }
+        );
     }
 }
@@ -29,14 +29,12 @@ package com.netbout.cached;
 import com.google.common.base.Function;
 import com.google.common.collect.Iterables;
 import com.google.common.collect.Lists;
-import com.jcabi.aspects.Cacheable;
 import com.jcabi.aspects.Immutable;
 import com.jcabi.aspects.Loggable;
-import com.jcabi.aspects.Tv;
+import com.netbout.spi.Bout;
 import com.netbout.spi.Friend;
 import com.netbout.spi.Friends;
 import java.io.IOException;
-import java.util.concurrent.TimeUnit;
 import lombok.EqualsAndHashCode;
 import lombok.ToString;
 
@@ -50,7 +48,7 @@ import lombok.ToString;
 @Immutable
 @Loggable(Loggable.DEBUG)
 @ToString(of = "origin")
-@EqualsAndHashCode(of = "origin")
+@EqualsAndHashCode(of = { "origin", "bout" })
 final class CdFriends implements Friends {
 
     /**
@@ -58,39 +56,58 @@ final class CdFriends implements Friends {
      */
     private final transient Friends origin;
 
+    /**
+     * The bout they are in.
+     */
+    private final transient Bout bout;
+
     /**
      * Public ctor.
      * @param org Origin
+     * @param bot The bout they are in
      */
-    CdFriends(final Friends org) {
+    CdFriends(final Friends org, final Bout bot) {
         this.origin = org;
+        this.bout = bot;
     }
 
     @Override
-    @Cacheable.FlushBefore
     public void invite(final String friend) throws IOException {
         this.origin.invite(friend);
+        CdBout.touch(this.bout);
     }
 
     @Override
-    @Cacheable.FlushBefore
     public void kick(final String friend) throws IOException {
         this.origin.kick(friend);
+        final long number = this.bout.number();
+        Store.SHARED.invalidate(Groups.friend(number, friend));
+        Store.SHARED.invalidate(Groups.view(number, friend));
+        Store.SHARED.invalidate(Groups.unread(number, friend));
+        Store.SHARED.invalidate(Groups.inbox(friend));
+        CdBout.touch(this.bout);
     }
 
     @Override
-    @Cacheable(lifetime = Tv.FIVE, unit = TimeUnit.HOURS)
     public Iterable<Friend> iterate() throws IOException {
-        return Lists.newArrayList(
-            Iterables.transform(
-                this.origin.iterate(),
-                new Function<Friend, Friend>() {
-                    @Override
-                    public Friend apply(final Friend input) {
-                        return new CdFriend(input);
-                    }
+        return Store.SHARED.get(
+            Groups.bout(this.bout.number()), "friends", Groups.LONG,
+            new Store.Source<Iterable<Friend>>() {
+                @Override
+                public Iterable<Friend> load() throws IOException {
+                    return Lists.newArrayList(
+                        Iterables.transform(
+                            CdFriends.this.origin.iterate(),
+                            new Function<Friend, Friend>() {
+                                @Override
+                                public Friend apply(final Friend input) {
+                                    return new CdFriend(input);
+                                }
+                            }
+                        )
+                    );
                 }
-            )
+            }
         );
     }
 }
@@ -28,15 +28,12 @@ package com.netbout.cached;
 
 import com.google.common.base.Function;
 import com.google.common.collect.Iterables;
-import com.jcabi.aspects.Cacheable;
 import com.jcabi.aspects.Immutable;
 import com.jcabi.aspects.Loggable;
-import com.jcabi.aspects.Tv;
 import com.netbout.spi.Bout;
 import com.netbout.spi.Inbox;
 import com.netbout.spi.Pageable;
 import java.io.IOException;
-import java.util.concurrent.TimeUnit;
 import lombok.EqualsAndHashCode;
 import lombok.ToString;
 
@@ -50,7 +47,7 @@ import lombok.ToString;
 @Immutable
 @Loggable(Loggable.DEBUG)
 @ToString(of = "origin")
-@EqualsAndHashCode(of = "origin")
+@EqualsAndHashCode(of = { "origin", "alias" })
 final class CdInbox implements Inbox {
 
     /**
@@ -58,63 +55,102 @@ final class CdInbox implements Inbox {
      */
     private final transient Inbox origin;
 
+    /**
+     * Alias of the owner.
+     */
+    private final transient String alias;
+
     /**
      * Public ctor.
      * @param org Origin
+     * @param name Alias of the owner
      */
-    CdInbox(final Inbox org) {
+    CdInbox(final Inbox org, final String name) {
         this.origin = org;
+        this.alias = name;
     }
 
     @Override
-    @Cacheable.FlushBefore
     public long start() throws IOException {
-        return this.origin.start();
+        final long number = this.origin.start();
+        Store.SHARED.invalidate(Groups.inbox(this.alias));
+        return number;
     }
 
     @Override
-    @Cacheable(lifetime = Tv.FIVE, unit = TimeUnit.HOURS)
     public long unread() throws IOException {
-        return this.origin.unread();
+        return Store.SHARED.get(
+            Groups.inbox(this.alias), "unread", Groups.SHORT,
+            new Store.Source<Long>() {
+                @Override
+                public Long load() throws IOException {
+                    return CdInbox.this.origin.unread();
+                }
+            }
+        );
     }
 
     @Override
-    @Cacheable(lifetime = Tv.FIVE, unit = TimeUnit.HOURS)
     @Loggable(
         value = Loggable.DEBUG,
         ignore = Inbox.BoutNotFoundException.class
         )
     public Bout bout(final long number) throws Inbox.BoutNotFoundException {
-        return new CdBout(this.origin.bout(number));
+        try {
+            return Store.SHARED.get(
+                Groups.friend(number, this.alias), "bout", Groups.LONG,
+                new Store.Source<Bout>() {
+                    @Override
+                    public Bout load() throws Inbox.BoutNotFoundException {
+                        return new CdBout(
+                            CdInbox.this.origin.bout(number),
+                            CdInbox.this.alias
+                        );
+                    }
+                }
+            );
+        } catch (final Inbox.BoutNotFoundException ex) {
+            throw ex;
+        } catch (final IOException ex) {
+            throw new IllegalStateException(ex);
+        }
     }
 
     @Override
     public Pageable<Bout> jump(final long number) throws IOException {
-        return new CdPageable<Bout>(this.origin.jump(number));
+        return new CdPageable<Bout>(this.origin.jump(number), this.alias);
     }
 
     @Override
-    @Cacheable.FlushBefore
     public Iterable<Bout> iterate() throws IOException {
-        return Iterables.transform(
-            this.origin.iterate(),
-            new Function<Bout, Bout>() {
-                @Override
-                public Bout apply(final Bout input) {
-                    return new CdBout(input);
-                }
-            }
-        );
+        Store.SHARED.invalidate(Groups.inbox(this.alias));
+        return this.wrap(this.origin.iterate());
+    }
+
+    @Override
+    public Pageable.Page<Bout> page(final int size) throws IOException {
+        Store.SHARED.invalidate(Groups.inbox(this.alias));
+        final Pageable.Page<Bout> page = this.origin.page(size);
+        return new Pageable.Page<Bout>(this.wrap(page.items()), page.next());
     }
 
     @Override
     public Iterable<Bout> search(final String term) throws IOException {
+        return this.wrap(this.origin.search(term));
+    }
+
+    /**
+     * Wrap bouts into cached ones.
+     * @param bouts Original bouts
+     * @return Cached bouts
+     */
+    private Iterable<Bout> wrap(final Iterable<Bout> bouts) {
         return Iterables.transform(
-            this.origin.search(term),
+            bouts,
             new Function<Bout, Bout>() {
                 @Override
                 public Bout apply(final Bout input) {
-                    return new CdBout(input);
+                    return new CdBout(input, CdInbox.this.alias);
                 }
             }
         );
@@ -28,6 +28,7 @@ package com.netbout.cached;
 
 import com.jcabi.aspects.Immutable;
 import com.jcabi.aspects.Loggable;
+import com.netbout.markdown.Markdown;
 import com.netbout.spi.Message;
 import java.io.IOException;
 import java.util.Date;
@@ -45,7 +46,7 @@ import lombok.ToString;
 @Loggable(Loggable.DEBUG)
 @ToString(of = "origin")
 @EqualsAndHashCode(of = "origin")
-final class CdMessage implements Message {
+final class CdMessage implements Message, Markdown.Rendered {
 
     /**
      * Original.
@@ -79,4 +80,15 @@ final class CdMessage implements Message {
     public String author() throws IOException {
         return this.origin.author();
     }
+
+    @Override
+    public String html() throws IOException {
+        final String html;
+        if (this.origin instanceof Markdown.Rendered) {
+            html = Markdown.Rendered.class.cast(this.origin).html();
+        } else {
+            html = new Markdown.Default().html(this.origin.text());
+        }
+        return html;
+    }
 }
@@ -28,15 +28,13 @@ package com.netbout.cached;
 
 import com.google.common.base.Function;
 import com.google.common.collect.Iterables;
-import com.jcabi.aspects.Cacheable;
 import com.jcabi.aspects.Immutable;
 import com.jcabi.aspects.Loggable;
-import com.jcabi.aspects.Tv;
+import com.netbout.spi.Bout;
 import com.netbout.spi.Message;
 import com.netbout.spi.Messages;
 import com.netbout.spi.Pageable;
 import java.io.IOException;
-import java.util.concurrent.TimeUnit;
 import lombok.EqualsAndHashCode;
 import lombok.ToString;
 
@@ -50,7 +48,7 @@ import lombok.ToString;
 @Immutable
 @Loggable(Loggable.DEBUG)
 @ToString(of = "origin")
-@EqualsAndHashCode(of = "origin")
+@EqualsAndHashCode(of = { "origin", "bout", "alias" })
 final class CdMessages implements Messages {
 
     /**
@@ -59,54 +57,81 @@ final class CdMessages implements Messages {
     private final transient Messages origin;
 
     /**
-     * Flag to use for caching.
+     * The bout they are in.
      */
-    private final transient CdMessages.Flag flag;
+    private final transient Bout bout;
+
+    /**
+     * Alias of the reader.
+     */
+    private final transient String alias;
 
     /**
      * Public ctor.
      * @param org Origin
+     * @param bot The bout they are in
+     * @param name Alias of the reader
      */
-    CdMessages(final Messages org) {
+    CdMessages(final Messages org, final Bout bot, final String name) {
         this.origin = org;
-        this.flag = new CdMessages.Flag(org);
+        this.bout = bot;
+        this.alias = name;
     }
 
     @Override
-    @Cacheable.FlushBefore
     public void post(final String text) throws IOException {
         this.origin.post(text);
+        CdBout.touch(this.bout);
     }
 
     @Override
     public long unread() throws IOException {
-        return this.flag.unread();
+        return Store.SHARED.get(
+            Groups.unread(this.bout.number(), this.alias), "messages",
+            Groups.SHORT,
+            new Store.Source<Long>() {
+                @Override
+                public Long load() throws IOException {
+                    return CdMessages.this.origin.unread();
+                }
+            }
+        );
     }
 
     @Override
     public Pageable<Message> jump(final long number) throws IOException {
-        return new CdPageable<Message>(this.origin.jump(number));
+        return new CdPageable<Message>(this.origin.jump(number), this.alias);
     }
 
     @Override
     public Iterable<Message> iterate() throws IOException {
-        this.flag.touch();
-        return Iterables.transform(
-            this.origin.iterate(),
-            new Function<Message, Message>() {
-                @Override
-                public Message apply(final Message input) {
-                    return new CdMessage(input);
-                }
-            }
+        this.touch();
+        return CdMessages.wrap(this.origin.iterate());
+    }
+
+    @Override
+    public Pageable.Page<Message> page(final int size) throws IOException {
+        this.touch();
+        final Pageable.Page<Message> page = this.origin.page(size);
+        return new Pageable.Page<Message>(
+            CdMessages.wrap(page.items()), page.next()
         );
     }
 
     @Override
     public Iterable<Message> search(final String term) throws IOException {
-        this.flag.touch();
+        this.touch();
+        return CdMessages.wrap(this.origin.search(term));
+    }
+
+    /**
+     * Wrap messages into cached ones.
+     * @param messages Original messages
+     * @return Cached messages
+     */
+    private static Iterable<Message> wrap(final Iterable<Message> messages) {
         return Iterables.transform(
-            this.origin.search(term),
+            messages,
             new Function<Message, Message>() {
                 @Override
                 public Message apply(final Message input) {
@@ -115,43 +140,14 @@ final class CdMessages implements Messages {
             }
         );
     }
+
     /**
-     * Flag of read/unread.
-     * @since 2.6
+     * I've seen them all.
+     * @throws IOException If fails
      */
-    @Immutable
-    @Loggable(Loggable.DEBUG)
-    @ToString(of = "messages")
-    @EqualsAndHashCode(of = "messages")
-    private static final class Flag {
-        /**
-         * Original.
-         */
-        private final transient Messages messages;
-        /**
-         * Public ctor.
-         * @param org Origin
-         */
-        Flag(final Messages org) {
-            this.messages = org;
-        }
-        /**
-         * How many unread.
-         * @return Number
-         * @throws IOException If fails
-         */
-        @Cacheable(lifetime = Tv.FIVE, unit = TimeUnit.MINUTES)
-        public long unread() throws IOException {
-            return this.messages.unread();
-        }
-        /**
-         * I've seen them all.
-         * @checkstyle NonStaticMethodCheck (5 lines)
-         */
-        @Cacheable.FlushBefore
-        public void touch() {
-            // nothing special
-        }
+    private void touch() throws IOException {
+        Store.SHARED.invalidate(Groups.unread(this.bout.number(), this.alias));
+        Store.SHARED.invalidate(Groups.inbox(this.alias));
     }
 
 }
@@ -48,7 +48,7 @@ import lombok.ToString;
 @Immutable
 @Loggable(Loggable.DEBUG)
 @ToString(of = "origin")
-@EqualsAndHashCode(of = "origin")
+@EqualsAndHashCode(of = { "origin", "alias" })
 final class CdPageable<T> implements Pageable<T> {
 
     /**
@@ -56,23 +56,45 @@ final class CdPageable<T> implements Pageable<T> {
      */
     private final transient Pageable<T> origin;
 
+    /**
+     * Alias of the owner.
+     */
+    private final transient String alias;
+
     /**
      * Public ctor.
      * @param org Origin
+     * @param name Alias of the owner
      */
-    CdPageable(final Pageable<T> org) {
+    CdPageable(final Pageable<T> org, final String name) {
         this.origin = org;
+        this.alias = name;
     }
 
     @Override
     public Pageable<T> jump(final long number) throws IOException {
-        return new CdPageable<T>(this.origin.jump(number));
+        return new CdPageable<T>(this.origin.jump(number), this.alias);
     }
 
     @Override
     public Iterable<T> iterate() throws IOException {
+        return this.wrap(this.origin.iterate());
+    }
+
+    @Override
+    public Pageable.Page<T> page(final int size) throws IOException {
+        final Pageable.Page<T> page = this.origin.page(size);
+        return new Pageable.Page<T>(this.wrap(page.items()), page.next());
+    }
+
+    /**
+     * Wrap items into cached ones.
+     * @param items Original items
+     * @return Cached items
+     */
+    private Iterable<T> wrap(final Iterable<T> items) {
         return Iterables.transform(
-            this.origin.iterate(),
+            items,
             new Function<T, T>() {
                 @Override
                 @SuppressWarnings("unchecked")
@@ -81,7 +103,9 @@ final class CdPageable<T> implements Pageable<T> {
                     if (input instanceof Message) {
                         result = new CdMessage(Message.class.cast(input));
                     } else {
-                        result = new CdBout(Bout.class.cast(input));
+                        result = new CdBout(
+                            Bout.class.cast(input), CdPageable.this.alias
+                        );
                     }
                     return (T) result;
                 }
@@ -29,15 +29,12 @@ package com.netbout.cached;
 import com.google.common.base.Function;
 import com.google.common.collect.Iterables;
 import com.google.common.collect.Lists;
-import com.jcabi.aspects.Cacheable;
 import com.jcabi.aspects.Immutable;
 import com.jcabi.aspects.Loggable;
-import com.jcabi.aspects.Tv;
 import com.netbout.spi.Aliases;
 import com.netbout.spi.Friend;
 import com.netbout.spi.User;
 import java.io.IOException;
-import java.util.concurrent.TimeUnit;
 import lombok.EqualsAndHashCode;
 import lombok.ToString;
 
@@ -51,7 +48,7 @@ import lombok.ToString;
 @Immutable
 @Loggable(Loggable.DEBUG)
 @ToString(of = "origin")
-@EqualsAndHashCode(of = "origin")
+@EqualsAndHashCode(of = { "origin", "urn" })
 final class CdUser implements User {
 
     /**
@@ -59,32 +56,47 @@ final class CdUser implements User {
      */
     private final transient User origin;
 
+    /**
+     * URN of the user.
+     */
+    private final transient String urn;
+
     /**
      * Public ctor.
      * @param org Origin
+     * @param name URN of the user
      */
-    CdUser(final User org) {
+    CdUser(final User org, final String name) {
         this.origin = org;
+        this.urn = name;
     }
 
     @Override
     public Aliases aliases() {
-        return new CdAliases(this.origin.aliases());
+        return new CdAliases(this.origin.aliases(), this.urn);
     }
 
     @Override
-    @Cacheable(lifetime = Tv.FIVE, unit = TimeUnit.HOURS)
     public Iterable<Friend> friends(final String text) throws IOException {
-        return Lists.newArrayList(
-            Iterables.transform(
-                this.origin.friends(text),
-                new Function<Friend, Friend>() {
-                    @Override
-                    public Friend apply(final Friend input) {
-                        return new CdFriend(input);
-                    }
+        return Store.SHARED.get(
+            Groups.user(this.urn), String.format("friends:%s", text),
+            Groups.SHORT,
+            new Store.Source<Iterable<Friend>>() {
+                @Override
+                public Iterable<Friend> load() throws IOException {
+                    return Lists.newArrayList(
+                        Iterables.transform(
+                            CdUser.this.origin.friends(text),
+                            new Function<Friend, Friend>() {
+                                @Override
+                                public Friend apply(final Friend input) {
+                                    return new CdFriend(input);
+                                }
+                            }
+                        )
+                    );
                 }
-            )
+            }
         );
     }
 }
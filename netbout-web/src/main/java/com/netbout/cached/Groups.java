@@ -0,0 +1,139 @@
+/**
+ * Copyright (c) 2009-2016, netbout.com
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are PROHIBITED without prior written permission from
+ * the author. This product may NOT be used anywhere and on any computer
+ * except the server platform of netbout Inc. located at www.netbout.com.
+ * Federal copyright law prohibits unauthorized reproduction by any means
+ * and imposes fines up to $25,000 for violation. If you received
+ * this code accidentally and without intent to use it, please report this
+ * incident to the author by email.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS
+ * "AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT
+ * LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR
+ * A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT
+ * OWNER OR CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL,
+ * SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT
+ * LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE,
+ * DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON
+ * ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY,
+ * OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT
+ * OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF
+ * SUCH DAMAGE.
+ */
+package com.netbout.cached;
+
+import com.jcabi.aspects.Tv;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Groups of entries in {@link Store}.
+ *
+ * @author Yegor Bugayenko (yegor@teamed.io)
+ * @version $Id$
+ * @since 3.0
+ */
+final class Groups {
+
+    /**
+     * Lifetime of entries that don't change without an invalidation,
+     * in milliseconds.
+     */
+    static final long LONG = TimeUnit.HOURS.toMillis(Tv.FIVE);
+
+    /**
+     * Lifetime of counters of unread and unseen, in milliseconds, which
+     * are updated in background after a post, so an invalidation
+     * may come too early.
+     */
+    static final long SHORT = TimeUnit.MINUTES.toMillis(1L);
+
+    /**
+     * Utility class.
+     */
+    private Groups() {
+        // intentionally empty
+    }
+
+    /**
+     * Group of the user: aliases and friends.
+     * @param urn URN of the user
+     * @return Group
+     */
+    static String user(final String urn) {
+        return String.format("user:%s", urn);
+    }
+
+    /**
+     * Group of the alias: photo, locale, email.
+     * @param alias The alias
+     * @return Group
+     */
+    static String alias(final String alias) {
+        return String.format("alias:%s", alias);
+    }
+
+    /**
+     * Group of the inbox of the alias.
+     * @param alias The alias
+     * @return Group
+     */
+    static String inbox(final String alias) {
+        return String.format("inbox:%s", alias);
+    }
+
+    /**
+     * Group of the bout: title, dates, friends, attachments.
+     * @param bout Bout number
+     * @return Group
+     */
+    static String bout(final long bout) {
+        return String.format("bout:%d", bout);
+    }
+
+    /**
+     * Group of the alias in the bout: membership and subscription.
+     * @param bout Bout number
+     * @param alias The alias
+     * @return Group
+     */
+    static String friend(final long bout, final String alias) {
+        return String.format("bout:%d:%s", bout, alias);
+    }
+
+    /**
+     * Group of the bout, as the alias sees it: title and date, which
+     * change when messages are posted.
+     * @param bout Bout number
+     * @param alias The alias
+     * @return Group
+     */
+    static String view(final long bout, final String alias) {
+        return String.format("view:%d:%s", bout, alias);
+    }
+
+    /**
+     * Group of attachments of the bout, as the alias sees them.
+     * @param bout Bout number
+     * @param alias The alias
+     * @return Group
+     */
+    static String attachments(final long bout, final String alias) {
+        return String.format("attachments:%d:%s", bout, alias);
+    }
+
+    /**
+     * Group of counters of the alias in the bout: unread messages and
+     * unseen attachments.
+     * @param bout Bout number
+     * @param alias The alias
+     * @return Group
+     */
+    static String unread(final long bout, final String alias) {
+        return String.format("unread:%d:%s", bout, alias);
+    }
+
+}
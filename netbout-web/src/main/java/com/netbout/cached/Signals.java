@@ -0,0 +1,144 @@
+/**
+ * Copyright (c) 2009-2016, netbout.com
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are PROHIBITED without prior written permission from
+ * the author. This product may NOT be used anywhere and on any computer
+ * except the server platform of netbout Inc. located at www.netbout.com.
+ * Federal copyright law prohibits unauthorized reproduction by any means
+ * and imposes fines up to $25,000 for violation. If you received
+ * this code accidentally and without intent to use it, please report this
+ * incident to the author by email.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS
+ * "AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT
+ * LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR
+ * A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT
+ * OWNER OR CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL,
+ * SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT
+ * LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE,
+ * DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON
+ * ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY,
+ * OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT
+ * OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF
+ * SUCH DAMAGE.
+ */
+package com.netbout.cached;
+
+import com.jcabi.aspects.Immutable;
+import java.util.concurrent.TimeUnit;
+import lombok.EqualsAndHashCode;
+import lombok.ToString;
+
+/**
+ * Changes of bouts, published by decorators in this package, right after
+ * they modify the origin, and awaited by live pages.
+ *
+ * <p>Every bout has a version, which grows by one with every change.
+ * Bouts share a fixed number of stripes, that's why the memory doesn't
+ * grow with the number of bouts and waiting listeners; the price is that
+ * a listener may wake up because of a change in another bout, and has to
+ * check its bout again. Changes are seen only by listeners in this very
+ * JVM.
+ *
+ * <p>The class is thread-safe.
+ *
+ * @author Yegor Bugayenko (yegor@teamed.io)
+ * @version $Id$
+ * @since 3.0
+ */
+@Immutable
+@ToString
+@EqualsAndHashCode
+public final class Signals {
+
+    /**
+     * Number of stripes, a power of two.
+     */
+    private static final int STRIPES = 1024;
+
+    /**
+     * Monitors of stripes.
+     */
+    private static final Object[] LOCKS = Signals.locks();
+
+    /**
+     * Versions of stripes.
+     */
+    private static final long[] VERSIONS = new long[Signals.STRIPES];
+
+    /**
+     * Publish a change of the bout and wake up its listeners.
+     * @param bout Bout number
+     */
+    public void publish(final long bout) {
+        final int stripe = Signals.stripe(bout);
+        synchronized (Signals.LOCKS[stripe]) {
+            ++Signals.VERSIONS[stripe];
+            Signals.LOCKS[stripe].notifyAll();
+        }
+    }
+
+    /**
+     * Current version of the bout.
+     * @param bout Bout number
+     * @return Version
+     */
+    public long version(final long bout) {
+        final int stripe = Signals.stripe(bout);
+        synchronized (Signals.LOCKS[stripe]) {
+            return Signals.VERSIONS[stripe];
+        }
+    }
+
+    /**
+     * Wait until the version of the bout differs from the one seen,
+     * or until the time is over.
+     * @param bout Bout number
+     * @param seen Version seen by the listener
+     * @param millis Maximum time to wait, in milliseconds
+     * @return Current version, the same as seen if nothing changed
+     * @throws InterruptedException If interrupted
+     */
+    public long await(final long bout, final long seen, final long millis)
+        throws InterruptedException {
+        final int stripe = Signals.stripe(bout);
+        final long deadline = System.nanoTime()
+            + TimeUnit.MILLISECONDS.toNanos(millis);
+        synchronized (Signals.LOCKS[stripe]) {
+            while (Signals.VERSIONS[stripe] == seen) {
+                final long left = TimeUnit.NANOSECONDS.toMillis(
+                    deadline - System.nanoTime()
+                );
+                if (left <= 0L) {
+                    break;
+                }
+                Signals.LOCKS[stripe].wait(left);
+            }
+            return Signals.VERSIONS[stripe];
+        }
+    }
+
+    /**
+     * Stripe of the bout.
+     * @param bout Bout number
+     * @return Stripe
+     */
+    private static int stripe(final long bout) {
+        return (int) (bout & (long) (Signals.STRIPES - 1));
+    }
+
+    /**
+     * Make monitors of stripes.
+     * @return Monitors
+     */
+    private static Object[] locks() {
+        final Object[] locks = new Object[Signals.STRIPES];
+        for (int idx = 0; idx < locks.length; ++idx) {
+            locks[idx] = new Object();
+        }
+        return locks;
+    }
+
+}
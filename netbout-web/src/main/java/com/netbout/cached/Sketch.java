@@ -0,0 +1,150 @@
+/**
+ * Copyright (c) 2009-2016, netbout.com
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are PROHIBITED without prior written permission from
+ * the author. This product may NOT be used anywhere and on any computer
+ * except the server platform of netbout Inc. located at www.netbout.com.
+ * Federal copyright law prohibits unauthorized reproduction by any means
+ * and imposes fines up to $25,000 for violation. If you received
+ * this code accidentally and without intent to use it, please report this
+ * incident to the author by email.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS
+ * "AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT
+ * LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR
+ * A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT
+ * OWNER OR CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL,
+ * SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT
+ * LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE,
+ * DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON
+ * ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY,
+ * OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT
+ * OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF
+ * SUCH DAMAGE.
+ */
+package com.netbout.cached;
+
+import com.jcabi.aspects.Tv;
+import lombok.ToString;
+
+/**
+ * Approximate frequency of keys, with aging (Count-Min sketch).
+ *
+ * <p>Every key is counted in four rows of 4-bit counters, its frequency
+ * is the minimum of them. When the number of increments reaches the sample
+ * size, all counters are halved, so that keys popular long ago don't stay
+ * popular forever.
+ *
+ * <p>The class is NOT thread-safe.
+ *
+ * @author Yegor Bugayenko (yegor@teamed.io)
+ * @version $Id$
+ * @since 3.0
+ */
+@ToString(of = { "width", "additions" })
+final class Sketch {
+
+    /**
+     * Seeds of rows.
+     */
+    private static final long[] SEEDS = {
+        0xc3a5c85c97cb3127L, 0xb492b66fbe98f273L,
+        0x9ae16a3b2f90404fL, 0xcbf29ce484222325L,
+    };
+
+    /**
+     * Maximum value of a counter.
+     */
+    private static final int MAX = 15;
+
+    /**
+     * Counters, one row per seed.
+     */
+    private final transient byte[][] table;
+
+    /**
+     * Width of a row, a power of two.
+     */
+    private final transient int width;
+
+    /**
+     * Number of increments to do before halving.
+     */
+    private final transient int sample;
+
+    /**
+     * Increments done since the last halving.
+     */
+    private transient int additions;
+
+    /**
+     * Ctor.
+     * @param capacity Maximum number of keys in cache
+     */
+    Sketch(final int capacity) {
+        int wdt = 1;
+        while (wdt < capacity) {
+            wdt <<= 1;
+        }
+        this.width = wdt;
+        this.table = new byte[Sketch.SEEDS.length][wdt];
+        this.sample = capacity * Tv.TEN;
+    }
+
+    /**
+     * Estimated frequency of the key.
+     * @param hash Hash code of the key
+     * @return Frequency, between zero and fifteen
+     */
+    public int frequency(final int hash) {
+        int freq = Sketch.MAX;
+        for (int row = 0; row < this.table.length; ++row) {
+            freq = Math.min(freq, this.table[row][this.index(hash, row)]);
+        }
+        return freq;
+    }
+
+    /**
+     * Count one more occurrence of the key.
+     * @param hash Hash code of the key
+     */
+    public void increment(final int hash) {
+        for (int row = 0; row < this.table.length; ++row) {
+            final int idx = this.index(hash, row);
+            if (this.table[row][idx] < Sketch.MAX) {
+                ++this.table[row][idx];
+            }
+        }
+        ++this.additions;
+        if (this.additions >= this.sample) {
+            this.halve();
+        }
+    }
+
+    /**
+     * Halve all counters.
+     */
+    private void halve() {
+        for (final byte[] row : this.table) {
+            for (int idx = 0; idx < row.length; ++idx) {
+                row[idx] = (byte) (row[idx] >> 1);
+            }
+        }
+        this.additions >>= 1;
+    }
+
+    /**
+     * Index of the key in the row.
+     * @param hash Hash code of the key
+     * @param row Row number
+     * @return Index
+     */
+    private int index(final int hash, final int row) {
+        long mixed = (hash + Sketch.SEEDS[row]) * Sketch.SEEDS[row];
+        mixed += mixed >>> 32;
+        return (int) mixed & (this.width - 1);
+    }
+
+}
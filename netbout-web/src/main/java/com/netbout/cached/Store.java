@@ -0,0 +1,420 @@
+/**
+ * Copyright (c) 2009-2016, netbout.com
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are PROHIBITED without prior written permission from
+ * the author. This product may NOT be used anywhere and on any computer
+ * except the server platform of netbout Inc. located at www.netbout.com.
+ * Federal copyright law prohibits unauthorized reproduction by any means
+ * and imposes fines up to $25,000 for violation. If you received
+ * this code accidentally and without intent to use it, please report this
+ * incident to the author by email.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS
+ * "AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT
+ * LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR
+ * A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT
+ * OWNER OR CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL,
+ * SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT
+ * LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE,
+ * DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON
+ * ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY,
+ * OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT
+ * OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF
+ * SUCH DAMAGE.
+ */
+package com.netbout.cached;
+
+import com.jcabi.aspects.Tv;
+import com.jcabi.log.Logger;
+import java.io.IOException;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+import lombok.EqualsAndHashCode;
+import lombok.ToString;
+
+/**
+ * Bounded cache of values loaded from the origin {@link com.netbout.spi.Base}.
+ *
+ * <p>The number of entries is bounded and the eviction policy is
+ * W-TinyLFU: new entries land in a small LRU window; an entry pushed out
+ * of the window is admitted to the main segmented LRU (probation and
+ * protected parts) only if it is used more often, according to
+ * {@link Sketch}, than the entry it would evict from there.
+ *
+ * <p>Every entry belongs to a group (an alias, a bout, a friend in a bout,
+ * etc.) and decorators invalidate groups right after they modify
+ * the origin. Values loaded concurrently with an invalidation are not
+ * stored. Besides that, every entry has its own lifetime.
+ *
+ * <p>The class is thread-safe.
+ *
+ * @author Yegor Bugayenko (yegor@teamed.io)
+ * @version $Id$
+ * @since 3.0
+ */
+@ToString(of = "capacity")
+@EqualsAndHashCode(of = "capacity")
+@SuppressWarnings("PMD.TooManyMethods")
+final class Store {
+
+    /**
+     * The store shared by all decorators in this package.
+     */
+    static final Store SHARED = new Store(Tv.TEN * Tv.THOUSAND);
+
+    /**
+     * How often to log statistics, in lookups.
+     */
+    private static final long REPORT = Tv.TEN * Tv.THOUSAND;
+
+    /**
+     * Maximum number of entries.
+     */
+    private final transient int capacity;
+
+    /**
+     * Maximum number of entries in the window.
+     */
+    private final transient int wmax;
+
+    /**
+     * Maximum number of entries in the protected part of main segment.
+     */
+    private final transient int pmax;
+
+    /**
+     * Window, in LRU order.
+     */
+    private final transient Map<String, Store.Entry> window;
+
+    /**
+     * Probation part of main segment, in LRU order.
+     */
+    private final transient Map<String, Store.Entry> probation;
+
+    /**
+     * Protected part of main segment, in LRU order.
+     */
+    private final transient Map<String, Store.Entry> protect;
+
+    /**
+     * Keys of entries, by groups.
+     */
+    private final transient Map<String, Set<String>> groups;
+
+    /**
+     * Frequencies of keys.
+     */
+    private final transient Sketch sketch;
+
+    /**
+     * Number of invalidations so far.
+     */
+    private transient long invalidations;
+
+    /**
+     * Number of hits so far.
+     */
+    private transient long hits;
+
+    /**
+     * Number of misses so far.
+     */
+    private transient long misses;
+
+    /**
+     * Number of evictions so far.
+     */
+    private transient long evictions;
+
+    /**
+     * Ctor.
+     * @param max Maximum number of entries
+     */
+    Store(final int max) {
+        this.capacity = max;
+        this.wmax = Math.max(1, max / Tv.HUNDRED);
+        this.pmax = (max - this.wmax) * Tv.EIGHT / Tv.TEN;
+        this.window = Store.lru();
+        this.probation = Store.lru();
+        this.protect = Store.lru();
+        this.groups = new HashMap<>(0);
+        this.sketch = new Sketch(max);
+    }
+
+    /**
+     * Get the value from cache or load it from the source.
+     * @param group Group of the entry
+     * @param name Name of the entry in the group
+     * @param lifetime Lifetime of the entry, in milliseconds
+     * @param src Source of the value
+     * @param <T> Type of value
+     * @return Value
+     * @throws IOException If the source fails
+     * @checkstyle ParameterNumberCheck (5 lines)
+     */
+    @SuppressWarnings("unchecked")
+    public <T> T get(final String group, final String name,
+        final long lifetime, final Store.Source<T> src) throws IOException {
+        final String key = String.format("%s %s", group, name);
+        final long before;
+        synchronized (this) {
+            this.sketch.increment(key.hashCode());
+            final Store.Entry entry = this.find(key);
+            if (entry != null
+                && entry.expires > System.currentTimeMillis()) {
+                ++this.hits;
+                this.report();
+                return (T) entry.value;
+            }
+            if (entry != null) {
+                this.remove(key);
+            }
+            ++this.misses;
+            this.report();
+            before = this.invalidations;
+        }
+        final T value = src.load();
+        synchronized (this) {
+            if (before == this.invalidations) {
+                this.remove(key);
+                this.add(
+                    key, new Store.Entry(
+                        group, value, System.currentTimeMillis() + lifetime
+                    )
+                );
+            }
+        }
+        return value;
+    }
+
+    /**
+     * Remove all entries of the group.
+     * @param group The group
+     */
+    public void invalidate(final String group) {
+        synchronized (this) {
+            ++this.invalidations;
+            final Set<String> keys = this.groups.remove(group);
+            if (keys != null) {
+                for (final String key : keys) {
+                    this.window.remove(key);
+                    this.probation.remove(key);
+                    this.protect.remove(key);
+                }
+            }
+        }
+    }
+
+    /**
+     * Statistics: hits, misses, evictions, invalidations and size.
+     * @return Statistics
+     */
+    public Map<String, Long> stats() {
+        synchronized (this) {
+            final Map<String, Long> stats = new LinkedHashMap<>(Tv.FIVE);
+            stats.put("hits", this.hits);
+            stats.put("misses", this.misses);
+            stats.put("evictions", this.evictions);
+            stats.put("invalidations", this.invalidations);
+            stats.put("size", (long) this.size());
+            return stats;
+        }
+    }
+
+    /**
+     * Find the entry and register an access to it.
+     * @param key The key
+     * @return Entry or NULL if absent
+     */
+    private Store.Entry find(final String key) {
+        Store.Entry entry = this.window.get(key);
+        if (entry == null) {
+            entry = this.protect.get(key);
+        }
+        if (entry == null) {
+            entry = this.probation.remove(key);
+            if (entry != null) {
+                this.protect.put(key, entry);
+                if (this.protect.size() > this.pmax) {
+                    final Map.Entry<String, Store.Entry> eldest =
+                        Store.eldest(this.protect);
+                    this.protect.remove(eldest.getKey());
+                    this.probation.put(eldest.getKey(), eldest.getValue());
+                }
+            }
+        }
+        return entry;
+    }
+
+    /**
+     * Add new entry to the window, evicting others if necessary.
+     * @param key The key
+     * @param entry The entry
+     */
+    private void add(final String key, final Store.Entry entry) {
+        Set<String> keys = this.groups.get(entry.group);
+        if (keys == null) {
+            keys = new HashSet<>(1);
+            this.groups.put(entry.group, keys);
+        }
+        keys.add(key);
+        this.window.put(key, entry);
+        if (this.window.size() > this.wmax) {
+            final Map.Entry<String, Store.Entry> candidate =
+                Store.eldest(this.window);
+            this.window.remove(candidate.getKey());
+            if (this.size() < this.capacity) {
+                this.probation.put(candidate.getKey(), candidate.getValue());
+            } else {
+                Map<String, Store.Entry> main = this.probation;
+                if (main.isEmpty()) {
+                    main = this.protect;
+                }
+                final Map.Entry<String, Store.Entry> victim =
+                    Store.eldest(main);
+                if (this.sketch.frequency(candidate.getKey().hashCode())
+                    > this.sketch.frequency(victim.getKey().hashCode())) {
+                    this.evict(main, victim);
+                    this.probation.put(
+                        candidate.getKey(), candidate.getValue()
+                    );
+                } else {
+                    this.evict(this.window, candidate);
+                }
+            }
+        }
+    }
+
+    /**
+     * Remove the entry, if it exists.
+     * @param key The key
+     */
+    private void remove(final String key) {
+        Store.Entry entry = this.window.remove(key);
+        if (entry == null) {
+            entry = this.probation.remove(key);
+        }
+        if (entry == null) {
+            entry = this.protect.remove(key);
+        }
+        if (entry != null) {
+            this.forget(entry.group, key);
+        }
+    }
+
+    /**
+     * Evict the entry.
+     * @param segment Segment it is in
+     * @param entry The entry
+     */
+    private void evict(final Map<String, Store.Entry> segment,
+        final Map.Entry<String, Store.Entry> entry) {
+        segment.remove(entry.getKey());
+        this.forget(entry.getValue().group, entry.getKey());
+        ++this.evictions;
+    }
+
+    /**
+     * Remove the key from its group.
+     * @param group The group
+     * @param key The key
+     */
+    private void forget(final String group, final String key) {
+        final Set<String> keys = this.groups.get(group);
+        if (keys != null) {
+            keys.remove(key);
+            if (keys.isEmpty()) {
+                this.groups.remove(group);
+            }
+        }
+    }
+
+    /**
+     * Total number of entries.
+     * @return Number of them
+     */
+    private int size() {
+        return this.window.size() + this.probation.size()
+            + this.protect.size();
+    }
+
+    /**
+     * Log statistics, from time to time.
+     */
+    private void report() {
+        if ((this.hits + this.misses) % Store.REPORT == 0L) {
+            Logger.info(this, "cache statistics: %s", this.stats());
+        }
+    }
+
+    /**
+     * Make an empty map in LRU order.
+     * @return Map
+     */
+    private static Map<String, Store.Entry> lru() {
+        // @checkstyle MagicNumber (1 line)
+        return new LinkedHashMap<>(Tv.TEN, 0.75f, true);
+    }
+
+    /**
+     * The least recently used entry of a non-empty map.
+     * @param map The map
+     * @return The entry
+     */
+    private static Map.Entry<String, Store.Entry> eldest(
+        final Map<String, Store.Entry> map) {
+        final Iterator<Map.Entry<String, Store.Entry>> entries =
+            map.entrySet().iterator();
+        return entries.next();
+    }
+
+    /**
+     * Source of a value.
+     * @param <T> Type of value
+     */
+    interface Source<T> {
+        /**
+         * Load the value.
+         * @return Value
+         * @throws IOException If fails
+         */
+        T load() throws IOException;
+    }
+
+    /**
+     * Entry.
+     */
+    private static final class Entry {
+        /**
+         * Group.
+         */
+        private final transient String group;
+        /**
+         * Value.
+         */
+        private final transient Object value;
+        /**
+         * When it expires, in milliseconds.
+         */
+        private final transient long expires;
+        /**
+         * Ctor.
+         * @param grp Group
+         * @param val Value
+         * @param exp When it expires
+         */
+        Entry(final String grp, final Object val, final long exp) {
+            this.group = grp;
+            this.value = val;
+            this.expires = exp;
+        }
+    }
+
+}
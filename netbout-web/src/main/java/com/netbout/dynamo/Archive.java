@@ -0,0 +1,459 @@
+/**
+ * Copyright (c) 2009-2016, netbout.com
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are PROHIBITED without prior written permission from
+ * the author. This product may NOT be used anywhere and on any computer
+ * except the server platform of netbout Inc. located at www.netbout.com.
+ * Federal copyright law prohibits unauthorized reproduction by any means
+ * and imposes fines up to $25,000 for violation. If you received
+ * this code accidentally and without intent to use it, please report this
+ * incident to the author by email.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS
+ * "AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT
+ * LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR
+ * A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT
+ * OWNER OR CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL,
+ * SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT
+ * LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE,
+ * DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON
+ * ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY,
+ * OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT
+ * OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF
+ * SUCH DAMAGE.
+ */
+package com.netbout.dynamo;
+
+import com.amazonaws.services.dynamodbv2.AmazonDynamoDB;
+import com.amazonaws.services.dynamodbv2.model.AttributeAction;
+import com.amazonaws.services.dynamodbv2.model.AttributeValue;
+import com.amazonaws.services.dynamodbv2.model.AttributeValueUpdate;
+import com.amazonaws.services.dynamodbv2.model.ComparisonOperator;
+import com.amazonaws.services.dynamodbv2.model.Condition;
+import com.amazonaws.services.dynamodbv2.model.DeleteRequest;
+import com.amazonaws.services.dynamodbv2.model.QueryRequest;
+import com.amazonaws.services.dynamodbv2.model.ReturnValue;
+import com.amazonaws.services.dynamodbv2.model.UpdateItemRequest;
+import com.amazonaws.services.dynamodbv2.model.WriteRequest;
+import com.jcabi.aspects.Immutable;
+import com.jcabi.aspects.Loggable;
+import com.jcabi.aspects.Tv;
+import com.jcabi.dynamo.AttributeUpdates;
+import com.jcabi.dynamo.Attributes;
+import com.jcabi.dynamo.Conditions;
+import com.jcabi.dynamo.Item;
+import com.jcabi.dynamo.QueryValve;
+import com.jcabi.dynamo.Region;
+import com.jcabi.log.Logger;
+import com.jcabi.log.VerboseRunnable;
+import com.jcabi.log.VerboseThreads;
+import com.jcabi.manifests.Manifests;
+import com.jcabi.s3.Bucket;
+import com.netbout.spi.Message;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.SortedMap;
+import java.util.TreeMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import lombok.EqualsAndHashCode;
+import lombok.ToString;
+
+/**
+ * Cold archive of old messages of a bout.
+ *
+ * <p>Messages older than {@code Netbout-ArchiveDays} are moved from
+ * "messages" table into immutable {@link Segment}s in S3, up to
+ * {@link #MAX} messages in each, oldest first. Every segment is indexed in
+ * "segments" table by the number of its last (highest) message, so
+ * the segments that overlap a range of numbers are found by one query.
+ * The index row is saved before the messages are deleted from the hot
+ * table, that's why a reader may see a message in both places for a
+ * moment, but never in none of them.
+ *
+ * @author Yegor Bugayenko (yegor@teamed.io)
+ * @version $Id$
+ * @since 3.0
+ * @checkstyle ClassDataAbstractionCouplingCheck (500 lines)
+ */
+@Immutable
+@Loggable(Loggable.DEBUG)
+@ToString(of = "bout")
+@EqualsAndHashCode(of = { "region", "bucket", "bout" })
+@SuppressWarnings({ "PMD.DoNotUseThreads", "PMD.ExcessiveImports" })
+final class Archive {
+
+    /**
+     * Table name.
+     */
+    public static final String TBL = "segments";
+
+    /**
+     * Bout attribute.
+     */
+    public static final String HASH = "bout";
+
+    /**
+     * Number of the last message in the segment.
+     */
+    public static final String RANGE = "last";
+
+    /**
+     * Number of the first message in the segment.
+     */
+    public static final String ATTR_FIRST = "first";
+
+    /**
+     * Total messages in the segment.
+     */
+    public static final String ATTR_COUNT = "count";
+
+    /**
+     * S3 key of the segment.
+     */
+    public static final String ATTR_KEY = "s3";
+
+    /**
+     * Compaction is attempted after every this number of posts.
+     */
+    private static final long EVERY = (long) Tv.HUNDRED;
+
+    /**
+     * Prefix of the name of the counter of posts in "counters" table.
+     */
+    private static final String POSTS = "posts-";
+
+    /**
+     * Maximum number of messages in a segment.
+     */
+    private static final int MAX = Tv.FIVE * Tv.HUNDRED;
+
+    /**
+     * Minimum number of old messages worth a segment.
+     */
+    private static final int MIN = Tv.HUNDRED;
+
+    /**
+     * Age of messages to archive, in milliseconds.
+     */
+    private static final long AGE = TimeUnit.DAYS.toMillis(
+        Long.parseLong(Manifests.read("Netbout-ArchiveDays"))
+    );
+
+    /**
+     * Thread to compact in.
+     */
+    private static final ExecutorService COMPACTOR =
+        Executors.newSingleThreadExecutor(
+            new VerboseThreads(Archive.class)
+        );
+
+    /**
+     * Region to work with.
+     */
+    private final transient Region region;
+
+    /**
+     * Bucket with segments.
+     */
+    private final transient Bucket bucket;
+
+    /**
+     * Bout number.
+     */
+    private final transient long bout;
+
+    /**
+     * Ctor.
+     * @param reg Region
+     * @param bkt Bucket
+     * @param num Bout number
+     */
+    Archive(final Region reg, final Bucket bkt, final long num) {
+        this.region = reg;
+        this.bucket = bkt;
+        this.bout = num;
+    }
+
+    /**
+     * Archived messages with numbers between the given two, exclusive.
+     * @param floor Number to stop at
+     * @param position Number to start after
+     * @param size Maximum number of messages
+     * @return Messages, recent first
+     * @throws IOException If fails
+     */
+    public List<Message> messages(final long floor, final long position,
+        final int size) throws IOException {
+        final SortedMap<Long, Message> found =
+            new TreeMap<>(Collections.reverseOrder());
+        final Iterator<Item> rows = this.region.table(Archive.TBL)
+            .frame()
+            .through(
+                new QueryValve()
+                    .withScanIndexForward(false)
+                    .withAttributesToGet(Archive.ATTR_FIRST, Archive.ATTR_KEY)
+            )
+            .where(Archive.HASH, Conditions.equalTo(this.bout))
+            .where(
+                Archive.RANGE,
+                new Condition()
+                    .withComparisonOperator(ComparisonOperator.GT)
+                    .withAttributeValueList(
+                        new AttributeValue().withN(Long.toString(floor))
+                    )
+            )
+            .iterator();
+        while (found.size() < size && rows.hasNext()) {
+            final Item row = rows.next();
+            if (Long.parseLong(row.get(Archive.ATTR_FIRST).getN())
+                >= position) {
+                continue;
+            }
+            for (final Message msg : this.segment(row).load()) {
+                final long number = msg.number();
+                if (number > floor && number < position) {
+                    found.put(number, msg);
+                }
+            }
+        }
+        final List<Message> list = new ArrayList<>(found.values());
+        return list.subList(0, Math.min(size, list.size()));
+    }
+
+    /**
+     * Find an archived message.
+     * @param number Message number
+     * @return The message
+     * @throws IOException If fails or there is no such message
+     */
+    public Message message(final long number) throws IOException {
+        final Iterator<Item> rows = this.region.table(Archive.TBL)
+            .frame()
+            .through(
+                new QueryValve()
+                    .withLimit(1)
+                    .withAttributesToGet(Archive.ATTR_FIRST, Archive.ATTR_KEY)
+            )
+            .where(Archive.HASH, Conditions.equalTo(this.bout))
+            .where(
+                Archive.RANGE,
+                new Condition()
+                    .withComparisonOperator(ComparisonOperator.GE)
+                    .withAttributeValueList(
+                        new AttributeValue().withN(Long.toString(number))
+                    )
+            )
+            .iterator();
+        Message found = null;
+        if (rows.hasNext()) {
+            final Item row = rows.next();
+            if (Long.parseLong(row.get(Archive.ATTR_FIRST).getN())
+                <= number) {
+                for (final Message msg : this.segment(row).load()) {
+                    if (msg.number() == number) {
+                        found = msg;
+                        break;
+                    }
+                }
+            }
+        }
+        if (found == null) {
+            throw new IOException(
+                String.format(
+                    "message #%d not found in #%d", number, this.bout
+                )
+            );
+        }
+        return found;
+    }
+
+    /**
+     * Count one more post to the bout and compact old messages in
+     * background after every {@link #EVERY} posts to it.
+     *
+     * <p>Message numbers are global, that's why the bout keeps its own
+     * counter of posts in "counters" table. The item is created by the
+     * first ADD, starting from zero.</p>
+     *
+     * @throws IOException If fails
+     */
+    public void posted() throws IOException {
+        final long posts;
+        final AmazonDynamoDB aws = this.region.aws();
+        try {
+            posts = Long.parseLong(
+                aws.updateItem(
+                    new UpdateItemRequest()
+                        .withTableName(
+                            this.region.table(DySequence.TBL).name()
+                        )
+                        .withKey(
+                            new Attributes().with(
+                                DySequence.HASH,
+                                String.format(
+                                    "%s%d", Archive.POSTS, this.bout
+                                )
+                            )
+                        )
+                        .withAttributeUpdates(
+                            new AttributeUpdates().with(
+                                DySequence.ATTR_VALUE,
+                                new AttributeValueUpdate()
+                                    .withAction(AttributeAction.ADD)
+                                    .withValue(new AttributeValue().withN("1"))
+                            )
+                        )
+                        .withReturnValues(ReturnValue.UPDATED_NEW)
+                ).getAttributes().get(DySequence.ATTR_VALUE).getN()
+            );
+        } finally {
+            aws.shutdown();
+        }
+        if (posts % Archive.EVERY == 0L) {
+            this.compactLater();
+        }
+    }
+
+    /**
+     * Compact old messages in background, if there are enough of them.
+     */
+    public void compactLater() {
+        Archive.COMPACTOR.execute(
+            new VerboseRunnable(
+                new Runnable() {
+                    @Override
+                    public void run() {
+                        try {
+                            Archive.this.compact(Archive.AGE);
+                        } catch (final IOException ex) {
+                            throw new IllegalStateException(ex);
+                        }
+                    }
+                },
+                true
+            )
+        );
+    }
+
+    /**
+     * Move old messages from the hot table into segments.
+     * @param age Minimum age of messages to move, in milliseconds
+     * @return How many messages were moved
+     * @throws IOException If fails
+     */
+    public int compact(final long age) throws IOException {
+        final long cutoff = System.currentTimeMillis() - age;
+        int total = 0;
+        while (true) {
+            final List<Map<String, AttributeValue>> items =
+                this.oldest(cutoff);
+            if (items.size() < Archive.MIN) {
+                break;
+            }
+            this.archive(items);
+            total += items.size();
+        }
+        if (total > 0) {
+            Logger.info(
+                this, "%d message(s) of #%d archived", total, this.bout
+            );
+        }
+        return total;
+    }
+
+    /**
+     * Oldest messages in the hot table, posted before the cutoff.
+     * @param cutoff Time to stop at
+     * @return Items, in the order of their numbers
+     */
+    private List<Map<String, AttributeValue>> oldest(final long cutoff) {
+        final List<Map<String, AttributeValue>> old =
+            new ArrayList<>(Archive.MAX);
+        final AmazonDynamoDB aws = this.region.aws();
+        try {
+            final List<Map<String, AttributeValue>> items = aws.query(
+                new QueryRequest()
+                    .withTableName(this.region.table(DyMessages.TBL).name())
+                    .withKeyConditions(
+                        new Conditions().with(
+                            DyMessages.HASH, Conditions.equalTo(this.bout)
+                        )
+                    )
+                    .withScanIndexForward(true)
+                    .withConsistentRead(true)
+                    .withLimit(Archive.MAX)
+            ).getItems();
+            for (final Map<String, AttributeValue> item : items) {
+                if (Long.parseLong(item.get(DyMessages.ATTR_DATE).getN())
+                    >= cutoff) {
+                    break;
+                }
+                old.add(item);
+            }
+        } finally {
+            aws.shutdown();
+        }
+        return old;
+    }
+
+    /**
+     * Save items into a new segment and delete them from the hot table,
+     * in batches, see {@link Fanout#flush(Region, String, Iterable)}.
+     * @param items Items of "messages" table, in the order of numbers
+     * @throws IOException If fails
+     */
+    private void archive(final List<Map<String, AttributeValue>> items)
+        throws IOException {
+        final String first = items.get(0).get(DyMessages.RANGE).getN();
+        final String last =
+            items.get(items.size() - 1).get(DyMessages.RANGE).getN();
+        final String key = String.format(
+            "segments/%d/%s-%s.gz", this.bout, first, last
+        );
+        new Segment(this.bucket.ocket(key)).save(items);
+        this.region.table(Archive.TBL).put(
+            new Attributes()
+                .with(Archive.HASH, this.bout)
+                .with(Archive.RANGE, new AttributeValue().withN(last))
+                .with(Archive.ATTR_FIRST, new AttributeValue().withN(first))
+                .with(Archive.ATTR_COUNT, (long) items.size())
+                .with(Archive.ATTR_KEY, key)
+        );
+        final List<WriteRequest> deletes = new ArrayList<>(items.size());
+        for (final Map<String, AttributeValue> item : items) {
+            deletes.add(
+                new WriteRequest().withDeleteRequest(
+                    new DeleteRequest().withKey(
+                        new Attributes()
+                            .with(DyMessages.HASH, this.bout)
+                            .with(DyMessages.RANGE, item.get(DyMessages.RANGE))
+                    )
+                )
+            );
+        }
+        Fanout.flush(
+            this.region, this.region.table(DyMessages.TBL).name(), deletes
+        );
+    }
+
+    /**
+     * Segment of an index row.
+     * @param row Row of "segments" table
+     * @return Segment
+     * @throws IOException If fails
+     */
+    private Segment segment(final Item row) throws IOException {
+        return new Segment(
+            this.bucket.ocket(row.get(Archive.ATTR_KEY).getS())
+        );
+    }
+
+}
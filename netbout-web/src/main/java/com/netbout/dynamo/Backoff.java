@@ -0,0 +1,101 @@
+/**
+ * Copyright (c) 2009-2016, netbout.com
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are PROHIBITED without prior written permission from
+ * the author. This product may NOT be used anywhere and on any computer
+ * except the server platform of netbout Inc. located at www.netbout.com.
+ * Federal copyright law prohibits unauthorized reproduction by any means
+ * and imposes fines up to $25,000 for violation. If you received
+ * this code accidentally and without intent to use it, please report this
+ * incident to the author by email.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS
+ * "AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT
+ * LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR
+ * A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT
+ * OWNER OR CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL,
+ * SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT
+ * LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE,
+ * DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON
+ * ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY,
+ * OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT
+ * OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF
+ * SUCH DAMAGE.
+ */
+package com.netbout.dynamo;
+
+import com.jcabi.aspects.Immutable;
+import com.jcabi.aspects.Tv;
+import java.util.concurrent.TimeUnit;
+import lombok.EqualsAndHashCode;
+import lombok.ToString;
+
+/**
+ * Exponential backoff between retries of throttled batch requests.
+ *
+ * <p>DynamoDB returns unprocessed keys or items of a batch request when
+ * the table is throttled; retrying them right away makes it worse. The
+ * first pause is {@link #FIRST} milliseconds, every next one is twice
+ * as long, up to {@link #LAST}.
+ *
+ * @author Yegor Bugayenko (yegor@teamed.io)
+ * @version $Id$
+ * @since 3.0
+ */
+@Immutable
+@ToString
+@EqualsAndHashCode(of = "attempt")
+final class Backoff {
+
+    /**
+     * First pause, in milliseconds.
+     */
+    private static final long FIRST = 50L;
+
+    /**
+     * Longest pause, in milliseconds.
+     */
+    private static final long LAST = TimeUnit.SECONDS.toMillis(Tv.FIVE);
+
+    /**
+     * Number of pauses made so far.
+     */
+    private final transient int attempt;
+
+    /**
+     * Ctor.
+     */
+    Backoff() {
+        this(0);
+    }
+
+    /**
+     * Ctor.
+     * @param done Number of pauses made so far
+     */
+    private Backoff(final int done) {
+        this.attempt = done;
+    }
+
+    /**
+     * Pause before the next retry.
+     * @return Backoff for the retry after it
+     */
+    public Backoff pause() {
+        try {
+            TimeUnit.MILLISECONDS.sleep(
+                Math.min(
+                    Backoff.LAST,
+                    Backoff.FIRST << Math.min(this.attempt, Tv.TEN)
+                )
+            );
+        } catch (final InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException(ex);
+        }
+        return new Backoff(this.attempt + 1);
+    }
+
+}
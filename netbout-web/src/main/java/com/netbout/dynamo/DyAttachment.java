@@ -26,17 +26,20 @@
  */
 package com.netbout.dynamo;
 
+import com.amazonaws.services.dynamodbv2.AmazonDynamoDB;
 import com.amazonaws.services.dynamodbv2.model.AttributeAction;
 import com.amazonaws.services.dynamodbv2.model.AttributeValue;
 import com.amazonaws.services.dynamodbv2.model.AttributeValueUpdate;
+import com.amazonaws.services.dynamodbv2.model.ConditionalCheckFailedException;
+import com.amazonaws.services.dynamodbv2.model.ExpectedAttributeValue;
+import com.amazonaws.services.dynamodbv2.model.UpdateItemRequest;
 import com.amazonaws.services.s3.model.ObjectMetadata;
-import com.google.common.base.Predicate;
-import com.google.common.collect.Iterables;
 import com.jcabi.aspects.Async;
 import com.jcabi.aspects.Cacheable;
 import com.jcabi.aspects.Immutable;
 import com.jcabi.aspects.Loggable;
 import com.jcabi.dynamo.AttributeUpdates;
+import com.jcabi.dynamo.Attributes;
 import com.jcabi.dynamo.Conditions;
 import com.jcabi.dynamo.Item;
 import com.jcabi.dynamo.QueryValve;
@@ -47,18 +50,25 @@ import com.jcabi.s3.Bucket;
 import com.jcabi.s3.mock.MkRegion;
 import com.netbout.spi.Attachment;
 import java.io.ByteArrayInputStream;
-import java.io.ByteArrayOutputStream;
 import java.io.File;
+import java.io.FileOutputStream;
 import java.io.IOException;
 import java.io.InputStream;
+import java.io.OutputStream;
 import java.nio.ByteBuffer;
 import java.nio.charset.StandardCharsets;
 import java.nio.file.Files;
+import java.security.DigestInputStream;
+import java.security.MessageDigest;
+import java.util.Arrays;
+import java.util.Collections;
 import java.util.Date;
-import java.util.HashSet;
-import java.util.Set;
+import java.util.HashMap;
+import java.util.Map;
 import lombok.EqualsAndHashCode;
 import lombok.ToString;
+import org.apache.commons.codec.binary.Hex;
+import org.apache.commons.codec.digest.DigestUtils;
 import org.apache.commons.io.IOUtils;
 
 /**
@@ -72,7 +82,7 @@ import org.apache.commons.io.IOUtils;
 @Immutable
 @Loggable(Loggable.DEBUG)
 @ToString(of = "item")
-@EqualsAndHashCode(of = { "region", "item", "self" })
+@EqualsAndHashCode(of = { "region", "item", "self", "row" })
 @SuppressWarnings({ "PMD.TooManyMethods", "PMD.ExcessiveImports" })
 final class DyAttachment implements Attachment {
 
@@ -101,14 +111,22 @@ final class DyAttachment implements Attachment {
      */
     private final transient String self;
 
+    /**
+     * Row of self alias in "friends" table.
+     */
+    private final transient FriendRow row;
+
     /**
      * Ctor.
      * @param reg Region
      * @param itm Item
      * @param slf Self alias
+     * @param rw Row of self alias in "friends" table
+     * @checkstyle ParameterNumberCheck (5 lines)
      */
-    DyAttachment(final Region reg, final Item itm, final String slf) {
-        this(reg, DyAttachment.storage(), itm, slf);
+    DyAttachment(final Region reg, final Item itm, final String slf,
+        final FriendRow rw) {
+        this(reg, DyAttachment.storage(), itm, slf, rw);
     }
 
     /**
@@ -117,15 +135,17 @@ final class DyAttachment implements Attachment {
      * @param bkt Bucket
      * @param itm Item
      * @param slf Self alias
+     * @param rw Row of self alias in "friends" table
      * @since 2.8
      * @checkstyle ParameterNumberCheck (5 lines)
      */
     DyAttachment(final Region reg, final Bucket bkt,
-        final Item itm, final String slf) {
+        final Item itm, final String slf, final FriendRow rw) {
         this.region = reg;
         this.bucket = bkt;
         this.item = itm;
         this.self = slf;
+        this.row = rw;
     }
 
     @Override
@@ -151,18 +171,7 @@ final class DyAttachment implements Attachment {
 
     @Override
     public boolean unseen() throws IOException {
-        final Item itm = this.region.table(DyFriends.TBL)
-            .frame()
-            .through(
-                new QueryValve()
-                    .withLimit(1)
-                    .withAttributesToGet(DyFriends.ATTR_UNSEEN)
-            )
-            .where(DyFriends.HASH, Conditions.equalTo(this.bout()))
-            .where(DyFriends.RANGE, Conditions.equalTo(this.self))
-            .iterator().next();
-        return itm.has(DyFriends.ATTR_UNSEEN)
-            && itm.get(DyFriends.ATTR_UNSEEN).getSS().contains(this.name());
+        return this.row.attachments().contains(this.name());
     }
 
     // @todo #1103:30min/DEV please create a proper integration test
@@ -192,95 +201,162 @@ final class DyAttachment implements Attachment {
     @Override
     public InputStream read() throws IOException {
         this.seen();
-        final byte[] bytes;
+        final InputStream stream;
         if (this.item.has(DyAttachments.ATTR_KEY)) {
-            final ByteArrayOutputStream baos = new ByteArrayOutputStream();
-            this.bucket.ocket(
-                this.item.get(DyAttachments.ATTR_KEY).getS()
-            ).read(baos);
-            bytes = baos.toByteArray();
+            stream = new OcketStream(
+                this.bucket.ocket(this.item.get(DyAttachments.ATTR_KEY).getS())
+            );
         } else {
-            final ByteBuffer buf =
-                this.item.get(DyAttachments.ATTR_DATA).getB();
-            if (buf == null) {
-                bytes = "temporary unavailable".getBytes(
-                    StandardCharsets.UTF_8
-                );
+            final ByteBuffer buf = this.inline();
+            stream = new ByteArrayInputStream(
+                buf.array(), buf.arrayOffset() + buf.position(),
+                buf.remaining()
+            );
+        }
+        return stream;
+    }
+
+    @Override
+    public long size() throws IOException {
+        final long size;
+        if (this.item.has(DyAttachments.ATTR_SIZE)) {
+            size = Long.parseLong(
+                this.item.get(DyAttachments.ATTR_SIZE).getN()
+            );
+        } else {
+            if (this.item.has(DyAttachments.ATTR_KEY)) {
+                size = this.bucket.ocket(
+                    this.item.get(DyAttachments.ATTR_KEY).getS()
+                ).meta().getContentLength();
             } else {
-                bytes = buf.array();
+                size = (long) this.inline().remaining();
             }
+            this.sized(size);
         }
-        return new ByteArrayInputStream(bytes);
+        return size;
     }
 
     @Override
     public void write(final InputStream stream, final String ctype,
         final String etag) throws IOException {
-        final byte[] data = IOUtils.toByteArray(stream);
         if (!etag.equals(this.etag())) {
-            final AttributeUpdates updates = this.save(data, ctype)
-                .with(DyAttachments.ATTR_ETAG, etag);
-            this.item.put(updates);
+            final MessageDigest digest = DigestUtils.getMd5Digest();
+            final InputStream input = new DigestInputStream(stream, digest);
+            final byte[] head = new byte[DyAttachment.MAX_SIZE];
+            final int len = IOUtils.read(input, head);
+            final AttributeUpdates updates;
+            final String md5;
+            final long size;
+            if (len < DyAttachment.MAX_SIZE) {
+                md5 = Hex.encodeHexString(digest.digest());
+                size = (long) len;
+                updates = this.inline(Arrays.copyOf(head, len));
+            } else {
+                final File temp = File.createTempFile("netbout", "bin");
+                try {
+                    try (OutputStream out = new FileOutputStream(temp)) {
+                        out.write(head);
+                        IOUtils.copyLarge(input, out);
+                    }
+                    md5 = Hex.encodeHexString(digest.digest());
+                    size = temp.length();
+                    updates = this.upload(temp, ctype, md5);
+                } finally {
+                    Files.deleteIfExists(temp.toPath());
+                }
+            }
+            this.item.put(
+                updates
+                    .with(DyAttachments.ATTR_CTYPE, ctype)
+                    .with(DyAttachments.ATTR_ETAG, etag)
+                    .with(DyAttachments.ATTR_MD5, md5)
+                    .with(
+                        DyAttachments.ATTR_SIZE,
+                        new AttributeValue().withN(Long.toString(size))
+                    )
+            );
             this.updated();
             Logger.info(
                 this, "attachment %s (%d bytes) uploaded into #%d by @%s",
-                this.name(), data.length, this.bout(), this.self
+                this.name(), size, this.bout(), this.self
             );
         }
     }
 
     /**
-     * Save content.
+     * Save small content inline, in DynamoDB.
      * @param data Data to save
-     * @param ctype CType
      * @return Updates to apply
      * @throws IOException If fails
      */
-    private AttributeUpdates save(final byte[] data, final String ctype)
-        throws IOException {
-        AttributeUpdates updates = new AttributeUpdates()
-            .with(DyAttachments.ATTR_CTYPE, ctype);
-        if (data.length < DyAttachment.MAX_SIZE) {
-            if (this.item.has(DyAttachments.ATTR_KEY)) {
-                this.bucket.remove(
-                    this.item.get(DyAttachments.ATTR_KEY).getS()
-                );
-            }
-            updates = updates.with(
+    private AttributeUpdates inline(final byte[] data) throws IOException {
+        if (this.item.has(DyAttachments.ATTR_KEY)) {
+            this.bucket.remove(this.item.get(DyAttachments.ATTR_KEY).getS());
+        }
+        return new AttributeUpdates()
+            .with(
                 DyAttachments.ATTR_DATA,
                 new AttributeValue().withB(ByteBuffer.wrap(data))
-            );
-            updates = updates.with(
+            )
+            .with(
                 DyAttachments.ATTR_KEY,
-                new AttributeValueUpdate().withAction(
-                    AttributeAction.DELETE
-                )
+                new AttributeValueUpdate().withAction(AttributeAction.DELETE)
             );
+    }
+
+    /**
+     * Upload big content into S3, unless it's already there.
+     * @param file File with the content
+     * @param ctype CType
+     * @param md5 MD5 hash of the content, in hex
+     * @return Updates to apply
+     * @throws IOException If fails
+     */
+    private AttributeUpdates upload(final File file, final String ctype,
+        final String md5) throws IOException {
+        final String key;
+        if (this.item.has(DyAttachments.ATTR_KEY)) {
+            key = this.item.get(DyAttachments.ATTR_KEY).getS();
         } else {
-            final String key;
-            if (this.item.has(DyAttachments.ATTR_KEY)) {
-                key = this.item.get(DyAttachments.ATTR_KEY).getS();
-            } else {
-                key = String.format(
-                    "%d/%s",
-                    Long.parseLong(
-                        this.item.get(DyAttachments.HASH).getN()
-                    ),
-                    this.item.get(DyAttachments.RANGE).getS()
-                );
-            }
+            key = String.format(
+                "%d/%s", this.bout(),
+                this.item.get(DyAttachments.RANGE).getS()
+            );
+        }
+        final boolean same = this.item.has(DyAttachments.ATTR_KEY)
+            && this.item.has(DyAttachments.ATTR_MD5)
+            && md5.equals(this.item.get(DyAttachments.ATTR_MD5).getS());
+        if (!same) {
             final ObjectMetadata meta = new ObjectMetadata();
             meta.setContentType(ctype);
-            meta.setContentLength((long) data.length);
-            this.bucket.ocket(key).write(
-                new ByteArrayInputStream(data),
-                meta
+            meta.setContentLength(file.length());
+            new OcketUpload(this.bucket.ocket(key)).write(file, meta);
+        }
+        return new AttributeUpdates()
+            .with(DyAttachments.ATTR_DATA, key)
+            .with(DyAttachments.ATTR_KEY, key);
+    }
+
+    /**
+     * Content stored inline, in the item.
+     * @return Buffer with a backing array
+     * @throws IOException If fails
+     */
+    private ByteBuffer inline() throws IOException {
+        final ByteBuffer buf = this.item.get(DyAttachments.ATTR_DATA).getB();
+        final ByteBuffer inline;
+        if (buf == null) {
+            inline = ByteBuffer.wrap(
+                "temporary unavailable".getBytes(StandardCharsets.UTF_8)
             );
-            updates = updates
-                .with(DyAttachments.ATTR_DATA, key)
-                .with(DyAttachments.ATTR_KEY, key);
+        } else if (buf.hasArray()) {
+            inline = buf;
+        } else {
+            final byte[] bytes = new byte[buf.remaining()];
+            buf.duplicate().get(bytes);
+            inline = ByteBuffer.wrap(bytes);
         }
-        return updates;
+        return inline;
     }
 
     /**
@@ -294,42 +370,35 @@ final class DyAttachment implements Attachment {
 
     /**
      * It was updated just now.
+     *
+     * <p>The name is added to the set of unseen attachments of every
+     * friend, except me, by an atomic ADD, without reading the set.</p>
      * @throws IOException If fails
      */
-    @Async
     private void updated() throws IOException {
-        Iterables.all(
+        final String alias = this.self;
+        final String name = this.name();
+        final long now = System.currentTimeMillis();
+        new Fanout().update(
             this.region.table(DyFriends.TBL).frame()
-                .through(new QueryValve())
+                .through(new QueryValve().withAttributesToGet(DyFriends.RANGE))
                 .where(DyFriends.HASH, Conditions.equalTo(this.bout())),
-            // @checkstyle AnonInnerLengthCheck (50 lines)
-            new Predicate<Item>() {
+            new Fanout.Updates() {
                 @Override
-                public boolean apply(final Item input) {
+                public AttributeUpdates updates(final Item item)
+                    throws IOException {
                     AttributeUpdates updates = new AttributeUpdates().with(
-                        DyFriends.ATTR_UPDATED,
-                        System.currentTimeMillis()
+                        DyFriends.ATTR_UPDATED, now
                     );
-                    try {
-                        final String alias = input.get(DyFriends.RANGE).getS();
-                        if (!alias.equals(DyAttachment.this.self)) {
-                            final Set<String> list =
-                                DyAttachment.this.list(alias);
-                            list.add(DyAttachment.this.name());
-                            updates = updates.with(
-                                DyFriends.ATTR_UNSEEN,
-                                new AttributeValueUpdate()
-                                    .withAction(AttributeAction.PUT)
-                                    .withValue(
-                                        new AttributeValue().withSS(list)
-                                    )
-                            );
-                        }
-                        input.put(updates);
-                    } catch (final IOException ex) {
-                        throw new IllegalStateException(ex);
+                    if (!item.get(DyFriends.RANGE).getS().equals(alias)) {
+                        updates = updates.with(
+                            DyFriends.ATTR_UNSEEN,
+                            new AttributeValueUpdate()
+                                .withAction(AttributeAction.ADD)
+                                .withValue(new AttributeValue().withSS(name))
+                        );
                     }
-                    return true;
+                    return updates;
                 }
             }
         );
@@ -337,69 +406,102 @@ final class DyAttachment implements Attachment {
 
     /**
      * It was seen just now.
+     *
+     * <p>The name is removed from my set of unseen attachments by an
+     * atomic DELETE, DynamoDB drops the attribute when the set gets
+     * empty. The condition prevents the update from creating a row,
+     * if I'm not in the bout.</p>
      * @throws IOException If fails
      */
     @Async
     private void seen() throws IOException {
-        Iterables.all(
-            this.region.table(DyFriends.TBL).frame()
-                .through(new QueryValve())
-                .where(DyFriends.HASH, Conditions.equalTo(this.bout()))
-                .where(DyFriends.RANGE, this.self),
-            new Predicate<Item>() {
-                @Override
-                public boolean apply(final Item input) {
-                    try {
-                        final Set<String> list =
-                            DyAttachment.this.list(DyAttachment.this.self);
-                        list.remove(DyAttachment.this.name());
-                        if (list.isEmpty()) {
-                            input.put(
-                                new AttributeUpdates().with(
-                                    DyFriends.ATTR_UNSEEN,
-                                    new AttributeValueUpdate().withAction(
-                                        AttributeAction.DELETE
-                                    )
-                                )
-                            );
-                        } else {
-                            input.put(
-                                new AttributeUpdates().with(
-                                    DyFriends.ATTR_UNSEEN,
-                                    new AttributeValueUpdate()
-                                        .withAction(AttributeAction.PUT)
-                                        .withValue(
-                                            new AttributeValue().withSS(list)
-                                        )
+        final AmazonDynamoDB aws = this.region.aws();
+        try {
+            aws.updateItem(
+                new UpdateItemRequest()
+                    .withTableName(this.region.table(DyFriends.TBL).name())
+                    .withKey(
+                        new Attributes()
+                            .with(DyFriends.HASH, this.bout())
+                            .with(DyFriends.RANGE, this.self)
+                    )
+                    .withExpected(
+                        Collections.singletonMap(
+                            DyFriends.RANGE,
+                            new ExpectedAttributeValue(
+                                new AttributeValue(this.self)
+                            )
+                        )
+                    )
+                    .withAttributeUpdates(
+                        new AttributeUpdates().with(
+                            DyFriends.ATTR_UNSEEN,
+                            new AttributeValueUpdate()
+                                .withAction(AttributeAction.DELETE)
+                                .withValue(
+                                    new AttributeValue().withSS(this.name())
                                 )
-                            );
-                        }
-                    } catch (final IOException ex) {
-                        throw new IllegalStateException(ex);
-                    }
-                    return true;
-                }
-            }
-        );
+                        )
+                    )
+            );
+        } catch (final ConditionalCheckFailedException ex) {
+            Logger.info(
+                this, "@%s is not in #%d anymore", this.self, this.bout()
+            );
+        } finally {
+            aws.shutdown();
+        }
     }
 
     /**
-     * Existing list of unseen attachments.
-     * @param alias Alias
-     * @return List of attachments that are unseen
+     * Its size was calculated just now.
+     *
+     * <p>Attachments uploaded before the size was stored don't have it,
+     * it is saved once, so that next time it is loaded together with
+     * the list of attachments, instead of a HEAD request to S3 or
+     * a fetch of the inline data. The conditions prevent the update from
+     * overwriting a size saved by a concurrent upload and from creating
+     * an attachment that was deleted.</p>
+     * @param size The size
      * @throws IOException If fails
      */
-    private Set<String> list(final String alias) throws IOException {
-        final Item itm = this.region.table(DyFriends.TBL)
-            .frame().through(new QueryValve())
-            .where(DyFriends.HASH, Conditions.equalTo(this.bout()))
-            .where(DyFriends.RANGE, Conditions.equalTo(alias))
-            .iterator().next();
-        final Set<String> list = new HashSet<String>(0);
-        if (itm.has(DyFriends.ATTR_UNSEEN)) {
-            list.addAll(itm.get(DyFriends.ATTR_UNSEEN).getSS());
+    @Async
+    private void sized(final long size) throws IOException {
+        final Map<String, ExpectedAttributeValue> conditions =
+            new HashMap<>(2);
+        conditions.put(
+            DyAttachments.RANGE,
+            new ExpectedAttributeValue(new AttributeValue(this.name()))
+        );
+        conditions.put(
+            DyAttachments.ATTR_SIZE, new ExpectedAttributeValue(false)
+        );
+        final AmazonDynamoDB aws = this.region.aws();
+        try {
+            aws.updateItem(
+                new UpdateItemRequest()
+                    .withTableName(
+                        this.region.table(DyAttachments.TBL).name()
+                    )
+                    .withKey(
+                        new Attributes()
+                            .with(DyAttachments.HASH, this.bout())
+                            .with(DyAttachments.RANGE, this.name())
+                    )
+                    .withExpected(conditions)
+                    .withAttributeUpdates(
+                        new AttributeUpdates()
+                            .with(DyAttachments.ATTR_SIZE, size)
+                    )
+            );
+        } catch (final ConditionalCheckFailedException ex) {
+            Logger.info(
+                this, "size of %s in #%d is saved already",
+                this.name(), this.bout()
+            );
+        } finally {
+            aws.shutdown();
         }
-        return list;
     }
 
     /**
@@ -407,7 +509,7 @@ final class DyAttachment implements Attachment {
      * @return Bucket
      */
     @Cacheable(forever = true)
-    private static Bucket storage() {
+    static Bucket storage() {
         final String key = Manifests.read("Netbout-S3Key");
         final com.jcabi.s3.Region region;
         if (key.matches("[0-9A-Z]{20}")) {
@@ -114,6 +114,18 @@ final class DyAttachments implements Attachments {
      */
     public static final String ATTR_KEY = "s3";
 
+    /**
+     * Size of the content, in bytes.
+     * @since 3.0
+     */
+    public static final String ATTR_SIZE = "size";
+
+    /**
+     * MD5 hash of the content, in hex.
+     * @since 3.0
+     */
+    public static final String ATTR_MD5 = "md5";
+
     /**
      * Region to work with.
      */
@@ -129,16 +141,25 @@ final class DyAttachments implements Attachments {
      */
     private final transient String self;
 
+    /**
+     * Row of self alias in "friends" table.
+     */
+    private final transient FriendRow row;
+
     /**
      * Ctor.
      * @param reg Region
      * @param num Bout number
      * @param slf Self
+     * @param rw Row of self alias in "friends" table
+     * @checkstyle ParameterNumberCheck (4 lines)
      */
-    DyAttachments(final Region reg, final long num, final String slf) {
+    DyAttachments(final Region reg, final long num, final String slf,
+        final FriendRow rw) {
         this.region = reg;
         this.bout = num;
         this.self = slf;
+        this.row = rw;
     }
 
     @Override
@@ -152,7 +173,9 @@ final class DyAttachments implements Attachments {
                     .withAttributesToGet(
                         DyAttachments.ATTR_CTYPE,
                         DyAttachments.ATTR_ETAG,
-                        DyAttachments.ATTR_KEY
+                        DyAttachments.ATTR_KEY,
+                        DyAttachments.ATTR_SIZE,
+                        DyAttachments.ATTR_MD5
                     )
             )
             .where(DyAttachments.HASH, Conditions.equalTo(this.bout))
@@ -163,11 +186,14 @@ final class DyAttachments implements Attachments {
                 String.format("attachment \"%s\" not found", name)
             );
         }
-        return new DyAttachment(this.region, items.next(), this.self);
+        return new DyAttachment(
+            this.region, items.next(), this.self, this.row
+        );
     }
 
     @Override
-    public Iterable<Attachment> iterate() {
+    public Iterable<Attachment> iterate() throws IOException {
+        final FriendRow loaded = this.row.loaded();
         return Iterables.transform(
             this.region.table(DyAttachments.TBL)
                 .frame()
@@ -175,7 +201,9 @@ final class DyAttachments implements Attachments {
                     new QueryValve().withAttributesToGet(
                         DyAttachments.ATTR_ALIAS,
                         DyAttachments.ATTR_CTYPE,
-                        DyAttachments.ATTR_ETAG
+                        DyAttachments.ATTR_ETAG,
+                        DyAttachments.ATTR_KEY,
+                        DyAttachments.ATTR_SIZE
                     )
                 )
                 .where(DyAttachments.HASH, Conditions.equalTo(this.bout)),
@@ -184,7 +212,7 @@ final class DyAttachments implements Attachments {
                 public Attachment apply(final Item item) {
                     return new DyAttachment(
                         DyAttachments.this.region,
-                        item, DyAttachments.this.self
+                        item, DyAttachments.this.self, loaded
                     );
                 }
             }
@@ -193,23 +221,7 @@ final class DyAttachments implements Attachments {
 
     @Override
     public int unseen() throws IOException {
-        final Item itm = this.region.table(DyFriends.TBL)
-            .frame()
-            .through(
-                new QueryValve()
-                    .withLimit(1)
-                    .withAttributesToGet(DyFriends.ATTR_UNSEEN)
-            )
-            .where(DyFriends.HASH, Conditions.equalTo(this.bout))
-            .where(DyFriends.RANGE, Conditions.equalTo(this.self))
-            .iterator().next();
-        final int unseen;
-        if (itm.has(DyFriends.ATTR_UNSEEN)) {
-            unseen = itm.get(DyFriends.ATTR_UNSEEN).getSS().size();
-        } else {
-            unseen = 0;
-        }
-        return unseen;
+        return this.row.unseen();
     }
 
     @Override
@@ -78,7 +78,7 @@ public final class DyBase implements Base {
      * Return an initialized region instance.
      * @return The initialized region instance
      */
-    private static Region region() {
+    static Region region() {
         final String key = Manifests.read("Netbout-DynamoKey");
         Credentials creds = new Credentials.Simple(
             key,
@@ -90,7 +90,7 @@ public final class DyBase implements Base {
             );
         }
         return new Region.Prefixed(
-            new ReRegion(new Region.Simple(creds)),
+            new ReRegion(new Region.Simple(new Metered(creds))),
             Manifests.read("Netbout-DynamoPrefix")
         );
     }
@@ -55,7 +55,7 @@ import lombok.ToString;
 @Immutable
 @Loggable(Loggable.DEBUG)
 @ToString(of = "self")
-@EqualsAndHashCode(of = { "region", "item", "self" })
+@EqualsAndHashCode(of = { "region", "item", "self", "row" })
 @SuppressWarnings("PMD.TooManyMethods")
 final class DyBout implements Bout {
 
@@ -74,16 +74,25 @@ final class DyBout implements Bout {
      */
     private final transient String self;
 
+    /**
+     * Row of self alias in "friends" table.
+     */
+    private final transient FriendRow row;
+
     /**
      * Ctor.
      * @param reg Region we're in
      * @param itm Item in "friends" table
      * @param slf Self alias
+     * @param rw Row of self alias in "friends" table
+     * @checkstyle ParameterNumberCheck (4 lines)
      */
-    DyBout(final Region reg, final Item itm, final String slf) {
+    DyBout(final Region reg, final Item itm, final String slf,
+        final FriendRow rw) {
         this.region = reg;
         this.item = itm;
         this.self = slf;
+        this.row = rw;
     }
 
     @Override
@@ -118,21 +127,19 @@ final class DyBout implements Bout {
         if (text.length() > 2 * Tv.HUNDRED) {
             throw new IllegalArgumentException("bout name is too long");
         }
+        final String before = this.title();
         this.item.put(
             new AttributeUpdates().with(DyFriends.ATTR_TITLE, text)
         );
+        new DyTerms(this.region).title(
+            this.number(), this.self, before, text
+        );
         Logger.info(this, "bout #%d renamed to \"%s\"", this.number(), text);
     }
 
     @Override
     public boolean subscription() throws IOException {
-        boolean subs = true;
-        if (this.item.has(DyFriends.ATTR_SUBSCRIPTION)) {
-            subs = Boolean.parseBoolean(
-                this.item.get(DyFriends.ATTR_SUBSCRIPTION).getS()
-            );
-        }
-        return subs;
+        return this.row.subscription();
     }
 
     @Override
@@ -172,7 +179,9 @@ final class DyBout implements Bout {
 
     @Override
     public Messages messages() throws IOException {
-        return new DyMessages(this.region, this.number(), this.self);
+        return new DyMessages(
+            this.region, this.number(), this.self, this.row
+        );
     }
 
     @Override
@@ -182,6 +191,8 @@ final class DyBout implements Bout {
 
     @Override
     public Attachments attachments() throws IOException {
-        return new DyAttachments(this.region, this.number(), this.self);
+        return new DyAttachments(
+            this.region, this.number(), this.self, this.row
+        );
     }
 }
@@ -0,0 +1,213 @@
+/**
+ * Copyright (c) 2009-2016, netbout.com
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are PROHIBITED without prior written permission from
+ * the author. This product may NOT be used anywhere and on any computer
+ * except the server platform of netbout Inc. located at www.netbout.com.
+ * Federal copyright law prohibits unauthorized reproduction by any means
+ * and imposes fines up to $25,000 for violation. If you received
+ * this code accidentally and without intent to use it, please report this
+ * incident to the author by email.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS
+ * "AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT
+ * LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR
+ * A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT
+ * OWNER OR CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL,
+ * SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT
+ * LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE,
+ * DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON
+ * ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY,
+ * OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT
+ * OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF
+ * SUCH DAMAGE.
+ */
+package com.netbout.dynamo;
+
+import co.stateful.Counter;
+import com.amazonaws.services.dynamodbv2.AmazonDynamoDB;
+import com.amazonaws.services.dynamodbv2.model.AttributeAction;
+import com.amazonaws.services.dynamodbv2.model.AttributeValue;
+import com.amazonaws.services.dynamodbv2.model.AttributeValueUpdate;
+import com.amazonaws.services.dynamodbv2.model.ComparisonOperator;
+import com.amazonaws.services.dynamodbv2.model.ConditionalCheckFailedException;
+import com.amazonaws.services.dynamodbv2.model.ExpectedAttributeValue;
+import com.amazonaws.services.dynamodbv2.model.PutItemRequest;
+import com.amazonaws.services.dynamodbv2.model.ReturnValue;
+import com.amazonaws.services.dynamodbv2.model.UpdateItemRequest;
+import com.jcabi.aspects.Immutable;
+import com.jcabi.aspects.Loggable;
+import com.jcabi.aspects.Tv;
+import com.jcabi.dynamo.AttributeUpdates;
+import com.jcabi.dynamo.Attributes;
+import com.jcabi.dynamo.Region;
+import com.jcabi.log.Logger;
+import java.io.IOException;
+import java.util.Collections;
+import lombok.EqualsAndHashCode;
+import lombok.ToString;
+
+/**
+ * Counter in "counters" table, changed by one conditional ADD per call.
+ *
+ * <p>Every number is taken right from the item, that's why numbers
+ * grow in the order they are taken, on all servers. A message that is
+ * posted later gets a bigger number, which paging of messages and live
+ * updates of bouts rely on.
+ *
+ * <p>The item is created on the first call, starting from the legacy
+ * counter, which was used before, plus {@link #GAP}. The cut-over is:
+ * stop all servers that take numbers from the legacy counter (on Heroku,
+ * release without preboot, so that old and new dynos never run at the
+ * same time); then start the servers with this counter. The first
+ * of them creates the item. The gap keeps numbers unique even if an old
+ * server takes a few more numbers from the legacy counter after that.
+ *
+ * @author Yegor Bugayenko (yegor@teamed.io)
+ * @version $Id$
+ * @since 3.0
+ */
+@Immutable
+@Loggable(Loggable.DEBUG)
+@ToString(of = "name")
+@EqualsAndHashCode(of = { "region", "name" })
+final class DyCounter implements Sequence {
+
+    /**
+     * How far from the legacy counter to start.
+     */
+    private static final long GAP = (long) Tv.HUNDRED * Tv.THOUSAND;
+
+    /**
+     * Region we're in.
+     */
+    private final transient Region region;
+
+    /**
+     * Name of the counter.
+     */
+    private final transient String name;
+
+    /**
+     * Legacy counter to start from.
+     */
+    private final transient Counter legacy;
+
+    /**
+     * Ctor.
+     * @param reg Region
+     * @param cnt Name of the counter
+     * @param old Legacy counter to start from, when there is no item yet
+     */
+    DyCounter(final Region reg, final String cnt, final Counter old) {
+        this.region = reg;
+        this.name = cnt;
+        this.legacy = old;
+    }
+
+    @Override
+    public long next() throws IOException {
+        return this.add(1L);
+    }
+
+    /**
+     * Add to the counter.
+     * @param delta How much to add
+     * @return New value of the counter
+     * @throws IOException If fails
+     */
+    public long add(final long delta) throws IOException {
+        final AmazonDynamoDB aws = this.region.aws();
+        try {
+            long value;
+            try {
+                value = this.add(aws, delta);
+            } catch (final ConditionalCheckFailedException ex) {
+                this.seed(aws);
+                value = this.add(aws, delta);
+            }
+            return value;
+        } finally {
+            aws.shutdown();
+        }
+    }
+
+    /**
+     * Add to the existing counter.
+     * @param aws AWS client
+     * @param delta How much to add
+     * @return New value of the counter
+     */
+    private long add(final AmazonDynamoDB aws, final long delta) {
+        return Long.parseLong(
+            aws.updateItem(
+                new UpdateItemRequest()
+                    .withTableName(this.region.table(DySequence.TBL).name())
+                    .withKey(new Attributes().with(DySequence.HASH, this.name))
+                    .withExpected(
+                        Collections.singletonMap(
+                            DySequence.ATTR_VALUE,
+                            new ExpectedAttributeValue().withComparisonOperator(
+                                ComparisonOperator.NOT_NULL
+                            )
+                        )
+                    )
+                    .withAttributeUpdates(
+                        new AttributeUpdates().with(
+                            DySequence.ATTR_VALUE,
+                            new AttributeValueUpdate()
+                                .withAction(AttributeAction.ADD)
+                                .withValue(
+                                    new AttributeValue().withN(
+                                        Long.toString(delta)
+                                    )
+                                )
+                        )
+                    )
+                    .withReturnValues(ReturnValue.UPDATED_NEW)
+            ).getAttributes().get(DySequence.ATTR_VALUE).getN()
+        );
+    }
+
+    /**
+     * Create the counter item, starting from the legacy counter.
+     * @param aws AWS client
+     * @throws IOException If fails
+     */
+    private void seed(final AmazonDynamoDB aws) throws IOException {
+        final long start = this.legacy.incrementAndGet(0L) + DyCounter.GAP;
+        try {
+            aws.putItem(
+                new PutItemRequest()
+                    .withTableName(this.region.table(DySequence.TBL).name())
+                    .withItem(
+                        new Attributes()
+                            .with(DySequence.HASH, this.name)
+                            .with(
+                                DySequence.ATTR_VALUE,
+                                new AttributeValue().withN(
+                                    Long.toString(start)
+                                )
+                            )
+                    )
+                    .withExpected(
+                        Collections.singletonMap(
+                            DySequence.ATTR_VALUE,
+                            new ExpectedAttributeValue().withComparisonOperator(
+                                ComparisonOperator.NULL
+                            )
+                        )
+                    )
+            );
+            Logger.info(
+                this, "counter \"%s\" created, starting from %d",
+                this.name, start
+            );
+        } catch (final ConditionalCheckFailedException ex) {
+            Logger.info(this, "counter \"%s\" already exists", this.name);
+        }
+    }
+
+}
@@ -28,15 +28,8 @@ package com.netbout.dynamo;
 
 import com.jcabi.aspects.Immutable;
 import com.jcabi.aspects.Loggable;
-import com.jcabi.dynamo.Item;
-import com.jcabi.dynamo.QueryValve;
-import com.jcabi.dynamo.Region;
-import com.jcabi.dynamo.Table;
-import com.netbout.spi.Alias;
 import com.netbout.spi.Friend;
-import java.io.IOException;
 import java.net.URI;
-import java.util.Iterator;
 import lombok.EqualsAndHashCode;
 import lombok.ToString;
 
@@ -50,27 +43,27 @@ import lombok.ToString;
 @Immutable
 @Loggable(Loggable.DEBUG)
 @ToString(of = "name")
-@EqualsAndHashCode(of = { "table", "name" })
+@EqualsAndHashCode(of = { "name", "profile" })
 final class DyFriend implements Friend {
 
     /**
-     * Table with aliases.
+     * This alias.
      */
-    private final transient Table table;
+    private final transient String name;
 
     /**
-     * This alias.
+     * Profile of the alias.
      */
-    private final transient String name;
+    private final transient Profile profile;
 
     /**
      * Ctor.
-     * @param region Region we're in
      * @param alias Alias
+     * @param prf Profile of the alias, loaded by {@link Profiles}
      */
-    DyFriend(final Region region, final String alias) {
-        this.table = region.table(DyAliases.TBL);
+    DyFriend(final String alias, final Profile prf) {
         this.name = alias;
+        this.profile = prf;
     }
 
     @Override
@@ -79,44 +72,12 @@ final class DyFriend implements Friend {
     }
 
     @Override
-    public URI photo() throws IOException {
-        final Iterator<Item> items = this.table.frame()
-            .where(DyAliases.HASH, this.name)
-            .through(
-                new QueryValve()
-                    .withLimit(1)
-                    .withAttributesToGet(DyAliases.ATTR_PHOTO)
-            )
-            .iterator();
-        final URI uri;
-        if (items.hasNext()) {
-            uri = URI.create(items.next().get(DyAliases.ATTR_PHOTO).getS());
-        } else {
-            uri = Alias.BLANK;
-        }
-        return uri;
+    public URI photo() {
+        return this.profile.photo();
     }
 
     @Override
-    public String email() throws IOException {
-        final Iterator<Item> items = this.table.frame()
-            .where(DyAliases.HASH, this.name)
-            .through(
-                new QueryValve()
-                    .withLimit(1)
-                    .withAttributesToGet(DyAliases.ATTR_EMAIL)
-            )
-            .iterator();
-        String email = "";
-        if (items.hasNext()) {
-            final Item item = items.next();
-            if (item.has(DyAliases.ATTR_EMAIL)) {
-                email = item.get(DyAliases.ATTR_EMAIL).getS();
-            }
-        }
-        if (email.contains("!")) {
-            email = email.substring(0, email.indexOf('!'));
-        }
-        return email;
+    public String email() {
+        return this.profile.email();
     }
 }
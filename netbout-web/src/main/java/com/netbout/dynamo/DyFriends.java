@@ -27,8 +27,6 @@
 package com.netbout.dynamo;
 
 import com.amazonaws.services.dynamodbv2.model.AttributeValue;
-import com.google.common.base.Function;
-import com.google.common.collect.Iterables;
 import com.jcabi.aspects.Immutable;
 import com.jcabi.aspects.Loggable;
 import com.jcabi.aspects.Tv;
@@ -41,7 +39,9 @@ import com.jcabi.log.Logger;
 import com.netbout.spi.Friend;
 import com.netbout.spi.Friends;
 import java.io.IOException;
+import java.util.Collection;
 import java.util.Iterator;
+import java.util.LinkedList;
 import lombok.EqualsAndHashCode;
 import lombok.ToString;
 import org.apache.commons.lang3.StringUtils;
@@ -127,7 +127,7 @@ final class DyFriends implements Friends {
     @Override
     public void invite(final String friend) throws IOException {
         final String alias = DyFriends.clean(friend);
-        if (!new Everybody(this.region).occupied(alias)) {
+        if (!new Everybody(this.region).exists(alias)) {
             throw new Friends.UnknownAliasException(
                 String.format("alias '%s' doesn't exist", friend)
             );
@@ -140,6 +140,9 @@ final class DyFriends implements Friends {
                 .with(DyFriends.ATTR_SUBSCRIPTION, true)
                 .with(DyFriends.ATTR_UPDATED, System.currentTimeMillis())
         );
+        new DyTerms(this.region).join(
+            Long.parseLong(this.bout().getN()), alias
+        );
         Logger.info(this, "@%s invited to #%s", friend, this.bout().getN());
     }
 
@@ -156,32 +159,29 @@ final class DyFriends implements Friends {
                 String.format("alias '%s' is not in the bout", friend)
             );
         }
-        items.next();
+        final Item kicked = items.next();
+        if (kicked.has(DyFriends.ATTR_UNREAD)) {
+            final long unread = Long.parseLong(
+                kicked.get(DyFriends.ATTR_UNREAD).getN()
+            );
+            if (unread > 0L) {
+                new Unread(this.region, alias).add(-unread);
+            }
+        }
         items.remove();
         Logger.info(this, "@%s kicked off #%s", friend, this.bout().getN());
     }
 
     @Override
     public Iterable<Friend> iterate() throws IOException {
-        return Iterables.transform(
-            this.region.table(DyFriends.TBL)
-                .frame()
-                .through(new QueryValve())
-                .where(DyFriends.HASH, Conditions.equalTo(this.bout())),
-            new Function<Item, Friend>() {
-                @Override
-                public Friend apply(final Item input) {
-                    try {
-                        return new DyFriend(
-                            DyFriends.this.region,
-                            input.get(DyFriends.RANGE).getS()
-                        );
-                    } catch (final IOException ex) {
-                        throw new IllegalStateException(ex);
-                    }
-                }
-            }
-        );
+        final Collection<String> aliases = new LinkedList<>();
+        for (final Item item : this.region.table(DyFriends.TBL)
+            .frame()
+            .through(new QueryValve().withAttributesToGet(DyFriends.RANGE))
+            .where(DyFriends.HASH, Conditions.equalTo(this.bout()))) {
+            aliases.add(item.get(DyFriends.RANGE).getS());
+        }
+        return new Profiles(this.region).friends(aliases);
     }
 
     /**
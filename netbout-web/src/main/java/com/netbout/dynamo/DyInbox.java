@@ -39,6 +39,7 @@ import com.google.common.collect.Iterables;
 import com.jcabi.aspects.Cacheable;
 import com.jcabi.aspects.Immutable;
 import com.jcabi.aspects.Loggable;
+import com.jcabi.aspects.Tv;
 import com.jcabi.dynamo.Attributes;
 import com.jcabi.dynamo.Conditions;
 import com.jcabi.dynamo.Item;
@@ -52,8 +53,10 @@ import com.netbout.spi.Inbox;
 import com.netbout.spi.Pageable;
 import java.io.IOException;
 import java.util.ArrayList;
+import java.util.Collection;
 import java.util.Iterator;
 import java.util.List;
+import java.util.Map;
 import lombok.EqualsAndHashCode;
 import lombok.ToString;
 
@@ -76,9 +79,9 @@ import lombok.ToString;
 final class DyInbox implements Inbox {
 
     /**
-     * Counter with bout number.
+     * Sequence of bout numbers.
      */
-    private final transient Counter counter;
+    private final transient Sequence counter;
 
     /**
      * Region we're in.
@@ -101,19 +104,23 @@ final class DyInbox implements Inbox {
      * @param slf My alias
      */
     DyInbox(final Region reg, final String slf) {
-        this(reg, slf, DyInbox.sttc(), Inbox.NEVER);
+        this(
+            reg, slf,
+            new DySequence(reg, "nb-bout", Tv.TEN, DyInbox.legacy()),
+            Inbox.NEVER
+        );
     }
 
     /**
      * Ctor.
      * @param reg Region we're in
      * @param slf My alias
-     * @param ctr Counter
+     * @param ctr Sequence of numbers
      * @param strt Start
      * @since 2.7.1
      * @checkstyle ParameterNumberCheck (5 lines)
      */
-    DyInbox(final Region reg, final String slf, final Counter ctr,
+    DyInbox(final Region reg, final String slf, final Sequence ctr,
         final long strt) {
         this.region = reg;
         this.self = slf;
@@ -123,50 +130,24 @@ final class DyInbox implements Inbox {
 
     @Override
     public long start() throws IOException {
-        final long number = this.counter.incrementAndGet(1L);
+        final long number = this.counter.next();
+        final String title = "untitled";
         this.region.table(DyFriends.TBL).put(
             new Attributes()
                 .with(DyFriends.RANGE, this.self)
                 .with(DyFriends.HASH, number)
                 .with(DyFriends.ATTR_SUBSCRIPTION, true)
                 .with(DyFriends.ATTR_UPDATED, System.currentTimeMillis())
-                .with(DyFriends.ATTR_TITLE, "untitled")
+                .with(DyFriends.ATTR_TITLE, title)
         );
+        new DyTerms(this.region).title(number, this.self, "", title);
         Logger.info(this, "bout #%d started by @%s", number, this.self);
         return number;
     }
 
-    // @todo #1:30min  DynamoDBLocal doesn't work with all attributes
-    //  in global index. If we remove this check for a local version,
-    //  most tests fail. I'm not sure how to fix that. I suspect, it's
-    //  a bug in DynamoDBLocal, but I don't even know how to report
-    //  it to them :( Anyway, let's try to investigate and either fix
-    //  property or introduce a better workaround. Pay attention that this
-    //  code works correctly in production.
     @Override
     public long unread() throws IOException {
-        long unread = 0L;
-        if (!"1.0-LOCAL".equals(Manifests.read("Netbout-Version"))) {
-            final Iterable<Item> items = this.region.table(DyFriends.TBL)
-                .frame()
-                .where(DyFriends.RANGE, this.self)
-                .through(
-                    new QueryValve()
-                        .withIndexName(DyFriends.INDEX)
-                        .withConsistentRead(false)
-                        .withSelect(Select.SPECIFIC_ATTRIBUTES)
-                        .withAttributesToGet(DyFriends.ATTR_UNREAD)
-                        .withScanIndexForward(false)
-                );
-            for (final Item item : items) {
-                if (item.has(DyFriends.ATTR_UNREAD)) {
-                    unread += Long.parseLong(
-                        item.get(DyFriends.ATTR_UNREAD).getN()
-                    );
-                }
-            }
-        }
-        return unread;
+        return new Unread(this.region, this.self).value();
     }
 
     @Override
@@ -175,22 +156,9 @@ final class DyInbox implements Inbox {
         ignore = Inbox.BoutNotFoundException.class
         )
     public Bout bout(final long number) throws Inbox.BoutNotFoundException {
-        final Iterator<Item> items = this.region.table(DyFriends.TBL)
-            .frame()
-            .through(
-                new QueryValve().withLimit(1)
-                    .withSelect(Select.SPECIFIC_ATTRIBUTES)
-                    .withAttributesToGet(
-                        DyFriends.HASH, DyFriends.RANGE
-                    )
-            )
-            .where(DyFriends.HASH, Conditions.equalTo(number))
-            .where(DyFriends.RANGE, this.self)
-            .iterator();
-        if (!items.hasNext()) {
-            throw new Inbox.BoutNotFoundException(number);
-        }
-        return new DyBout(this.region, items.next(), this.self);
+        return this.bout(
+            number, new FriendRow.Live(this.region, number, this.self)
+        );
     }
 
     @Override
@@ -200,61 +168,180 @@ final class DyInbox implements Inbox {
 
     @Override
     public Iterable<Bout> iterate() {
-        return Iterables.transform(
-            this.region.table(DyFriends.TBL)
-                .frame()
-                .where(DyFriends.RANGE, this.self)
-                .where(
-                    DyFriends.ATTR_UPDATED,
-                    new Condition()
-                        .withComparisonOperator(ComparisonOperator.LT)
-                        .withAttributeValueList(
-                            new AttributeValue().withN(
-                                Long.toString(this.since)
-                            )
-                        )
-                )
-                .through(
-                    new QueryValve()
-                        .withIndexName(DyFriends.INDEX)
-                        .withConsistentRead(false)
-                        .withLimit(Inbox.PAGE)
-                        .withSelect(Select.ALL_PROJECTED_ATTRIBUTES)
-                        .withScanIndexForward(false)
-                ),
-            new Function<Item, Bout>() {
-                @Override
-                public Bout apply(final Item item) {
-                    return new Bout.ReadOnly(
-                        new DyBout(
-                            DyInbox.this.region,
-                            item, DyInbox.this.self
-                        )
-                    );
+        return Iterables.concat(
+            Iterables.transform(
+                Iterables.partition(this.frame(Inbox.PAGE), Inbox.PAGE),
+                new Function<List<Item>, Iterable<Bout>>() {
+                    @Override
+                    public Iterable<Bout> apply(final List<Item> page) {
+                        return DyInbox.this.bouts(page);
+                    }
                 }
-            }
+            )
         );
     }
 
+    @Override
+    public Pageable.Page<Bout> page(final int size) throws IOException {
+        final List<Item> page = new ArrayList<>(size);
+        final Iterator<Item> items = this.frame(size).iterator();
+        while (page.size() < size && items.hasNext()) {
+            page.add(items.next());
+        }
+        long next = Pageable.Page.END;
+        if (page.size() == size) {
+            next = Long.parseLong(
+                page.get(size - 1).get(DyFriends.ATTR_UPDATED).getN()
+            );
+        }
+        return new Pageable.Page<Bout>(this.bouts(page), next);
+    }
+
     @Override
     public Iterable<Bout> search(final String term) throws IOException {
-        final List<Bout> result = new ArrayList<>(16);
-        for (final Bout bout : this.iterate()) {
-            if (bout.title().contains(term)) {
-                result.add(bout);
-            } else if (bout.messages().search(term).iterator().hasNext()) {
-                result.add(bout);
+        return Iterables.concat(
+            Iterables.transform(
+                Iterables.partition(
+                    new DyTerms(this.region).bouts(this.self, term),
+                    Inbox.PAGE
+                ),
+                new Function<List<Long>, Iterable<Bout>>() {
+                    @Override
+                    public Iterable<Bout> apply(final List<Long> numbers) {
+                        return DyInbox.this.mine(numbers);
+                    }
+                }
+            )
+        );
+    }
+
+    /**
+     * Rows of my bouts in the index of "friends" table, recent first.
+     * @param limit Maximum number of rows to fetch by one query
+     * @return Rows
+     */
+    private Iterable<Item> frame(final int limit) {
+        return this.region.table(DyFriends.TBL)
+            .frame()
+            .where(DyFriends.RANGE, this.self)
+            .where(
+                DyFriends.ATTR_UPDATED,
+                new Condition()
+                    .withComparisonOperator(ComparisonOperator.LT)
+                    .withAttributeValueList(
+                        new AttributeValue().withN(Long.toString(this.since))
+                    )
+            )
+            .through(
+                new QueryValve()
+                    .withIndexName(DyFriends.INDEX)
+                    .withConsistentRead(false)
+                    .withLimit(limit)
+                    .withSelect(Select.ALL_PROJECTED_ATTRIBUTES)
+                    .withScanIndexForward(false)
+            );
+    }
+
+    /**
+     * Bouts of one inbox page, with friend rows loaded in bulk.
+     * @param page Items of the page, from the index of "friends" table
+     * @return Bouts
+     */
+    private Iterable<Bout> bouts(final List<Item> page) {
+        try {
+            final Collection<Long> numbers = new ArrayList<>(page.size());
+            for (final Item item : page) {
+                numbers.add(DyInbox.number(item));
             }
+            final Map<Long, FriendRow> rows =
+                new FriendRows(this.region, this.self).fetch(numbers);
+            final Collection<Bout> bouts = new ArrayList<>(page.size());
+            for (final Item item : page) {
+                final long number = DyInbox.number(item);
+                FriendRow row = rows.get(number);
+                if (row == null) {
+                    row = new FriendRow.Live(this.region, number, this.self);
+                }
+                bouts.add(
+                    new Bout.ReadOnly(
+                        new DyBout(this.region, item, this.self, row)
+                    )
+                );
+            }
+            return bouts;
+        } catch (final IOException ex) {
+            throw new IllegalStateException(ex);
         }
-        return result;
     }
 
     /**
-     * Sttc counter.
+     * The bouts I'm in, with friend rows loaded in bulk.
+     * @param numbers Bout numbers
+     * @return Bouts
+     */
+    private Iterable<Bout> mine(final List<Long> numbers) {
+        final Map<Long, Map<String, AttributeValue>> rows =
+            new FriendRows(this.region, this.self).items(numbers);
+        final Collection<Bout> bouts = new ArrayList<>(rows.size());
+        for (final Long number : numbers) {
+            final Map<String, AttributeValue> row = rows.get(number);
+            if (row != null) {
+                bouts.add(
+                    new Bout.ReadOnly(
+                        new DyBout(
+                            this.region, new FriendItem(this.region, row),
+                            this.self, new FriendRow.Loaded(row)
+                        )
+                    )
+                );
+            }
+        }
+        return bouts;
+    }
+
+    /**
+     * Get bout by number, with the given friend row.
+     * @param number Bout number
+     * @param row Row of myself in "friends" table
+     * @return Bout
+     * @throws Inbox.BoutNotFoundException If not found
+     */
+    private Bout bout(final long number, final FriendRow row)
+        throws Inbox.BoutNotFoundException {
+        final Iterator<Item> items = this.region.table(DyFriends.TBL)
+            .frame()
+            .through(
+                new QueryValve().withLimit(1)
+                    .withSelect(Select.SPECIFIC_ATTRIBUTES)
+                    .withAttributesToGet(
+                        DyFriends.HASH, DyFriends.RANGE
+                    )
+            )
+            .where(DyFriends.HASH, Conditions.equalTo(number))
+            .where(DyFriends.RANGE, this.self)
+            .iterator();
+        if (!items.hasNext()) {
+            throw new Inbox.BoutNotFoundException(number);
+        }
+        return new DyBout(this.region, items.next(), this.self, row);
+    }
+
+    /**
+     * Bout number of the item.
+     * @param item Item from "friends" table
+     * @return Bout number
+     * @throws IOException If fails
+     */
+    private static long number(final Item item) throws IOException {
+        return Long.parseLong(item.get(DyFriends.HASH).getN());
+    }
+
+    /**
+     * Legacy counter on stateful.co, to start the sequence from.
      * @return Counter
      */
     @Cacheable(forever = true)
-    private static Counter sttc() {
+    private static Counter legacy() {
         try {
             return new CdSttc(
                 new ReSttc(
@@ -26,60 +26,91 @@
  */
 package com.netbout.dynamo;
 
+import com.amazonaws.services.dynamodbv2.model.AttributeValue;
 import com.jcabi.aspects.Immutable;
 import com.jcabi.aspects.Loggable;
-import com.jcabi.dynamo.Item;
+import com.jcabi.immutable.ArrayMap;
+import com.netbout.markdown.Markdown;
 import com.netbout.spi.Message;
 import java.io.IOException;
 import java.util.Date;
+import java.util.Map;
 import lombok.EqualsAndHashCode;
 import lombok.ToString;
 
 /**
  * Dynamo message.
  *
+ * <p>HTML of the text is rendered once, when the message is posted,
+ * and stored together with the version of the renderer. When the
+ * version is not the current one, the HTML is rendered again.
+ *
  * @author Yegor Bugayenko (yegor@teamed.io)
  * @version $Id$
  * @since 2.0
  */
 @Immutable
 @Loggable(Loggable.DEBUG)
-@ToString(of = "item")
-@EqualsAndHashCode(of = "item")
-final class DyMessage implements Message {
+@ToString(of = "attrs")
+@EqualsAndHashCode(of = "attrs")
+final class DyMessage implements Message, Markdown.Rendered {
 
     /**
-     * Item with data.
+     * Attributes of the item.
      */
-    private final transient Item item;
+    private final transient ArrayMap<String, AttributeValue> attrs;
 
     /**
      * Ctor.
-     * @param itm Item with data
+     * @param map Attributes of the item, including its range key
      */
-    DyMessage(final Item itm) {
-        this.item = itm;
+    DyMessage(final Map<String, AttributeValue> map) {
+        this.attrs = new ArrayMap<String, AttributeValue>(map);
     }
 
     @Override
     public long number() throws IOException {
-        return Long.parseLong(this.item.get(DyMessages.RANGE).getN());
+        return Long.parseLong(this.attrs.get(DyMessages.RANGE).getN());
     }
 
     @Override
     public Date date() throws IOException {
         return new Date(
-            Long.parseLong(this.item.get(DyMessages.ATTR_DATE).getN())
+            Long.parseLong(this.attrs.get(DyMessages.ATTR_DATE).getN())
         );
     }
 
     @Override
     public String text() throws IOException {
-        return this.item.get(DyMessages.ATTR_TEXT).getS();
+        return this.attrs.get(DyMessages.ATTR_TEXT).getS();
     }
 
     @Override
     public String author() throws IOException {
-        return this.item.get(DyMessages.ATTR_ALIAS).getS();
+        return this.attrs.get(DyMessages.ATTR_ALIAS).getS();
+    }
+
+    @Override
+    public String html() throws IOException {
+        final String html;
+        if (DyMessage.fresh(this.attrs)) {
+            html = this.attrs.get(DyMessages.ATTR_HTML).getS();
+        } else {
+            html = new Markdown.Default().html(this.text());
+        }
+        return html;
+    }
+
+    /**
+     * Stored HTML is rendered by the current version of the renderer.
+     * @param item Attributes of the item
+     * @return TRUE if it can be used as is
+     */
+    static boolean fresh(final Map<String, AttributeValue> item) {
+        return item.containsKey(DyMessages.ATTR_HTML)
+            && item.containsKey(DyMessages.ATTR_MARKDOWN)
+            && Markdown.Default.VERSION.equals(
+                item.get(DyMessages.ATTR_MARKDOWN).getS()
+            );
     }
 }
@@ -30,13 +30,20 @@ import co.stateful.Counter;
 import co.stateful.RtSttc;
 import co.stateful.cached.CdSttc;
 import co.stateful.retry.ReSttc;
+import com.amazonaws.services.dynamodbv2.AmazonDynamoDB;
 import com.amazonaws.services.dynamodbv2.model.AttributeAction;
 import com.amazonaws.services.dynamodbv2.model.AttributeValue;
 import com.amazonaws.services.dynamodbv2.model.AttributeValueUpdate;
 import com.amazonaws.services.dynamodbv2.model.ComparisonOperator;
 import com.amazonaws.services.dynamodbv2.model.Condition;
+import com.amazonaws.services.dynamodbv2.model.ConditionalCheckFailedException;
+import com.amazonaws.services.dynamodbv2.model.ExpectedAttributeValue;
+import com.amazonaws.services.dynamodbv2.model.GetItemRequest;
+import com.amazonaws.services.dynamodbv2.model.QueryRequest;
+import com.amazonaws.services.dynamodbv2.model.QueryResult;
+import com.amazonaws.services.dynamodbv2.model.ReturnValue;
+import com.amazonaws.services.dynamodbv2.model.UpdateItemRequest;
 import com.google.common.base.Function;
-import com.google.common.base.Predicate;
 import com.google.common.collect.Iterables;
 import com.jcabi.aspects.Async;
 import com.jcabi.aspects.Cacheable;
@@ -52,19 +59,22 @@ import com.jcabi.dynamo.Region;
 import com.jcabi.log.Logger;
 import com.jcabi.manifests.Manifests;
 import com.jcabi.urn.URN;
+import com.netbout.markdown.Markdown;
 import com.netbout.spi.Inbox;
 import com.netbout.spi.Message;
 import com.netbout.spi.Messages;
 import com.netbout.spi.Pageable;
 import java.io.IOException;
-import java.net.HttpURLConnection;
 import java.util.ArrayList;
-import java.util.Iterator;
+import java.util.Collections;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.SortedMap;
+import java.util.TreeMap;
 import lombok.EqualsAndHashCode;
 import lombok.ToString;
 import org.apache.commons.lang3.StringUtils;
-import org.takes.HttpException;
 
 /**
  * Dynamo messages.
@@ -115,9 +125,21 @@ final class DyMessages implements Messages {
     public static final String ATTR_DATE = "date";
 
     /**
-     * Counter with message number.
+     * HTML of the message, rendered from its text.
+     * @since 3.0
      */
-    private final transient Counter counter;
+    public static final String ATTR_HTML = "html";
+
+    /**
+     * Version of the renderer, which made the HTML.
+     * @since 3.0
+     */
+    public static final String ATTR_MARKDOWN = "markdown";
+
+    /**
+     * Sequence of message numbers.
+     */
+    private final transient Sequence counter;
 
     /**
      * Region to work with.
@@ -139,14 +161,26 @@ final class DyMessages implements Messages {
      */
     private final transient long start;
 
+    /**
+     * Row of self alias in "friends" table.
+     */
+    private final transient FriendRow row;
+
     /**
      * Ctor.
      * @param reg Region
      * @param num Bout number
      * @param slf Self alias
+     * @param rw Row of self alias in "friends" table
+     * @checkstyle ParameterNumberCheck (4 lines)
      */
-    DyMessages(final Region reg, final long num, final String slf) {
-        this(reg, num, slf, DyMessages.sttc(), Inbox.NEVER);
+    DyMessages(final Region reg, final long num, final String slf,
+        final FriendRow rw) {
+        this(
+            reg, num, slf,
+            new DyCounter(reg, "nb-message", DyMessages.legacy()),
+            Inbox.NEVER, rw
+        );
     }
 
     /**
@@ -154,18 +188,20 @@ final class DyMessages implements Messages {
      * @param reg Region
      * @param num Bout number
      * @param slf Self alias
-     * @param ctr Counter
+     * @param ctr Sequence of numbers
      * @param strt Start message number
+     * @param rw Row of self alias in "friends" table
      * @since 2.7.1
      * @checkstyle ParameterNumberCheck (5 lines)
      */
     DyMessages(final Region reg, final long num, final String slf,
-        final Counter ctr, final long strt) {
+        final Sequence ctr, final long strt, final FriendRow rw) {
         this.region = reg;
         this.bout = num;
         this.self = slf;
         this.counter = ctr;
         this.start = strt;
+        this.row = rw;
     }
 
     @Override
@@ -181,7 +217,7 @@ final class DyMessages implements Messages {
                 "message is too big, break it into parts or upload attachment"
             );
         }
-        final long number = this.counter.incrementAndGet(1L);
+        final long number = this.counter.next();
         this.region.table(DyMessages.TBL).put(
             new Attributes()
                 .with(DyMessages.HASH, this.bout)
@@ -189,49 +225,24 @@ final class DyMessages implements Messages {
                 .with(DyMessages.ATTR_TEXT, clean)
                 .with(DyMessages.ATTR_ALIAS, this.self)
                 .with(DyMessages.ATTR_DATE, System.currentTimeMillis())
+                .with(DyMessages.ATTR_HTML, new Markdown.Default().html(clean))
+                .with(DyMessages.ATTR_MARKDOWN, Markdown.Default.VERSION)
         );
+        new DyTerms(this.region).add(this.bout, number, clean);
         this.updated();
+        this.archive().posted();
         Logger.info(this, "posted to #%d by @%s", this.bout, this.self);
     }
 
-    // @todo #1094:30min HttpException seems not really appropriate here
-    //  in database layer. I think we have to throw something like
-    //  BoutNotFoundException and process its somewhere in web layer.
-    //  Pay attention that we should also change a test
-    //  DyMessagesITCase.exceptionIfBoutNotFound() which tests a presence
-    //  of HttpException.
     @Override
     public long unread() throws IOException {
-        final Iterator<Item> iterator = this.region.table(DyFriends.TBL)
-            .frame()
-            .through(
-                new QueryValve()
-                    .withLimit(1)
-                    .withAttributesToGet(DyFriends.ATTR_UNREAD)
-            )
-            .where(DyFriends.HASH, Conditions.equalTo(this.bout))
-            .where(DyFriends.RANGE, Conditions.equalTo(this.self))
-            .iterator();
-        if (!iterator.hasNext()) {
-            throw new HttpException(
-                HttpURLConnection.HTTP_NOT_FOUND,
-                new Inbox.BoutNotFoundException(this.bout)
-            );
-        }
-        final Item item = iterator.next();
-        final long unread;
-        if (item.has(DyFriends.ATTR_UNREAD)) {
-            unread = Long.parseLong(item.get(DyFriends.ATTR_UNREAD).getN());
-        } else {
-            unread = 0L;
-        }
-        return unread;
+        return this.row.unread();
     }
 
     @Override
     public Pageable<Message> jump(final long number) {
         return new DyMessages(
-            this.region, this.bout, this.self, this.counter, number
+            this.region, this.bout, this.self, this.counter, number, this.row
         );
     }
 
@@ -240,82 +251,284 @@ final class DyMessages implements Messages {
         if (this.start != Long.MAX_VALUE) {
             this.seen();
         }
-        return Iterables.transform(
-            this.region.table(DyMessages.TBL)
-                .frame()
-                .through(
-                    new QueryValve()
-                        .withScanIndexForward(false)
-                        .withLimit(Messages.PAGE)
-                        .withAttributesToGet(
-                            DyMessages.ATTR_TEXT,
-                            DyMessages.ATTR_ALIAS,
-                            DyMessages.ATTR_DATE
-                        )
-                )
-                .where(DyMessages.HASH, Conditions.equalTo(this.bout))
-                .where(
-                    DyMessages.RANGE,
-                    new Condition()
-                        .withComparisonOperator(ComparisonOperator.LT)
-                        .withAttributeValueList(
-                            new AttributeValue().withN(
-                                Long.toString(this.start)
-                            )
-                        )
-                ),
-            new Function<Item, Message>() {
+        return new ReadAhead<Message>(
+            new ReadAhead.Source<Message>() {
                 @Override
-                public Message apply(final Item item) {
-                    return new DyMessage(item);
+                public Pageable.Page<Message> page(final long position,
+                    final int size) throws IOException {
+                    return DyMessages.this.fetch(position, size);
                 }
-            }
+            },
+            this.start, Messages.PAGE
         );
     }
 
+    @Override
+    public Pageable.Page<Message> page(final int size)
+        throws IOException {
+        if (this.start != Long.MAX_VALUE) {
+            this.seen();
+        }
+        return this.fetch(this.start, size);
+    }
+
     @Override
     public Iterable<Message> search(final String term) throws IOException {
-        final List<Message> result = new ArrayList<>(16);
-        for (final Message message : this.iterate()) {
-            if (message.text().contains(term)) {
-                result.add(message);
+        if (this.start != Long.MAX_VALUE) {
+            this.seen();
+        }
+        return Iterables.transform(
+            new DyTerms(this.region).messages(this.bout, term),
+            new Function<Long, Message>() {
+                @Override
+                public Message apply(final Long number) {
+                    return DyMessages.this.message(number);
+                }
+            }
+        );
+    }
+
+    /**
+     * Fetch one page of messages by a single query to the hot table.
+     *
+     * <p>The range key of LastEvaluatedKey, which DynamoDB returns when
+     * the limit is reached or when the response is too big to include
+     * more items, is the floor of the page. Messages are archived oldest
+     * first, that's why all archived messages are below the floor and
+     * belong to the next pages. Segments are looked up only when the
+     * query reached the end of the hot table.</p>
+     *
+     * @param position Number of the message to start after
+     * @param size Maximum number of messages in the page
+     * @return The page
+     * @throws IOException If fails
+     */
+    private Pageable.Page<Message> fetch(final long position,
+        final int size) throws IOException {
+        final QueryResult result;
+        final AmazonDynamoDB aws = this.region.aws();
+        try {
+            result = aws.query(
+                new QueryRequest()
+                    .withTableName(this.region.table(DyMessages.TBL).name())
+                    .withKeyConditions(
+                        new Conditions()
+                            .with(
+                                DyMessages.HASH,
+                                Conditions.equalTo(this.bout)
+                            )
+                            .with(
+                                DyMessages.RANGE,
+                                new Condition()
+                                    .withComparisonOperator(
+                                        ComparisonOperator.LT
+                                    )
+                                    .withAttributeValueList(
+                                        new AttributeValue().withN(
+                                            Long.toString(position)
+                                        )
+                                    )
+                            )
+                    )
+                    .withAttributesToGet(
+                        DyMessages.RANGE,
+                        DyMessages.ATTR_TEXT,
+                        DyMessages.ATTR_ALIAS,
+                        DyMessages.ATTR_DATE,
+                        DyMessages.ATTR_HTML,
+                        DyMessages.ATTR_MARKDOWN
+                    )
+                    .withScanIndexForward(false)
+                    .withConsistentRead(true)
+                    .withLimit(size)
+            );
+        } finally {
+            aws.shutdown();
+        }
+        final Map<String, AttributeValue> last = result.getLastEvaluatedKey();
+        long floor = 0L;
+        if (last != null && last.containsKey(DyMessages.RANGE)) {
+            floor = Long.parseLong(last.get(DyMessages.RANGE).getN());
+        }
+        final SortedMap<Long, Message> found =
+            new TreeMap<>(Collections.reverseOrder());
+        for (final Map<String, AttributeValue> item : result.getItems()) {
+            found.put(
+                Long.parseLong(item.get(DyMessages.RANGE).getN()),
+                new DyMessage(this.rendered(item))
+            );
+        }
+        if (last == null) {
+            for (final Message msg
+                : this.archive().messages(floor, position, size)) {
+                found.put(msg.number(), msg);
             }
         }
-        return result;
+        final List<Message> messages = new ArrayList<>(found.values())
+            .subList(0, Math.min(size, found.size()));
+        long next = Pageable.Page.END;
+        if (messages.size() == size) {
+            next = messages.get(size - 1).number();
+        } else if (floor > 0L) {
+            next = floor;
+        }
+        return new Pageable.Page<Message>(messages, next);
     }
 
     /**
-     * It was updated just now.
+     * Archive of old messages of the bout.
+     * @return Archive
+     */
+    private Archive archive() {
+        return new Archive(this.region, DyAttachment.storage(), this.bout);
+    }
+
+    /**
+     * Load one message, with its rendered HTML.
+     * @param number Message number
+     * @return The message
+     */
+    private Message message(final long number) {
+        final Map<String, AttributeValue> item;
+        final AmazonDynamoDB aws = this.region.aws();
+        try {
+            item = aws.getItem(
+                new GetItemRequest()
+                    .withTableName(this.region.table(DyMessages.TBL).name())
+                    .withKey(
+                        new Attributes()
+                            .with(DyMessages.HASH, this.bout)
+                            .with(DyMessages.RANGE, number)
+                    )
+                    .withAttributesToGet(
+                        DyMessages.RANGE,
+                        DyMessages.ATTR_TEXT,
+                        DyMessages.ATTR_ALIAS,
+                        DyMessages.ATTR_DATE,
+                        DyMessages.ATTR_HTML,
+                        DyMessages.ATTR_MARKDOWN
+                    )
+                    .withConsistentRead(true)
+            ).getItem();
+        } finally {
+            aws.shutdown();
+        }
+        try {
+            final Message msg;
+            if (item == null) {
+                msg = this.archive().message(number);
+            } else {
+                msg = new DyMessage(this.rendered(item));
+            }
+            return msg;
+        } catch (final IOException ex) {
+            throw new IllegalStateException(ex);
+        }
+    }
+
+    /**
+     * Make sure the HTML of the message is rendered by the current
+     * version of the renderer, and store it back, if it was not.
+     * @param item Attributes of the message, including its range key
+     * @return Attributes with the fresh HTML
+     */
+    private Map<String, AttributeValue> rendered(
+        final Map<String, AttributeValue> item) {
+        final Map<String, AttributeValue> fresh;
+        if (DyMessage.fresh(item)) {
+            fresh = item;
+        } else {
+            final String html = new Markdown.Default().html(
+                item.get(DyMessages.ATTR_TEXT).getS()
+            );
+            fresh = new HashMap<>(item);
+            fresh.put(DyMessages.ATTR_HTML, new AttributeValue(html));
+            fresh.put(
+                DyMessages.ATTR_MARKDOWN,
+                new AttributeValue(Markdown.Default.VERSION)
+            );
+            this.store(item.get(DyMessages.RANGE), html);
+        }
+        return fresh;
+    }
+
+    /**
+     * Store freshly rendered HTML of the message.
+     *
+     * <p>The condition prevents the update from creating a row, if the
+     * message was moved to the archive in the meantime.</p>
+     *
+     * @param number Number of the message
+     * @param html HTML to store
      */
     @Async
+    private void store(final AttributeValue number, final String html) {
+        final AmazonDynamoDB aws = this.region.aws();
+        try {
+            aws.updateItem(
+                new UpdateItemRequest()
+                    .withTableName(this.region.table(DyMessages.TBL).name())
+                    .withKey(
+                        new Attributes()
+                            .with(DyMessages.HASH, this.bout)
+                            .with(DyMessages.RANGE, number)
+                    )
+                    .withExpected(
+                        Collections.singletonMap(
+                            DyMessages.RANGE,
+                            new ExpectedAttributeValue(number)
+                        )
+                    )
+                    .withAttributeUpdates(
+                        new AttributeUpdates()
+                            .with(DyMessages.ATTR_HTML, html)
+                            .with(
+                                DyMessages.ATTR_MARKDOWN,
+                                Markdown.Default.VERSION
+                            )
+                    )
+            );
+        } catch (final ConditionalCheckFailedException ex) {
+            Logger.info(
+                this, "message #%s of #%d is archived already",
+                number.getN(), this.bout
+            );
+        } finally {
+            aws.shutdown();
+        }
+    }
+
+    /**
+     * It was updated just now.
+     *
+     * <p>Every friend, except me, gets one more unread message, both in
+     * the bout and in the total of the alias.</p>
+     */
     private void updated() {
         final String alias = this.self;
-        Iterables.all(
+        final long now = System.currentTimeMillis();
+        new Fanout().update(
             this.region.table(DyFriends.TBL).frame()
-                .through(new QueryValve())
+                .through(new QueryValve().withAttributesToGet(DyFriends.RANGE))
                 .where(DyFriends.HASH, Conditions.equalTo(this.bout)),
-            // @checkstyle AnonInnerLengthCheck (50 lines)
-            new Predicate<Item>() {
+            new Fanout.Updates() {
                 @Override
-                public boolean apply(final Item input) {
+                public AttributeUpdates updates(final Item item)
+                    throws IOException {
                     AttributeUpdates updates = new AttributeUpdates().with(
-                        DyFriends.ATTR_UPDATED,
-                        System.currentTimeMillis()
+                        DyFriends.ATTR_UPDATED, now
                     );
-                    try {
-                        if (!input.get(DyFriends.RANGE).getS().equals(alias)) {
-                            updates = updates.with(
-                                DyFriends.ATTR_UNREAD,
-                                new AttributeValueUpdate()
-                                    .withAction(AttributeAction.ADD)
-                                    .withValue(new AttributeValue().withN("1"))
-                            );
-                        }
-                        input.put(updates);
-                    } catch (final IOException ex) {
-                        throw new IllegalStateException(ex);
+                    final String friend = item.get(DyFriends.RANGE).getS();
+                    if (!friend.equals(alias)) {
+                        new Unread(DyMessages.this.region, friend).add(1L);
+                        updates = updates.with(
+                            DyFriends.ATTR_UNREAD,
+                            new AttributeValueUpdate()
+                                .withAction(AttributeAction.ADD)
+                                .withValue(new AttributeValue().withN("1"))
+                        );
                     }
-                    return true;
+                    return updates;
                 }
             }
         );
@@ -323,38 +536,61 @@ final class DyMessages implements Messages {
 
     /**
      * It was seen just now.
+     *
+     * <p>The unread counter of the bout is reset to zero and the total
+     * of the alias is decremented by its previous value. The condition
+     * prevents the update from creating a row, if I'm not in the bout.</p>
      */
     @Async
     private void seen() {
-        Iterables.all(
-            this.region.table(DyFriends.TBL).frame()
-                .through(new QueryValve())
-                .where(DyFriends.HASH, Conditions.equalTo(this.bout))
-                .where(DyFriends.RANGE, this.self),
-            new Predicate<Item>() {
-                @Override
-                public boolean apply(final Item input) {
-                    try {
-                        input.put(
-                            new AttributeUpdates().with(
-                                DyFriends.ATTR_UNREAD, 0L
+        final AmazonDynamoDB aws = this.region.aws();
+        try {
+            final Map<String, AttributeValue> before = aws.updateItem(
+                new UpdateItemRequest()
+                    .withTableName(this.region.table(DyFriends.TBL).name())
+                    .withKey(
+                        new Attributes()
+                            .with(DyFriends.HASH, this.bout)
+                            .with(DyFriends.RANGE, this.self)
+                    )
+                    .withExpected(
+                        Collections.singletonMap(
+                            DyFriends.RANGE,
+                            new ExpectedAttributeValue(
+                                new AttributeValue(this.self)
                             )
-                        );
-                    } catch (final IOException ex) {
-                        throw new IllegalStateException(ex);
-                    }
-                    return true;
+                        )
+                    )
+                    .withAttributeUpdates(
+                        new AttributeUpdates().with(DyFriends.ATTR_UNREAD, 0L)
+                    )
+                    .withReturnValues(ReturnValue.UPDATED_OLD)
+            ).getAttributes();
+            if (before != null && before.containsKey(DyFriends.ATTR_UNREAD)) {
+                final long unread = Long.parseLong(
+                    before.get(DyFriends.ATTR_UNREAD).getN()
+                );
+                if (unread > 0L) {
+                    new Unread(this.region, this.self).seen(unread);
                 }
             }
-        );
+        } catch (final ConditionalCheckFailedException ex) {
+            Logger.info(
+                this, "@%s is not in #%d anymore", this.self, this.bout
+            );
+        } catch (final IOException ex) {
+            throw new IllegalStateException(ex);
+        } finally {
+            aws.shutdown();
+        }
     }
 
     /**
-     * Sttc counter.
+     * Legacy counter on stateful.co, to start the sequence from.
      * @return Counter
      */
     @Cacheable(forever = true)
-    private static Counter sttc() {
+    private static Counter legacy() {
         try {
             return new CdSttc(
                 new ReSttc(
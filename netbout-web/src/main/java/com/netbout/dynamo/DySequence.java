@@ -0,0 +1,287 @@
+/**
+ * Copyright (c) 2009-2016, netbout.com
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are PROHIBITED without prior written permission from
+ * the author. This product may NOT be used anywhere and on any computer
+ * except the server platform of netbout Inc. located at www.netbout.com.
+ * Federal copyright law prohibits unauthorized reproduction by any means
+ * and imposes fines up to $25,000 for violation. If you received
+ * this code accidentally and without intent to use it, please report this
+ * incident to the author by email.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS
+ * "AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT
+ * LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR
+ * A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT
+ * OWNER OR CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL,
+ * SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT
+ * LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE,
+ * DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON
+ * ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY,
+ * OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT
+ * OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF
+ * SUCH DAMAGE.
+ */
+package com.netbout.dynamo;
+
+import co.stateful.Counter;
+import com.jcabi.aspects.Immutable;
+import com.jcabi.aspects.Loggable;
+import com.jcabi.aspects.Tv;
+import com.jcabi.dynamo.Region;
+import com.jcabi.log.Logger;
+import com.jcabi.log.VerboseThreads;
+import java.io.IOException;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+import lombok.EqualsAndHashCode;
+import lombok.ToString;
+
+/**
+ * Sequence of numbers leased in blocks from "counters" table.
+ *
+ * <p>Every lease is one atomic ADD of the block size to the counter item.
+ * Numbers of the block are handed out from memory, without locks, and the
+ * next block is leased in background when three quarters of the current
+ * one are taken. Numbers left in the block when the server stops are
+ * lost, so the sequence may have gaps. When there are many servers,
+ * numbers are unique, but not monotonic across them, that's why it is
+ * used only where the order doesn't matter; see {@link DyCounter} for
+ * numbers that grow in the order they are taken.
+ *
+ * <p>The counter item is created on the first lease, as
+ * {@link DyCounter} explains.
+ *
+ * <p>All instances with the same table and name share blocks.
+ *
+ * @author Yegor Bugayenko (yegor@teamed.io)
+ * @version $Id$
+ * @since 3.0
+ */
+@Immutable
+@Loggable(Loggable.DEBUG)
+@ToString(of = { "name", "size" })
+@EqualsAndHashCode(of = { "region", "name", "size" })
+@SuppressWarnings("PMD.DoNotUseThreads")
+final class DySequence implements Sequence {
+
+    /**
+     * Table name.
+     */
+    public static final String TBL = "counters";
+
+    /**
+     * Name of the counter.
+     */
+    public static final String HASH = "name";
+
+    /**
+     * The last number leased.
+     */
+    public static final String ATTR_VALUE = "value";
+
+    /**
+     * Blocks, by table and counter name.
+     */
+    private static final ConcurrentMap<String, DySequence.Blocks> BLOCKS =
+        new ConcurrentHashMap<>(0);
+
+    /**
+     * Thread to lease blocks ahead in.
+     */
+    private static final ExecutorService AHEAD =
+        Executors.newSingleThreadExecutor(
+            new VerboseThreads(DySequence.class)
+        );
+
+    /**
+     * Region we're in.
+     */
+    private final transient Region region;
+
+    /**
+     * Name of the counter.
+     */
+    private final transient String name;
+
+    /**
+     * How many numbers to lease at once.
+     */
+    private final transient long size;
+
+    /**
+     * Legacy counter to start from.
+     */
+    private final transient Counter legacy;
+
+    /**
+     * Ctor.
+     * @param reg Region
+     * @param cnt Name of the counter
+     * @param blk How many numbers to lease at once
+     * @param old Legacy counter to start from, when there is no item yet
+     * @checkstyle ParameterNumberCheck (4 lines)
+     */
+    DySequence(final Region reg, final String cnt, final long blk,
+        final Counter old) {
+        this.region = reg;
+        this.name = cnt;
+        this.size = blk;
+        this.legacy = old;
+    }
+
+    @Override
+    public long next() throws IOException {
+        final DySequence.Blocks blocks = this.blocks();
+        while (true) {
+            final DySequence.Block block = blocks.current.get();
+            final long number = block.cursor.getAndIncrement();
+            if (number <= block.last) {
+                if (number == block.ahead) {
+                    this.prefetch(blocks);
+                }
+                return number;
+            }
+            this.refill(blocks, block);
+        }
+    }
+
+    /**
+     * Blocks of this counter.
+     * @return Blocks
+     */
+    private DySequence.Blocks blocks() {
+        final String key = String.format(
+            "%s/%s", this.region.table(DySequence.TBL).name(), this.name
+        );
+        DySequence.Blocks blocks = DySequence.BLOCKS.get(key);
+        if (blocks == null) {
+            DySequence.BLOCKS.putIfAbsent(key, new DySequence.Blocks());
+            blocks = DySequence.BLOCKS.get(key);
+        }
+        return blocks;
+    }
+
+    /**
+     * Replace the exhausted block with the next one.
+     * @param blocks Blocks
+     * @param exhausted The block that is exhausted
+     * @throws IOException If fails
+     */
+    private void refill(final DySequence.Blocks blocks,
+        final DySequence.Block exhausted) throws IOException {
+        synchronized (blocks) {
+            if (blocks.current.get() == exhausted) {
+                final Future<DySequence.Block> future =
+                    blocks.next.getAndSet(null);
+                DySequence.Block block = null;
+                if (future != null) {
+                    try {
+                        block = future.get();
+                    } catch (final InterruptedException ex) {
+                        Thread.currentThread().interrupt();
+                        throw new IllegalStateException(ex);
+                    } catch (final ExecutionException ex) {
+                        Logger.warn(
+                            this, "failed to lease ahead \"%s\": %s",
+                            this.name, ex.getCause()
+                        );
+                    }
+                }
+                if (block == null) {
+                    block = this.lease();
+                }
+                blocks.current.set(block);
+            }
+        }
+    }
+
+    /**
+     * Start leasing the next block in background.
+     * @param blocks Blocks
+     */
+    private void prefetch(final DySequence.Blocks blocks) {
+        final FutureTask<DySequence.Block> task = new FutureTask<>(
+            new Callable<DySequence.Block>() {
+                @Override
+                public DySequence.Block call() throws IOException {
+                    return DySequence.this.lease();
+                }
+            }
+        );
+        if (blocks.next.compareAndSet(null, task)) {
+            DySequence.AHEAD.execute(task);
+        }
+    }
+
+    /**
+     * Lease a new block.
+     * @return The block
+     * @throws IOException If fails
+     */
+    private DySequence.Block lease() throws IOException {
+        final long last = new DyCounter(
+            this.region, this.name, this.legacy
+        ).add(this.size);
+        Logger.info(
+            this, "numbers %d..%d leased for \"%s\"",
+            last - this.size + 1L, last, this.name
+        );
+        return new DySequence.Block(last - this.size + 1L, last);
+    }
+
+    /**
+     * Blocks of one counter.
+     */
+    private static final class Blocks {
+        /**
+         * Current block.
+         */
+        private final transient AtomicReference<DySequence.Block> current =
+            new AtomicReference<>(new DySequence.Block(1L, 0L));
+        /**
+         * Next block, being leased or already leased.
+         */
+        private final transient AtomicReference<Future<DySequence.Block>>
+            next = new AtomicReference<>();
+    }
+
+    /**
+     * Block of numbers.
+     */
+    private static final class Block {
+        /**
+         * The next number to take.
+         */
+        private final transient AtomicLong cursor;
+        /**
+         * The last number in the block.
+         */
+        private final transient long last;
+        /**
+         * When this number is taken, the next block is leased.
+         */
+        private final transient long ahead;
+        /**
+         * Ctor.
+         * @param first The first number
+         * @param end The last number
+         */
+        Block(final long first, final long end) {
+            this.cursor = new AtomicLong(first);
+            this.last = end;
+            this.ahead = first + (end - first + 1L) * Tv.THREE / Tv.FOUR;
+        }
+    }
+
+}
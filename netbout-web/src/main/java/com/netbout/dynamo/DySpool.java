@@ -0,0 +1,231 @@
+/**
+ * Copyright (c) 2009-2016, netbout.com
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are PROHIBITED without prior written permission from
+ * the author. This product may NOT be used anywhere and on any computer
+ * except the server platform of netbout Inc. located at www.netbout.com.
+ * Federal copyright law prohibits unauthorized reproduction by any means
+ * and imposes fines up to $25,000 for violation. If you received
+ * this code accidentally and without intent to use it, please report this
+ * incident to the author by email.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS
+ * "AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT
+ * LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR
+ * A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT
+ * OWNER OR CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL,
+ * SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT
+ * LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE,
+ * DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON
+ * ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY,
+ * OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT
+ * OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF
+ * SUCH DAMAGE.
+ */
+package com.netbout.dynamo;
+
+import com.amazonaws.services.dynamodbv2.AmazonDynamoDB;
+import com.amazonaws.services.dynamodbv2.model.AttributeValue;
+import com.amazonaws.services.dynamodbv2.model.ConditionalCheckFailedException;
+import com.amazonaws.services.dynamodbv2.model.ScanRequest;
+import com.amazonaws.services.dynamodbv2.model.ScanResult;
+import com.amazonaws.services.dynamodbv2.model.UpdateItemRequest;
+import com.google.common.base.Joiner;
+import com.jcabi.aspects.Immutable;
+import com.jcabi.aspects.Loggable;
+import com.jcabi.aspects.Tv;
+import com.jcabi.dynamo.Attributes;
+import com.jcabi.dynamo.Region;
+import com.netbout.email.Spool;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.UUID;
+import lombok.EqualsAndHashCode;
+import lombok.ToString;
+
+/**
+ * Spool of notifications in DynamoDB.
+ *
+ * <p>Every notification is an item in the "spool" table, with all its
+ * non-empty values as string attributes, next to its ID and the time
+ * it was saved at, and the time it was claimed at. A claim is a
+ * conditional update of that time, which fails when another server
+ * claimed it later, or when the notification is deleted already. The
+ * table is scanned only to resume notifications, it is small, since
+ * notifications are deleted when delivered.
+ *
+ * @author Yegor Bugayenko (yegor@teamed.io)
+ * @version $Id$
+ * @since 3.0
+ */
+@Immutable
+@Loggable(Loggable.DEBUG)
+@ToString
+@EqualsAndHashCode(of = "region")
+public final class DySpool implements Spool {
+
+    /**
+     * Table name.
+     */
+    public static final String TBL = "spool";
+
+    /**
+     * Unique ID of a notification.
+     */
+    public static final String HASH = "id";
+
+    /**
+     * When it was saved, in milliseconds.
+     */
+    public static final String ATTR_TIME = "time";
+
+    /**
+     * When it was claimed, in milliseconds.
+     */
+    public static final String ATTR_CLAIMED = "claimed";
+
+    /**
+     * Region we're in.
+     */
+    private final transient Region region;
+
+    /**
+     * Public ctor.
+     */
+    public DySpool() {
+        this(DyBase.region());
+    }
+
+    /**
+     * Ctor.
+     * @param reg Region
+     */
+    DySpool(final Region reg) {
+        this.region = reg;
+    }
+
+    @Override
+    public String save(final Map<String, String> parcel) {
+        final String id = UUID.randomUUID().toString();
+        final Map<String, AttributeValue> item = new HashMap<>(
+            parcel.size() + Tv.THREE
+        );
+        for (final Map.Entry<String, String> entry : parcel.entrySet()) {
+            if (!entry.getValue().isEmpty()) {
+                item.put(entry.getKey(), new AttributeValue(entry.getValue()));
+            }
+        }
+        final AttributeValue now = DySpool.number(
+            System.currentTimeMillis()
+        );
+        item.put(DySpool.HASH, new AttributeValue(id));
+        item.put(DySpool.ATTR_TIME, now);
+        item.put(DySpool.ATTR_CLAIMED, now);
+        final AmazonDynamoDB aws = this.region.aws();
+        try {
+            aws.putItem(this.region.table(DySpool.TBL).name(), item);
+        } finally {
+            aws.shutdown();
+        }
+        return id;
+    }
+
+    /**
+     * {@inheritDoc}
+     *
+     * <p>Notifications saved before claims were introduced have no time
+     * of claim, they are claimed by anyone.</p>
+     */
+    @Override
+    public boolean claim(final String id, final long before) {
+        final Map<String, String> names = new HashMap<>(2);
+        names.put("#id", DySpool.HASH);
+        names.put("#claimed", DySpool.ATTR_CLAIMED);
+        final Map<String, AttributeValue> values = new HashMap<>(2);
+        values.put(":before", DySpool.number(before));
+        values.put(":now", DySpool.number(System.currentTimeMillis()));
+        final AmazonDynamoDB aws = this.region.aws();
+        boolean claimed;
+        try {
+            aws.updateItem(
+                new UpdateItemRequest()
+                    .withTableName(this.region.table(DySpool.TBL).name())
+                    .withKey(new Attributes().with(DySpool.HASH, id))
+                    .withConditionExpression(
+                        Joiner.on(' ').join(
+                            "attribute_exists(#id) AND",
+                            "(attribute_not_exists(#claimed)",
+                            "OR #claimed < :before)"
+                        )
+                    )
+                    .withUpdateExpression("SET #claimed = :now")
+                    .withExpressionAttributeNames(names)
+                    .withExpressionAttributeValues(values)
+            );
+            claimed = true;
+        } catch (final ConditionalCheckFailedException ex) {
+            claimed = false;
+        } finally {
+            aws.shutdown();
+        }
+        return claimed;
+    }
+
+    @Override
+    public void delete(final String id) {
+        final AmazonDynamoDB aws = this.region.aws();
+        try {
+            aws.deleteItem(
+                this.region.table(DySpool.TBL).name(),
+                new Attributes().with(DySpool.HASH, id)
+            );
+        } finally {
+            aws.shutdown();
+        }
+    }
+
+    @Override
+    public Map<String, Map<String, String>> pending() {
+        final Map<String, Map<String, String>> all = new HashMap<>(0);
+        final AmazonDynamoDB aws = this.region.aws();
+        try {
+            Map<String, AttributeValue> start = null;
+            do {
+                final ScanResult result = aws.scan(
+                    new ScanRequest()
+                        .withTableName(this.region.table(DySpool.TBL).name())
+                        .withExclusiveStartKey(start)
+                );
+                for (final Map<String, AttributeValue> item
+                    : result.getItems()) {
+                    final Map<String, String> parcel = new HashMap<>(
+                        item.size()
+                    );
+                    for (final Map.Entry<String, AttributeValue> entry
+                        : item.entrySet()) {
+                        parcel.put(entry.getKey(), entry.getValue().getS());
+                    }
+                    parcel.remove(DySpool.ATTR_TIME);
+                    parcel.remove(DySpool.ATTR_CLAIMED);
+                    all.put(parcel.remove(DySpool.HASH), parcel);
+                }
+                start = result.getLastEvaluatedKey();
+            } while (start != null && !start.isEmpty());
+        } finally {
+            aws.shutdown();
+        }
+        return all;
+    }
+
+    /**
+     * Number attribute.
+     * @param value The number
+     * @return Attribute value
+     */
+    private static AttributeValue number(final long value) {
+        return new AttributeValue().withN(Long.toString(value));
+    }
+
+}
@@ -0,0 +1,667 @@
+/**
+ * Copyright (c) 2009-2016, netbout.com
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are PROHIBITED without prior written permission from
+ * the author. This product may NOT be used anywhere and on any computer
+ * except the server platform of netbout Inc. located at www.netbout.com.
+ * Federal copyright law prohibits unauthorized reproduction by any means
+ * and imposes fines up to $25,000 for violation. If you received
+ * this code accidentally and without intent to use it, please report this
+ * incident to the author by email.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS
+ * "AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT
+ * LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR
+ * A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT
+ * OWNER OR CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL,
+ * SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT
+ * LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE,
+ * DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON
+ * ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY,
+ * OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT
+ * OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF
+ * SUCH DAMAGE.
+ */
+package com.netbout.dynamo;
+
+import com.amazonaws.services.dynamodbv2.model.AttributeValue;
+import com.amazonaws.services.dynamodbv2.model.DeleteRequest;
+import com.amazonaws.services.dynamodbv2.model.PutRequest;
+import com.amazonaws.services.dynamodbv2.model.WriteRequest;
+import com.google.common.base.Function;
+import com.google.common.collect.Iterables;
+import com.jcabi.aspects.Immutable;
+import com.jcabi.aspects.Loggable;
+import com.jcabi.dynamo.Attributes;
+import com.jcabi.dynamo.Conditions;
+import com.jcabi.dynamo.Item;
+import com.jcabi.dynamo.QueryValve;
+import com.jcabi.dynamo.Region;
+import com.netbout.spi.Message;
+import java.io.IOException;
+import java.util.AbstractMap;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.TreeSet;
+import lombok.EqualsAndHashCode;
+import lombok.ToString;
+
+/**
+ * Inverted full-text index of bouts and messages.
+ *
+ * <p>Every word of a message (or of a bout title) is stored in the
+ * "terms" table under each of its prefixes, from {@link #MIN} to
+ * {@link #MAX} letters long. Postings are scoped: the hash key is
+ * a scope and a prefix, like "#42 hel" for messages of bout 42, or
+ * "@jeff hel" for bouts of alias "jeff". That's why a search in a bout
+ * or in an inbox is a single query per word, which reads only postings
+ * of that bout or of that alias. The range key of an item is
+ * a zero-padded pair of bout and message numbers. Bout titles are
+ * stored as message number {@link #TITLE}, only in the scope of the
+ * alias, since every friend has its own title of the bout. Every item
+ * also keeps all the full words that start with its prefix, which are
+ * used for ranking and for terms longer than {@link #MAX}.
+ *
+ * <p>Postings are written in background, by BatchWriteItem requests.
+ * Postings of a friend kicked off a bout stay in the index, but
+ * {@link DyInbox#search(String)} doesn't show bouts the alias is not in.
+ * Bouts and messages made before the index was scoped are indexed by
+ * {@link Reindex}.
+ *
+ * @author Yegor Bugayenko (yegor@teamed.io)
+ * @version $Id$
+ * @since 3.0
+ * @checkstyle ClassDataAbstractionCouplingCheck (500 lines)
+ */
+@Immutable
+@Loggable(Loggable.DEBUG)
+@ToString
+@EqualsAndHashCode(of = "region")
+@SuppressWarnings("PMD.TooManyMethods")
+final class DyTerms {
+
+    /**
+     * Table name.
+     */
+    public static final String TBL = "terms";
+
+    /**
+     * Scope and prefix of a word.
+     */
+    public static final String HASH = "term";
+
+    /**
+     * Posting, bout and message numbers.
+     */
+    public static final String RANGE = "posting";
+
+    /**
+     * Bout number.
+     */
+    public static final String ATTR_BOUT = "bout";
+
+    /**
+     * Message number.
+     */
+    public static final String ATTR_MESSAGE = "message";
+
+    /**
+     * Full words starting with the prefix.
+     */
+    public static final String ATTR_WORDS = "words";
+
+    /**
+     * Message number of a bout title.
+     */
+    public static final long TITLE = 0L;
+
+    /**
+     * Shortest prefix to index and to search for.
+     */
+    private static final int MIN = 2;
+
+    /**
+     * Longest prefix to index.
+     */
+    private static final int MAX = 10;
+
+    /**
+     * How much a title hit weights, comparing to a message hit.
+     */
+    private static final int HEADING = 3;
+
+    /**
+     * Region we're in.
+     */
+    private final transient Region region;
+
+    /**
+     * Ctor.
+     * @param reg Region
+     */
+    DyTerms(final Region reg) {
+        this.region = reg;
+    }
+
+    /**
+     * Index the text of a new message, in background, in the scope of
+     * the bout and of every friend in it.
+     * @param bout Bout number
+     * @param msg Message number
+     * @param text The text
+     */
+    public void add(final long bout, final long msg, final String text) {
+        final Map<String, Set<String>> prefixes = DyTerms.prefixes(text);
+        new Fanout().write(
+            this.region, this.table(),
+            Iterables.concat(
+                Iterables.transform(
+                    Iterables.concat(
+                        Collections.singleton(DyTerms.scope(bout)),
+                        this.friends(bout)
+                    ),
+                    new Function<String, Iterable<WriteRequest>>() {
+                        @Override
+                        public Iterable<WriteRequest> apply(
+                            final String scope) {
+                            return DyTerms.puts(scope, bout, msg, prefixes);
+                        }
+                    }
+                )
+            )
+        );
+    }
+
+    /**
+     * Replace the title of the bout in the scope of the alias,
+     * in background.
+     * @param bout Bout number
+     * @param alias Alias that has this title
+     * @param before Previous title, which was indexed, or empty
+     * @param after New title
+     */
+    public void title(final long bout, final String alias,
+        final String before, final String after) {
+        final Map<String, Set<String>> prefixes = DyTerms.prefixes(after);
+        final Collection<String> gone = new ArrayList<>(
+            DyTerms.prefixes(before).keySet()
+        );
+        gone.removeAll(prefixes.keySet());
+        final String scope = DyTerms.scope(alias);
+        final Collection<WriteRequest> requests = new ArrayList<>(
+            gone.size() + prefixes.size()
+        );
+        for (final String prefix : gone) {
+            requests.add(
+                new WriteRequest().withDeleteRequest(
+                    new DeleteRequest().withKey(
+                        new Attributes()
+                            .with(DyTerms.HASH, DyTerms.term(scope, prefix))
+                            .with(
+                                DyTerms.RANGE,
+                                DyTerms.posting(bout, DyTerms.TITLE)
+                            )
+                    )
+                )
+            );
+        }
+        Iterables.addAll(
+            requests, DyTerms.puts(scope, bout, DyTerms.TITLE, prefixes)
+        );
+        new Fanout().write(this.region, this.table(), requests);
+    }
+
+    /**
+     * Index the title and all messages of the bout in the scope of
+     * a friend who just joined it, in background.
+     * @param bout Bout number
+     * @param alias The friend
+     */
+    public void join(final long bout, final String alias) {
+        final String scope = DyTerms.scope(alias);
+        new Fanout().write(
+            this.region, this.table(),
+            Iterables.concat(
+                Iterables.transform(
+                    this.texts(bout, alias),
+                    new Function<Map.Entry<Long, String>,
+                        Iterable<WriteRequest>>() {
+                        @Override
+                        public Iterable<WriteRequest> apply(
+                            final Map.Entry<Long, String> text) {
+                            return DyTerms.puts(
+                                scope, bout, text.getKey(),
+                                DyTerms.prefixes(text.getValue())
+                            );
+                        }
+                    }
+                )
+            )
+        );
+    }
+
+    /**
+     * Index the bout again, right now, in all scopes.
+     * @param bout Bout number
+     * @throws IOException If fails
+     */
+    public void reindex(final long bout) throws IOException {
+        final Collection<String> friends = new ArrayList<>(0);
+        Iterables.addAll(friends, this.friends(bout));
+        final Collection<WriteRequest> requests = new ArrayList<>(0);
+        for (final String friend : friends) {
+            final String title = this.region.table(DyFriends.TBL).frame()
+                .through(
+                    new QueryValve()
+                        .withLimit(1)
+                        .withAttributesToGet(DyFriends.ATTR_TITLE)
+                )
+                .where(DyFriends.HASH, Conditions.equalTo(bout))
+                .where(DyFriends.RANGE, friend.substring(1))
+                .iterator().next().get(DyFriends.ATTR_TITLE).getS();
+            Iterables.addAll(
+                requests,
+                DyTerms.puts(
+                    friend, bout, DyTerms.TITLE, DyTerms.prefixes(title)
+                )
+            );
+        }
+        friends.add(DyTerms.scope(bout));
+        for (final Message msg : this.messages(bout)) {
+            final Map<String, Set<String>> prefixes =
+                DyTerms.prefixes(msg.text());
+            for (final String scope : friends) {
+                Iterables.addAll(
+                    requests,
+                    DyTerms.puts(scope, bout, msg.number(), prefixes)
+                );
+            }
+        }
+        Fanout.flush(this.region, this.table(), requests);
+    }
+
+    /**
+     * Find messages in the bout, most relevant first.
+     * @param bout Bout number
+     * @param query Search query
+     * @return Message numbers
+     * @throws IOException If fails
+     */
+    public List<Long> messages(final long bout, final String query)
+        throws IOException {
+        Map<Long, Integer> found = null;
+        for (final String token : new Tokens(query)) {
+            if (token.length() < DyTerms.MIN) {
+                continue;
+            }
+            final Map<Long, Integer> hits = new HashMap<>(0);
+            for (final Item item
+                : this.postings(DyTerms.scope(bout), token)) {
+                final long msg = Long.parseLong(
+                    item.get(DyTerms.ATTR_MESSAGE).getN()
+                );
+                final int weight = DyTerms.weight(token, item);
+                if (msg != DyTerms.TITLE && weight > 0) {
+                    hits.put(msg, weight);
+                }
+            }
+            found = DyTerms.intersect(found, hits);
+        }
+        return DyTerms.ranked(found);
+    }
+
+    /**
+     * Find bouts of the alias, most relevant first.
+     * @param alias The alias
+     * @param query Search query
+     * @return Bout numbers
+     * @throws IOException If fails
+     */
+    public List<Long> bouts(final String alias, final String query)
+        throws IOException {
+        Map<Long, Integer> found = null;
+        for (final String token : new Tokens(query)) {
+            if (token.length() < DyTerms.MIN) {
+                continue;
+            }
+            final Map<Long, Integer> hits = new HashMap<>(0);
+            for (final Item item
+                : this.postings(DyTerms.scope(alias), token)) {
+                int weight = DyTerms.weight(token, item);
+                if (Long.parseLong(item.get(DyTerms.ATTR_MESSAGE).getN())
+                    == DyTerms.TITLE) {
+                    weight *= DyTerms.HEADING;
+                }
+                if (weight > 0) {
+                    final long bout = Long.parseLong(
+                        item.get(DyTerms.ATTR_BOUT).getN()
+                    );
+                    Integer before = hits.get(bout);
+                    if (before == null) {
+                        before = 0;
+                    }
+                    hits.put(bout, before + weight);
+                }
+            }
+            found = DyTerms.intersect(found, hits);
+        }
+        return DyTerms.ranked(found);
+    }
+
+    /**
+     * Postings of the token in the scope.
+     * @param scope The scope
+     * @param token The token
+     * @return Items found
+     */
+    private Iterable<Item> postings(final String scope, final String token) {
+        return this.region.table(DyTerms.TBL).frame()
+            .through(
+                new QueryValve()
+                    .withScanIndexForward(false)
+                    .withAttributesToGet(
+                        DyTerms.ATTR_BOUT,
+                        DyTerms.ATTR_MESSAGE,
+                        DyTerms.ATTR_WORDS
+                    )
+            )
+            .where(
+                DyTerms.HASH,
+                Conditions.equalTo(
+                    DyTerms.term(
+                        scope,
+                        token.substring(
+                            0, Math.min(token.length(), DyTerms.MAX)
+                        )
+                    )
+                )
+            );
+    }
+
+    /**
+     * Scopes of all friends of the bout, loaded lazily.
+     * @param bout Bout number
+     * @return Scopes
+     */
+    private Iterable<String> friends(final long bout) {
+        return Iterables.transform(
+            this.region.table(DyFriends.TBL).frame()
+                .through(new QueryValve())
+                .where(DyFriends.HASH, Conditions.equalTo(bout)),
+            new Function<Item, String>() {
+                @Override
+                public String apply(final Item item) {
+                    try {
+                        return DyTerms.scope(
+                            item.get(DyFriends.RANGE).getS()
+                        );
+                    } catch (final IOException ex) {
+                        throw new IllegalStateException(ex);
+                    }
+                }
+            }
+        );
+    }
+
+    /**
+     * Title of the bout, as the alias sees it, and texts of all its
+     * messages, loaded lazily.
+     * @param bout Bout number
+     * @param alias The alias
+     * @return Texts by message numbers
+     */
+    private Iterable<Map.Entry<Long, String>> texts(final long bout,
+        final String alias) {
+        return Iterables.concat(
+            Iterables.transform(
+                this.region.table(DyFriends.TBL).frame()
+                    .through(
+                        new QueryValve()
+                            .withLimit(1)
+                            .withAttributesToGet(DyFriends.ATTR_TITLE)
+                    )
+                    .where(DyFriends.HASH, Conditions.equalTo(bout))
+                    .where(DyFriends.RANGE, alias),
+                new Function<Item, Map.Entry<Long, String>>() {
+                    @Override
+                    public Map.Entry<Long, String> apply(final Item item) {
+                        try {
+                            return new AbstractMap.SimpleImmutableEntry<>(
+                                DyTerms.TITLE,
+                                item.get(DyFriends.ATTR_TITLE).getS()
+                            );
+                        } catch (final IOException ex) {
+                            throw new IllegalStateException(ex);
+                        }
+                    }
+                }
+            ),
+            Iterables.transform(
+                this.messages(bout),
+                new Function<Message, Map.Entry<Long, String>>() {
+                    @Override
+                    public Map.Entry<Long, String> apply(final Message msg) {
+                        try {
+                            return new AbstractMap.SimpleImmutableEntry<>(
+                                msg.number(), msg.text()
+                            );
+                        } catch (final IOException ex) {
+                            throw new IllegalStateException(ex);
+                        }
+                    }
+                }
+            )
+        );
+    }
+
+    /**
+     * All messages of the bout, including archived ones, without
+     * marking them as seen by anyone.
+     * @param bout Bout number
+     * @return Messages
+     */
+    private Iterable<Message> messages(final long bout) {
+        try {
+            return new DyMessages(
+                this.region, bout, "",
+                new FriendRow.Live(this.region, bout, "")
+            ).jump(Long.MAX_VALUE).iterate();
+        } catch (final IOException ex) {
+            throw new IllegalStateException(ex);
+        }
+    }
+
+    /**
+     * Name of the table.
+     * @return Name, with the prefix
+     */
+    private String table() {
+        return this.region.table(DyTerms.TBL).name();
+    }
+
+    /**
+     * Puts of postings of one message in one scope.
+     * @param scope The scope
+     * @param bout Bout number
+     * @param msg Message number
+     * @param prefixes Prefixes and full words they start
+     * @return Write requests
+     * @checkstyle ParameterNumberCheck (4 lines)
+     */
+    private static Collection<WriteRequest> puts(final String scope,
+        final long bout, final long msg,
+        final Map<String, Set<String>> prefixes) {
+        final Collection<WriteRequest> puts = new ArrayList<>(
+            prefixes.size()
+        );
+        for (final Map.Entry<String, Set<String>> entry
+            : prefixes.entrySet()) {
+            puts.add(
+                new WriteRequest().withPutRequest(
+                    new PutRequest().withItem(
+                        new Attributes()
+                            .with(
+                                DyTerms.HASH,
+                                DyTerms.term(scope, entry.getKey())
+                            )
+                            .with(DyTerms.RANGE, DyTerms.posting(bout, msg))
+                            .with(DyTerms.ATTR_BOUT, bout)
+                            .with(DyTerms.ATTR_MESSAGE, msg)
+                            .with(
+                                DyTerms.ATTR_WORDS,
+                                new AttributeValue().withSS(entry.getValue())
+                            )
+                    )
+                )
+            );
+        }
+        return puts;
+    }
+
+    /**
+     * Scope of a bout.
+     * @param bout Bout number
+     * @return Scope
+     */
+    private static String scope(final long bout) {
+        return String.format("#%d", bout);
+    }
+
+    /**
+     * Scope of an alias.
+     * @param alias The alias
+     * @return Scope
+     */
+    private static String scope(final String alias) {
+        return String.format("@%s", alias);
+    }
+
+    /**
+     * Hash key of a prefix in a scope.
+     * @param scope The scope
+     * @param prefix The prefix
+     * @return Hash key
+     */
+    private static String term(final String scope, final String prefix) {
+        return String.format("%s %s", scope, prefix);
+    }
+
+    /**
+     * How relevant is the posting for the token.
+     * @param token The token
+     * @param item Posting
+     * @return Two if the word matches, one if the prefix matches, or zero
+     * @throws IOException If fails
+     */
+    private static int weight(final String token, final Item item)
+        throws IOException {
+        final Collection<String> words = item.get(DyTerms.ATTR_WORDS).getSS();
+        int weight = 0;
+        if (words.contains(token)) {
+            weight = 2;
+        } else {
+            for (final String word : words) {
+                if (word.startsWith(token)) {
+                    weight = 1;
+                    break;
+                }
+            }
+        }
+        return weight;
+    }
+
+    /**
+     * Keep only numbers found by all tokens, summing up their scores.
+     * @param before Numbers found so far, or NULL if none searched yet
+     * @param hits Numbers found by the next token
+     * @return Numbers found by all tokens
+     */
+    private static Map<Long, Integer> intersect(
+        final Map<Long, Integer> before, final Map<Long, Integer> hits) {
+        final Map<Long, Integer> after;
+        if (before == null) {
+            after = hits;
+        } else {
+            after = new HashMap<>(before.size());
+            for (final Map.Entry<Long, Integer> entry : before.entrySet()) {
+                final Integer more = hits.get(entry.getKey());
+                if (more != null) {
+                    after.put(entry.getKey(), entry.getValue() + more);
+                }
+            }
+        }
+        return after;
+    }
+
+    /**
+     * Order numbers by score and then by recency.
+     * @param scores Numbers and their scores, or NULL if nothing searched
+     * @return Ordered numbers
+     */
+    private static List<Long> ranked(final Map<Long, Integer> scores) {
+        final List<Long> numbers;
+        if (scores == null) {
+            numbers = Collections.emptyList();
+        } else {
+            numbers = new ArrayList<>(scores.keySet());
+            Collections.sort(
+                numbers,
+                new Comparator<Long>() {
+                    @Override
+                    public int compare(final Long left, final Long right) {
+                        int cmp = scores.get(right).compareTo(
+                            scores.get(left)
+                        );
+                        if (cmp == 0) {
+                            cmp = right.compareTo(left);
+                        }
+                        return cmp;
+                    }
+                }
+            );
+        }
+        return numbers;
+    }
+
+    /**
+     * All prefixes of all words in the text.
+     * @param text The text
+     * @return Prefixes and full words they start
+     */
+    private static Map<String, Set<String>> prefixes(final String text) {
+        final Map<String, Set<String>> map = new TreeMap<>();
+        for (final String word : new Tokens(text)) {
+            final int max = Math.min(word.length(), DyTerms.MAX);
+            for (int len = DyTerms.MIN; len <= max; ++len) {
+                final String prefix = word.substring(0, len);
+                Set<String> words = map.get(prefix);
+                if (words == null) {
+                    words = new TreeSet<>();
+                    map.put(prefix, words);
+                }
+                words.add(word);
+            }
+        }
+        return map;
+    }
+
+    /**
+     * Posting of a message.
+     * @param bout Bout number
+     * @param msg Message number
+     * @return Posting
+     */
+    private static String posting(final long bout, final long msg) {
+        return String.format("%019d:%019d", bout, msg);
+    }
+
+}
@@ -26,19 +26,14 @@
  */
 package com.netbout.dynamo;
 
-import com.google.common.base.Function;
-import com.google.common.collect.Iterables;
 import com.jcabi.aspects.Immutable;
 import com.jcabi.aspects.Loggable;
-import com.jcabi.dynamo.Conditions;
-import com.jcabi.dynamo.Item;
-import com.jcabi.dynamo.QueryValve;
+import com.jcabi.aspects.Tv;
 import com.jcabi.dynamo.Region;
 import com.jcabi.urn.URN;
 import com.netbout.spi.Aliases;
 import com.netbout.spi.Friend;
 import com.netbout.spi.User;
-import java.io.IOException;
 import lombok.EqualsAndHashCode;
 import lombok.ToString;
 
@@ -55,6 +50,11 @@ import lombok.ToString;
 @EqualsAndHashCode(of = { "region", "urn" })
 final class DyUser implements User {
 
+    /**
+     * Maximum number of friends to suggest.
+     */
+    private static final int SUGGESTIONS = Tv.TEN;
+
     /**
      * Region to work with.
      */
@@ -82,24 +82,8 @@ final class DyUser implements User {
 
     @Override
     public Iterable<Friend> friends(final String text) {
-        return Iterables.transform(
-            this.region.table(DyAliases.TBL)
-                .frame()
-                .through(new QueryValve())
-                .where(DyAliases.HASH, Conditions.equalTo(text)),
-            new Function<Item, Friend>() {
-                @Override
-                public Friend apply(final Item input) {
-                    try {
-                        return new DyFriend(
-                            DyUser.this.region,
-                            input.get(DyAliases.HASH).getS()
-                        );
-                    } catch (final IOException ex) {
-                        throw new IllegalStateException(ex);
-                    }
-                }
-            }
+        return new Profiles(this.region).friends(
+            new Everybody(this.region).starting(text, DyUser.SUGGESTIONS)
         );
     }
 
@@ -26,28 +26,124 @@
  */
 package com.netbout.dynamo;
 
+import com.google.common.hash.BloomFilter;
+import com.google.common.hash.Funnels;
 import com.jcabi.aspects.Immutable;
 import com.jcabi.aspects.Loggable;
 import com.jcabi.aspects.Tv;
 import com.jcabi.dynamo.Conditions;
+import com.jcabi.dynamo.Item;
 import com.jcabi.dynamo.QueryValve;
 import com.jcabi.dynamo.Region;
+import com.jcabi.dynamo.ScanValve;
+import com.jcabi.log.Logger;
+import com.jcabi.log.VerboseRunnable;
+import com.jcabi.log.VerboseThreads;
+import com.jcabi.manifests.Manifests;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.List;
+import java.util.NavigableSet;
+import java.util.TreeSet;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ConcurrentSkipListSet;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
 import lombok.EqualsAndHashCode;
 import lombok.ToString;
 
 /**
  * Everybody.
  *
+ * <p>Names of all aliases are kept in memory, in a Bloom filter, which
+ * is built in background by a scan of "aliases" table, on the first use
+ * and then every {@code Netbout-AliasesRefreshMinutes}. Names added on
+ * this server go into the filter at once. When the filter says that
+ * a name is definitely not there, {@link #occupied(String)} doesn't touch
+ * the table. Only probable hits, and all checks made before the filter
+ * is built, are queried.
+ *
+ * <p>A name registered on another server after the last scan is not
+ * in the filter until the next one, that's why {@link #occupied(String)}
+ * is only good for advice, while {@link #exists(String)} always asks
+ * the table and must be used before a name is taken or referred to.
+ *
+ * <p>The same scan builds a sorted array of all names, which
+ * {@link #starting(String, int)} searches by prefix, in memory.
+ *
+ * <p>Every server scans the entire table, and DynamoDB charges a scan
+ * for the whole items it reads, not only for the names it returns. That
+ * is why the interval trades read capacity for freshness: a shorter one
+ * lets other servers suggest and accept new names sooner, but every
+ * server consumes the size of the table, in 4KB read units, that
+ * often. The table isn't big and names are rarely registered, that's
+ * why an hour is the default.
+ *
  * @author Yegor Bugayenko (yegor@teamed.io)
  * @version $Id$
  * @since 2.0
+ * @checkstyle ClassDataAbstractionCouplingCheck (500 lines)
  */
 @Immutable
 @Loggable(Loggable.DEBUG)
 @ToString
 @EqualsAndHashCode(of = "region")
+@SuppressWarnings("PMD.DoNotUseThreads")
 final class Everybody {
 
+    /**
+     * How often the filter is rebuilt, in milliseconds.
+     */
+    private static final long REFRESH = TimeUnit.MINUTES.toMillis(
+        Long.parseLong(Manifests.read("Netbout-AliasesRefreshMinutes"))
+    );
+
+    /**
+     * Minimum expected number of names in a filter.
+     */
+    private static final int MIN = Tv.MILLION;
+
+    /**
+     * Maximum number of names to rank in a prefix search.
+     */
+    private static final int SCAN = Tv.THOUSAND;
+
+    /**
+     * Shorter names go first, the exact match is the shortest one.
+     */
+    private static final Comparator<String> RANK = new Comparator<String>() {
+        @Override
+        public int compare(final String left, final String right) {
+            int cmp = Integer.compare(left.length(), right.length());
+            if (cmp == 0) {
+                cmp = left.compareTo(right);
+            }
+            return cmp;
+        }
+    };
+
+    /**
+     * Filters, by table names.
+     */
+    private static final ConcurrentMap<String, Everybody.Names> FILTERS =
+        new ConcurrentHashMap<>(1);
+
+    /**
+     * Thread to build filters in.
+     */
+    private static final ExecutorService BUILDER =
+        Executors.newSingleThreadExecutor(
+            new VerboseThreads(Everybody.class)
+        );
+
     /**
      * Region to work with.
      */
@@ -62,22 +158,249 @@ final class Everybody {
     }
 
     /**
-     * This name is occupied.
+     * This name is occupied, most probably.
      * @param name The name
      * @return TRUE if occupied
      */
     public boolean occupied(final String name) {
+        Everybody.validate(name);
+        return !this.names().absent(name) && this.exists(name);
+    }
+
+    /**
+     * This name is occupied, according to the table.
+     * @param name The name
+     * @return TRUE if occupied
+     */
+    public boolean exists(final String name) {
+        Everybody.validate(name);
+        return this.region.table(DyAliases.TBL).frame()
+            .through(new QueryValve().withLimit(1))
+            .where(DyAliases.HASH, Conditions.equalTo(name))
+            .iterator()
+            .hasNext();
+    }
+
+    /**
+     * Names starting with the prefix, the exact match first.
+     *
+     * <p>The exact name, when it's not in the index, is looked up in the
+     * table by {@link #exists(String)}, with one keyed query, so a name
+     * taken on another server after the last scan is found too.
+     *
+     * @param prefix The prefix
+     * @param limit Maximum number of names to return
+     * @return Names, shorter first
+     */
+    public List<String> starting(final String prefix, final int limit) {
+        final List<String> found = new ArrayList<>(limit);
+        if (!prefix.isEmpty() && prefix.length() <= Tv.HUNDRED) {
+            found.addAll(this.names().starting(prefix));
+            if ((found.isEmpty() || !found.get(0).equals(prefix))
+                && this.exists(prefix)) {
+                found.add(0, prefix);
+            }
+        }
+        return found.subList(0, Math.min(limit, found.size()));
+    }
+
+    /**
+     * The name was just taken.
+     * @param name The name
+     */
+    public void add(final String name) {
+        this.names().add(name);
+    }
+
+    /**
+     * Names of the table, rebuilt when it's time.
+     * @return Names
+     */
+    private Everybody.Names names() {
+        final String table = this.region.table(DyAliases.TBL).name();
+        Everybody.Names names = Everybody.FILTERS.get(table);
+        if (names == null) {
+            Everybody.FILTERS.putIfAbsent(table, new Everybody.Names());
+            names = Everybody.FILTERS.get(table);
+        }
+        names.refresh(this.region);
+        return names;
+    }
+
+    /**
+     * Validate the name.
+     * @param name The name
+     */
+    private static void validate(final String name) {
         if (name.isEmpty()) {
             throw new IllegalArgumentException("alias can't be empty");
         }
         if (name.length() > Tv.HUNDRED) {
             throw new IllegalArgumentException("alias is too long");
         }
-        return this.region.table(DyAliases.TBL).frame()
-            .through(new QueryValve().withLimit(1))
-            .where(DyAliases.HASH, Conditions.equalTo(name))
-            .iterator()
-            .hasNext();
+    }
+
+    /**
+     * Bloom filter and sorted array of names in one table.
+     */
+    private static final class Names {
+        /**
+         * The filter or NULL if it's not built yet.
+         */
+        private transient BloomFilter<CharSequence> bloom;
+        /**
+         * All names found by the last scan, sorted.
+         */
+        private transient String[] sorted = new String[0];
+        /**
+         * Names added since the beginning of the last build.
+         */
+        private final transient NavigableSet<String> added =
+            new ConcurrentSkipListSet<>();
+        /**
+         * A build is in progress.
+         */
+        private final transient AtomicBoolean busy = new AtomicBoolean();
+        /**
+         * When the filter has to be rebuilt, in milliseconds.
+         */
+        private transient long expires;
+        /**
+         * How many names were found by the last scan.
+         */
+        private transient int total;
+        /**
+         * This name is definitely not taken.
+         * @param name The name
+         * @return TRUE if it's not in the filter
+         */
+        public synchronized boolean absent(final String name) {
+            return this.bloom != null && !this.bloom.mightContain(name);
+        }
+        /**
+         * Names starting with the prefix, ranked.
+         * @param prefix The prefix
+         * @return Names, shorter first
+         */
+        public Collection<String> starting(final String prefix) {
+            final String[] names;
+            synchronized (this) {
+                names = this.sorted;
+            }
+            final Collection<String> found = new TreeSet<>(Everybody.RANK);
+            int pos = Arrays.binarySearch(names, prefix);
+            if (pos < 0) {
+                pos = -pos - 1;
+            }
+            final int end = Math.min(names.length, pos + Everybody.SCAN);
+            for (int idx = pos; idx < end && names[idx].startsWith(prefix);
+                ++idx) {
+                found.add(names[idx]);
+            }
+            for (final String name : this.added.tailSet(prefix)) {
+                if (!name.startsWith(prefix)) {
+                    break;
+                }
+                found.add(name);
+            }
+            return found;
+        }
+        /**
+         * Add a name.
+         * @param name The name
+         */
+        public synchronized void add(final String name) {
+            this.added.add(name);
+            if (this.bloom != null) {
+                this.bloom.put(name);
+            }
+        }
+        /**
+         * Start a build in background, if it's time.
+         * @param region Region with the table
+         */
+        public void refresh(final Region region) {
+            if (System.currentTimeMillis() >= this.expiration()
+                && this.busy.compareAndSet(false, true)) {
+                Everybody.BUILDER.execute(
+                    new VerboseRunnable(
+                        new Runnable() {
+                            @Override
+                            public void run() {
+                                try {
+                                    Everybody.Names.this.build(region);
+                                } finally {
+                                    Everybody.Names.this.busy.set(false);
+                                }
+                            }
+                        },
+                        true
+                    )
+                );
+            }
+        }
+        /**
+         * When it expires.
+         * @return Time in milliseconds
+         */
+        private synchronized long expiration() {
+            return this.expires;
+        }
+        /**
+         * Scan the table and replace the filter.
+         * @param region Region with the table
+         */
+        private void build(final Region region) {
+            final long start = System.currentTimeMillis();
+            final Collection<String> before = new HashSet<>(this.added);
+            final int expected;
+            synchronized (this) {
+                expected = Math.max(Everybody.MIN, this.total << 1);
+                this.expires = start + Everybody.REFRESH;
+            }
+            final BloomFilter<CharSequence> fresh = BloomFilter.create(
+                Funnels.stringFunnel(StandardCharsets.UTF_8), expected, 0.01d
+            );
+            final List<String> all = new ArrayList<>(expected);
+            for (final Item item : region.table(DyAliases.TBL).frame()
+                .through(
+                    new ScanValve()
+                        .withLimit(Tv.THOUSAND)
+                        .withAttributeToGet(DyAliases.HASH)
+                )) {
+                final String name = Everybody.Names.name(item);
+                fresh.put(name);
+                all.add(name);
+            }
+            final String[] names = all.toArray(new String[all.size()]);
+            Arrays.sort(names);
+            final int found = names.length;
+            synchronized (this) {
+                for (final String name : this.added) {
+                    fresh.put(name);
+                }
+                this.added.removeAll(before);
+                this.bloom = fresh;
+                this.sorted = names;
+                this.total = found;
+            }
+            Logger.info(
+                Everybody.class, "%d alias(es) loaded into index in %[ms]s",
+                found, System.currentTimeMillis() - start
+            );
+        }
+        /**
+         * Name of the alias in the item.
+         * @param item Item of "aliases" table
+         * @return The name
+         */
+        private static String name(final Item item) {
+            try {
+                return item.get(DyAliases.HASH).getS();
+            } catch (final IOException ex) {
+                throw new IllegalStateException(ex);
+            }
+        }
     }
 
 }
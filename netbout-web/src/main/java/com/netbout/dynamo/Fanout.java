@@ -0,0 +1,249 @@
+/**
+ * Copyright (c) 2009-2016, netbout.com
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are PROHIBITED without prior written permission from
+ * the author. This product may NOT be used anywhere and on any computer
+ * except the server platform of netbout Inc. located at www.netbout.com.
+ * Federal copyright law prohibits unauthorized reproduction by any means
+ * and imposes fines up to $25,000 for violation. If you received
+ * this code accidentally and without intent to use it, please report this
+ * incident to the author by email.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS
+ * "AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT
+ * LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR
+ * A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT
+ * OWNER OR CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL,
+ * SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT
+ * LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE,
+ * DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON
+ * ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY,
+ * OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT
+ * OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF
+ * SUCH DAMAGE.
+ */
+package com.netbout.dynamo;
+
+import com.amazonaws.services.dynamodbv2.AmazonDynamoDB;
+import com.amazonaws.services.dynamodbv2.model.BatchWriteItemRequest;
+import com.amazonaws.services.dynamodbv2.model.WriteRequest;
+import com.google.common.collect.Iterables;
+import com.jcabi.aspects.Immutable;
+import com.jcabi.aspects.Loggable;
+import com.jcabi.aspects.Tv;
+import com.jcabi.dynamo.AttributeUpdates;
+import com.jcabi.dynamo.Item;
+import com.jcabi.dynamo.Region;
+import com.jcabi.log.VerboseRunnable;
+import com.jcabi.log.VerboseThreads;
+import java.io.IOException;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import lombok.EqualsAndHashCode;
+import lombok.ToString;
+
+/**
+ * Background update of many items at once.
+ *
+ * <p>Items are split into chunks of {@link #CHUNK} (the limit of a
+ * DynamoDB batch request) and chunks are updated in parallel, in a pool
+ * of a fixed size. DynamoDB can't ADD to an attribute in a batch write,
+ * that's why every item is still updated separately, but the total
+ * latency doesn't grow with the number of items. When the queue of the
+ * pool is full, the caller runs the chunk itself, which slows it down
+ * instead of losing updates. DynamoDB usage of the updates is counted
+ * in the {@link Throughput} of the route that started them.
+ *
+ * <p>Puts and deletes without conditions are written by BatchWriteItem,
+ * {@link #CHUNK} items per request.
+ *
+ * @author Yegor Bugayenko (yegor@teamed.io)
+ * @version $Id$
+ * @since 3.0
+ */
+@Immutable
+@Loggable(Loggable.DEBUG)
+@ToString
+@EqualsAndHashCode
+@SuppressWarnings("PMD.DoNotUseThreads")
+final class Fanout {
+
+    /**
+     * Maximum number of items in one chunk.
+     */
+    private static final int CHUNK = 25;
+
+    /**
+     * Threads to run updates in.
+     */
+    private static final ExecutorService POOL = new ThreadPoolExecutor(
+        Tv.FIVE, Tv.FIVE, 1L, TimeUnit.MINUTES,
+        new LinkedBlockingQueue<Runnable>(Tv.THOUSAND),
+        new VerboseThreads(Fanout.class),
+        new ThreadPoolExecutor.CallerRunsPolicy()
+    );
+
+    /**
+     * Update all items in background.
+     * @param items Items to update, fetched in background too
+     * @param updates Updates to apply to each of them
+     */
+    public void update(final Iterable<Item> items,
+        final Fanout.Updates updates) {
+        final String route = new Throughput().route();
+        Fanout.POOL.execute(
+            new VerboseRunnable(
+                new Runnable() {
+                    @Override
+                    public void run() {
+                        final Throughput throughput = new Throughput();
+                        throughput.open(route);
+                        try {
+                            for (final List<Item> chunk
+                                : Iterables.partition(items, Fanout.CHUNK)) {
+                                Fanout.POOL.execute(
+                                    new VerboseRunnable(
+                                        new Fanout.Chunk(
+                                            chunk, updates, route
+                                        ),
+                                        true
+                                    )
+                                );
+                            }
+                        } finally {
+                            throughput.close();
+                        }
+                    }
+                },
+                true
+            )
+        );
+    }
+
+    /**
+     * Write items in background, in batches of {@link #CHUNK}.
+     * @param region Region
+     * @param table Name of the table
+     * @param requests Puts and deletes, made in background too
+     */
+    public void write(final Region region, final String table,
+        final Iterable<WriteRequest> requests) {
+        final String route = new Throughput().route();
+        Fanout.POOL.execute(
+            new VerboseRunnable(
+                new Runnable() {
+                    @Override
+                    public void run() {
+                        final Throughput throughput = new Throughput();
+                        throughput.open(route);
+                        try {
+                            Fanout.flush(region, table, requests);
+                        } finally {
+                            throughput.close();
+                        }
+                    }
+                },
+                true
+            )
+        );
+    }
+
+    /**
+     * Write items right now, in batches of {@link #CHUNK}, retrying
+     * unprocessed ones with a backoff.
+     * @param region Region
+     * @param table Name of the table
+     * @param requests Puts and deletes
+     */
+    static void flush(final Region region, final String table,
+        final Iterable<WriteRequest> requests) {
+        final AmazonDynamoDB aws = region.aws();
+        try {
+            for (final List<WriteRequest> chunk
+                : Iterables.partition(requests, Fanout.CHUNK)) {
+                Map<String, List<WriteRequest>> items =
+                    Collections.singletonMap(table, chunk);
+                Backoff backoff = new Backoff();
+                while (items != null && !items.isEmpty()) {
+                    items = aws.batchWriteItem(
+                        new BatchWriteItemRequest().withRequestItems(items)
+                    ).getUnprocessedItems();
+                    if (items != null && !items.isEmpty()) {
+                        backoff = backoff.pause();
+                    }
+                }
+            }
+        } finally {
+            aws.shutdown();
+        }
+    }
+
+    /**
+     * Updates for an item.
+     */
+    interface Updates {
+        /**
+         * Make updates for the given item.
+         * @param item The item
+         * @return Updates to put into it
+         * @throws IOException If fails
+         */
+        AttributeUpdates updates(Item item) throws IOException;
+    }
+
+    /**
+     * One chunk of items.
+     */
+    @ToString
+    @EqualsAndHashCode(of = "items")
+    private static final class Chunk implements Runnable {
+        /**
+         * Items.
+         */
+        private final transient List<Item> items;
+        /**
+         * Updates.
+         */
+        private final transient Fanout.Updates updates;
+        /**
+         * Route of the request that started the update.
+         */
+        private final transient String route;
+        /**
+         * Ctor.
+         * @param list Items
+         * @param upd Updates
+         * @param name Route of the request that started the update
+         */
+        Chunk(final List<Item> list, final Fanout.Updates upd,
+            final String name) {
+            this.items = list;
+            this.updates = upd;
+            this.route = name;
+        }
+        @Override
+        public void run() {
+            final Throughput throughput = new Throughput();
+            throughput.open(this.route);
+            try {
+                for (final Item item : this.items) {
+                    try {
+                        item.put(this.updates.updates(item));
+                    } catch (final IOException ex) {
+                        throw new IllegalStateException(ex);
+                    }
+                }
+            } finally {
+                throughput.close();
+            }
+        }
+    }
+
+}
@@ -0,0 +1,131 @@
+/**
+ * Copyright (c) 2009-2016, netbout.com
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are PROHIBITED without prior written permission from
+ * the author. This product may NOT be used anywhere and on any computer
+ * except the server platform of netbout Inc. located at www.netbout.com.
+ * Federal copyright law prohibits unauthorized reproduction by any means
+ * and imposes fines up to $25,000 for violation. If you received
+ * this code accidentally and without intent to use it, please report this
+ * incident to the author by email.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS
+ * "AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT
+ * LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR
+ * A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT
+ * OWNER OR CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL,
+ * SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT
+ * LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE,
+ * DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON
+ * ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY,
+ * OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT
+ * OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF
+ * SUCH DAMAGE.
+ */
+package com.netbout.dynamo;
+
+import com.amazonaws.services.dynamodbv2.AmazonDynamoDB;
+import com.amazonaws.services.dynamodbv2.model.AttributeValue;
+import com.amazonaws.services.dynamodbv2.model.AttributeValueUpdate;
+import com.amazonaws.services.dynamodbv2.model.ReturnValue;
+import com.amazonaws.services.dynamodbv2.model.UpdateItemRequest;
+import com.jcabi.aspects.Immutable;
+import com.jcabi.aspects.Loggable;
+import com.jcabi.dynamo.AttributeUpdates;
+import com.jcabi.dynamo.Attributes;
+import com.jcabi.dynamo.Frame;
+import com.jcabi.dynamo.Item;
+import com.jcabi.dynamo.Region;
+import com.jcabi.immutable.ArrayMap;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import lombok.EqualsAndHashCode;
+import lombok.ToString;
+
+/**
+ * Item of "friends" table loaded beforehand, in bulk.
+ *
+ * <p>All attributes are read from the map, without requests to
+ * DynamoDB, see {@link FriendRows}. Changes go to DynamoDB directly,
+ * the map is not changed by them.
+ *
+ * @author Yegor Bugayenko (yegor@teamed.io)
+ * @version $Id$
+ * @since 3.0
+ */
+@Immutable
+@Loggable(Loggable.DEBUG)
+@ToString(of = "attrs")
+@EqualsAndHashCode(of = { "region", "attrs" })
+final class FriendItem implements Item {
+
+    /**
+     * Region we're in.
+     */
+    private final transient Region region;
+
+    /**
+     * All attributes of the item.
+     */
+    private final transient ArrayMap<String, AttributeValue> attrs;
+
+    /**
+     * Ctor.
+     * @param reg Region
+     * @param map All attributes of the item, including its keys
+     */
+    FriendItem(final Region reg, final Map<String, AttributeValue> map) {
+        this.region = reg;
+        this.attrs = new ArrayMap<String, AttributeValue>(map);
+    }
+
+    @Override
+    public AttributeValue get(final String name) {
+        if (!this.attrs.containsKey(name)) {
+            throw new NoSuchElementException(
+                String.format("attribute \"%s\" is absent", name)
+            );
+        }
+        return this.attrs.get(name);
+    }
+
+    @Override
+    public boolean has(final String name) {
+        return this.attrs.containsKey(name);
+    }
+
+    @Override
+    public Map<String, AttributeValue> put(final String name,
+        final AttributeValueUpdate value) {
+        return this.put(new AttributeUpdates().with(name, value));
+    }
+
+    @Override
+    public Map<String, AttributeValue> put(
+        final Map<String, AttributeValueUpdate> updates) {
+        final AmazonDynamoDB aws = this.region.aws();
+        try {
+            return aws.updateItem(
+                new UpdateItemRequest()
+                    .withTableName(this.region.table(DyFriends.TBL).name())
+                    .withKey(
+                        new Attributes()
+                            .with(DyFriends.HASH, this.get(DyFriends.HASH))
+                            .with(DyFriends.RANGE, this.get(DyFriends.RANGE))
+                    )
+                    .withAttributeUpdates(updates)
+                    .withReturnValues(ReturnValue.ALL_NEW)
+            ).getAttributes();
+        } finally {
+            aws.shutdown();
+        }
+    }
+
+    @Override
+    public Frame frame() {
+        return this.region.table(DyFriends.TBL).frame();
+    }
+
+}
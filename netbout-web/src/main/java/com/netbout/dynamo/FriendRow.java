@@ -0,0 +1,282 @@
+/**
+ * Copyright (c) 2009-2016, netbout.com
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are PROHIBITED without prior written permission from
+ * the author. This product may NOT be used anywhere and on any computer
+ * except the server platform of netbout Inc. located at www.netbout.com.
+ * Federal copyright law prohibits unauthorized reproduction by any means
+ * and imposes fines up to $25,000 for violation. If you received
+ * this code accidentally and without intent to use it, please report this
+ * incident to the author by email.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS
+ * "AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT
+ * LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR
+ * A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT
+ * OWNER OR CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL,
+ * SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT
+ * LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE,
+ * DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON
+ * ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY,
+ * OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT
+ * OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF
+ * SUCH DAMAGE.
+ */
+package com.netbout.dynamo;
+
+import com.amazonaws.services.dynamodbv2.AmazonDynamoDB;
+import com.amazonaws.services.dynamodbv2.model.AttributeValue;
+import com.amazonaws.services.dynamodbv2.model.GetItemRequest;
+import com.jcabi.aspects.Immutable;
+import com.jcabi.aspects.Loggable;
+import com.jcabi.dynamo.Attributes;
+import com.jcabi.dynamo.Region;
+import com.jcabi.immutable.ArrayMap;
+import com.netbout.spi.Inbox;
+import java.io.IOException;
+import java.net.HttpURLConnection;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.Map;
+import lombok.EqualsAndHashCode;
+import lombok.ToString;
+import org.takes.HttpException;
+
+/**
+ * State of a friend in a bout, stored in "friends" table.
+ *
+ * @author Yegor Bugayenko (yegor@teamed.io)
+ * @version $Id$
+ * @since 3.0
+ */
+@Immutable
+interface FriendRow {
+
+    /**
+     * How many messages are unread.
+     * @return Number of them
+     * @throws IOException If fails
+     */
+    long unread() throws IOException;
+
+    /**
+     * How many attachments are unseen.
+     * @return Number of them
+     * @throws IOException If fails
+     */
+    int unseen() throws IOException;
+
+    /**
+     * Names of unseen attachments.
+     * @return Names
+     * @throws IOException If fails
+     * @since 3.0
+     */
+    Collection<String> attachments() throws IOException;
+
+    /**
+     * The row with all its attributes, to be read many times.
+     * @return Row
+     * @throws IOException If fails
+     * @since 3.0
+     */
+    FriendRow loaded() throws IOException;
+
+    /**
+     * Is the friend subscribed to email notifications?
+     * @return TRUE if subscribed
+     * @throws IOException If fails
+     */
+    boolean subscription() throws IOException;
+
+    /**
+     * Row loaded beforehand, in bulk, see {@link FriendRows}.
+     */
+    @Immutable
+    @ToString
+    @EqualsAndHashCode(of = "attrs")
+    final class Loaded implements FriendRow {
+        /**
+         * Attributes of the row.
+         */
+        private final transient ArrayMap<String, AttributeValue> attrs;
+        /**
+         * Ctor.
+         * @param map Attributes of the row
+         */
+        Loaded(final Map<String, AttributeValue> map) {
+            this.attrs = new ArrayMap<String, AttributeValue>(map);
+        }
+        @Override
+        public long unread() {
+            long unread = 0L;
+            if (this.attrs.containsKey(DyFriends.ATTR_UNREAD)) {
+                unread = Long.parseLong(
+                    this.attrs.get(DyFriends.ATTR_UNREAD).getN()
+                );
+            }
+            return unread;
+        }
+        @Override
+        public int unseen() {
+            return this.attachments().size();
+        }
+        @Override
+        public Collection<String> attachments() {
+            final Collection<String> names;
+            if (this.attrs.containsKey(DyFriends.ATTR_UNSEEN)) {
+                names = new HashSet<>(
+                    this.attrs.get(DyFriends.ATTR_UNSEEN).getSS()
+                );
+            } else {
+                names = Collections.emptySet();
+            }
+            return names;
+        }
+        @Override
+        public FriendRow loaded() {
+            return this;
+        }
+        @Override
+        public boolean subscription() {
+            boolean subs = true;
+            if (this.attrs.containsKey(DyFriends.ATTR_SUBSCRIPTION)) {
+                subs = Boolean.parseBoolean(
+                    this.attrs.get(DyFriends.ATTR_SUBSCRIPTION).getS()
+                );
+            }
+            return subs;
+        }
+    }
+
+    /**
+     * Row fetched from DynamoDB on every call.
+     */
+    @Immutable
+    @Loggable(Loggable.DEBUG)
+    @ToString(of = { "bout", "alias" })
+    @EqualsAndHashCode(of = { "region", "bout", "alias" })
+    final class Live implements FriendRow {
+        /**
+         * Attributes to load the row with.
+         */
+        private static final String[] ATTRS = {
+            DyFriends.ATTR_UNREAD,
+            DyFriends.ATTR_UNSEEN,
+            DyFriends.ATTR_SUBSCRIPTION
+        };
+        /**
+         * Region to work with.
+         */
+        private final transient Region region;
+        /**
+         * Bout number.
+         */
+        private final transient long bout;
+        /**
+         * Alias of the friend.
+         */
+        private final transient String alias;
+        /**
+         * Ctor.
+         * @param reg Region
+         * @param num Bout number
+         * @param name Alias of the friend
+         */
+        Live(final Region reg, final long num, final String name) {
+            this.region = reg;
+            this.bout = num;
+            this.alias = name;
+        }
+        // @todo #1094:30min HttpException seems not really appropriate here
+        //  in database layer. I think we have to throw something like
+        //  BoutNotFoundException and process its somewhere in web layer.
+        //  Pay attention that we should also change a test
+        //  DyMessagesITCase.exceptionIfBoutNotFound() which tests a presence
+        //  of HttpException.
+        @Override
+        public long unread() throws IOException {
+            return new FriendRow.Loaded(
+                this.existing(DyFriends.ATTR_UNREAD)
+            ).unread();
+        }
+        @Override
+        public int unseen() throws IOException {
+            return this.attachments().size();
+        }
+        @Override
+        public Collection<String> attachments() throws IOException {
+            return new FriendRow.Loaded(
+                this.existing(DyFriends.ATTR_UNSEEN)
+            ).attachments();
+        }
+        @Override
+        public FriendRow loaded() throws IOException {
+            return new FriendRow.Loaded(
+                this.existing(FriendRow.Live.ATTRS)
+            );
+        }
+        @Override
+        public boolean subscription() {
+            return new FriendRow.Loaded(
+                this.row(DyFriends.ATTR_SUBSCRIPTION)
+            ).subscription();
+        }
+        /**
+         * Fetch the row, which must exist.
+         * @param attrs Attributes to fetch
+         * @return Attributes found
+         * @throws HttpException If there is no such row
+         */
+        private Map<String, AttributeValue> existing(final String... attrs)
+            throws HttpException {
+            final Map<String, AttributeValue> row = this.row(attrs);
+            if (row.isEmpty()) {
+                throw new HttpException(
+                    HttpURLConnection.HTTP_NOT_FOUND,
+                    new Inbox.BoutNotFoundException(this.bout)
+                );
+            }
+            return row;
+        }
+        /**
+         * Fetch the row by one GetItem, with the range key, to tell
+         * an existing row without the attributes from an absent one.
+         * @param attrs Attributes to fetch
+         * @return Attributes found, empty if there is no such row
+         */
+        private Map<String, AttributeValue> row(final String... attrs) {
+            final Collection<String> names = new ArrayList<>(attrs.length + 1);
+            names.add(DyFriends.RANGE);
+            names.addAll(Arrays.asList(attrs));
+            final AmazonDynamoDB aws = this.region.aws();
+            try {
+                Map<String, AttributeValue> row = aws.getItem(
+                    new GetItemRequest()
+                        .withTableName(
+                            this.region.table(DyFriends.TBL).name()
+                        )
+                        .withKey(
+                            new Attributes()
+                                .with(DyFriends.HASH, this.bout)
+                                .with(DyFriends.RANGE, this.alias)
+                        )
+                        .withAttributesToGet(names)
+                        .withConsistentRead(true)
+                ).getItem();
+                if (row == null) {
+                    row = Collections.emptyMap();
+                }
+                return row;
+            } finally {
+                aws.shutdown();
+            }
+        }
+    }
+
+}
@@ -0,0 +1,166 @@
+/**
+ * Copyright (c) 2009-2016, netbout.com
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are PROHIBITED without prior written permission from
+ * the author. This product may NOT be used anywhere and on any computer
+ * except the server platform of netbout Inc. located at www.netbout.com.
+ * Federal copyright law prohibits unauthorized reproduction by any means
+ * and imposes fines up to $25,000 for violation. If you received
+ * this code accidentally and without intent to use it, please report this
+ * incident to the author by email.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS
+ * "AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT
+ * LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR
+ * A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT
+ * OWNER OR CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL,
+ * SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT
+ * LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE,
+ * DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON
+ * ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY,
+ * OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT
+ * OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF
+ * SUCH DAMAGE.
+ */
+package com.netbout.dynamo;
+
+import com.amazonaws.services.dynamodbv2.AmazonDynamoDB;
+import com.amazonaws.services.dynamodbv2.model.AttributeValue;
+import com.amazonaws.services.dynamodbv2.model.BatchGetItemRequest;
+import com.amazonaws.services.dynamodbv2.model.BatchGetItemResult;
+import com.amazonaws.services.dynamodbv2.model.KeysAndAttributes;
+import com.google.common.collect.Iterables;
+import com.jcabi.aspects.Immutable;
+import com.jcabi.aspects.Loggable;
+import com.jcabi.dynamo.Attributes;
+import com.jcabi.dynamo.Region;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import lombok.EqualsAndHashCode;
+import lombok.ToString;
+
+/**
+ * Bulk loader of friend rows of one alias in many bouts.
+ *
+ * <p>All rows are fetched by BatchGetItem requests, one per
+ * {@link #BATCH} bouts, instead of a query per bout and per attribute.
+ * Unprocessed keys of a throttled request are retried with a
+ * {@link Backoff}.
+ *
+ * @author Yegor Bugayenko (yegor@teamed.io)
+ * @version $Id$
+ * @since 3.0
+ */
+@Immutable
+@Loggable(Loggable.DEBUG)
+@ToString(of = "alias")
+@EqualsAndHashCode(of = { "region", "alias" })
+final class FriendRows {
+
+    /**
+     * Maximum number of keys in one BatchGetItem request.
+     */
+    private static final int BATCH = 100;
+
+    /**
+     * Region to work with.
+     */
+    private final transient Region region;
+
+    /**
+     * Alias of the friend.
+     */
+    private final transient String alias;
+
+    /**
+     * Ctor.
+     * @param reg Region
+     * @param name Alias of the friend
+     */
+    FriendRows(final Region reg, final String name) {
+        this.region = reg;
+        this.alias = name;
+    }
+
+    /**
+     * Fetch rows of the alias in the given bouts.
+     * @param bouts Bout numbers
+     * @return Rows by bout numbers, without bouts the alias is not in
+     */
+    public Map<Long, FriendRow> fetch(final Collection<Long> bouts) {
+        final Map<Long, FriendRow> rows = new HashMap<>(bouts.size());
+        for (final Map.Entry<Long, Map<String, AttributeValue>> entry
+            : this.items(bouts).entrySet()) {
+            rows.put(entry.getKey(), new FriendRow.Loaded(entry.getValue()));
+        }
+        return rows;
+    }
+
+    /**
+     * Fetch all attributes of the alias in the given bouts.
+     * @param bouts Bout numbers
+     * @return Attributes by bout numbers, without bouts the alias is not in
+     */
+    public Map<Long, Map<String, AttributeValue>> items(
+        final Collection<Long> bouts) {
+        final Map<Long, Map<String, AttributeValue>> rows =
+            new HashMap<>(bouts.size());
+        final String table = this.region.table(DyFriends.TBL).name();
+        final AmazonDynamoDB aws = this.region.aws();
+        try {
+            for (final List<Long> chunk
+                : Iterables.partition(bouts, FriendRows.BATCH)) {
+                final Collection<Map<String, AttributeValue>> keys =
+                    new ArrayList<>(chunk.size());
+                for (final Long bout : chunk) {
+                    keys.add(
+                        new Attributes()
+                            .with(
+                                DyFriends.HASH,
+                                new AttributeValue().withN(bout.toString())
+                            )
+                            .with(DyFriends.RANGE, this.alias)
+                    );
+                }
+                Map<String, KeysAndAttributes> request =
+                    Collections.singletonMap(
+                        table,
+                        new KeysAndAttributes()
+                            .withKeys(keys)
+                            .withConsistentRead(true)
+                    );
+                Backoff backoff = new Backoff();
+                while (true) {
+                    final BatchGetItemResult result = aws.batchGetItem(
+                        new BatchGetItemRequest().withRequestItems(request)
+                    );
+                    final List<Map<String, AttributeValue>> items =
+                        result.getResponses().get(table);
+                    if (items != null) {
+                        for (final Map<String, AttributeValue> item : items) {
+                            rows.put(
+                                Long.parseLong(item.get(DyFriends.HASH).getN()),
+                                item
+                            );
+                        }
+                    }
+                    request = result.getUnprocessedKeys();
+                    if (request == null || request.isEmpty()) {
+                        break;
+                    }
+                    backoff = backoff.pause();
+                }
+            }
+        } finally {
+            aws.shutdown();
+        }
+        return rows;
+    }
+
+}
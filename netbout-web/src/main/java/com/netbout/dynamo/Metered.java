@@ -0,0 +1,367 @@
+/**
+ * Copyright (c) 2009-2016, netbout.com
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are PROHIBITED without prior written permission from
+ * the author. This product may NOT be used anywhere and on any computer
+ * except the server platform of netbout Inc. located at www.netbout.com.
+ * Federal copyright law prohibits unauthorized reproduction by any means
+ * and imposes fines up to $25,000 for violation. If you received
+ * this code accidentally and without intent to use it, please report this
+ * incident to the author by email.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS
+ * "AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT
+ * LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR
+ * A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT
+ * OWNER OR CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL,
+ * SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT
+ * LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE,
+ * DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON
+ * ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY,
+ * OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT
+ * OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF
+ * SUCH DAMAGE.
+ */
+package com.netbout.dynamo;
+
+import com.amazonaws.services.dynamodbv2.AmazonDynamoDB;
+import com.amazonaws.services.dynamodbv2.model.AttributeValue;
+import com.amazonaws.services.dynamodbv2.model.BatchGetItemRequest;
+import com.amazonaws.services.dynamodbv2.model.BatchGetItemResult;
+import com.amazonaws.services.dynamodbv2.model.BatchWriteItemRequest;
+import com.amazonaws.services.dynamodbv2.model.BatchWriteItemResult;
+import com.amazonaws.services.dynamodbv2.model.Capacity;
+import com.amazonaws.services.dynamodbv2.model.ConsumedCapacity;
+import com.amazonaws.services.dynamodbv2.model.DeleteItemRequest;
+import com.amazonaws.services.dynamodbv2.model.DeleteItemResult;
+import com.amazonaws.services.dynamodbv2.model.GetItemRequest;
+import com.amazonaws.services.dynamodbv2.model.GetItemResult;
+import com.amazonaws.services.dynamodbv2.model.PutItemRequest;
+import com.amazonaws.services.dynamodbv2.model.PutItemResult;
+import com.amazonaws.services.dynamodbv2.model.QueryRequest;
+import com.amazonaws.services.dynamodbv2.model.QueryResult;
+import com.amazonaws.services.dynamodbv2.model.ReturnConsumedCapacity;
+import com.amazonaws.services.dynamodbv2.model.ScanRequest;
+import com.amazonaws.services.dynamodbv2.model.ScanResult;
+import com.amazonaws.services.dynamodbv2.model.UpdateItemRequest;
+import com.amazonaws.services.dynamodbv2.model.UpdateItemResult;
+import com.amazonaws.services.dynamodbv2.model.WriteRequest;
+import com.jcabi.aspects.Immutable;
+import com.jcabi.dynamo.Credentials;
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import lombok.EqualsAndHashCode;
+import lombok.ToString;
+
+/**
+ * Credentials, which count DynamoDB calls, items and capacity units.
+ *
+ * <p>Every request to read or write items is asked to return consumed
+ * capacity by tables and indexes, and the result is counted in the
+ * {@link Throughput} of the current thread. All tables and frames of
+ * jcabi-dynamo, as well as classes that talk to the client of a region
+ * directly, get it from credentials, that's why nothing escapes.
+ *
+ * @author Yegor Bugayenko (yegor@teamed.io)
+ * @version $Id$
+ * @since 3.0
+ */
+@Immutable
+@ToString
+@EqualsAndHashCode(of = "origin")
+final class Metered implements Credentials {
+
+    /**
+     * Original credentials.
+     */
+    private final transient Credentials origin;
+
+    /**
+     * Ctor.
+     * @param creds Original credentials
+     */
+    Metered(final Credentials creds) {
+        this.origin = creds;
+    }
+
+    @Override
+    public AmazonDynamoDB aws() {
+        return AmazonDynamoDB.class.cast(
+            Proxy.newProxyInstance(
+                AmazonDynamoDB.class.getClassLoader(),
+                new Class<?>[] {AmazonDynamoDB.class},
+                new Metered.Handler(this.origin.aws())
+            )
+        );
+    }
+
+    /**
+     * Handler of client calls.
+     */
+    private static final class Handler implements InvocationHandler {
+        /**
+         * Original client.
+         */
+        private final transient AmazonDynamoDB aws;
+        /**
+         * Ctor.
+         * @param client Original client
+         */
+        Handler(final AmazonDynamoDB client) {
+            this.aws = client;
+        }
+        @Override
+        public Object invoke(final Object proxy, final Method method,
+            final Object[] args) throws Throwable {
+            Object request = null;
+            if (args != null && args.length == 1) {
+                request = args[0];
+                Metered.Handler.ask(request);
+            }
+            final Object result;
+            try {
+                result = method.invoke(this.aws, args);
+            } catch (final InvocationTargetException ex) {
+                throw ex.getCause();
+            }
+            if (request != null) {
+                Metered.Handler.count(request, result);
+            }
+            return result;
+        }
+        /**
+         * Ask for consumed capacity, if it's a request about items.
+         * @param request The request
+         */
+        private static void ask(final Object request) {
+            final ReturnConsumedCapacity what = ReturnConsumedCapacity.INDEXES;
+            if (request instanceof GetItemRequest) {
+                GetItemRequest.class.cast(request)
+                    .setReturnConsumedCapacity(what);
+            } else if (request instanceof PutItemRequest) {
+                PutItemRequest.class.cast(request)
+                    .setReturnConsumedCapacity(what);
+            } else if (request instanceof UpdateItemRequest) {
+                UpdateItemRequest.class.cast(request)
+                    .setReturnConsumedCapacity(what);
+            } else if (request instanceof DeleteItemRequest) {
+                DeleteItemRequest.class.cast(request)
+                    .setReturnConsumedCapacity(what);
+            } else if (request instanceof QueryRequest) {
+                QueryRequest.class.cast(request)
+                    .setReturnConsumedCapacity(what);
+            } else if (request instanceof ScanRequest) {
+                ScanRequest.class.cast(request)
+                    .setReturnConsumedCapacity(what);
+            } else if (request instanceof BatchGetItemRequest) {
+                BatchGetItemRequest.class.cast(request)
+                    .setReturnConsumedCapacity(what);
+            } else if (request instanceof BatchWriteItemRequest) {
+                BatchWriteItemRequest.class.cast(request)
+                    .setReturnConsumedCapacity(what);
+            }
+        }
+        /**
+         * Count the call, if it's a request about items.
+         * @param request The request
+         * @param result The result
+         * @checkstyle CyclomaticComplexityCheck (50 lines)
+         * @checkstyle ExecutableStatementCountCheck (50 lines)
+         */
+        @SuppressWarnings("PMD.CyclomaticComplexity")
+        private static void count(final Object request, final Object result) {
+            if (result instanceof GetItemResult) {
+                final GetItemResult res = GetItemResult.class.cast(result);
+                long items = 0L;
+                if (res.getItem() != null) {
+                    items = 1L;
+                }
+                Metered.Handler.count(
+                    GetItemRequest.class.cast(request).getTableName(), null,
+                    items, res.getConsumedCapacity(), false
+                );
+            } else if (result instanceof PutItemResult) {
+                Metered.Handler.count(
+                    PutItemRequest.class.cast(request).getTableName(), null,
+                    1L, PutItemResult.class.cast(result).getConsumedCapacity(),
+                    true
+                );
+            } else if (result instanceof UpdateItemResult) {
+                Metered.Handler.count(
+                    UpdateItemRequest.class.cast(request).getTableName(), null,
+                    1L,
+                    UpdateItemResult.class.cast(result).getConsumedCapacity(),
+                    true
+                );
+            } else if (result instanceof DeleteItemResult) {
+                Metered.Handler.count(
+                    DeleteItemRequest.class.cast(request).getTableName(), null,
+                    1L,
+                    DeleteItemResult.class.cast(result).getConsumedCapacity(),
+                    true
+                );
+            } else if (result instanceof QueryResult) {
+                final QueryRequest req = QueryRequest.class.cast(request);
+                final QueryResult res = QueryResult.class.cast(result);
+                Metered.Handler.count(
+                    req.getTableName(), req.getIndexName(),
+                    Metered.Handler.number(res.getCount()),
+                    res.getConsumedCapacity(), false
+                );
+            } else if (result instanceof ScanResult) {
+                final ScanRequest req = ScanRequest.class.cast(request);
+                final ScanResult res = ScanResult.class.cast(result);
+                Metered.Handler.count(
+                    req.getTableName(), req.getIndexName(),
+                    Metered.Handler.number(res.getCount()),
+                    res.getConsumedCapacity(), false
+                );
+            } else if (result instanceof BatchGetItemResult) {
+                final BatchGetItemResult res =
+                    BatchGetItemResult.class.cast(result);
+                final Map<String, Long> items = new HashMap<>(0);
+                for (final Map.Entry<String, List<Map<String, AttributeValue>>>
+                    entry : res.getResponses().entrySet()) {
+                    items.put(
+                        entry.getKey(), (long) entry.getValue().size()
+                    );
+                }
+                Metered.Handler.count(
+                    items, res.getConsumedCapacity(), false
+                );
+            } else if (result instanceof BatchWriteItemResult) {
+                final Map<String, Long> items = new HashMap<>(0);
+                for (final Map.Entry<String, List<WriteRequest>> entry
+                    : BatchWriteItemRequest.class.cast(request)
+                        .getRequestItems().entrySet()) {
+                    items.put(
+                        entry.getKey(), (long) entry.getValue().size()
+                    );
+                }
+                Metered.Handler.count(
+                    items,
+                    BatchWriteItemResult.class.cast(result)
+                        .getConsumedCapacity(),
+                    true
+                );
+            }
+        }
+        /**
+         * Count a batch call.
+         * @param items Items by tables
+         * @param consumed Consumed capacity by tables, or NULL
+         * @param write TRUE if it's a write
+         */
+        private static void count(final Map<String, Long> items,
+            final List<ConsumedCapacity> consumed, final boolean write) {
+            final Map<String, ConsumedCapacity> tables = new HashMap<>(0);
+            if (consumed != null) {
+                for (final ConsumedCapacity capacity : consumed) {
+                    tables.put(capacity.getTableName(), capacity);
+                }
+            }
+            for (final Map.Entry<String, Long> entry : items.entrySet()) {
+                Metered.Handler.count(
+                    entry.getKey(), null, entry.getValue(),
+                    tables.get(entry.getKey()), write
+                );
+            }
+        }
+        /**
+         * Count a call to one table.
+         * @param table Name of the table
+         * @param index Name of the index, or NULL
+         * @param items Number of items
+         * @param consumed Consumed capacity, or NULL
+         * @param write TRUE if it's a write
+         * @checkstyle ParameterNumberCheck (4 lines)
+         */
+        private static void count(final String table, final String index,
+            final long items, final ConsumedCapacity consumed,
+            final boolean write) {
+            final Throughput throughput = new Throughput();
+            double units = 0.0d;
+            final Map<String, Capacity> indexes = new HashMap<>(0);
+            if (consumed != null) {
+                units = Metered.Handler.units(consumed.getCapacityUnits());
+                indexes.putAll(
+                    Metered.Handler.map(consumed.getGlobalSecondaryIndexes())
+                );
+                indexes.putAll(
+                    Metered.Handler.map(consumed.getLocalSecondaryIndexes())
+                );
+            }
+            throughput.call(table, items, units, write);
+            if (index != null) {
+                throughput.call(
+                    Metered.Handler.name(table, index), items, 0.0d, write
+                );
+            }
+            for (final Map.Entry<String, Capacity> entry
+                : indexes.entrySet()) {
+                throughput.consume(
+                    Metered.Handler.name(table, entry.getKey()),
+                    Metered.Handler.units(
+                        entry.getValue().getCapacityUnits()
+                    ),
+                    write
+                );
+            }
+        }
+        /**
+         * Name of the line of an index.
+         * @param table Name of the table
+         * @param index Name of the index
+         * @return Name of the line
+         */
+        private static String name(final String table, final String index) {
+            return String.format("%s%s%s", table, Usage.COLON, index);
+        }
+        /**
+         * Map or empty map, if it's NULL.
+         * @param map The map or NULL
+         * @return Map
+         */
+        private static Map<String, Capacity> map(
+            final Map<String, Capacity> map) {
+            Map<String, Capacity> result = map;
+            if (result == null) {
+                result = Collections.emptyMap();
+            }
+            return result;
+        }
+        /**
+         * Units or zero, if they are NULL.
+         * @param units Units or NULL
+         * @return Units
+         */
+        private static double units(final Double units) {
+            double result = 0.0d;
+            if (units != null) {
+                result = units;
+            }
+            return result;
+        }
+        /**
+         * Number or zero, if it's NULL.
+         * @param number Number or NULL
+         * @return Number
+         */
+        private static long number(final Integer number) {
+            long result = 0L;
+            if (number != null) {
+                result = number;
+            }
+            return result;
+        }
+    }
+
+}
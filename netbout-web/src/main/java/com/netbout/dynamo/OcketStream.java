@@ -0,0 +1,182 @@
+/**
+ * Copyright (c) 2009-2016, netbout.com
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are PROHIBITED without prior written permission from
+ * the author. This product may NOT be used anywhere and on any computer
+ * except the server platform of netbout Inc. located at www.netbout.com.
+ * Federal copyright law prohibits unauthorized reproduction by any means
+ * and imposes fines up to $25,000 for violation. If you received
+ * this code accidentally and without intent to use it, please report this
+ * incident to the author by email.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS
+ * "AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT
+ * LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR
+ * A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT
+ * OWNER OR CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL,
+ * SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT
+ * LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE,
+ * DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON
+ * ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY,
+ * OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT
+ * OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF
+ * SUCH DAMAGE.
+ */
+package com.netbout.dynamo;
+
+import com.amazonaws.AmazonClientException;
+import com.amazonaws.services.s3.AmazonS3Client;
+import com.amazonaws.services.s3.model.GetObjectRequest;
+import com.jcabi.s3.Bucket;
+import com.jcabi.s3.Ocket;
+import com.jcabi.s3.Region;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import lombok.ToString;
+import org.apache.commons.io.IOUtils;
+
+/**
+ * Lazily opened stream with the content of an S3 object.
+ *
+ * <p>Objects in Amazon S3 are streamed right from the HTTP connection,
+ * starting from the offset requested by {@link #skip(long)} calls made
+ * before the first read, so that nothing is buffered in memory. Other
+ * storages (like the mock one we use in tests) are spooled into
+ * a temporary file first.
+ *
+ * <p>The class is NOT thread-safe.
+ *
+ * @author Yegor Bugayenko (yegor@teamed.io)
+ * @version $Id$
+ * @since 3.0
+ */
+@ToString(of = "ocket")
+final class OcketStream extends InputStream {
+
+    /**
+     * Ocket to read.
+     */
+    private final transient Ocket ocket;
+
+    /**
+     * Bytes to skip before the first read.
+     */
+    private transient long offset;
+
+    /**
+     * Opened stream or NULL if not yet opened.
+     */
+    private transient InputStream origin;
+
+    /**
+     * Amazon S3 client to shut down or NULL.
+     */
+    private transient AmazonS3Client aws;
+
+    /**
+     * Temporary file to delete or NULL.
+     */
+    private transient File temp;
+
+    /**
+     * Ctor.
+     * @param okt Ocket
+     */
+    OcketStream(final Ocket okt) {
+        super();
+        this.ocket = okt;
+    }
+
+    @Override
+    public int read() throws IOException {
+        return this.stream().read();
+    }
+
+    @Override
+    public int read(final byte[] buf, final int off, final int len)
+        throws IOException {
+        return this.stream().read(buf, off, len);
+    }
+
+    @Override
+    public long skip(final long len) throws IOException {
+        final long skipped;
+        if (this.origin == null) {
+            this.offset += len;
+            skipped = len;
+        } else {
+            skipped = this.origin.skip(len);
+        }
+        return skipped;
+    }
+
+    @Override
+    public int available() throws IOException {
+        int available = 0;
+        if (this.origin != null) {
+            available = this.origin.available();
+        }
+        return available;
+    }
+
+    @Override
+    public void close() throws IOException {
+        try {
+            if (this.origin != null) {
+                this.origin.close();
+            }
+        } finally {
+            if (this.aws != null) {
+                this.aws.shutdown();
+            }
+            if (this.temp != null) {
+                Files.deleteIfExists(this.temp.toPath());
+            }
+        }
+    }
+
+    /**
+     * Open the stream, if not yet opened.
+     * @return Stream
+     * @throws IOException If fails
+     */
+    private InputStream stream() throws IOException {
+        if (this.origin == null) {
+            final Bucket bucket = this.ocket.bucket();
+            if (bucket.region() instanceof Region.Simple) {
+                final GetObjectRequest request = new GetObjectRequest(
+                    bucket.name(), this.ocket.key()
+                );
+                if (this.offset > 0L) {
+                    request.setRange(this.offset, Long.MAX_VALUE - 1L);
+                }
+                this.aws = (AmazonS3Client) bucket.region().aws();
+                try {
+                    this.origin = this.aws.getObject(request)
+                        .getObjectContent();
+                } catch (final AmazonClientException ex) {
+                    throw new IOException(
+                        String.format("failed to read %s", this.ocket),
+                        ex
+                    );
+                }
+            } else {
+                this.temp = File.createTempFile("netbout", "bin");
+                try (OutputStream out = new FileOutputStream(this.temp)) {
+                    this.ocket.read(out);
+                }
+                this.origin = new FileInputStream(this.temp);
+                IOUtils.skipFully(this.origin, this.offset);
+            }
+        }
+        return this.origin;
+    }
+
+}
@@ -0,0 +1,111 @@
+/**
+ * Copyright (c) 2009-2016, netbout.com
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are PROHIBITED without prior written permission from
+ * the author. This product may NOT be used anywhere and on any computer
+ * except the server platform of netbout Inc. located at www.netbout.com.
+ * Federal copyright law prohibits unauthorized reproduction by any means
+ * and imposes fines up to $25,000 for violation. If you received
+ * this code accidentally and without intent to use it, please report this
+ * incident to the author by email.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS
+ * "AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT
+ * LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR
+ * A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT
+ * OWNER OR CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL,
+ * SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT
+ * LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE,
+ * DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON
+ * ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY,
+ * OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT
+ * OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF
+ * SUCH DAMAGE.
+ */
+package com.netbout.dynamo;
+
+import com.amazonaws.AmazonClientException;
+import com.amazonaws.services.s3.model.ObjectMetadata;
+import com.amazonaws.services.s3.model.PutObjectRequest;
+import com.amazonaws.services.s3.transfer.TransferManager;
+import com.jcabi.aspects.Immutable;
+import com.jcabi.aspects.Loggable;
+import com.jcabi.s3.Bucket;
+import com.jcabi.s3.Ocket;
+import com.jcabi.s3.Region;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import lombok.EqualsAndHashCode;
+import lombok.ToString;
+
+/**
+ * Upload of a file into an S3 object.
+ *
+ * <p>Files are uploaded into Amazon S3 by the {@link TransferManager},
+ * which switches to a parallel multipart upload for big files. Other
+ * storages (like the mock one we use in tests) get the content of the
+ * file as a stream.
+ *
+ * @author Yegor Bugayenko (yegor@teamed.io)
+ * @version $Id$
+ * @since 3.0
+ */
+@Immutable
+@ToString
+@Loggable(Loggable.DEBUG)
+@EqualsAndHashCode(of = "ocket")
+final class OcketUpload {
+
+    /**
+     * Ocket to write.
+     */
+    private final transient Ocket ocket;
+
+    /**
+     * Ctor.
+     * @param okt Ocket
+     */
+    OcketUpload(final Ocket okt) {
+        this.ocket = okt;
+    }
+
+    /**
+     * Upload the file.
+     * @param file File with the content
+     * @param meta Metadata of the object
+     * @throws IOException If fails
+     */
+    public void write(final File file, final ObjectMetadata meta)
+        throws IOException {
+        final Bucket bucket = this.ocket.bucket();
+        if (bucket.region() instanceof Region.Simple) {
+            final TransferManager manager =
+                new TransferManager(bucket.region().aws());
+            try {
+                manager.upload(
+                    new PutObjectRequest(bucket.name(), this.ocket.key(), file)
+                        .withMetadata(meta)
+                ).waitForUploadResult();
+            } catch (final InterruptedException ex) {
+                Thread.currentThread().interrupt();
+                throw new IOException(ex);
+            } catch (final AmazonClientException ex) {
+                throw new IOException(
+                    String.format("failed to upload %s", this.ocket),
+                    ex
+                );
+            } finally {
+                manager.shutdownNow();
+            }
+        } else {
+            try (InputStream input = new FileInputStream(file)) {
+                this.ocket.write(input, meta);
+            }
+        }
+    }
+
+}
@@ -0,0 +1,92 @@
+/**
+ * Copyright (c) 2009-2016, netbout.com
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are PROHIBITED without prior written permission from
+ * the author. This product may NOT be used anywhere and on any computer
+ * except the server platform of netbout Inc. located at www.netbout.com.
+ * Federal copyright law prohibits unauthorized reproduction by any means
+ * and imposes fines up to $25,000 for violation. If you received
+ * this code accidentally and without intent to use it, please report this
+ * incident to the author by email.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS
+ * "AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT
+ * LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR
+ * A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT
+ * OWNER OR CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL,
+ * SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT
+ * LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE,
+ * DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON
+ * ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY,
+ * OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT
+ * OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF
+ * SUCH DAMAGE.
+ */
+package com.netbout.dynamo;
+
+import com.amazonaws.services.dynamodbv2.model.AttributeValue;
+import com.jcabi.aspects.Immutable;
+import com.jcabi.immutable.ArrayMap;
+import com.netbout.spi.Alias;
+import java.net.URI;
+import java.util.Map;
+import lombok.EqualsAndHashCode;
+import lombok.ToString;
+
+/**
+ * Public profile of an alias, read from "aliases" table at once.
+ *
+ * @author Yegor Bugayenko (yegor@teamed.io)
+ * @version $Id$
+ * @since 3.0
+ */
+@Immutable
+@ToString(of = "attrs")
+@EqualsAndHashCode(of = "attrs")
+final class Profile {
+
+    /**
+     * Attributes of the row, empty if there is no such alias.
+     */
+    private final transient ArrayMap<String, AttributeValue> attrs;
+
+    /**
+     * Ctor.
+     * @param map Attributes of the row
+     */
+    Profile(final Map<String, AttributeValue> map) {
+        this.attrs = new ArrayMap<String, AttributeValue>(map);
+    }
+
+    /**
+     * Photo of the alias.
+     * @return URI of the photo
+     */
+    public URI photo() {
+        final URI uri;
+        if (this.attrs.containsKey(DyAliases.ATTR_PHOTO)) {
+            uri = URI.create(this.attrs.get(DyAliases.ATTR_PHOTO).getS());
+        } else {
+            uri = Alias.BLANK;
+        }
+        return uri;
+    }
+
+    /**
+     * Confirmed email of the alias.
+     * @return Email or empty string if there is no email
+     */
+    public String email() {
+        String email = "";
+        if (this.attrs.containsKey(DyAliases.ATTR_EMAIL)) {
+            email = this.attrs.get(DyAliases.ATTR_EMAIL).getS();
+        }
+        if (email.contains("!")) {
+            email = email.substring(0, email.indexOf('!'));
+        }
+        return email;
+    }
+
+}
@@ -0,0 +1,163 @@
+/**
+ * Copyright (c) 2009-2016, netbout.com
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are PROHIBITED without prior written permission from
+ * the author. This product may NOT be used anywhere and on any computer
+ * except the server platform of netbout Inc. located at www.netbout.com.
+ * Federal copyright law prohibits unauthorized reproduction by any means
+ * and imposes fines up to $25,000 for violation. If you received
+ * this code accidentally and without intent to use it, please report this
+ * incident to the author by email.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS
+ * "AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT
+ * LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR
+ * A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT
+ * OWNER OR CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL,
+ * SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT
+ * LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE,
+ * DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON
+ * ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY,
+ * OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT
+ * OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF
+ * SUCH DAMAGE.
+ */
+package com.netbout.dynamo;
+
+import com.amazonaws.services.dynamodbv2.AmazonDynamoDB;
+import com.amazonaws.services.dynamodbv2.model.AttributeValue;
+import com.amazonaws.services.dynamodbv2.model.BatchGetItemRequest;
+import com.amazonaws.services.dynamodbv2.model.BatchGetItemResult;
+import com.amazonaws.services.dynamodbv2.model.KeysAndAttributes;
+import com.google.common.collect.Iterables;
+import com.jcabi.aspects.Immutable;
+import com.jcabi.aspects.Loggable;
+import com.jcabi.dynamo.Attributes;
+import com.jcabi.dynamo.Region;
+import com.netbout.spi.Friend;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import lombok.EqualsAndHashCode;
+import lombok.ToString;
+
+/**
+ * Profiles of aliases, read in bulk.
+ *
+ * <p>Photo and email of an alias are read together, and profiles of
+ * all friends of a bout are read by BatchGetItem requests, one per
+ * {@link #BATCH} aliases. Nothing is cached here: the cached decorators
+ * on top of this base keep photos and emails of friends by alias, in
+ * their shared store, and invalidate them when an alias changes them.
+ *
+ * @author Yegor Bugayenko (yegor@teamed.io)
+ * @version $Id$
+ * @since 3.0
+ */
+@Immutable
+@Loggable(Loggable.DEBUG)
+@ToString
+@EqualsAndHashCode(of = "region")
+final class Profiles {
+
+    /**
+     * Maximum number of keys in one BatchGetItem request.
+     */
+    private static final int BATCH = 100;
+
+    /**
+     * Region to work with.
+     */
+    private final transient Region region;
+
+    /**
+     * Ctor.
+     * @param reg Region
+     */
+    Profiles(final Region reg) {
+        this.region = reg;
+    }
+
+    /**
+     * Friends with the given aliases, with their profiles loaded.
+     * @param aliases Alias names
+     * @return Friends, in the same order
+     */
+    public Collection<Friend> friends(final Collection<String> aliases) {
+        final Map<String, Profile> profiles = this.fetch(aliases);
+        final Collection<Friend> friends = new ArrayList<>(aliases.size());
+        for (final String alias : aliases) {
+            friends.add(new DyFriend(alias, profiles.get(alias)));
+        }
+        return friends;
+    }
+
+    /**
+     * Profiles of many aliases, read in bulk.
+     * @param aliases Alias names
+     * @return Profiles by alias names, for all of them, empty ones
+     *  for aliases that don't exist
+     */
+    public Map<String, Profile> fetch(final Collection<String> aliases) {
+        final String table = this.region.table(DyAliases.TBL).name();
+        final Map<String, Profile> loaded = new HashMap<>(aliases.size());
+        final AmazonDynamoDB aws = this.region.aws();
+        try {
+            for (final List<String> chunk
+                : Iterables.partition(aliases, Profiles.BATCH)) {
+                final Collection<Map<String, AttributeValue>> keys =
+                    new ArrayList<>(chunk.size());
+                for (final String alias : chunk) {
+                    keys.add(new Attributes().with(DyAliases.HASH, alias));
+                    loaded.put(
+                        alias,
+                        new Profile(
+                            Collections.<String, AttributeValue>emptyMap()
+                        )
+                    );
+                }
+                Map<String, KeysAndAttributes> request =
+                    Collections.singletonMap(
+                        table,
+                        new KeysAndAttributes()
+                            .withKeys(keys)
+                            .withAttributesToGet(
+                                DyAliases.HASH,
+                                DyAliases.ATTR_PHOTO,
+                                DyAliases.ATTR_EMAIL
+                            )
+                    );
+                Backoff backoff = new Backoff();
+                while (true) {
+                    final BatchGetItemResult result = aws.batchGetItem(
+                        new BatchGetItemRequest().withRequestItems(request)
+                    );
+                    final List<Map<String, AttributeValue>> items =
+                        result.getResponses().get(table);
+                    if (items != null) {
+                        for (final Map<String, AttributeValue> item : items) {
+                            loaded.put(
+                                item.get(DyAliases.HASH).getS(),
+                                new Profile(item)
+                            );
+                        }
+                    }
+                    request = result.getUnprocessedKeys();
+                    if (request == null || request.isEmpty()) {
+                        break;
+                    }
+                    backoff = backoff.pause();
+                }
+            }
+        } finally {
+            aws.shutdown();
+        }
+        return loaded;
+    }
+
+}
@@ -0,0 +1,222 @@
+/**
+ * Copyright (c) 2009-2016, netbout.com
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are PROHIBITED without prior written permission from
+ * the author. This product may NOT be used anywhere and on any computer
+ * except the server platform of netbout Inc. located at www.netbout.com.
+ * Federal copyright law prohibits unauthorized reproduction by any means
+ * and imposes fines up to $25,000 for violation. If you received
+ * this code accidentally and without intent to use it, please report this
+ * incident to the author by email.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS
+ * "AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT
+ * LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR
+ * A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT
+ * OWNER OR CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL,
+ * SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT
+ * LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE,
+ * DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON
+ * ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY,
+ * OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT
+ * OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF
+ * SUCH DAMAGE.
+ */
+package com.netbout.dynamo;
+
+import com.google.common.collect.AbstractIterator;
+import com.jcabi.aspects.Immutable;
+import com.jcabi.aspects.Loggable;
+import com.jcabi.aspects.Tv;
+import com.jcabi.log.VerboseThreads;
+import com.netbout.spi.Pageable;
+import java.io.IOException;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import lombok.EqualsAndHashCode;
+import lombok.ToString;
+
+/**
+ * All items of a pageable, fetched page by page, with read-ahead.
+ *
+ * <p>Every page is requested by the position of the next one, which
+ * is the last evaluated key of the previous query. As soon as a page
+ * arrives, the next one is requested in background, while the
+ * iterator returns items of the current one. Pages grow twice with
+ * every request, up to {@link #MAX} items, since the first page is
+ * usually all a page of the site needs, while an export goes to the
+ * end. When the pool is busy, the caller fetches the page itself.
+ *
+ * @author Yegor Bugayenko (yegor@teamed.io)
+ * @version $Id$
+ * @since 3.0
+ * @param <T> Type of items
+ */
+@Immutable
+@Loggable(Loggable.DEBUG)
+@ToString(of = { "start", "size" })
+@EqualsAndHashCode(of = { "source", "start", "size" })
+@SuppressWarnings("PMD.DoNotUseThreads")
+final class ReadAhead<T> implements Iterable<T> {
+
+    /**
+     * Maximum size of a page.
+     */
+    private static final int MAX = Tv.THOUSAND;
+
+    /**
+     * Threads to fetch pages in.
+     */
+    private static final ExecutorService POOL = new ThreadPoolExecutor(
+        Tv.TEN, Tv.TEN, 1L, TimeUnit.MINUTES,
+        new LinkedBlockingQueue<Runnable>(Tv.HUNDRED),
+        new VerboseThreads(ReadAhead.class),
+        new ThreadPoolExecutor.CallerRunsPolicy()
+    );
+
+    /**
+     * Source of pages.
+     */
+    private final transient ReadAhead.Source<T> source;
+
+    /**
+     * Position of the first page.
+     */
+    private final transient long start;
+
+    /**
+     * Size of the first page.
+     */
+    private final transient int size;
+
+    /**
+     * Ctor.
+     * @param src Source of pages
+     * @param pos Position of the first page
+     * @param first Size of the first page
+     */
+    ReadAhead(final ReadAhead.Source<T> src, final long pos,
+        final int first) {
+        this.source = src;
+        this.start = pos;
+        this.size = first;
+    }
+
+    @Override
+    public Iterator<T> iterator() {
+        return new ReadAhead.Cursor<T>(this.source, this.start, this.size);
+    }
+
+    /**
+     * Source of pages.
+     * @param <T> Type of items
+     */
+    @Immutable
+    interface Source<T> {
+        /**
+         * Fetch one page.
+         * @param position Position of the page
+         * @param size Maximum number of items in it
+         * @return The page
+         * @throws IOException If fails
+         */
+        Pageable.Page<T> page(long position, int size) throws IOException;
+    }
+
+    /**
+     * Iterator over pages, one page ahead.
+     * @param <T> Type of items
+     */
+    private static final class Cursor<T> extends AbstractIterator<T> {
+        /**
+         * Source of pages.
+         */
+        private final transient ReadAhead.Source<T> source;
+        /**
+         * Size of the next page.
+         */
+        private transient int size;
+        /**
+         * Items of the current page.
+         */
+        private transient Iterator<T> items;
+        /**
+         * The next page, being fetched, or NULL after the last one.
+         */
+        private transient Future<Pageable.Page<T>> ahead;
+        /**
+         * Ctor.
+         * @param src Source of pages
+         * @param pos Position of the first page
+         * @param first Size of the first page
+         */
+        Cursor(final ReadAhead.Source<T> src, final long pos,
+            final int first) {
+            this.source = src;
+            this.size = first;
+            this.items = Collections.<T>emptyIterator();
+            this.ahead = this.fetch(pos);
+        }
+        @Override
+        protected T computeNext() {
+            while (!this.items.hasNext() && this.ahead != null) {
+                final Pageable.Page<T> page = this.take();
+                this.items = page.items().iterator();
+                if (page.last()) {
+                    this.ahead = null;
+                } else {
+                    this.size = Math.min(this.size << 1, ReadAhead.MAX);
+                    this.ahead = this.fetch(page.next());
+                }
+            }
+            final T next;
+            if (this.items.hasNext()) {
+                next = this.items.next();
+            } else {
+                next = this.endOfData();
+            }
+            return next;
+        }
+        /**
+         * Start fetching a page in background.
+         * @param position Position of the page
+         * @return The page in the future
+         */
+        private Future<Pageable.Page<T>> fetch(final long position) {
+            final ReadAhead.Source<T> src = this.source;
+            final int limit = this.size;
+            return ReadAhead.POOL.submit(
+                new Callable<Pageable.Page<T>>() {
+                    @Override
+                    public Pageable.Page<T> call() throws IOException {
+                        return src.page(position, limit);
+                    }
+                }
+            );
+        }
+        /**
+         * Wait for the page being fetched.
+         * @return The page
+         */
+        private Pageable.Page<T> take() {
+            try {
+                return this.ahead.get();
+            } catch (final InterruptedException ex) {
+                Thread.currentThread().interrupt();
+                throw new IllegalStateException(ex);
+            } catch (final ExecutionException ex) {
+                throw new IllegalStateException(ex.getCause());
+            }
+        }
+    }
+
+}
@@ -0,0 +1,92 @@
+/**
+ * Copyright (c) 2009-2016, netbout.com
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are PROHIBITED without prior written permission from
+ * the author. This product may NOT be used anywhere and on any computer
+ * except the server platform of netbout Inc. located at www.netbout.com.
+ * Federal copyright law prohibits unauthorized reproduction by any means
+ * and imposes fines up to $25,000 for violation. If you received
+ * this code accidentally and without intent to use it, please report this
+ * incident to the author by email.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS
+ * "AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT
+ * LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR
+ * A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT
+ * OWNER OR CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL,
+ * SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT
+ * LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE,
+ * DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON
+ * ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY,
+ * OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT
+ * OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF
+ * SUCH DAMAGE.
+ */
+package com.netbout.dynamo;
+
+import com.jcabi.aspects.Tv;
+import com.jcabi.dynamo.Item;
+import com.jcabi.dynamo.Region;
+import com.jcabi.dynamo.ScanValve;
+import com.jcabi.log.Logger;
+import java.io.IOException;
+import java.util.Collection;
+import java.util.TreeSet;
+
+/**
+ * Backfill of the full-text index.
+ *
+ * <p>Scans the "friends" table and indexes every bout again, with
+ * its title in the scope of each friend and its messages in the scope
+ * of the bout and of each friend (see {@link DyTerms}). Run it once
+ * after a deploy that changes the layout of the "terms" table; it is
+ * safe to run it again, since all writes are idempotent puts.
+ *
+ * @author Yegor Bugayenko (yegor@teamed.io)
+ * @version $Id$
+ * @since 3.0
+ */
+public final class Reindex {
+
+    /**
+     * Utility class.
+     */
+    private Reindex() {
+        // intentionally empty
+    }
+
+    /**
+     * Entry point.
+     * @param args Command line args, ignored
+     * @throws IOException If fails
+     */
+    public static void main(final String... args) throws IOException {
+        final Region region = DyBase.region();
+        final Collection<Long> bouts = new TreeSet<>();
+        for (final Item item : region.table(DyFriends.TBL).frame()
+            .through(
+                new ScanValve()
+                    .withLimit(Tv.THOUSAND)
+                    .withAttributeToGet(DyFriends.HASH)
+            )) {
+            bouts.add(Long.parseLong(item.get(DyFriends.HASH).getN()));
+        }
+        Logger.info(Reindex.class, "%d bouts to reindex", bouts.size());
+        final DyTerms terms = new DyTerms(region);
+        int done = 0;
+        for (final Long bout : bouts) {
+            terms.reindex(bout);
+            ++done;
+            if (done % Tv.HUNDRED == 0) {
+                Logger.info(
+                    Reindex.class, "%d of %d bouts reindexed",
+                    done, bouts.size()
+                );
+            }
+        }
+        Logger.info(Reindex.class, "all %d bouts reindexed", done);
+    }
+
+}
@@ -0,0 +1,172 @@
+/**
+ * Copyright (c) 2009-2016, netbout.com
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are PROHIBITED without prior written permission from
+ * the author. This product may NOT be used anywhere and on any computer
+ * except the server platform of netbout Inc. located at www.netbout.com.
+ * Federal copyright law prohibits unauthorized reproduction by any means
+ * and imposes fines up to $25,000 for violation. If you received
+ * this code accidentally and without intent to use it, please report this
+ * incident to the author by email.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS
+ * "AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT
+ * LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR
+ * A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT
+ * OWNER OR CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL,
+ * SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT
+ * LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE,
+ * DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON
+ * ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY,
+ * OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT
+ * OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF
+ * SUCH DAMAGE.
+ */
+package com.netbout.dynamo;
+
+import com.amazonaws.services.dynamodbv2.model.AttributeValue;
+import com.amazonaws.services.s3.model.ObjectMetadata;
+import com.jcabi.aspects.Immutable;
+import com.jcabi.aspects.Loggable;
+import com.jcabi.dynamo.Attributes;
+import com.jcabi.s3.Ocket;
+import com.netbout.spi.Message;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+import lombok.EqualsAndHashCode;
+import lombok.ToString;
+
+/**
+ * Immutable segment of archived messages in S3.
+ *
+ * <p>The segment is a GZIP-compressed sequence of messages: number, date,
+ * author and text of each. It is written once, by {@link Archive}, and
+ * never changed afterwards.
+ *
+ * @author Yegor Bugayenko (yegor@teamed.io)
+ * @version $Id$
+ * @since 3.0
+ */
+@Immutable
+@Loggable(Loggable.DEBUG)
+@ToString(of = "ocket")
+@EqualsAndHashCode(of = "ocket")
+final class Segment {
+
+    /**
+     * Version of the format.
+     */
+    private static final int VERSION = 1;
+
+    /**
+     * Ocket with the segment.
+     */
+    private final transient Ocket ocket;
+
+    /**
+     * Ctor.
+     * @param okt Ocket
+     */
+    Segment(final Ocket okt) {
+        this.ocket = okt;
+    }
+
+    /**
+     * Save messages.
+     * @param items Items of "messages" table
+     * @throws IOException If fails
+     */
+    public void save(final Collection<Map<String, AttributeValue>> items)
+        throws IOException {
+        final ByteArrayOutputStream baos = new ByteArrayOutputStream();
+        final DataOutputStream data = new DataOutputStream(
+            new GZIPOutputStream(baos)
+        );
+        try {
+            data.writeInt(Segment.VERSION);
+            data.writeInt(items.size());
+            for (final Map<String, AttributeValue> item : items) {
+                data.writeLong(
+                    Long.parseLong(item.get(DyMessages.RANGE).getN())
+                );
+                data.writeLong(
+                    Long.parseLong(item.get(DyMessages.ATTR_DATE).getN())
+                );
+                data.writeUTF(item.get(DyMessages.ATTR_ALIAS).getS());
+                final byte[] text = item.get(DyMessages.ATTR_TEXT).getS()
+                    .getBytes(StandardCharsets.UTF_8);
+                data.writeInt(text.length);
+                data.write(text);
+            }
+        } finally {
+            data.close();
+        }
+        final byte[] bytes = baos.toByteArray();
+        final ObjectMetadata meta = new ObjectMetadata();
+        meta.setContentType("application/octet-stream");
+        meta.setContentEncoding("gzip");
+        meta.setContentLength((long) bytes.length);
+        this.ocket.write(new ByteArrayInputStream(bytes), meta);
+    }
+
+    /**
+     * Load all messages, in the order they were saved.
+     * @return Messages
+     * @throws IOException If fails
+     */
+    public List<Message> load() throws IOException {
+        final ByteArrayOutputStream baos = new ByteArrayOutputStream();
+        this.ocket.read(baos);
+        final DataInputStream data = new DataInputStream(
+            new GZIPInputStream(new ByteArrayInputStream(baos.toByteArray()))
+        );
+        try {
+            final int version = data.readInt();
+            if (version != Segment.VERSION) {
+                throw new IOException(
+                    String.format(
+                        "unknown version %d of segment %s",
+                        version, this.ocket
+                    )
+                );
+            }
+            final int total = data.readInt();
+            final List<Message> messages = new ArrayList<>(total);
+            for (int idx = 0; idx < total; ++idx) {
+                final long number = data.readLong();
+                final long date = data.readLong();
+                final String alias = data.readUTF();
+                final byte[] text = new byte[data.readInt()];
+                data.readFully(text);
+                messages.add(
+                    new DyMessage(
+                        new Attributes()
+                            .with(DyMessages.RANGE, number)
+                            .with(DyMessages.ATTR_DATE, date)
+                            .with(DyMessages.ATTR_ALIAS, alias)
+                            .with(
+                                DyMessages.ATTR_TEXT,
+                                new String(text, StandardCharsets.UTF_8)
+                            )
+                    )
+                );
+            }
+            return messages;
+        } finally {
+            data.close();
+        }
+    }
+
+}
@@ -0,0 +1,228 @@
+/**
+ * Copyright (c) 2009-2016, netbout.com
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are PROHIBITED without prior written permission from
+ * the author. This product may NOT be used anywhere and on any computer
+ * except the server platform of netbout Inc. located at www.netbout.com.
+ * Federal copyright law prohibits unauthorized reproduction by any means
+ * and imposes fines up to $25,000 for violation. If you received
+ * this code accidentally and without intent to use it, please report this
+ * incident to the author by email.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS
+ * "AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT
+ * LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR
+ * A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT
+ * OWNER OR CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL,
+ * SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT
+ * LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE,
+ * DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON
+ * ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY,
+ * OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT
+ * OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF
+ * SUCH DAMAGE.
+ */
+package com.netbout.dynamo;
+
+import com.jcabi.aspects.Immutable;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import lombok.EqualsAndHashCode;
+import lombok.ToString;
+
+/**
+ * DynamoDB usage, by routes of HTTP requests.
+ *
+ * <p>A route is opened in the thread that serves a request and closed
+ * when the request is served. All DynamoDB calls made by the thread
+ * meanwhile are counted both in the usage of this very request and in
+ * the total usage of the route, since the start of the server. Calls
+ * made out of any route, by background threads, are counted under
+ * {@link #BACKGROUND}. The number of routes is limited by {@link #MAX},
+ * the rest of them are counted under {@link #OTHER}. Routes may be
+ * nested, when a background task runs in the thread of a request:
+ * closing the inner one brings back the outer one.
+ *
+ * @author Yegor Bugayenko (yegor@teamed.io)
+ * @version $Id$
+ * @since 3.0
+ */
+@Immutable
+@ToString
+@EqualsAndHashCode
+public final class Throughput {
+
+    /**
+     * Route of calls made out of any request.
+     */
+    public static final String BACKGROUND = "background";
+
+    /**
+     * Route of calls, when there are too many routes already.
+     */
+    public static final String OTHER = "other";
+
+    /**
+     * Maximum number of routes.
+     */
+    private static final int MAX = 256;
+
+    /**
+     * Total usage, by routes.
+     */
+    private static final ConcurrentMap<String, Usage> ROUTES =
+        new ConcurrentHashMap<>(0);
+
+    /**
+     * Route of the current thread.
+     */
+    private static final ThreadLocal<Throughput.Scope> SCOPE =
+        new ThreadLocal<>();
+
+    /**
+     * Open a route in the current thread.
+     * @param route Route
+     * @return Usage of this request, counted until {@link #close()}
+     */
+    public Usage open(final String route) {
+        final Usage usage = new Usage();
+        Throughput.SCOPE.set(
+            new Throughput.Scope(route, usage, Throughput.SCOPE.get())
+        );
+        return usage;
+    }
+
+    /**
+     * Close the route of the current thread.
+     */
+    public void close() {
+        final Throughput.Scope scope = Throughput.SCOPE.get();
+        if (scope == null || scope.outer == null) {
+            Throughput.SCOPE.remove();
+        } else {
+            Throughput.SCOPE.set(scope.outer);
+        }
+    }
+
+    /**
+     * Route of the current thread.
+     * @return Route or {@link #BACKGROUND}
+     */
+    public String route() {
+        final Throughput.Scope scope = Throughput.SCOPE.get();
+        final String route;
+        if (scope == null) {
+            route = Throughput.BACKGROUND;
+        } else {
+            route = scope.route;
+        }
+        return route;
+    }
+
+    /**
+     * Count a call in the current thread.
+     * @param name Name of the line, a table or a table and an index
+     * @param items Number of items read or written
+     * @param units Capacity units consumed
+     * @param write TRUE if it's a write
+     * @checkstyle ParameterNumberCheck (4 lines)
+     */
+    public void call(final String name, final long items, final double units,
+        final boolean write) {
+        for (final Usage usage : this.usages()) {
+            usage.call(name, items, units, write);
+        }
+    }
+
+    /**
+     * Count capacity units, without a call, in the current thread.
+     * @param name Name of the line, a table or a table and an index
+     * @param units Capacity units consumed
+     * @param write TRUE if it's a write
+     */
+    public void consume(final String name, final double units,
+        final boolean write) {
+        for (final Usage usage : this.usages()) {
+            usage.consume(name, units, write);
+        }
+    }
+
+    /**
+     * Total usage of all routes, since the start.
+     * @return Usage by routes, sorted
+     */
+    public Map<String, Usage> routes() {
+        return new TreeMap<>(Throughput.ROUTES);
+    }
+
+    /**
+     * Usages to count the current call in.
+     * @return The usage of the route and of the request, if any
+     */
+    private Iterable<Usage> usages() {
+        final Throughput.Scope scope = Throughput.SCOPE.get();
+        final Usage total = Throughput.total(this.route());
+        final Iterable<Usage> usages;
+        if (scope == null) {
+            usages = Collections.singleton(total);
+        } else {
+            usages = Arrays.asList(total, scope.usage);
+        }
+        return usages;
+    }
+
+    /**
+     * Total usage of the route.
+     * @param route Route
+     * @return Usage
+     */
+    private static Usage total(final String route) {
+        Usage usage = Throughput.ROUTES.get(route);
+        if (usage == null) {
+            String name = route;
+            if (Throughput.ROUTES.size() >= Throughput.MAX) {
+                name = Throughput.OTHER;
+            }
+            Throughput.ROUTES.putIfAbsent(name, new Usage());
+            usage = Throughput.ROUTES.get(name);
+        }
+        return usage;
+    }
+
+    /**
+     * Route and usage of one request.
+     */
+    private static final class Scope {
+        /**
+         * Route.
+         */
+        private final transient String route;
+        /**
+         * Usage of the request.
+         */
+        private final transient Usage usage;
+        /**
+         * Outer scope or NULL.
+         */
+        private final transient Throughput.Scope outer;
+        /**
+         * Ctor.
+         * @param name Route
+         * @param use Usage of the request
+         * @param out Outer scope or NULL
+         */
+        Scope(final String name, final Usage use,
+            final Throughput.Scope out) {
+            this.route = name;
+            this.usage = use;
+            this.outer = out;
+        }
+    }
+
+}
@@ -0,0 +1,276 @@
+/**
+ * Copyright (c) 2009-2016, netbout.com
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are PROHIBITED without prior written permission from
+ * the author. This product may NOT be used anywhere and on any computer
+ * except the server platform of netbout Inc. located at www.netbout.com.
+ * Federal copyright law prohibits unauthorized reproduction by any means
+ * and imposes fines up to $25,000 for violation. If you received
+ * this code accidentally and without intent to use it, please report this
+ * incident to the author by email.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS
+ * "AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT
+ * LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR
+ * A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT
+ * OWNER OR CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL,
+ * SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT
+ * LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE,
+ * DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON
+ * ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY,
+ * OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT
+ * OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF
+ * SUCH DAMAGE.
+ */
+package com.netbout.dynamo;
+
+import com.amazonaws.services.dynamodbv2.AmazonDynamoDB;
+import com.amazonaws.services.dynamodbv2.model.AttributeAction;
+import com.amazonaws.services.dynamodbv2.model.AttributeValue;
+import com.amazonaws.services.dynamodbv2.model.AttributeValueUpdate;
+import com.amazonaws.services.dynamodbv2.model.ComparisonOperator;
+import com.amazonaws.services.dynamodbv2.model.ConditionalCheckFailedException;
+import com.amazonaws.services.dynamodbv2.model.ExpectedAttributeValue;
+import com.amazonaws.services.dynamodbv2.model.Select;
+import com.amazonaws.services.dynamodbv2.model.UpdateItemRequest;
+import com.jcabi.aspects.Immutable;
+import com.jcabi.aspects.Loggable;
+import com.jcabi.dynamo.AttributeUpdates;
+import com.jcabi.dynamo.Attributes;
+import com.jcabi.dynamo.Item;
+import com.jcabi.dynamo.QueryValve;
+import com.jcabi.dynamo.Region;
+import com.jcabi.log.Logger;
+import java.io.IOException;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.Map;
+import lombok.EqualsAndHashCode;
+import lombok.ToString;
+
+/**
+ * Total number of unread messages of an alias.
+ *
+ * <p>The total is kept in the "unread" attribute of the alias in the
+ * "aliases" table. It is incremented when somebody posts to a bout of the
+ * alias and decremented when the alias reads the bout. Aliases created
+ * before the attribute was introduced don't have it, their total is
+ * calculated once from the "inbox" index of the "friends" table and
+ * then saved. A negative total means that the counters diverged,
+ * it is calculated again in the same way.
+ *
+ * @author Yegor Bugayenko (yegor@teamed.io)
+ * @version $Id$
+ * @since 3.0
+ * @checkstyle ClassDataAbstractionCouplingCheck (500 lines)
+ */
+@Immutable
+@Loggable(Loggable.DEBUG)
+@ToString(of = "alias")
+@EqualsAndHashCode(of = { "region", "alias" })
+final class Unread {
+
+    /**
+     * Region we're in.
+     */
+    private final transient Region region;
+
+    /**
+     * The alias.
+     */
+    private final transient String alias;
+
+    /**
+     * Ctor.
+     * @param reg Region
+     * @param name Name of the alias
+     */
+    Unread(final Region reg, final String name) {
+        this.region = reg;
+        this.alias = name;
+    }
+
+    /**
+     * How many messages are unread.
+     * @return Total
+     * @throws IOException If fails
+     */
+    public long value() throws IOException {
+        final Iterator<Item> items = this.region.table(DyAliases.TBL)
+            .frame()
+            .through(
+                new QueryValve()
+                    .withLimit(1)
+                    .withAttributesToGet(DyAliases.ATTR_UNREAD)
+            )
+            .where(DyAliases.HASH, this.alias)
+            .iterator();
+        long total = 0L;
+        if (items.hasNext()) {
+            final Item item = items.next();
+            if (item.has(DyAliases.ATTR_UNREAD)) {
+                total = Long.parseLong(item.get(DyAliases.ATTR_UNREAD).getN());
+                if (total < 0L) {
+                    Logger.warn(
+                        this, "unread total of @%s is negative: %d",
+                        this.alias, total
+                    );
+                    total = this.migrate(
+                        new ExpectedAttributeValue(
+                            new AttributeValue().withN(Long.toString(total))
+                        ),
+                        0L
+                    );
+                }
+            } else {
+                total = this.migrate(new ExpectedAttributeValue(false), 0L);
+            }
+        }
+        return total;
+    }
+
+    /**
+     * Change the total.
+     *
+     * <p>The change is applied only if the total is there already, since
+     * an ADD to an absent attribute would create it with the delta as its
+     * value. Otherwise, the total is calculated first, with the delta.
+     * That's why callers change the "unread" attribute of the bout after
+     * this method, not before it.</p>
+     *
+     * @param delta How much to add, may be negative
+     * @throws IOException If fails
+     */
+    public void add(final long delta) throws IOException {
+        if (!this.increment(delta)) {
+            this.migrate(new ExpectedAttributeValue(false), delta);
+        }
+    }
+
+    /**
+     * The alias read a bout with that many unread messages.
+     *
+     * <p>Unlike {@link #add(long)}, it is called after the "unread"
+     * attribute of the bout is reset, so if the total has to be
+     * calculated, it is calculated without the delta.</p>
+     *
+     * @param unread How many messages were unread in the bout
+     * @throws IOException If fails
+     */
+    public void seen(final long unread) throws IOException {
+        if (!this.increment(-unread)) {
+            this.migrate(new ExpectedAttributeValue(false), 0L);
+        }
+    }
+
+    /**
+     * Change the total, if it exists.
+     * @param delta How much to add, may be negative
+     * @return TRUE if changed, FALSE if there is no total (or no alias)
+     */
+    private boolean increment(final long delta) {
+        final AmazonDynamoDB aws = this.region.aws();
+        boolean done;
+        try {
+            aws.updateItem(
+                new UpdateItemRequest()
+                    .withTableName(this.region.table(DyAliases.TBL).name())
+                    .withKey(new Attributes().with(DyAliases.HASH, this.alias))
+                    .withExpected(
+                        Collections.singletonMap(
+                            DyAliases.ATTR_UNREAD,
+                            new ExpectedAttributeValue().withComparisonOperator(
+                                ComparisonOperator.NOT_NULL
+                            )
+                        )
+                    )
+                    .withAttributeUpdates(
+                        new AttributeUpdates().with(
+                            DyAliases.ATTR_UNREAD,
+                            new AttributeValueUpdate()
+                                .withAction(AttributeAction.ADD)
+                                .withValue(
+                                    new AttributeValue().withN(
+                                        Long.toString(delta)
+                                    )
+                                )
+                        )
+                    )
+            );
+            done = true;
+        } catch (final ConditionalCheckFailedException ex) {
+            done = false;
+        } finally {
+            aws.shutdown();
+        }
+        return done;
+    }
+
+    /**
+     * Calculate the total from all bouts of the alias and save it.
+     *
+     * <p>The total is saved only if it is still as expected and the alias
+     * exists. If somebody else saved it first, the delta is added to
+     * theirs.</p>
+     *
+     * @param expected Expected current total
+     * @param delta How much to add to the calculated total
+     * @return Total
+     * @throws IOException If fails
+     */
+    private long migrate(final ExpectedAttributeValue expected,
+        final long delta) throws IOException {
+        final Iterable<Item> items = this.region.table(DyFriends.TBL)
+            .frame()
+            .where(DyFriends.RANGE, this.alias)
+            .through(
+                new QueryValve()
+                    .withIndexName(DyFriends.INDEX)
+                    .withConsistentRead(false)
+                    .withSelect(Select.SPECIFIC_ATTRIBUTES)
+                    .withAttributesToGet(DyFriends.ATTR_UNREAD)
+            );
+        long total = delta;
+        for (final Item item : items) {
+            if (item.has(DyFriends.ATTR_UNREAD)) {
+                total += Long.parseLong(item.get(DyFriends.ATTR_UNREAD).getN());
+            }
+        }
+        final Map<String, ExpectedAttributeValue> conditions =
+            new HashMap<>(2);
+        conditions.put(
+            DyAliases.HASH,
+            new ExpectedAttributeValue(new AttributeValue(this.alias))
+        );
+        conditions.put(DyAliases.ATTR_UNREAD, expected);
+        final AmazonDynamoDB aws = this.region.aws();
+        try {
+            aws.updateItem(
+                new UpdateItemRequest()
+                    .withTableName(this.region.table(DyAliases.TBL).name())
+                    .withKey(new Attributes().with(DyAliases.HASH, this.alias))
+                    .withExpected(conditions)
+                    .withAttributeUpdates(
+                        new AttributeUpdates()
+                            .with(DyAliases.ATTR_UNREAD, total)
+                    )
+            );
+            Logger.info(
+                this, "unread total of @%s calculated: %d",
+                this.alias, total
+            );
+        } catch (final ConditionalCheckFailedException ex) {
+            Logger.info(this, "unread total of @%s is saved", this.alias);
+            if (delta != 0L && !this.increment(delta)) {
+                Logger.warn(this, "alias @%s is absent", this.alias);
+            }
+        } finally {
+            aws.shutdown();
+        }
+        return total;
+    }
+
+}
@@ -0,0 +1,219 @@
+/**
+ * Copyright (c) 2009-2016, netbout.com
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are PROHIBITED without prior written permission from
+ * the author. This product may NOT be used anywhere and on any computer
+ * except the server platform of netbout Inc. located at www.netbout.com.
+ * Federal copyright law prohibits unauthorized reproduction by any means
+ * and imposes fines up to $25,000 for violation. If you received
+ * this code accidentally and without intent to use it, please report this
+ * incident to the author by email.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS
+ * "AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT
+ * LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR
+ * A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT
+ * OWNER OR CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL,
+ * SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT
+ * LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE,
+ * DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON
+ * ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY,
+ * OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT
+ * OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF
+ * SUCH DAMAGE.
+ */
+package com.netbout.dynamo;
+
+import java.util.Locale;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * DynamoDB calls, items and capacity units, by tables and indexes.
+ *
+ * <p>A line of a table, named after it, counts all calls to the table,
+ * including queries by its indexes, and all capacity consumed by them.
+ * A line of an index, named as the table and the index, separated by a
+ * colon, counts queries by the index and the part of the capacity the
+ * index consumed, including writes into it caused by writes to the
+ * table. That's why the total is the sum of table lines only.
+ *
+ * @author Yegor Bugayenko (yegor@teamed.io)
+ * @version $Id$
+ * @since 3.0
+ */
+public final class Usage {
+
+    /**
+     * Separator between table and index in line names.
+     */
+    public static final String COLON = ":";
+
+    /**
+     * Lines, by names.
+     */
+    private final transient ConcurrentMap<String, Usage.Line> lines =
+        new ConcurrentSkipListMap<>();
+
+    /**
+     * Count a call.
+     * @param name Name of the line, a table or a table and an index
+     * @param items Number of items read or written
+     * @param units Capacity units consumed
+     * @param write TRUE if it's a write
+     * @checkstyle ParameterNumberCheck (4 lines)
+     */
+    public void call(final String name, final long items, final double units,
+        final boolean write) {
+        final Usage.Line line = this.line(name);
+        line.calls.incrementAndGet();
+        line.items.addAndGet(items);
+        line.consume(units, write);
+    }
+
+    /**
+     * Count capacity units, without a call.
+     * @param name Name of the line, a table or a table and an index
+     * @param units Capacity units consumed
+     * @param write TRUE if it's a write
+     */
+    public void consume(final String name, final double units,
+        final boolean write) {
+        this.line(name).consume(units, write);
+    }
+
+    /**
+     * Nothing counted yet?
+     * @return TRUE if empty
+     */
+    public boolean isEmpty() {
+        return this.lines.isEmpty();
+    }
+
+    /**
+     * Total of all tables.
+     * @return Total line
+     */
+    public Usage.Line total() {
+        final Usage.Line total = new Usage.Line();
+        for (final Map.Entry<String, Usage.Line> entry
+            : this.lines.entrySet()) {
+            if (!entry.getKey().contains(Usage.COLON)) {
+                total.add(entry.getValue());
+            }
+        }
+        return total;
+    }
+
+    /**
+     * All lines, sorted by names.
+     * @return Lines
+     */
+    public Map<String, Usage.Line> lines() {
+        return new TreeMap<>(this.lines);
+    }
+
+    /**
+     * Get or make a line.
+     * @param name Name of it
+     * @return Line
+     */
+    private Usage.Line line(final String name) {
+        Usage.Line line = this.lines.get(name);
+        if (line == null) {
+            this.lines.putIfAbsent(name, new Usage.Line());
+            line = this.lines.get(name);
+        }
+        return line;
+    }
+
+    /**
+     * Counters of one table or index.
+     */
+    public static final class Line {
+        /**
+         * Thousandths in a unit.
+         */
+        private static final double MILLI = 1000.0d;
+        /**
+         * Calls.
+         */
+        private final transient AtomicLong calls = new AtomicLong();
+        /**
+         * Items.
+         */
+        private final transient AtomicLong items = new AtomicLong();
+        /**
+         * Read capacity, in thousandths of a unit.
+         */
+        private final transient AtomicLong reads = new AtomicLong();
+        /**
+         * Write capacity, in thousandths of a unit.
+         */
+        private final transient AtomicLong writes = new AtomicLong();
+        /**
+         * Number of calls.
+         * @return Calls
+         */
+        public long calls() {
+            return this.calls.get();
+        }
+        /**
+         * Number of items read or written.
+         * @return Items
+         */
+        public long items() {
+            return this.items.get();
+        }
+        /**
+         * Read capacity units consumed.
+         * @return Units
+         */
+        public double reads() {
+            return (double) this.reads.get() / Usage.Line.MILLI;
+        }
+        /**
+         * Write capacity units consumed.
+         * @return Units
+         */
+        public double writes() {
+            return (double) this.writes.get() / Usage.Line.MILLI;
+        }
+        @Override
+        public String toString() {
+            return String.format(
+                Locale.ENGLISH, "calls=%d items=%d read=%.1f write=%.1f",
+                this.calls(), this.items(), this.reads(), this.writes()
+            );
+        }
+        /**
+         * Consume capacity.
+         * @param units Capacity units
+         * @param write TRUE if it's a write
+         */
+        private void consume(final double units, final boolean write) {
+            final long milli = Math.round(units * Usage.Line.MILLI);
+            if (write) {
+                this.writes.addAndGet(milli);
+            } else {
+                this.reads.addAndGet(milli);
+            }
+        }
+        /**
+         * Add another line to this one.
+         * @param line Another line
+         */
+        private void add(final Usage.Line line) {
+            this.calls.addAndGet(line.calls.get());
+            this.items.addAndGet(line.items.get());
+            this.reads.addAndGet(line.reads.get());
+            this.writes.addAndGet(line.writes.get());
+        }
+    }
+
+}
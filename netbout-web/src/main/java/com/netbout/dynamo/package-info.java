@@ -31,10 +31,14 @@
  * <p>There are the following tables in DynamoDB:
  *
  * <pre>
- * aliases: (hash:alias, urn, photo, locale) -> GSI(urn,alias)
+ * aliases: (hash:alias, urn, photo, locale, unread) -> GSI(urn,alias)
  * friends: (hash:bout, range:alias, title, updated, new) -> GSI(alias,updated)
- * messages: (hash:bout, range:msg, text, alias, date)
- * attachments: (hash:bout, range:name, owner, ctype, data)
+ * messages: (hash:bout, range:msg, text, alias, date, html, markdown)
+ * attachments: (hash:bout, range:name, owner, ctype, data, size, md5)
+ * terms: (hash:scope+prefix, range:posting, bout, message, words)
+ * counters: (hash:name, value)
+ * segments: (hash:bout, range:last, first, count, s3)
+ * spool: (hash:id, time, alias, email, author, subject, reply, head, tail)
  * </pre>
  *
  * @author Yegor Bugayenko (yegor@teamed.io)
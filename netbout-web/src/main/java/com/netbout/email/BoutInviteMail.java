@@ -35,7 +35,7 @@ import com.jcabi.email.enclosure.EnHTML;
 import com.jcabi.email.stamp.StRecipient;
 import com.jcabi.email.stamp.StSubject;
 import com.jcabi.manifests.Manifests;
-import com.netbout.rest.Markdown;
+import com.netbout.markdown.Markdown;
 import com.netbout.spi.Bout;
 import java.io.IOException;
 import lombok.EqualsAndHashCode;
@@ -35,7 +35,7 @@ import com.jcabi.email.enclosure.EnHTML;
 import com.jcabi.email.stamp.StRecipient;
 import com.jcabi.email.stamp.StSender;
 import com.jcabi.email.stamp.StSubject;
-import com.netbout.rest.Markdown;
+import com.netbout.markdown.Markdown;
 import com.netbout.spi.Alias;
 import com.netbout.spi.Bout;
 import com.netbout.spi.Inbox;
@@ -69,13 +69,30 @@ final class EmAlias implements Alias {
      */
     private final transient Postman postman;
 
+    /**
+     * Spool of notifications.
+     */
+    private final transient Spool spool;
+
     /**
      * Public ctor.
      * @param org Origin
      * @param pst Postman
      */
     EmAlias(final Alias org, final Postman pst) {
+        this(org, pst, new Spool.Memory());
+    }
+
+    /**
+     * Ctor.
+     * @param org Origin
+     * @param pst Postman
+     * @param spl Spool of notifications
+     * @since 3.0
+     */
+    EmAlias(final Alias org, final Postman pst, final Spool spl) {
         this.origin = org;
+        this.spool = spl;
         this.postman = new Postman() {
             @Override
             public void send(final Envelope envelope) throws IOException {
@@ -165,6 +182,8 @@ final class EmAlias implements Alias {
 
     @Override
     public Inbox inbox() throws IOException {
-        return new EmInbox(this.origin.inbox(), this.postman, this.name());
+        return new EmInbox(
+            this.origin.inbox(), this.postman, this.spool, this.name()
+        );
     }
 }
@@ -60,14 +60,21 @@ final class EmAliases implements Aliases {
      */
     private final transient Postman postman;
 
+    /**
+     * Spool of notifications.
+     */
+    private final transient Spool spool;
+
     /**
      * Public ctor.
      * @param org Origin
      * @param pst Postman
+     * @param spl Spool of notifications
      */
-    EmAliases(final Aliases org, final Postman pst) {
+    EmAliases(final Aliases org, final Postman pst, final Spool spl) {
         this.origin = org;
         this.postman = pst;
+        this.spool = spl;
     }
 
     @Override
@@ -87,7 +94,9 @@ final class EmAliases implements Aliases {
             new Function<Alias, Alias>() {
                 @Override
                 public Alias apply(final Alias input) {
-                    return new EmAlias(input, EmAliases.this.postman);
+                    return new EmAlias(
+                        input, EmAliases.this.postman, EmAliases.this.spool
+                    );
                 }
             }
         );
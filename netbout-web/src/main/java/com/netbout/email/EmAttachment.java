@@ -96,6 +96,11 @@ final class EmAttachment implements Attachment {
         return this.origin.read();
     }
 
+    @Override
+    public long size() throws IOException {
+        return this.origin.size();
+    }
+
     @Override
     public void write(final InputStream stream, final String ctype,
         final String etag) throws IOException {
@@ -59,19 +59,46 @@ public final class EmBase implements Base {
      */
     private final transient Postman postman;
 
+    /**
+     * Spool of notifications.
+     */
+    private final transient Spool spool;
+
     /**
      * Public ctor.
      * @param org Origin
      * @param pst Postman
      */
     public EmBase(final Base org, final Postman pst) {
+        this(org, pst, new Spool.Memory());
+    }
+
+    /**
+     * Public ctor.
+     * @param org Origin
+     * @param pst Postman
+     * @param spl Spool of notifications
+     * @since 3.0
+     */
+    public EmBase(final Base org, final Postman pst, final Spool spl) {
         this.origin = org;
         this.postman = pst;
+        this.spool = spl;
     }
 
     @Override
     public User user(final URN urn) throws IOException {
-        return new EmUser(this.origin.user(urn), this.postman);
+        return new EmUser(this.origin.user(urn), this.postman, this.spool);
+    }
+
+    /**
+     * Deliver notifications left in the spool when a server stopped,
+     * in background, now and periodically.
+     * @throws IOException If fails
+     * @since 3.0
+     */
+    public void resume() throws IOException {
+        Outbox.resume(this.postman, this.spool);
     }
 
     @Override
@@ -62,6 +62,11 @@ final class EmBout implements Bout {
      */
     private final transient Postman postman;
 
+    /**
+     * Spool of notifications.
+     */
+    private final transient Spool spool;
+
     /**
      * Self alias.
      */
@@ -71,12 +76,16 @@ final class EmBout implements Bout {
      * Public ctor.
      * @param org Origin
      * @param pst Postman
+     * @param spl Spool of notifications
      * @param slf Self alias
+     * @checkstyle ParameterNumberCheck (4 lines)
      */
-    EmBout(final Bout org, final Postman pst, final String slf) {
+    EmBout(final Bout org, final Postman pst, final Spool spl,
+        final String slf) {
         this.origin = org;
         this.self = slf;
         this.postman = pst;
+        this.spool = spl;
     }
 
     @Override
@@ -123,7 +132,7 @@ final class EmBout implements Bout {
     public Messages messages() throws IOException {
         return new EmMessages(
             this.origin.messages(),
-            this.postman, this, this.self
+            this.postman, this.spool, this, this.self
         );
     }
 
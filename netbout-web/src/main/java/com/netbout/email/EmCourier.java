@@ -29,15 +29,18 @@ package com.netbout.email;
 import com.google.common.base.Joiner;
 import com.jcabi.aspects.Immutable;
 import com.jcabi.aspects.Loggable;
+import com.jcabi.aspects.Tv;
 import com.jcabi.email.Envelope;
 import com.jcabi.email.Postman;
 import com.jcabi.email.enclosure.EnHTML;
 import com.jcabi.email.stamp.StRecipient;
 import com.jcabi.email.stamp.StSubject;
-import com.netbout.rest.Markdown;
+import com.netbout.markdown.Markdown;
 import com.netbout.spi.Bout;
-import com.netbout.spi.Friend;
 import java.io.IOException;
+import java.util.HashMap;
+import java.util.Map;
+import lombok.EqualsAndHashCode;
 import lombok.ToString;
 
 /**
@@ -73,59 +76,171 @@ final class EmCourier {
     }
 
     /**
-     * Send an email.
+     * Render a notification about a new message, once for all recipients.
      * @param self Sender
-     * @param friend Friend to send to
      * @param text The text of the new message
+     * @return Letter, ready to be sent to any friend
      * @throws IOException If fails
      */
-    public void email(final String self, final Friend friend,
-        final String text)
+    public EmCourier.Letter letter(final String self, final String text)
         throws IOException {
-        this.postman.send(
-            new Envelope.MIME()
-                .with(new StRecipient(friend.alias(), friend.email()))
-                .with(
-                    new StSubject(
-                        String.format(
-                            "#%d: %s",
-                            this.bout.number(),
-                            this.bout.title()
-                        )
-                    )
-                )
-                .with(
-                    new StReplyTo(
-                        String.format(
-                            "%s@reply.netbout.com",
-                            EmCatch.encrypt(
-                                String.format(
-                                    "%s|%d",
-                                    self,
-                                    this.bout.number()
-                                )
+        final long number = this.bout.number();
+        return new EmCourier.Letter(
+            this.postman,
+            String.format("#%d: %s", number, this.bout.title()),
+            String.format(
+                "%s@reply.netbout.com",
+                EmCatch.encrypt(String.format("%s|%d", self, number))
+            ),
+            Joiner.on('\n').join(
+                new Markdown.Default().html(text),
+                "<p>--<br/>to reply click here: ",
+                String.format("http://www.netbout.com/b/%d", number),
+                "</p><p style=\"color:#C8C8C8;font-size:2px;\">"
+            ),
+            new GmailViewAction(number).xml()
+        );
+    }
+
+    /**
+     * Notification rendered once, to be sent to many friends.
+     *
+     * <p>Only the recipient and a unique footer, which stops mail clients
+     * from collapsing similar emails, differ between the emails.
+     */
+    @Immutable
+    @ToString(of = "subject")
+    @EqualsAndHashCode(of = { "subject", "reply", "head", "tail" })
+    public static final class Letter {
+        /**
+         * Name of the recipient alias in a parcel.
+         */
+        public static final String ALIAS = "alias";
+        /**
+         * Email of the recipient in a parcel.
+         */
+        public static final String EMAIL = "email";
+        /**
+         * Subject in a parcel.
+         */
+        private static final String SUBJECT = "subject";
+        /**
+         * Reply-To address in a parcel.
+         */
+        private static final String REPLY = "reply";
+        /**
+         * HTML before the footer in a parcel.
+         */
+        private static final String HEAD = "head";
+        /**
+         * HTML after the footer in a parcel.
+         */
+        private static final String TAIL = "tail";
+        /**
+         * Postman.
+         */
+        private final transient Postman postman;
+        /**
+         * Subject.
+         */
+        private final transient String subject;
+        /**
+         * Reply-To address.
+         */
+        private final transient String reply;
+        /**
+         * HTML before the unique footer.
+         */
+        private final transient String head;
+        /**
+         * HTML after the unique footer.
+         */
+        private final transient String tail;
+        /**
+         * Ctor.
+         * @param pst Postman
+         * @param subj Subject
+         * @param rpl Reply-To address
+         * @param before HTML before the footer
+         * @param after HTML after the footer
+         * @checkstyle ParameterNumberCheck (4 lines)
+         */
+        Letter(final Postman pst, final String subj, final String rpl,
+            final String before, final String after) {
+            this.postman = pst;
+            this.subject = subj;
+            this.reply = rpl;
+            this.head = before;
+            this.tail = after;
+        }
+        /**
+         * Ctor, from a parcel.
+         * @param pst Postman
+         * @param parcel Parcel made by {@link #parcel(String, String)}
+         */
+        Letter(final Postman pst, final Map<String, String> parcel) {
+            this(
+                pst,
+                EmCourier.Letter.value(parcel, EmCourier.Letter.SUBJECT),
+                EmCourier.Letter.value(parcel, EmCourier.Letter.REPLY),
+                EmCourier.Letter.value(parcel, EmCourier.Letter.HEAD),
+                EmCourier.Letter.value(parcel, EmCourier.Letter.TAIL)
+            );
+        }
+        /**
+         * Parcel to save it for a friend, see {@link Spool}.
+         * @param alias Alias of the friend
+         * @param email Email of the friend
+         * @return Names and values
+         */
+        public Map<String, String> parcel(final String alias,
+            final String email) {
+            final Map<String, String> parcel = new HashMap<>(Tv.SIX);
+            parcel.put(EmCourier.Letter.ALIAS, alias);
+            parcel.put(EmCourier.Letter.EMAIL, email);
+            parcel.put(EmCourier.Letter.SUBJECT, this.subject);
+            parcel.put(EmCourier.Letter.REPLY, this.reply);
+            parcel.put(EmCourier.Letter.HEAD, this.head);
+            parcel.put(EmCourier.Letter.TAIL, this.tail);
+            return parcel;
+        }
+        /**
+         * Send it to a friend.
+         * @param alias Alias of the friend
+         * @param email Email of the friend
+         * @throws IOException If fails
+         */
+        public void send(final String alias, final String email)
+            throws IOException {
+            this.postman.send(
+                new Envelope.MIME()
+                    .with(new StRecipient(alias, email))
+                    .with(new StSubject(this.subject))
+                    .with(new StReplyTo(this.reply))
+                    .with(
+                        new EnHTML(
+                            Joiner.on('\n').join(
+                                this.head,
+                                String.format("%d</p>", System.nanoTime()),
+                                this.tail
                             )
                         )
                     )
-                )
-                .with(
-                    new EnHTML(
-                        Joiner.on('\n').join(
-                            new Markdown.Default().html(text),
-                            "<p>--<br/>to reply click here: ",
-                            String.format(
-                                "http://www.netbout.com/b/%d",
-                                this.bout.number()
-                            ),
-                            "</p><p style=\"color:#C8C8C8;font-size:2px;\">",
-                            String.format(
-                                "%d</p>",
-                                System.nanoTime()
-                            ),
-                            new GmailViewAction(this.bout.number()).xml()
-                        )
-                    )
-                )
-        );
+            );
+        }
+        /**
+         * Value from a parcel, empty if absent.
+         * @param parcel The parcel
+         * @param name Name of the value
+         * @return Value
+         */
+        private static String value(final Map<String, String> parcel,
+            final String name) {
+            String value = parcel.get(name);
+            if (value == null) {
+                value = "";
+            }
+            return value;
+        }
     }
 }
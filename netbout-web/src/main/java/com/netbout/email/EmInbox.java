@@ -63,6 +63,11 @@ final class EmInbox implements Inbox {
      */
     private final transient Postman postman;
 
+    /**
+     * Spool of notifications.
+     */
+    private final transient Spool spool;
+
     /**
      * Self alias.
      */
@@ -72,12 +77,16 @@ final class EmInbox implements Inbox {
      * Public ctor.
      * @param org Origin
      * @param pst Postman
+     * @param spl Spool of notifications
      * @param slf Self alias
+     * @checkstyle ParameterNumberCheck (4 lines)
      */
-    EmInbox(final Inbox org, final Postman pst, final String slf) {
+    EmInbox(final Inbox org, final Postman pst, final Spool spl,
+        final String slf) {
         this.origin = org;
         this.self = slf;
         this.postman = pst;
+        this.spool = spl;
     }
 
     @Override
@@ -96,31 +105,28 @@ final class EmInbox implements Inbox {
         ignore = Inbox.BoutNotFoundException.class
         )
     public Bout bout(final long number) throws Inbox.BoutNotFoundException {
-        return new EmBout(this.origin.bout(number), this.postman, this.self);
+        return new EmBout(
+            this.origin.bout(number), this.postman, this.spool, this.self
+        );
     }
 
     @Override
     public Pageable<Bout> jump(final long number) throws IOException {
         return new EmPageable<>(
             this.origin.jump(number),
-            this.postman, this.self
+            this.postman, this.spool, this.self
         );
     }
 
     @Override
     public Iterable<Bout> iterate() throws IOException {
-        return Iterables.transform(
-            this.origin.iterate(),
-            new Function<Bout, Bout>() {
-                @Override
-                public Bout apply(final Bout input) {
-                    return new EmBout(
-                        input,
-                        EmInbox.this.postman, EmInbox.this.self
-                    );
-                }
-            }
-        );
+        return this.wrap(this.origin.iterate());
+    }
+
+    @Override
+    public Pageable.Page<Bout> page(final int size) throws IOException {
+        final Pageable.Page<Bout> page = this.origin.page(size);
+        return new Pageable.Page<Bout>(this.wrap(page.items()), page.next());
     }
 
     @Override
@@ -133,4 +139,25 @@ final class EmInbox implements Inbox {
         }
         return result;
     }
+
+    /**
+     * Wrap bouts into ones that send emails.
+     * @param bouts Original bouts
+     * @return Wrapped bouts
+     */
+    private Iterable<Bout> wrap(final Iterable<Bout> bouts) {
+        return Iterables.transform(
+            bouts,
+            new Function<Bout, Bout>() {
+                @Override
+                public Bout apply(final Bout input) {
+                    return new EmBout(
+                        input,
+                        EmInbox.this.postman, EmInbox.this.spool,
+                        EmInbox.this.self
+                    );
+                }
+            }
+        );
+    }
 }
@@ -26,21 +26,16 @@
  */
 package com.netbout.email;
 
-import com.google.common.base.Joiner;
 import com.jcabi.aspects.Immutable;
 import com.jcabi.aspects.Loggable;
 import com.jcabi.email.Postman;
 import com.netbout.spi.Bout;
-import com.netbout.spi.Friend;
 import com.netbout.spi.Message;
 import com.netbout.spi.Messages;
 import com.netbout.spi.Pageable;
 import java.io.IOException;
-import java.util.ArrayList;
-import java.util.Collection;
 import lombok.EqualsAndHashCode;
 import lombok.ToString;
-import org.takes.facets.forward.RsFailure;
 
 /**
  * Email Messages.
@@ -66,9 +61,9 @@ final class EmMessages implements Messages {
     private final transient Postman postman;
 
     /**
-     * Bout.
+     * Spool of notifications.
      */
-    private final transient Bout bout;
+    private final transient Spool spool;
 
     /**
      * Self alias.
@@ -76,50 +71,32 @@ final class EmMessages implements Messages {
     private final transient String self;
 
     /**
-     * EmSender.
+     * Outbox of notifications.
      */
-    private final transient EmCourier courier;
+    private final transient Outbox outbox;
 
     /**
      * Public ctor.
      * @param org Origin
      * @param pst Postman
+     * @param spl Spool of notifications
      * @param bot Bout we're in
      * @param slf Self alias
      * @checkstyle ParameterNumberCheck (4 lines)
      */
-    EmMessages(final Messages org, final Postman pst,
+    EmMessages(final Messages org, final Postman pst, final Spool spl,
         final Bout bot, final String slf) {
         this.origin = org;
         this.postman = pst;
-        this.bout = bot;
+        this.spool = spl;
         this.self = slf;
-        this.courier = new EmCourier(pst, bot);
+        this.outbox = new Outbox(new EmCourier(pst, bot), bot, spl);
     }
 
     @Override
     public void post(final String text) throws IOException {
         this.origin.post(text);
-        final Collection<String> failed = new ArrayList<String>(16);
-        for (final Friend friend : this.bout.friends().iterate()) {
-            if (friend.email().isEmpty()
-                || friend.alias().equals(this.self)
-                || !this.bout.subscription(friend.alias())) {
-                continue;
-            }
-            try {
-                this.courier.email(this.self, friend, text);
-            } catch (final IOException exception) {
-                failed.add(friend.alias());
-            }
-        }
-        if (!failed.isEmpty()) {
-            final String message = String.format(
-                "Sorry, we were not able to send the notification email to %s.",
-                Joiner.on(", ").join(failed)
-            );
-            throw new RsFailure(new EmailDeliveryException(message));
-        }
+        this.outbox.post(this.self, text);
     }
 
     @Override
@@ -131,7 +108,7 @@ final class EmMessages implements Messages {
     public Pageable<Message> jump(final long num) throws IOException {
         return new EmPageable<Message>(
             this.origin.jump(num),
-            this.postman, this.self
+            this.postman, this.spool, this.self
         );
     }
 
@@ -141,25 +118,12 @@ final class EmMessages implements Messages {
     }
 
     @Override
-    public Iterable<Message> search(final String term) throws IOException {
-        return this.origin.search(term);
+    public Pageable.Page<Message> page(final int size) throws IOException {
+        return this.origin.page(size);
     }
 
-    /**
-     * Thowable when the email could not be delivered.
-     * @see EmMessages#post(String)
-     */
-    final class EmailDeliveryException extends IOException {
-        /**
-         * Serialization marker.
-         */
-        private static final long serialVersionUID = 0x7529FA78EED21470L;
-        /**
-         * Public ctor.
-         * @param message The error message
-         */
-        EmailDeliveryException(final String message) {
-            super(message);
-        }
+    @Override
+    public Iterable<Message> search(final String term) throws IOException {
+        return this.origin.search(term);
     }
 }
@@ -62,6 +62,11 @@ final class EmPageable<T> implements Pageable<T> {
      */
     private final transient Postman postman;
 
+    /**
+     * Spool of notifications.
+     */
+    private final transient Spool spool;
+
     /**
      * Self alias.
      */
@@ -71,11 +76,15 @@ final class EmPageable<T> implements Pageable<T> {
      * Public ctor.
      * @param org Origin
      * @param pst Postman
+     * @param spl Spool of notifications
      * @param slf Self alias
+     * @checkstyle ParameterNumberCheck (4 lines)
      */
-    EmPageable(final Pageable<T> org, final Postman pst, final String slf) {
+    EmPageable(final Pageable<T> org, final Postman pst, final Spool spl,
+        final String slf) {
         this.origin = org;
         this.postman = pst;
+        this.spool = spl;
         this.self = slf;
     }
 
@@ -83,14 +92,29 @@ final class EmPageable<T> implements Pageable<T> {
     public Pageable<T> jump(final long number) throws IOException {
         return new EmPageable<T>(
             this.origin.jump(number),
-            this.postman, this.self
+            this.postman, this.spool, this.self
         );
     }
 
     @Override
     public Iterable<T> iterate() throws IOException {
+        return this.wrap(this.origin.iterate());
+    }
+
+    @Override
+    public Pageable.Page<T> page(final int size) throws IOException {
+        final Pageable.Page<T> page = this.origin.page(size);
+        return new Pageable.Page<T>(this.wrap(page.items()), page.next());
+    }
+
+    /**
+     * Wrap bouts into ones that send emails.
+     * @param items Original items
+     * @return Items, with bouts wrapped
+     */
+    private Iterable<T> wrap(final Iterable<T> items) {
         return Iterables.transform(
-            this.origin.iterate(),
+            items,
             new Function<T, T>() {
                 @Override
                 @SuppressWarnings("unchecked")
@@ -101,7 +125,8 @@ final class EmPageable<T> implements Pageable<T> {
                     } else {
                         result = new EmBout(
                             Bout.class.cast(input),
-                            EmPageable.this.postman, EmPageable.this.self
+                            EmPageable.this.postman, EmPageable.this.spool,
+                            EmPageable.this.self
                         );
                     }
                     return (T) result;
@@ -59,19 +59,28 @@ final class EmUser implements User {
      */
     private final transient Postman postman;
 
+    /**
+     * Spool of notifications.
+     */
+    private final transient Spool spool;
+
     /**
      * Public ctor.
      * @param org Origin
      * @param pst Postman
+     * @param spl Spool of notifications
      */
-    EmUser(final User org, final Postman pst) {
+    EmUser(final User org, final Postman pst, final Spool spl) {
         this.origin = org;
         this.postman = pst;
+        this.spool = spl;
     }
 
     @Override
     public Aliases aliases() {
-        return new EmAliases(this.origin.aliases(), this.postman);
+        return new EmAliases(
+            this.origin.aliases(), this.postman, this.spool
+        );
     }
 
     @Override
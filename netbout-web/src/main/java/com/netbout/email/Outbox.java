@@ -0,0 +1,345 @@
+/**
+ * Copyright (c) 2009-2016, netbout.com
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are PROHIBITED without prior written permission from
+ * the author. This product may NOT be used anywhere and on any computer
+ * except the server platform of netbout Inc. located at www.netbout.com.
+ * Federal copyright law prohibits unauthorized reproduction by any means
+ * and imposes fines up to $25,000 for violation. If you received
+ * this code accidentally and without intent to use it, please report this
+ * incident to the author by email.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS
+ * "AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT
+ * LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR
+ * A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT
+ * OWNER OR CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL,
+ * SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT
+ * LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE,
+ * DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON
+ * ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY,
+ * OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT
+ * OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF
+ * SUCH DAMAGE.
+ */
+package com.netbout.email;
+
+import com.jcabi.aspects.Immutable;
+import com.jcabi.aspects.Loggable;
+import com.jcabi.aspects.Tv;
+import com.jcabi.email.Envelope;
+import com.jcabi.email.Postman;
+import com.jcabi.email.stamp.StSender;
+import com.jcabi.log.Logger;
+import com.jcabi.log.VerboseRunnable;
+import com.jcabi.log.VerboseThreads;
+import com.netbout.spi.Bout;
+import com.netbout.spi.Friend;
+import java.io.IOException;
+import java.util.Map;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import lombok.EqualsAndHashCode;
+import lombok.ToString;
+
+/**
+ * Outbox of email notifications, delivered in background.
+ *
+ * <p>Recipients are resolved, the letter is rendered once for all of
+ * them and every delivery is saved to the {@link Spool} right when the
+ * message is posted, so that a delivery is not lost if the server stops
+ * right after that. Emails are sent in a pool of a fixed size, so that
+ * the author of a message doesn't wait for SMTP. A failed delivery is
+ * retried up to {@link #ATTEMPTS} times, with growing delays, and the
+ * status of every recipient is logged. A delivery is deleted from the
+ * spool when it is delivered or lost.
+ *
+ * <p>Deliveries still pending are resumed by
+ * {@link #resume(Postman, Spool)}, when the server starts and then every
+ * {@link #LEASE}. A delivery is resumed only when it is claimed in the
+ * spool, which fails if it was saved or claimed less than
+ * {@link #LEASE} ago, by this server or another one. That's why every
+ * delivery is sent by one server at a time, and a delivery of a server
+ * that stopped is sent by another one, or by the same one after restart.
+ * The lease is longer than all attempts of a delivery.
+ *
+ * @author Yegor Bugayenko (yegor@teamed.io)
+ * @version $Id$
+ * @since 3.0
+ */
+@Immutable
+@Loggable(Loggable.DEBUG)
+@ToString(of = "bout")
+@EqualsAndHashCode(of = { "courier", "bout", "spool" })
+@SuppressWarnings("PMD.DoNotUseThreads")
+final class Outbox {
+
+    /**
+     * Maximum number of delivery attempts per recipient.
+     */
+    private static final int ATTEMPTS = 5;
+
+    /**
+     * Time a delivery belongs to the server that saved or claimed it,
+     * in milliseconds.
+     */
+    private static final long LEASE = TimeUnit.HOURS.toMillis(1L);
+
+    /**
+     * Author of the message in a parcel.
+     */
+    private static final String AUTHOR = "author";
+
+    /**
+     * Threads to deliver in.
+     */
+    private static final ScheduledExecutorService POOL =
+        Executors.newScheduledThreadPool(
+            Tv.FIVE, new VerboseThreads(Outbox.class)
+        );
+
+    /**
+     * Courier.
+     */
+    private final transient EmCourier courier;
+
+    /**
+     * Bout.
+     */
+    private final transient Bout bout;
+
+    /**
+     * Spool of notifications.
+     */
+    private final transient Spool spool;
+
+    /**
+     * Ctor.
+     * @param crr Courier
+     * @param bot Bout we're in
+     * @param spl Spool of notifications
+     */
+    Outbox(final EmCourier crr, final Bout bot, final Spool spl) {
+        this.courier = crr;
+        this.bout = bot;
+        this.spool = spl;
+    }
+
+    /**
+     * Notify all subscribed friends, except the author.
+     *
+     * <p>Deliveries are saved to the spool before this method returns,
+     * emails are sent in background.</p>
+     *
+     * @param self Author of the message
+     * @param text The text of the new message
+     * @throws IOException If fails
+     */
+    public void post(final String self, final String text)
+        throws IOException {
+        EmCourier.Letter letter = null;
+        for (final Friend friend : this.bout.friends().iterate()) {
+            final String alias = friend.alias();
+            final String email = friend.email();
+            if (email.isEmpty()
+                || alias.equals(self)
+                || !this.bout.subscription(alias)) {
+                continue;
+            }
+            if (letter == null) {
+                letter = this.courier.letter(self, text);
+            }
+            final Map<String, String> parcel = letter.parcel(alias, email);
+            parcel.put(Outbox.AUTHOR, self);
+            final String id = this.spool.save(parcel);
+            Outbox.POOL.execute(
+                new VerboseRunnable(
+                    new Outbox.Delivery(this.spool, id, letter, parcel, 1),
+                    true
+                )
+            );
+        }
+    }
+
+    /**
+     * Deliver all notifications left in the spool, in background, now
+     * and then every {@link #LEASE}.
+     *
+     * <p>They are sent on behalf of the authors of their messages, as
+     * {@link EmAlias} does it.</p>
+     *
+     * @param postman Postman
+     * @param spool Spool of notifications
+     * @throws IOException If fails
+     */
+    public static void resume(final Postman postman, final Spool spool)
+        throws IOException {
+        Outbox.claim(postman, spool);
+        Outbox.POOL.scheduleWithFixedDelay(
+            new VerboseRunnable(
+                new Runnable() {
+                    @Override
+                    public void run() {
+                        try {
+                            Outbox.claim(postman, spool);
+                        } catch (final IOException ex) {
+                            throw new IllegalStateException(ex);
+                        }
+                    }
+                },
+                true
+            ),
+            Outbox.LEASE, Outbox.LEASE, TimeUnit.MILLISECONDS
+        );
+    }
+
+    /**
+     * Claim notifications left in the spool and deliver them.
+     * @param postman Postman
+     * @param spool Spool of notifications
+     * @throws IOException If fails
+     */
+    private static void claim(final Postman postman, final Spool spool)
+        throws IOException {
+        final long before = System.currentTimeMillis() - Outbox.LEASE;
+        int total = 0;
+        for (final Map.Entry<String, Map<String, String>> entry
+            : spool.pending().entrySet()) {
+            if (!spool.claim(entry.getKey(), before)) {
+                continue;
+            }
+            String author = entry.getValue().get(Outbox.AUTHOR);
+            if (author == null) {
+                author = "netbout";
+            }
+            final String sender = author;
+            Outbox.POOL.execute(
+                new VerboseRunnable(
+                    new Outbox.Delivery(
+                        spool, entry.getKey(),
+                        new EmCourier.Letter(
+                            new Postman() {
+                                @Override
+                                public void send(final Envelope envelope)
+                                    throws IOException {
+                                    postman.send(
+                                        new Envelope.MIME(envelope).with(
+                                            new StSender(
+                                                sender,
+                                                "no-reply@netbout.com"
+                                            )
+                                        )
+                                    );
+                                }
+                            },
+                            entry.getValue()
+                        ),
+                        entry.getValue(), 1
+                    ),
+                    true
+                )
+            );
+            ++total;
+        }
+        Logger.info(Outbox.class, "%d notifications resumed", total);
+    }
+
+    /**
+     * One attempt to deliver a notification to one recipient.
+     */
+    @ToString(of = { "id", "attempt" })
+    @EqualsAndHashCode(of = { "id", "attempt" })
+    private static final class Delivery implements Runnable {
+        /**
+         * Spool of notifications.
+         */
+        private final transient Spool spool;
+        /**
+         * ID of the notification in the spool.
+         */
+        private final transient String id;
+        /**
+         * Letter to deliver.
+         */
+        private final transient EmCourier.Letter letter;
+        /**
+         * Parcel with the recipient.
+         */
+        private final transient Map<String, String> parcel;
+        /**
+         * Number of this attempt, starting from one.
+         */
+        private final transient int attempt;
+        /**
+         * Ctor.
+         * @param spl Spool of notifications
+         * @param ident ID of the notification in the spool
+         * @param ltr Letter to deliver
+         * @param prcl Parcel with the recipient
+         * @param num Number of the attempt
+         * @checkstyle ParameterNumberCheck (4 lines)
+         */
+        Delivery(final Spool spl, final String ident,
+            final EmCourier.Letter ltr, final Map<String, String> prcl,
+            final int num) {
+            this.spool = spl;
+            this.id = ident;
+            this.letter = ltr;
+            this.parcel = prcl;
+            this.attempt = num;
+        }
+        @Override
+        public void run() {
+            final String alias = this.parcel.get(EmCourier.Letter.ALIAS);
+            try {
+                this.letter.send(
+                    alias, this.parcel.get(EmCourier.Letter.EMAIL)
+                );
+                Logger.info(
+                    Outbox.class, "notification delivered to @%s (attempt %d)",
+                    alias, this.attempt
+                );
+                this.done();
+            } catch (final IOException ex) {
+                if (this.attempt < Outbox.ATTEMPTS) {
+                    Logger.warn(
+                        Outbox.class,
+                        "notification to @%s failed (attempt %d), retry: %s",
+                        alias, this.attempt, ex.getLocalizedMessage()
+                    );
+                    Outbox.POOL.schedule(
+                        new VerboseRunnable(
+                            new Outbox.Delivery(
+                                this.spool, this.id, this.letter,
+                                this.parcel, this.attempt + 1
+                            ),
+                            true
+                        ),
+                        1L << this.attempt, TimeUnit.MINUTES
+                    );
+                } else {
+                    Logger.error(
+                        Outbox.class,
+                        "notification to @%s lost after %d attempts: %s",
+                        alias, this.attempt, ex.getLocalizedMessage()
+                    );
+                    this.done();
+                }
+            }
+        }
+        /**
+         * Delete it from the spool.
+         */
+        private void done() {
+            try {
+                this.spool.delete(this.id);
+            } catch (final IOException ex) {
+                throw new IllegalStateException(ex);
+            }
+        }
+    }
+
+}
@@ -0,0 +1,123 @@
+/**
+ * Copyright (c) 2009-2016, netbout.com
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are PROHIBITED without prior written permission from
+ * the author. This product may NOT be used anywhere and on any computer
+ * except the server platform of netbout Inc. located at www.netbout.com.
+ * Federal copyright law prohibits unauthorized reproduction by any means
+ * and imposes fines up to $25,000 for violation. If you received
+ * this code accidentally and without intent to use it, please report this
+ * incident to the author by email.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS
+ * "AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT
+ * LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR
+ * A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT
+ * OWNER OR CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL,
+ * SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT
+ * LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE,
+ * DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON
+ * ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY,
+ * OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT
+ * OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF
+ * SUCH DAMAGE.
+ */
+package com.netbout.email;
+
+import com.jcabi.aspects.Loggable;
+import com.jcabi.email.Envelope;
+import com.jcabi.email.Postman;
+import com.jcabi.email.Wire;
+import com.jcabi.log.Logger;
+import java.io.IOException;
+import java.util.Arrays;
+import javax.mail.Message;
+import javax.mail.MessagingException;
+import javax.mail.Transport;
+import lombok.EqualsAndHashCode;
+import lombok.ToString;
+
+/**
+ * Postman that keeps SMTP connections open between emails.
+ *
+ * <p>Every thread keeps its own connection, opened through the wire
+ * by the first email and checked before every next one. A broken
+ * connection is dropped and the next email opens a new one.
+ *
+ * @author Yegor Bugayenko (yegor@teamed.io)
+ * @version $Id$
+ * @since 3.0
+ */
+@ToString(of = "wire")
+@EqualsAndHashCode(of = "wire")
+@Loggable(Loggable.DEBUG)
+public final class PostKeepAlive implements Postman {
+
+    /**
+     * Wire to connect through.
+     */
+    private final transient Wire wire;
+
+    /**
+     * Open connections, one per thread.
+     */
+    private final transient ThreadLocal<Transport> transports =
+        new ThreadLocal<Transport>();
+
+    /**
+     * Ctor.
+     * @param wre Wire
+     */
+    public PostKeepAlive(final Wire wre) {
+        this.wire = wre;
+    }
+
+    @Override
+    public void send(final Envelope env) throws IOException {
+        final Message msg = env.unwrap();
+        try {
+            msg.saveChanges();
+            this.transport().sendMessage(msg, msg.getAllRecipients());
+            Logger.info(
+                this, "email sent to %s",
+                Arrays.toString(msg.getAllRecipients())
+            );
+        } catch (final MessagingException ex) {
+            this.drop();
+            throw new IOException(ex);
+        }
+    }
+
+    /**
+     * Open connection of the current thread.
+     * @return Transport
+     * @throws IOException If fails
+     */
+    private Transport transport() throws IOException {
+        Transport transport = this.transports.get();
+        if (transport == null || !transport.isConnected()) {
+            this.drop();
+            transport = this.wire.connect();
+            this.transports.set(transport);
+        }
+        return transport;
+    }
+
+    /**
+     * Close and forget the connection of the current thread.
+     */
+    private void drop() {
+        final Transport transport = this.transports.get();
+        if (transport != null) {
+            this.transports.remove();
+            try {
+                transport.close();
+            } catch (final MessagingException ex) {
+                Logger.warn(this, "failed to close SMTP connection: %s", ex);
+            }
+        }
+    }
+
+}
@@ -0,0 +1,135 @@
+/**
+ * Copyright (c) 2009-2016, netbout.com
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are PROHIBITED without prior written permission from
+ * the author. This product may NOT be used anywhere and on any computer
+ * except the server platform of netbout Inc. located at www.netbout.com.
+ * Federal copyright law prohibits unauthorized reproduction by any means
+ * and imposes fines up to $25,000 for violation. If you received
+ * this code accidentally and without intent to use it, please report this
+ * incident to the author by email.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS
+ * "AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT
+ * LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR
+ * A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT
+ * OWNER OR CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL,
+ * SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT
+ * LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE,
+ * DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON
+ * ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY,
+ * OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT
+ * OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF
+ * SUCH DAMAGE.
+ */
+package com.netbout.email;
+
+import com.jcabi.aspects.Immutable;
+import java.io.IOException;
+import java.util.Collections;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import lombok.EqualsAndHashCode;
+import lombok.ToString;
+
+/**
+ * Durable storage of notifications not delivered yet.
+ *
+ * <p>A notification is saved before it is sent for the first time and
+ * deleted when it is delivered, so that notifications still pending
+ * when the server stops are sent after its restart. A notification is
+ * saved as a map of names and values, see {@link EmCourier.Letter}.
+ *
+ * <p>Many servers share the spool, that's why a notification is sent
+ * only by the server that claimed it, and it is claimed by the one who
+ * saved it. Another server may claim it again, when the claim is old
+ * enough, which means that the server who had it has stopped.
+ *
+ * @author Yegor Bugayenko (yegor@teamed.io)
+ * @version $Id$
+ * @since 3.0
+ */
+@Immutable
+public interface Spool {
+
+    /**
+     * Save a notification.
+     * @param parcel Names and values of the notification
+     * @return Unique ID of it
+     * @throws IOException If fails
+     */
+    String save(Map<String, String> parcel) throws IOException;
+
+    /**
+     * Claim a notification, to send it.
+     * @param id Unique ID of it
+     * @param before It must have been saved or claimed before this time,
+     *  in milliseconds
+     * @return TRUE if claimed, FALSE if it was claimed by someone else
+     *  later or is deleted already
+     * @throws IOException If fails
+     */
+    boolean claim(String id, long before) throws IOException;
+
+    /**
+     * Delete a notification, when it is delivered.
+     * @param id Unique ID of it
+     * @throws IOException If fails
+     */
+    void delete(String id) throws IOException;
+
+    /**
+     * All notifications saved and not deleted yet.
+     * @return Notifications by their unique IDs
+     * @throws IOException If fails
+     */
+    Map<String, Map<String, String>> pending() throws IOException;
+
+    /**
+     * Spool in memory, which loses notifications when the server stops.
+     */
+    @Immutable
+    @ToString
+    @EqualsAndHashCode
+    final class Memory implements Spool {
+        /**
+         * Notifications by their IDs.
+         */
+        private static final ConcurrentMap<String, Map<String, String>>
+            PARCELS = new ConcurrentHashMap<>(0);
+        /**
+         * Times of claims by IDs of notifications, in milliseconds.
+         */
+        private static final ConcurrentMap<String, Long> CLAIMS =
+            new ConcurrentHashMap<>(0);
+        @Override
+        public String save(final Map<String, String> parcel) {
+            final String id = UUID.randomUUID().toString();
+            Spool.Memory.CLAIMS.put(id, System.currentTimeMillis());
+            Spool.Memory.PARCELS.put(id, parcel);
+            return id;
+        }
+        @Override
+        public boolean claim(final String id, final long before) {
+            final Long time = Spool.Memory.CLAIMS.get(id);
+            return time != null && time < before
+                && Spool.Memory.CLAIMS.replace(
+                    id, time, System.currentTimeMillis()
+                );
+        }
+        @Override
+        public void delete(final String id) {
+            Spool.Memory.PARCELS.remove(id);
+            Spool.Memory.CLAIMS.remove(id);
+        }
+        @Override
+        public Map<String, Map<String, String>> pending() {
+            return Collections.unmodifiableMap(Spool.Memory.PARCELS);
+        }
+    }
+
+}
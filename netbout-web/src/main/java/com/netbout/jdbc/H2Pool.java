@@ -0,0 +1,134 @@
+/**
+ * Copyright (c) 2009-2016, netbout.com
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are PROHIBITED without prior written permission from
+ * the author. This product may NOT be used anywhere and on any computer
+ * except the server platform of netbout Inc. located at www.netbout.com.
+ * Federal copyright law prohibits unauthorized reproduction by any means
+ * and imposes fines up to $25,000 for violation. If you received
+ * this code accidentally and without intent to use it, please report this
+ * incident to the author by email.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS
+ * "AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT
+ * LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR
+ * A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT
+ * OWNER OR CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL,
+ * SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT
+ * LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE,
+ * DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON
+ * ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY,
+ * OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT
+ * OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF
+ * SUCH DAMAGE.
+ */
+package com.netbout.jdbc;
+
+import com.jcabi.aspects.Immutable;
+import com.jcabi.aspects.Loggable;
+import com.jcabi.aspects.Tv;
+import com.jcabi.jdbc.JdbcSession;
+import com.jcabi.log.Logger;
+import java.sql.SQLException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import javax.sql.DataSource;
+import lombok.EqualsAndHashCode;
+import lombok.ToString;
+import org.h2.jdbcx.JdbcConnectionPool;
+
+/**
+ * Pool of connections to an embedded H2 database.
+ *
+ * <p>One pool is opened per JDBC URL, on the first use, and lives as
+ * long as the JVM. Tables and indexes are created when the pool is
+ * opened, unless they are already there.
+ *
+ * @author Yegor Bugayenko (yegor@teamed.io)
+ * @version $Id$
+ * @since 3.0
+ */
+@Immutable
+@ToString
+@Loggable(Loggable.DEBUG)
+@EqualsAndHashCode(of = "url")
+final class H2Pool implements Sql {
+
+    /**
+     * Maximum number of open connections in a pool.
+     */
+    private static final int MAX = Tv.TWENTY;
+
+    /**
+     * Schema of the database.
+     */
+    private static final String[] SCHEMA = {
+        // @checkstyle LineLength (15 lines)
+        "CREATE TABLE IF NOT EXISTS alias (name VARCHAR(100) PRIMARY KEY, urn VARCHAR(255) NOT NULL, photo VARCHAR(1024) NOT NULL, locale VARCHAR(16) NOT NULL, email VARCHAR(1024) DEFAULT '' NOT NULL)",
+        "CREATE INDEX IF NOT EXISTS alias_urn ON alias (urn)",
+        "CREATE TABLE IF NOT EXISTS bout (number BIGINT AUTO_INCREMENT PRIMARY KEY, title VARCHAR(256) NOT NULL, date BIGINT NOT NULL)",
+        "CREATE TABLE IF NOT EXISTS friend (bout BIGINT NOT NULL, alias VARCHAR(100) NOT NULL, subscription BOOLEAN DEFAULT TRUE NOT NULL, unread BIGINT DEFAULT 0 NOT NULL, updated BIGINT NOT NULL, PRIMARY KEY (bout, alias))",
+        "CREATE INDEX IF NOT EXISTS friend_alias_updated ON friend (alias, updated)",
+        "CREATE TABLE IF NOT EXISTS message (number BIGINT AUTO_INCREMENT PRIMARY KEY, bout BIGINT NOT NULL, text CLOB NOT NULL, author VARCHAR(100) NOT NULL, date BIGINT NOT NULL)",
+        "CREATE INDEX IF NOT EXISTS message_bout_number ON message (bout, number)",
+        "CREATE TABLE IF NOT EXISTS attachment (bout BIGINT NOT NULL, name VARCHAR(100) NOT NULL, author VARCHAR(100) NOT NULL, ctype VARCHAR(256) NOT NULL, etag VARCHAR(256) NOT NULL, size BIGINT DEFAULT 0 NOT NULL, date BIGINT NOT NULL, data BLOB, PRIMARY KEY (bout, name))",
+        "CREATE TABLE IF NOT EXISTS unseen (bout BIGINT NOT NULL, alias VARCHAR(100) NOT NULL, name VARCHAR(100) NOT NULL, PRIMARY KEY (bout, alias, name))"
+    };
+
+    /**
+     * Pools, by JDBC URLs.
+     */
+    private static final ConcurrentMap<String, DataSource> POOLS =
+        new ConcurrentHashMap<>(1);
+
+    /**
+     * JDBC URL of the database.
+     */
+    private final transient String url;
+
+    /**
+     * Ctor.
+     * @param jdbc JDBC URL, like "jdbc:h2:/var/netbout/db"
+     */
+    H2Pool(final String jdbc) {
+        this.url = jdbc;
+    }
+
+    @Override
+    public DataSource source() {
+        DataSource src = H2Pool.POOLS.get(this.url);
+        if (src == null) {
+            synchronized (H2Pool.POOLS) {
+                src = H2Pool.POOLS.get(this.url);
+                if (src == null) {
+                    src = H2Pool.open(this.url);
+                    H2Pool.POOLS.put(this.url, src);
+                }
+            }
+        }
+        return src;
+    }
+
+    /**
+     * Open a pool and create the schema in it.
+     * @param url JDBC URL
+     * @return Pool
+     */
+    private static DataSource open(final String url) {
+        final JdbcConnectionPool pool = JdbcConnectionPool.create(url, "", "");
+        pool.setMaxConnections(H2Pool.MAX);
+        try {
+            for (final String stmt : H2Pool.SCHEMA) {
+                new JdbcSession(pool).sql(stmt).execute();
+            }
+        } catch (final SQLException ex) {
+            pool.dispose();
+            throw new IllegalStateException(ex);
+        }
+        Logger.info(H2Pool.class, "pool of %d opened at %s", H2Pool.MAX, url);
+        return pool;
+    }
+
+}
@@ -0,0 +1,167 @@
+/**
+ * Copyright (c) 2009-2016, netbout.com
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are PROHIBITED without prior written permission from
+ * the author. This product may NOT be used anywhere and on any computer
+ * except the server platform of netbout Inc. located at www.netbout.com.
+ * Federal copyright law prohibits unauthorized reproduction by any means
+ * and imposes fines up to $25,000 for violation. If you received
+ * this code accidentally and without intent to use it, please report this
+ * incident to the author by email.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS
+ * "AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT
+ * LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR
+ * A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT
+ * OWNER OR CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL,
+ * SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT
+ * LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE,
+ * DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON
+ * ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY,
+ * OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT
+ * OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF
+ * SUCH DAMAGE.
+ */
+package com.netbout.jdbc;
+
+import com.jcabi.aspects.Immutable;
+import com.jcabi.aspects.Loggable;
+import com.jcabi.jdbc.JdbcSession;
+import com.jcabi.jdbc.Outcome;
+import com.jcabi.log.Logger;
+import com.netbout.spi.Alias;
+import com.netbout.spi.Bout;
+import com.netbout.spi.Inbox;
+import java.io.IOException;
+import java.net.URI;
+import java.sql.SQLException;
+import java.util.Locale;
+import java.util.regex.Pattern;
+import lombok.EqualsAndHashCode;
+import lombok.ToString;
+
+/**
+ * JDBC Alias, loaded from a row of "alias" table.
+ *
+ * @author Yegor Bugayenko (yegor@teamed.io)
+ * @version $Id$
+ * @since 3.0
+ */
+@Immutable
+@Loggable(Loggable.DEBUG)
+@ToString(of = "row")
+@EqualsAndHashCode(of = { "sql", "row" })
+final class JdAlias implements Alias {
+
+    /**
+     * Valid pattern.
+     * @checkstyle LineLengthCheck (2 line)
+     */
+    private static final String VALID = "([a-z0-9_-]+\\.)*[a-z0-9_-]+@[a-z0-9_-]+(\\.[a-z0-9_-]+)*\\.[a-z]{2,6}";
+
+    /**
+     * Valid email pattern.
+     */
+    private static final Pattern MAIL = Pattern.compile(
+        String.format(
+            "!?%s|%s!%s",
+            JdAlias.VALID, JdAlias.VALID, JdAlias.VALID
+        ),
+        Pattern.CASE_INSENSITIVE
+    );
+
+    /**
+     * SQL data source provider.
+     */
+    private final transient Sql sql;
+
+    /**
+     * Row with name, photo, locale and email.
+     */
+    private final transient Row row;
+
+    /**
+     * Ctor.
+     * @param src Source
+     * @param rw Row with name, photo, locale and email
+     */
+    JdAlias(final Sql src, final Row rw) {
+        this.sql = src;
+        this.row = rw;
+    }
+
+    @Override
+    public String name() {
+        return this.row.text("name");
+    }
+
+    @Override
+    public URI photo() {
+        return URI.create(this.row.text("photo"));
+    }
+
+    @Override
+    public Locale locale() {
+        return new Locale(this.row.text("locale"));
+    }
+
+    @Override
+    public void photo(final URI uri) throws IOException {
+        this.update("photo", uri.toString());
+        Logger.info(this, "@%s changed photo to %s", this.name(), uri);
+    }
+
+    @Override
+    public String email() {
+        return this.row.text("email");
+    }
+
+    @Override
+    public void email(final String email) throws IOException {
+        if (!JdAlias.MAIL.matcher(email).matches()) {
+            throw new Alias.InvalidEmailException(email);
+        }
+        this.update("email", email);
+        Logger.info(this, "@%s changed email to %s", this.name(), email);
+    }
+
+    @Override
+    public void email(final String email, final String urn, final Bout bout) {
+        throw new UnsupportedOperationException("Not Implemented");
+    }
+
+    @Override
+    public void email(final String email, final String link)
+        throws IOException {
+        this.email(email);
+    }
+
+    @Override
+    public Inbox inbox() {
+        return new JdInbox(this.sql, this.name());
+    }
+
+    /**
+     * Update one column of the alias.
+     * @param col Column name
+     * @param value New value
+     * @throws IOException If fails
+     */
+    private void update(final String col, final String value)
+        throws IOException {
+        try {
+            new JdbcSession(this.sql.source())
+                .sql(
+                    String.format("UPDATE alias SET %s = ? WHERE name = ?", col)
+                )
+                .set(value)
+                .set(this.name())
+                .update(Outcome.VOID);
+        } catch (final SQLException ex) {
+            throw new IOException(ex);
+        }
+    }
+
+}
@@ -0,0 +1,241 @@
+/**
+ * Copyright (c) 2009-2016, netbout.com
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are PROHIBITED without prior written permission from
+ * the author. This product may NOT be used anywhere and on any computer
+ * except the server platform of netbout Inc. located at www.netbout.com.
+ * Federal copyright law prohibits unauthorized reproduction by any means
+ * and imposes fines up to $25,000 for violation. If you received
+ * this code accidentally and without intent to use it, please report this
+ * incident to the author by email.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS
+ * "AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT
+ * LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR
+ * A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT
+ * OWNER OR CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL,
+ * SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT
+ * LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE,
+ * DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON
+ * ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY,
+ * OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT
+ * OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF
+ * SUCH DAMAGE.
+ */
+package com.netbout.jdbc;
+
+import com.jcabi.aspects.Immutable;
+import com.jcabi.aspects.Loggable;
+import com.jcabi.jdbc.JdbcSession;
+import com.jcabi.jdbc.Outcome;
+import com.jcabi.jdbc.Preparation;
+import com.jcabi.log.Logger;
+import com.netbout.spi.Attachment;
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.Date;
+import lombok.EqualsAndHashCode;
+import lombok.ToString;
+import org.apache.commons.io.IOUtils;
+
+/**
+ * JDBC Attachment, loaded from a row of "attachment" table, without
+ * its content.
+ *
+ * @author Yegor Bugayenko (yegor@teamed.io)
+ * @version $Id$
+ * @since 3.0
+ */
+@Immutable
+@Loggable(Loggable.DEBUG)
+@ToString(of = { "self", "row" })
+@EqualsAndHashCode(of = { "sql", "self", "row" })
+final class JdAttachment implements Attachment {
+
+    /**
+     * Content of the attachment, empty if there is none.
+     */
+    private static final Outcome<byte[]> DATA = new Outcome<byte[]>() {
+        @Override
+        public byte[] handle(final ResultSet rset, final Statement stmt)
+            throws SQLException {
+            byte[] data = new byte[0];
+            if (rset.next() && rset.getBytes(1) != null) {
+                data = rset.getBytes(1);
+            }
+            return data;
+        }
+    };
+
+    /**
+     * SQL data source provider.
+     */
+    private final transient Sql sql;
+
+    /**
+     * Self alias.
+     */
+    private final transient String self;
+
+    /**
+     * Row with the attachment and my unseen flag.
+     */
+    private final transient Row row;
+
+    /**
+     * Ctor.
+     * @param src Source
+     * @param slf Self alias
+     * @param rw Row with the attachment and my unseen flag
+     */
+    JdAttachment(final Sql src, final String slf, final Row rw) {
+        this.sql = src;
+        this.self = slf;
+        this.row = rw;
+    }
+
+    @Override
+    public String name() {
+        return this.row.text("name");
+    }
+
+    @Override
+    public String ctype() {
+        return this.row.text("ctype");
+    }
+
+    @Override
+    public String etag() {
+        return this.row.text("etag");
+    }
+
+    @Override
+    public boolean unseen() {
+        return !this.row.text("unseen").isEmpty();
+    }
+
+    @Override
+    public Date date() {
+        return this.row.date("date");
+    }
+
+    @Override
+    public String author() {
+        return this.row.text("author");
+    }
+
+    @Override
+    public InputStream read() throws IOException {
+        final byte[] data;
+        try {
+            final JdbcSession session = new JdbcSession(this.sql.source());
+            data = session
+                .sql("SELECT data FROM attachment WHERE bout = ? AND name = ?")
+                .set(this.bout())
+                .set(this.name())
+                .select(JdAttachment.DATA);
+            session
+                // @checkstyle LineLength (1 line)
+                .sql("DELETE FROM unseen WHERE bout = ? AND alias = ? AND name = ?")
+                .set(this.bout())
+                .set(this.self)
+                .set(this.name())
+                .execute();
+        } catch (final SQLException ex) {
+            throw new IOException(ex);
+        }
+        return new ByteArrayInputStream(data);
+    }
+
+    @Override
+    public long size() {
+        return this.row.number("size");
+    }
+
+    @Override
+    public void write(final InputStream stream, final String ctype,
+        final String etag) throws IOException {
+        if (!etag.equals(this.etag())) {
+            final byte[] data = IOUtils.toByteArray(stream);
+            try {
+                final Transaction trans = new Transaction(this.sql);
+                final JdbcSession txn = trans.session();
+                try {
+                    txn
+                        .sql(
+                            new StringBuilder("UPDATE attachment SET data = ?,")
+                                .append(" size = ?, ctype = ?, etag = ?")
+                                .append(" WHERE bout = ? AND name = ?")
+                                .toString()
+                        )
+                        .set(data)
+                        .prepare(JdAttachment.binary(data))
+                        .set(data.length)
+                        .set(ctype)
+                        .set(etag)
+                        .set(this.bout())
+                        .set(this.name())
+                        .execute()
+                        .sql(
+                            new StringBuilder("MERGE INTO unseen")
+                                .append(" (bout, alias, name)")
+                                .append(" KEY (bout, alias, name)")
+                                .append(" SELECT bout, alias, ? FROM friend")
+                                .append(" WHERE bout = ? AND alias <> ?")
+                                .toString()
+                        )
+                        .set(this.name())
+                        .set(this.bout())
+                        .set(this.self)
+                        .execute()
+                        .sql("UPDATE friend SET updated = ? WHERE bout = ?")
+                        .set(System.currentTimeMillis())
+                        .set(this.bout())
+                        .execute()
+                        .commit();
+                } catch (final SQLException ex) {
+                    trans.rollback();
+                    throw ex;
+                }
+            } catch (final SQLException ex) {
+                throw new IOException(ex);
+            }
+            Logger.info(
+                this, "attachment %s (%d bytes) uploaded into #%d by @%s",
+                this.name(), data.length, this.bout(), this.self
+            );
+        }
+    }
+
+    /**
+     * Bind the content as binary to the first parameter, over the text
+     * that the session binds to arguments of types it doesn't know.
+     * @param data Content
+     * @return Preparation
+     */
+    private static Preparation binary(final byte[] data) {
+        return new Preparation() {
+            @Override
+            public void prepare(final PreparedStatement stmt)
+                throws SQLException {
+                stmt.setBytes(1, data);
+            }
+        };
+    }
+
+    /**
+     * Bout we're in.
+     * @return Bout number
+     */
+    private long bout() {
+        return this.row.number("bout");
+    }
+
+}
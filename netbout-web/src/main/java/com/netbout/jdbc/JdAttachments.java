@@ -0,0 +1,250 @@
+/**
+ * Copyright (c) 2009-2016, netbout.com
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are PROHIBITED without prior written permission from
+ * the author. This product may NOT be used anywhere and on any computer
+ * except the server platform of netbout Inc. located at www.netbout.com.
+ * Federal copyright law prohibits unauthorized reproduction by any means
+ * and imposes fines up to $25,000 for violation. If you received
+ * this code accidentally and without intent to use it, please report this
+ * incident to the author by email.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS
+ * "AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT
+ * LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR
+ * A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT
+ * OWNER OR CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL,
+ * SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT
+ * LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE,
+ * DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON
+ * ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY,
+ * OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT
+ * OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF
+ * SUCH DAMAGE.
+ */
+package com.netbout.jdbc;
+
+import com.google.common.base.Function;
+import com.google.common.collect.Lists;
+import com.jcabi.aspects.Immutable;
+import com.jcabi.aspects.Loggable;
+import com.jcabi.aspects.Tv;
+import com.jcabi.jdbc.JdbcSession;
+import com.jcabi.jdbc.Outcome;
+import com.jcabi.jdbc.SingleOutcome;
+import com.jcabi.log.Logger;
+import com.netbout.spi.Attachment;
+import com.netbout.spi.Attachments;
+import java.io.IOException;
+import java.sql.SQLException;
+import java.util.List;
+import lombok.EqualsAndHashCode;
+import lombok.ToString;
+
+/**
+ * JDBC Attachments.
+ *
+ * <p>Attachments of a bout are listed by one query, together with
+ * the flags of the ones I haven't seen yet, without their content.
+ *
+ * @author Yegor Bugayenko (yegor@teamed.io)
+ * @version $Id$
+ * @since 3.0
+ */
+@Immutable
+@Loggable(Loggable.DEBUG)
+@ToString(of = { "bout", "self" })
+@EqualsAndHashCode(of = { "sql", "bout", "self" })
+final class JdAttachments implements Attachments {
+
+    /**
+     * Columns of attachments, with my unseen flags.
+     */
+    private static final String ATTACHMENTS = new StringBuilder("SELECT")
+        .append(" a.bout, a.name, a.author, a.ctype, a.etag, a.size, a.date,")
+        .append(" u.alias AS unseen FROM attachment a LEFT JOIN unseen u")
+        .append(" ON u.bout = a.bout AND u.name = a.name AND u.alias = ?")
+        .append(" WHERE a.bout = ?")
+        .toString();
+
+    /**
+     * SQL data source provider.
+     */
+    private final transient Sql sql;
+
+    /**
+     * Bout number.
+     */
+    private final transient long bout;
+
+    /**
+     * Self alias.
+     */
+    private final transient String self;
+
+    /**
+     * Ctor.
+     * @param src Source
+     * @param num Bout number
+     * @param slf Self alias
+     */
+    JdAttachments(final Sql src, final long num, final String slf) {
+        this.sql = src;
+        this.bout = num;
+        this.self = slf;
+    }
+
+    @Override
+    public int unseen() throws IOException {
+        try {
+            return new JdbcSession(this.sql.source())
+                .sql("SELECT COUNT(*) FROM unseen WHERE bout = ? AND alias = ?")
+                .set(this.bout)
+                .set(this.self)
+                .select(new SingleOutcome<Long>(Long.class))
+                .intValue();
+        } catch (final SQLException ex) {
+            throw new IOException(ex);
+        }
+    }
+
+    @Override
+    public void create(final String name) throws IOException {
+        if (!name.matches("[a-zA-Z\\.\\-0-9]{3,100}")) {
+            throw new Attachments.InvalidNameException(
+                String.format(
+                    "invalid attachment name \"%s\". %s%s",
+                    name,
+                    "Attachment name can contains letters in upper ",
+                    "or lower case, numbers, dots, dashes."
+                )
+            );
+        }
+        try {
+            new JdbcSession(this.sql.source())
+                .sql(
+                    new StringBuilder("MERGE INTO attachment")
+                        .append(" (bout, name, author, ctype, etag, size,")
+                        .append(" date, data) KEY (bout, name)")
+                        .append(" VALUES (?, ?, ?, ?, ?, 0, ?, NULL)")
+                        .toString()
+                )
+                .set(this.bout)
+                .set(name)
+                .set(this.self)
+                .set("text/plain")
+                .set("empty")
+                .set(System.currentTimeMillis())
+                .execute();
+        } catch (final SQLException ex) {
+            throw new IOException(ex);
+        }
+        Logger.info(this, "attachment %s created in #%d", name, this.bout);
+    }
+
+    @Override
+    public void delete(final String name) throws IOException {
+        if (name.isEmpty()) {
+            throw new Attachments.InvalidNameException(
+                "attachment name can't be empty"
+            );
+        }
+        if (name.length() > Tv.HUNDRED) {
+            throw new Attachments.InvalidNameException(
+                String.format("attachment name \"%s\" is too long", name)
+            );
+        }
+        try {
+            final JdbcSession session = new JdbcSession(this.sql.source());
+            final boolean exists = session
+                .sql("SELECT name FROM attachment WHERE bout = ? AND name = ?")
+                .set(this.bout)
+                .set(name)
+                .select(Outcome.NOT_EMPTY);
+            if (!exists) {
+                throw new Attachments.InvalidNameException(
+                    String.format(
+                        "attachment \"%s\" not found, can't delete",
+                        name
+                    )
+                );
+            }
+            final Transaction trans = new Transaction(this.sql);
+            final JdbcSession txn = trans.session();
+            try {
+                txn
+                    .sql("DELETE FROM attachment WHERE bout = ? AND name = ?")
+                    .set(this.bout)
+                    .set(name)
+                    .execute()
+                    .sql("DELETE FROM unseen WHERE bout = ? AND name = ?")
+                    .set(this.bout)
+                    .set(name)
+                    .execute()
+                    .commit();
+            } catch (final SQLException ex) {
+                trans.rollback();
+                throw ex;
+            }
+        } catch (final SQLException ex) {
+            throw new IOException(ex);
+        }
+    }
+
+    @Override
+    public Attachment get(final String name) throws IOException {
+        final List<Row> rows;
+        try {
+            rows = new JdbcSession(this.sql.source())
+                .sql(
+                    String.format(
+                        "%s AND a.name = ?", JdAttachments.ATTACHMENTS
+                    )
+                )
+                .set(this.self)
+                .set(this.bout)
+                .set(name)
+                .select(Row.ALL);
+        } catch (final SQLException ex) {
+            throw new IOException(ex);
+        }
+        if (rows.isEmpty()) {
+            throw new Attachments.NotFoundException(
+                String.format("attachment \"%s\" not found", name)
+            );
+        }
+        return new JdAttachment(this.sql, this.self, rows.get(0));
+    }
+
+    @Override
+    public Iterable<Attachment> iterate() throws IOException {
+        try {
+            return Lists.transform(
+                new JdbcSession(this.sql.source())
+                    .sql(
+                        String.format(
+                            "%s ORDER BY a.name", JdAttachments.ATTACHMENTS
+                        )
+                    )
+                    .set(this.self)
+                    .set(this.bout)
+                    .select(Row.ALL),
+                new Function<Row, Attachment>() {
+                    @Override
+                    public Attachment apply(final Row row) {
+                        return new JdAttachment(
+                            JdAttachments.this.sql,
+                            JdAttachments.this.self,
+                            row
+                        );
+                    }
+                }
+            );
+        } catch (final SQLException ex) {
+            throw new IOException(ex);
+        }
+    }
+
+}
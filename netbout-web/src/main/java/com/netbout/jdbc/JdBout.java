@@ -0,0 +1,179 @@
+/**
+ * Copyright (c) 2009-2016, netbout.com
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are PROHIBITED without prior written permission from
+ * the author. This product may NOT be used anywhere and on any computer
+ * except the server platform of netbout Inc. located at www.netbout.com.
+ * Federal copyright law prohibits unauthorized reproduction by any means
+ * and imposes fines up to $25,000 for violation. If you received
+ * this code accidentally and without intent to use it, please report this
+ * incident to the author by email.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS
+ * "AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT
+ * LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR
+ * A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT
+ * OWNER OR CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL,
+ * SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT
+ * LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE,
+ * DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON
+ * ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY,
+ * OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT
+ * OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF
+ * SUCH DAMAGE.
+ */
+package com.netbout.jdbc;
+
+import com.jcabi.aspects.Immutable;
+import com.jcabi.aspects.Loggable;
+import com.jcabi.aspects.Tv;
+import com.jcabi.jdbc.JdbcSession;
+import com.jcabi.jdbc.Outcome;
+import com.jcabi.log.Logger;
+import com.netbout.spi.Attachments;
+import com.netbout.spi.Bout;
+import com.netbout.spi.Friends;
+import com.netbout.spi.Messages;
+import java.io.IOException;
+import java.sql.SQLException;
+import java.util.Date;
+import lombok.EqualsAndHashCode;
+import lombok.ToString;
+
+/**
+ * JDBC Bout, loaded from a row of "bout" joined with "friend".
+ *
+ * @author Yegor Bugayenko (yegor@teamed.io)
+ * @version $Id$
+ * @since 3.0
+ */
+@Immutable
+@Loggable(Loggable.DEBUG)
+@ToString(of = { "self", "row" })
+@EqualsAndHashCode(of = { "sql", "self", "row" })
+@SuppressWarnings("PMD.TooManyMethods")
+final class JdBout implements Bout {
+
+    /**
+     * SQL data source provider.
+     */
+    private final transient Sql sql;
+
+    /**
+     * Self alias.
+     */
+    private final transient String self;
+
+    /**
+     * Row with the bout and my state in it.
+     */
+    private final transient Row row;
+
+    /**
+     * Ctor.
+     * @param src Source
+     * @param slf Self alias
+     * @param rw Row with the bout and my state in it
+     */
+    JdBout(final Sql src, final String slf, final Row rw) {
+        this.sql = src;
+        this.self = slf;
+        this.row = rw;
+    }
+
+    @Override
+    public long number() {
+        return this.row.number("number");
+    }
+
+    @Override
+    public Date date() {
+        return this.row.date("date");
+    }
+
+    @Override
+    public Date updated() {
+        return this.row.date("updated");
+    }
+
+    @Override
+    public String title() {
+        return this.row.text("title");
+    }
+
+    @Override
+    public void rename(final String text) throws IOException {
+        if (text.isEmpty()) {
+            throw new IllegalArgumentException("bout title can't be empty");
+        }
+        if (text.length() > 2 * Tv.HUNDRED) {
+            throw new IllegalArgumentException("bout name is too long");
+        }
+        try {
+            new JdbcSession(this.sql.source())
+                .sql("UPDATE bout SET title = ? WHERE number = ?")
+                .set(text)
+                .set(this.number())
+                .update(Outcome.VOID);
+        } catch (final SQLException ex) {
+            throw new IOException(ex);
+        }
+        Logger.info(this, "bout #%d renamed to \"%s\"", this.number(), text);
+    }
+
+    @Override
+    public boolean subscription() {
+        return this.row.flag("subscription");
+    }
+
+    @Override
+    public boolean subscription(final String alias) throws IOException {
+        try {
+            return new JdbcSession(this.sql.source())
+                // @checkstyle LineLength (1 line)
+                .sql("SELECT alias FROM friend WHERE bout = ? AND alias = ? AND subscription")
+                .set(this.number())
+                .set(alias)
+                .select(Outcome.NOT_EMPTY);
+        } catch (final SQLException ex) {
+            throw new IOException(ex);
+        }
+    }
+
+    @Override
+    public void subscribe(final boolean subs) throws IOException {
+        try {
+            new JdbcSession(this.sql.source())
+                // @checkstyle LineLength (1 line)
+                .sql("UPDATE friend SET subscription = ? WHERE bout = ? AND alias = ?")
+                .set(subs)
+                .set(this.number())
+                .set(this.self)
+                .update(Outcome.VOID);
+        } catch (final SQLException ex) {
+            throw new IOException(ex);
+        }
+    }
+
+    @Override
+    public Messages messages() {
+        return new JdMessages(
+            this.sql, this.number(), this.self, this.row.number("unread")
+        );
+    }
+
+    @Override
+    public Friends friends() {
+        return new Friends.ValidFriends(
+            new JdFriends(this.sql, this.number())
+        );
+    }
+
+    @Override
+    public Attachments attachments() {
+        return new JdAttachments(this.sql, this.number(), this.self);
+    }
+
+}
@@ -0,0 +1,184 @@
+/**
+ * Copyright (c) 2009-2016, netbout.com
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are PROHIBITED without prior written permission from
+ * the author. This product may NOT be used anywhere and on any computer
+ * except the server platform of netbout Inc. located at www.netbout.com.
+ * Federal copyright law prohibits unauthorized reproduction by any means
+ * and imposes fines up to $25,000 for violation. If you received
+ * this code accidentally and without intent to use it, please report this
+ * incident to the author by email.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS
+ * "AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT
+ * LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR
+ * A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT
+ * OWNER OR CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL,
+ * SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT
+ * LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE,
+ * DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON
+ * ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY,
+ * OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT
+ * OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF
+ * SUCH DAMAGE.
+ */
+package com.netbout.jdbc;
+
+import com.google.common.base.Function;
+import com.google.common.collect.Lists;
+import com.jcabi.aspects.Immutable;
+import com.jcabi.aspects.Loggable;
+import com.jcabi.aspects.Tv;
+import com.jcabi.jdbc.JdbcSession;
+import com.jcabi.jdbc.Outcome;
+import com.jcabi.log.Logger;
+import com.netbout.spi.Friend;
+import com.netbout.spi.Friends;
+import java.io.IOException;
+import java.sql.SQLException;
+import lombok.EqualsAndHashCode;
+import lombok.ToString;
+import org.apache.commons.lang3.StringUtils;
+
+/**
+ * JDBC Friends.
+ *
+ * @author Yegor Bugayenko (yegor@teamed.io)
+ * @version $Id$
+ * @since 3.0
+ */
+@Immutable
+@Loggable(Loggable.DEBUG)
+@ToString(of = "bout")
+@EqualsAndHashCode(of = { "sql", "bout" })
+final class JdFriends implements Friends {
+
+    /**
+     * SQL data source provider.
+     */
+    private final transient Sql sql;
+
+    /**
+     * Bout number.
+     */
+    private final transient long bout;
+
+    /**
+     * Ctor.
+     * @param src Source
+     * @param num Bout number
+     */
+    JdFriends(final Sql src, final long num) {
+        this.sql = src;
+        this.bout = num;
+    }
+
+    @Override
+    public void invite(final String friend) throws IOException {
+        final String alias = JdFriends.clean(friend);
+        try {
+            final JdbcSession session = new JdbcSession(this.sql.source());
+            final boolean exists = session
+                .sql("SELECT name FROM alias WHERE name = ?")
+                .set(alias)
+                .select(Outcome.NOT_EMPTY);
+            if (!exists) {
+                throw new Friends.UnknownAliasException(
+                    String.format("alias '%s' doesn't exist", friend)
+                );
+            }
+            session
+                // @checkstyle LineLength (1 line)
+                .sql("MERGE INTO friend (bout, alias, updated) KEY (bout, alias) VALUES (?, ?, ?)")
+                .set(this.bout)
+                .set(alias)
+                .set(System.currentTimeMillis())
+                .execute();
+        } catch (final SQLException ex) {
+            throw new IOException(ex);
+        }
+        Logger.info(this, "@%s invited to #%d", friend, this.bout);
+    }
+
+    @Override
+    public void kick(final String friend) throws IOException {
+        final String alias = JdFriends.clean(friend);
+        try {
+            final JdbcSession session = new JdbcSession(this.sql.source());
+            final boolean exists = session
+                .sql("SELECT alias FROM friend WHERE bout = ? AND alias = ?")
+                .set(this.bout)
+                .set(alias)
+                .select(Outcome.NOT_EMPTY);
+            if (!exists) {
+                throw new Friends.UnknownAliasException(
+                    String.format("alias '%s' is not in the bout", friend)
+                );
+            }
+            final Transaction trans = new Transaction(this.sql);
+            final JdbcSession txn = trans.session();
+            try {
+                txn
+                    .sql("DELETE FROM friend WHERE bout = ? AND alias = ?")
+                    .set(this.bout)
+                    .set(alias)
+                    .execute()
+                    .sql("DELETE FROM unseen WHERE bout = ? AND alias = ?")
+                    .set(this.bout)
+                    .set(alias)
+                    .execute()
+                    .commit();
+            } catch (final SQLException ex) {
+                trans.rollback();
+                throw ex;
+            }
+        } catch (final SQLException ex) {
+            throw new IOException(ex);
+        }
+        Logger.info(this, "@%s kicked off #%d", friend, this.bout);
+    }
+
+    @Override
+    public Iterable<Friend> iterate() throws IOException {
+        try {
+            return Lists.transform(
+                new JdbcSession(this.sql.source())
+                    .sql(
+                        new StringBuilder("SELECT a.name, a.photo, a.email")
+                            .append(" FROM friend f JOIN alias a")
+                            .append(" ON a.name = f.alias WHERE f.bout = ?")
+                            .toString()
+                    )
+                    .set(this.bout)
+                    .select(Row.ALL),
+                new Function<Row, Friend>() {
+                    @Override
+                    public Friend apply(final Row row) {
+                        return new JdFriend(row);
+                    }
+                }
+            );
+        } catch (final SQLException ex) {
+            throw new IOException(ex);
+        }
+    }
+
+    /**
+     * Clean alias.
+     * @param friend Name of the friend
+     * @return Alias
+     */
+    private static String clean(final String friend) {
+        final String alias = StringUtils.strip(friend, " @\n\t\r");
+        if (alias.isEmpty()) {
+            throw new IllegalArgumentException("alias can't be empty");
+        }
+        if (alias.length() > Tv.HUNDRED) {
+            throw new IllegalArgumentException("alias is too long");
+        }
+        return alias;
+    }
+
+}
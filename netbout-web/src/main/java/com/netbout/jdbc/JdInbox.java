@@ -0,0 +1,254 @@
+/**
+ * Copyright (c) 2009-2016, netbout.com
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are PROHIBITED without prior written permission from
+ * the author. This product may NOT be used anywhere and on any computer
+ * except the server platform of netbout Inc. located at www.netbout.com.
+ * Federal copyright law prohibits unauthorized reproduction by any means
+ * and imposes fines up to $25,000 for violation. If you received
+ * this code accidentally and without intent to use it, please report this
+ * incident to the author by email.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS
+ * "AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT
+ * LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR
+ * A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT
+ * OWNER OR CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL,
+ * SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT
+ * LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE,
+ * DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON
+ * ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY,
+ * OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT
+ * OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF
+ * SUCH DAMAGE.
+ */
+package com.netbout.jdbc;
+
+import com.google.common.base.Function;
+import com.google.common.collect.Lists;
+import com.jcabi.aspects.Immutable;
+import com.jcabi.aspects.Loggable;
+import com.jcabi.jdbc.JdbcSession;
+import com.jcabi.jdbc.Outcome;
+import com.jcabi.jdbc.SingleOutcome;
+import com.jcabi.log.Logger;
+import com.netbout.spi.Bout;
+import com.netbout.spi.Inbox;
+import com.netbout.spi.Pageable;
+import java.io.IOException;
+import java.sql.SQLException;
+import java.util.List;
+import java.util.Locale;
+import lombok.EqualsAndHashCode;
+import lombok.ToString;
+
+/**
+ * JDBC Inbox.
+ *
+ * <p>Bouts are listed by the index on (alias, updated) of "friend"
+ * table, the most recently updated first. A page is fetched by one
+ * query, together with the state of the alias in each bout.
+ *
+ * @author Yegor Bugayenko (yegor@teamed.io)
+ * @version $Id$
+ * @since 3.0
+ */
+@Immutable
+@Loggable(Loggable.DEBUG)
+@ToString(of = { "self", "since" })
+@EqualsAndHashCode(of = { "sql", "self", "since" })
+final class JdInbox implements Inbox {
+
+    /**
+     * Columns of a bout, with the state of the alias in it.
+     */
+    private static final String BOUTS = new StringBuilder("SELECT")
+        .append(" b.number, b.title, b.date, f.updated, f.subscription,")
+        .append(" f.unread FROM friend f JOIN bout b ON b.number = f.bout")
+        .append(" WHERE f.alias = ?")
+        .toString();
+
+    /**
+     * SQL data source provider.
+     */
+    private final transient Sql sql;
+
+    /**
+     * Self alias.
+     */
+    private final transient String self;
+
+    /**
+     * Show bouts updated before this time.
+     */
+    private final transient long since;
+
+    /**
+     * Ctor.
+     * @param src Source
+     * @param name Self alias
+     */
+    JdInbox(final Sql src, final String name) {
+        this(src, name, Inbox.NEVER);
+    }
+
+    /**
+     * Ctor.
+     * @param src Source
+     * @param name Self alias
+     * @param time Show bouts updated before this time
+     */
+    JdInbox(final Sql src, final String name, final long time) {
+        this.sql = src;
+        this.self = name;
+        this.since = time;
+    }
+
+    @Override
+    public long start() throws IOException {
+        final long now = System.currentTimeMillis();
+        final long number;
+        try {
+            final Transaction trans = new Transaction(this.sql);
+            final JdbcSession session = trans.session();
+            try {
+                number = session
+                    .sql("INSERT INTO bout (title, date) VALUES (?, ?)")
+                    .set("untitled")
+                    .set(now)
+                    .insert(new SingleOutcome<Long>(Long.class));
+                session
+                    // @checkstyle LineLength (1 line)
+                    .sql("INSERT INTO friend (bout, alias, updated) VALUES (?, ?, ?)")
+                    .set(number)
+                    .set(this.self)
+                    .set(now)
+                    .insert(Outcome.VOID);
+                session.commit();
+            } catch (final SQLException ex) {
+                trans.rollback();
+                throw ex;
+            }
+        } catch (final SQLException ex) {
+            throw new IOException(ex);
+        }
+        Logger.info(this, "bout #%d started by @%s", number, this.self);
+        return number;
+    }
+
+    @Override
+    public long unread() throws IOException {
+        try {
+            return new JdbcSession(this.sql.source())
+                // @checkstyle LineLength (1 line)
+                .sql("SELECT COALESCE(SUM(unread), 0) FROM friend WHERE alias = ?")
+                .set(this.self)
+                .select(new SingleOutcome<Long>(Long.class));
+        } catch (final SQLException ex) {
+            throw new IOException(ex);
+        }
+    }
+
+    @Override
+    public Bout bout(final long number) throws Inbox.BoutNotFoundException {
+        final List<Row> rows;
+        try {
+            rows = new JdbcSession(this.sql.source())
+                .sql(String.format("%s AND f.bout = ?", JdInbox.BOUTS))
+                .set(this.self)
+                .set(number)
+                .select(Row.ALL);
+        } catch (final SQLException ex) {
+            throw new Inbox.BoutNotFoundException(number, ex);
+        }
+        if (rows.isEmpty()) {
+            throw new Inbox.BoutNotFoundException(number);
+        }
+        return new JdBout(this.sql, this.self, rows.get(0));
+    }
+
+    @Override
+    public Pageable<Bout> jump(final long number) {
+        return new JdInbox(this.sql, this.self, number);
+    }
+
+    @Override
+    public Iterable<Bout> iterate() {
+        return new Paged<>(this, Inbox.PAGE);
+    }
+
+    @Override
+    public Pageable.Page<Bout> page(final int size) throws IOException {
+        final List<Row> rows;
+        try {
+            rows = new JdbcSession(this.sql.source())
+                .sql(
+                    String.format(
+                        "%s AND f.updated < ? ORDER BY f.updated DESC LIMIT ?",
+                        JdInbox.BOUTS
+                    )
+                )
+                .set(this.self)
+                .set(this.since)
+                .set(size + 1)
+                .select(Row.ALL);
+        } catch (final SQLException ex) {
+            throw new IOException(ex);
+        }
+        long next = Pageable.Page.END;
+        if (rows.size() > size) {
+            next = rows.get(size - 1).number("updated");
+        }
+        return new Pageable.Page<Bout>(
+            this.bouts(rows.subList(0, Math.min(size, rows.size()))), next
+        );
+    }
+
+    @Override
+    public Iterable<Bout> search(final String term) throws IOException {
+        final String text = term.toLowerCase(Locale.ENGLISH);
+        try {
+            return this.bouts(
+                new JdbcSession(this.sql.source())
+                    .sql(
+                        String.format(
+                            new StringBuilder("%s AND (")
+                                .append("LOCATE(?, LOWER(b.title)) > 0")
+                                .append(" OR EXISTS (SELECT 1 FROM message m")
+                                .append(" WHERE m.bout = f.bout")
+                                .append(" AND LOCATE(?, LOWER(m.text)) > 0))")
+                                .append(" ORDER BY f.updated DESC")
+                                .toString(),
+                            JdInbox.BOUTS
+                        )
+                    )
+                    .set(this.self)
+                    .set(text)
+                    .set(text)
+                    .select(Row.ALL)
+            );
+        } catch (final SQLException ex) {
+            throw new IOException(ex);
+        }
+    }
+
+    /**
+     * Bouts from rows.
+     * @param rows Rows of bouts
+     * @return Bouts
+     */
+    private List<Bout> bouts(final List<Row> rows) {
+        return Lists.transform(
+            rows,
+            new Function<Row, Bout>() {
+                @Override
+                public Bout apply(final Row row) {
+                    return new JdBout(JdInbox.this.sql, JdInbox.this.self, row);
+                }
+            }
+        );
+    }
+
+}
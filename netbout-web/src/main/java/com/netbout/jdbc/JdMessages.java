@@ -0,0 +1,273 @@
+/**
+ * Copyright (c) 2009-2016, netbout.com
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are PROHIBITED without prior written permission from
+ * the author. This product may NOT be used anywhere and on any computer
+ * except the server platform of netbout Inc. located at www.netbout.com.
+ * Federal copyright law prohibits unauthorized reproduction by any means
+ * and imposes fines up to $25,000 for violation. If you received
+ * this code accidentally and without intent to use it, please report this
+ * incident to the author by email.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS
+ * "AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT
+ * LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR
+ * A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT
+ * OWNER OR CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL,
+ * SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT
+ * LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE,
+ * DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON
+ * ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY,
+ * OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT
+ * OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF
+ * SUCH DAMAGE.
+ */
+package com.netbout.jdbc;
+
+import com.google.common.base.Function;
+import com.google.common.collect.Lists;
+import com.jcabi.aspects.Immutable;
+import com.jcabi.aspects.Loggable;
+import com.jcabi.aspects.Tv;
+import com.jcabi.jdbc.JdbcSession;
+import com.jcabi.jdbc.Outcome;
+import com.jcabi.log.Logger;
+import com.netbout.spi.Message;
+import com.netbout.spi.Messages;
+import com.netbout.spi.Pageable;
+import java.io.IOException;
+import java.sql.SQLException;
+import java.util.List;
+import java.util.Locale;
+import lombok.EqualsAndHashCode;
+import lombok.ToString;
+import org.apache.commons.lang3.StringUtils;
+
+/**
+ * JDBC Messages.
+ *
+ * <p>Messages are listed by the index on (bout, number) of "message"
+ * table, the latest first. A page is fetched by one query, with all
+ * columns, and the next one starts after the last message in it.
+ *
+ * @author Yegor Bugayenko (yegor@teamed.io)
+ * @version $Id$
+ * @since 3.0
+ */
+@Immutable
+@Loggable(Loggable.DEBUG)
+@ToString(of = { "bout", "self", "start" })
+@EqualsAndHashCode(of = { "sql", "bout", "self", "start" })
+final class JdMessages implements Messages {
+
+    /**
+     * SQL data source provider.
+     */
+    private final transient Sql sql;
+
+    /**
+     * Bout number.
+     */
+    private final transient long bout;
+
+    /**
+     * Self alias.
+     */
+    private final transient String self;
+
+    /**
+     * How many messages are unread by me.
+     */
+    private final transient long unrd;
+
+    /**
+     * Show messages with numbers below this one.
+     */
+    private final transient long start;
+
+    /**
+     * Ctor.
+     * @param src Source
+     * @param num Bout number
+     * @param slf Self alias
+     * @param unread How many messages are unread by me
+     * @checkstyle ParameterNumberCheck (4 lines)
+     */
+    JdMessages(final Sql src, final long num, final String slf,
+        final long unread) {
+        this(src, num, slf, unread, Long.MAX_VALUE);
+    }
+
+    /**
+     * Ctor.
+     * @param src Source
+     * @param num Bout number
+     * @param slf Self alias
+     * @param unread How many messages are unread by me
+     * @param strt Show messages with numbers below this one
+     * @checkstyle ParameterNumberCheck (4 lines)
+     */
+    JdMessages(final Sql src, final long num, final String slf,
+        final long unread, final long strt) {
+        this.sql = src;
+        this.bout = num;
+        this.self = slf;
+        this.unrd = unread;
+        this.start = strt;
+    }
+
+    @Override
+    public void post(final String text) throws IOException {
+        final String clean = StringUtils.stripEnd(text, null);
+        if (clean.isEmpty()) {
+            throw new Messages.BrokenPostException(
+                "empty message content is not allowed"
+            );
+        }
+        if (clean.length() > Tv.TEN * Tv.THOUSAND) {
+            throw new Messages.BrokenPostException(
+                "message is too big, break it into parts or upload attachment"
+            );
+        }
+        final long now = System.currentTimeMillis();
+        try {
+            final Transaction trans = new Transaction(this.sql);
+            final JdbcSession session = trans.session();
+            try {
+                session
+                    // @checkstyle LineLength (1 line)
+                    .sql("INSERT INTO message (bout, text, author, date) VALUES (?, ?, ?, ?)")
+                    .set(this.bout)
+                    .set(clean)
+                    .set(this.self)
+                    .set(now)
+                    .insert(Outcome.VOID);
+                session
+                    .sql(
+                        new StringBuilder("UPDATE friend SET updated = ?,")
+                            .append(" unread = unread")
+                            .append(" + CASE WHEN alias = ? THEN 0 ELSE 1 END")
+                            .append(" WHERE bout = ?")
+                            .toString()
+                    )
+                    .set(now)
+                    .set(this.self)
+                    .set(this.bout)
+                    .execute();
+                session.commit();
+            } catch (final SQLException ex) {
+                trans.rollback();
+                throw ex;
+            }
+        } catch (final SQLException ex) {
+            throw new IOException(ex);
+        }
+        Logger.info(this, "posted to #%d by @%s", this.bout, this.self);
+    }
+
+    @Override
+    public long unread() {
+        return this.unrd;
+    }
+
+    @Override
+    public Pageable<Message> jump(final long number) {
+        return new JdMessages(
+            this.sql, this.bout, this.self, this.unrd, number
+        );
+    }
+
+    @Override
+    public Iterable<Message> iterate() {
+        return new Paged<>(this, Messages.PAGE);
+    }
+
+    @Override
+    public Pageable.Page<Message> page(final int size) throws IOException {
+        if (this.start != Long.MAX_VALUE) {
+            this.seen();
+        }
+        final List<Row> rows;
+        try {
+            rows = new JdbcSession(this.sql.source())
+                .sql(
+                    new StringBuilder("SELECT number, text, author, date")
+                        .append(" FROM message WHERE bout = ? AND number < ?")
+                        .append(" ORDER BY number DESC LIMIT ?")
+                        .toString()
+                )
+                .set(this.bout)
+                .set(this.start)
+                .set(size + 1)
+                .select(Row.ALL);
+        } catch (final SQLException ex) {
+            throw new IOException(ex);
+        }
+        long next = Pageable.Page.END;
+        if (rows.size() > size) {
+            next = rows.get(size - 1).number("number");
+        }
+        return new Pageable.Page<Message>(
+            JdMessages.messages(rows.subList(0, Math.min(size, rows.size()))),
+            next
+        );
+    }
+
+    @Override
+    public Iterable<Message> search(final String term) throws IOException {
+        try {
+            return JdMessages.messages(
+                new JdbcSession(this.sql.source())
+                    .sql(
+                        new StringBuilder("SELECT number, text, author, date")
+                            .append(" FROM message WHERE bout = ?")
+                            .append(" AND LOCATE(?, LOWER(text)) > 0")
+                            .append(" ORDER BY number DESC")
+                            .toString()
+                    )
+                    .set(this.bout)
+                    .set(term.toLowerCase(Locale.ENGLISH))
+                    .select(Row.ALL)
+            );
+        } catch (final SQLException ex) {
+            throw new IOException(ex);
+        }
+    }
+
+    /**
+     * They were seen just now, by me.
+     * @throws IOException If fails
+     */
+    private void seen() throws IOException {
+        try {
+            new JdbcSession(this.sql.source())
+                // @checkstyle LineLength (1 line)
+                .sql("UPDATE friend SET unread = 0 WHERE bout = ? AND alias = ? AND unread > 0")
+                .set(this.bout)
+                .set(this.self)
+                .execute();
+        } catch (final SQLException ex) {
+            throw new IOException(ex);
+        }
+    }
+
+    /**
+     * Messages from rows.
+     * @param rows Rows of messages
+     * @return Messages
+     */
+    private static List<Message> messages(final List<Row> rows) {
+        return Lists.transform(
+            rows,
+            new Function<Row, Message>() {
+                @Override
+                public Message apply(final Row row) {
+                    return new JdMessage(row);
+                }
+            }
+        );
+    }
+
+}
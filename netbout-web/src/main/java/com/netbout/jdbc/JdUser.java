@@ -0,0 +1,114 @@
+/**
+ * Copyright (c) 2009-2016, netbout.com
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are PROHIBITED without prior written permission from
+ * the author. This product may NOT be used anywhere and on any computer
+ * except the server platform of netbout Inc. located at www.netbout.com.
+ * Federal copyright law prohibits unauthorized reproduction by any means
+ * and imposes fines up to $25,000 for violation. If you received
+ * this code accidentally and without intent to use it, please report this
+ * incident to the author by email.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS
+ * "AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT
+ * LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR
+ * A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT
+ * OWNER OR CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL,
+ * SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT
+ * LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE,
+ * DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON
+ * ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY,
+ * OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT
+ * OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF
+ * SUCH DAMAGE.
+ */
+package com.netbout.jdbc;
+
+import com.google.common.base.Function;
+import com.google.common.collect.Lists;
+import com.jcabi.aspects.Immutable;
+import com.jcabi.aspects.Loggable;
+import com.jcabi.aspects.Tv;
+import com.jcabi.jdbc.JdbcSession;
+import com.jcabi.urn.URN;
+import com.netbout.spi.Aliases;
+import com.netbout.spi.Friend;
+import com.netbout.spi.User;
+import java.io.IOException;
+import java.sql.SQLException;
+import lombok.EqualsAndHashCode;
+import lombok.ToString;
+
+/**
+ * JDBC User.
+ *
+ * @author Yegor Bugayenko (yegor@teamed.io)
+ * @version $Id$
+ * @since 3.0
+ */
+@Immutable
+@Loggable(Loggable.DEBUG)
+@ToString(of = "urn")
+@EqualsAndHashCode(of = { "sql", "urn" })
+final class JdUser implements User {
+
+    /**
+     * SQL data source provider.
+     */
+    private final transient Sql sql;
+
+    /**
+     * URN of the user.
+     */
+    private final transient URN urn;
+
+    /**
+     * Ctor.
+     * @param src Source
+     * @param name URN of the user
+     */
+    JdUser(final Sql src, final URN name) {
+        this.sql = src;
+        this.urn = name;
+    }
+
+    @Override
+    public Aliases aliases() {
+        return new JdAliases(this.sql, this.urn);
+    }
+
+    @Override
+    public Iterable<Friend> friends(final String text) throws IOException {
+        try {
+            return Lists.transform(
+                new JdbcSession(this.sql.source())
+                    .sql(
+                        new StringBuilder("SELECT name, photo, email")
+                            .append(" FROM alias WHERE name LIKE ? ESCAPE '!'")
+                            .append(" ORDER BY LENGTH(name), name LIMIT ?")
+                            .toString()
+                    )
+                    .set(
+                        String.format(
+                            "%s%%",
+                            text.replace("!", "!!").replace("%", "!%")
+                                .replace("_", "!_")
+                        )
+                    )
+                    .set(Tv.TEN)
+                    .select(Row.ALL),
+                new Function<Row, Friend>() {
+                    @Override
+                    public Friend apply(final Row row) {
+                        return new JdFriend(row);
+                    }
+                }
+            );
+        } catch (final SQLException ex) {
+            throw new IOException(ex);
+        }
+    }
+
+}
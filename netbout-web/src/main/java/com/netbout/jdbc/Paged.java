@@ -0,0 +1,112 @@
+/**
+ * Copyright (c) 2009-2016, netbout.com
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are PROHIBITED without prior written permission from
+ * the author. This product may NOT be used anywhere and on any computer
+ * except the server platform of netbout Inc. located at www.netbout.com.
+ * Federal copyright law prohibits unauthorized reproduction by any means
+ * and imposes fines up to $25,000 for violation. If you received
+ * this code accidentally and without intent to use it, please report this
+ * incident to the author by email.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS
+ * "AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT
+ * LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR
+ * A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT
+ * OWNER OR CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL,
+ * SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT
+ * LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE,
+ * DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON
+ * ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY,
+ * OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT
+ * OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF
+ * SUCH DAMAGE.
+ */
+package com.netbout.jdbc;
+
+import com.google.common.collect.AbstractIterator;
+import com.jcabi.aspects.Immutable;
+import com.netbout.spi.Pageable;
+import java.io.IOException;
+import java.util.Collections;
+import java.util.Iterator;
+import lombok.EqualsAndHashCode;
+import lombok.ToString;
+
+/**
+ * All items of a pageable list, fetched page by page, when needed.
+ *
+ * @param <T> Type of items
+ * @author Yegor Bugayenko (yegor@teamed.io)
+ * @version $Id$
+ * @since 3.0
+ */
+@Immutable
+@ToString
+@EqualsAndHashCode(of = { "origin", "size" })
+final class Paged<T> implements Iterable<T> {
+
+    /**
+     * The list.
+     */
+    private final transient Pageable<T> origin;
+
+    /**
+     * Size of a page.
+     */
+    private final transient int size;
+
+    /**
+     * Ctor.
+     * @param list The list
+     * @param max Size of a page
+     */
+    Paged(final Pageable<T> list, final int max) {
+        this.origin = list;
+        this.size = max;
+    }
+
+    @Override
+    public Iterator<T> iterator() {
+        return new AbstractIterator<T>() {
+            /**
+             * Pages left to fetch.
+             */
+            private Pageable<T> pages = Paged.this.origin;
+            /**
+             * Items of the current page.
+             */
+            private Iterator<T> items = Collections.<T>emptyIterator();
+            /**
+             * There are more pages to fetch.
+             */
+            private boolean more = true;
+            @Override
+            protected T computeNext() {
+                try {
+                    while (!this.items.hasNext() && this.more) {
+                        final Pageable.Page<T> page =
+                            this.pages.page(Paged.this.size);
+                        this.items = page.items().iterator();
+                        this.more = !page.last();
+                        if (this.more) {
+                            this.pages = this.pages.jump(page.next());
+                        }
+                    }
+                } catch (final IOException ex) {
+                    throw new IllegalStateException(ex);
+                }
+                final T next;
+                if (this.items.hasNext()) {
+                    next = this.items.next();
+                } else {
+                    next = this.endOfData();
+                }
+                return next;
+            }
+        };
+    }
+
+}
@@ -0,0 +1,146 @@
+/**
+ * Copyright (c) 2009-2016, netbout.com
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are PROHIBITED without prior written permission from
+ * the author. This product may NOT be used anywhere and on any computer
+ * except the server platform of netbout Inc. located at www.netbout.com.
+ * Federal copyright law prohibits unauthorized reproduction by any means
+ * and imposes fines up to $25,000 for violation. If you received
+ * this code accidentally and without intent to use it, please report this
+ * incident to the author by email.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS
+ * "AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT
+ * LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR
+ * A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT
+ * OWNER OR CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL,
+ * SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT
+ * LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE,
+ * DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON
+ * ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY,
+ * OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT
+ * OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF
+ * SUCH DAMAGE.
+ */
+package com.netbout.jdbc;
+
+import com.jcabi.aspects.Immutable;
+import com.jcabi.immutable.ArrayMap;
+import com.jcabi.jdbc.Outcome;
+import java.sql.ResultSet;
+import java.sql.ResultSetMetaData;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import lombok.EqualsAndHashCode;
+import lombok.ToString;
+
+/**
+ * Row of a result set, loaded once, with all its columns.
+ *
+ * <p>Columns are named by their lower case labels, NULL values are
+ * not kept.
+ *
+ * @author Yegor Bugayenko (yegor@teamed.io)
+ * @version $Id$
+ * @since 3.0
+ */
+@Immutable
+@ToString
+@EqualsAndHashCode(of = "cols")
+final class Row {
+
+    /**
+     * All rows of a result set.
+     */
+    public static final Outcome<List<Row>> ALL = new Outcome<List<Row>>() {
+        @Override
+        public List<Row> handle(final ResultSet rset, final Statement stmt)
+            throws SQLException {
+            final ResultSetMetaData meta = rset.getMetaData();
+            final List<Row> rows = new LinkedList<>();
+            while (rset.next()) {
+                final Map<String, String> cols =
+                    new HashMap<>(meta.getColumnCount());
+                for (int idx = 1; idx <= meta.getColumnCount(); ++idx) {
+                    final String value = rset.getString(idx);
+                    if (value != null) {
+                        cols.put(
+                            meta.getColumnLabel(idx).toLowerCase(
+                                Locale.ENGLISH
+                            ),
+                            value
+                        );
+                    }
+                }
+                rows.add(new Row(cols));
+            }
+            return rows;
+        }
+    };
+
+    /**
+     * Values, by column names.
+     */
+    private final transient ArrayMap<String, String> cols;
+
+    /**
+     * Ctor.
+     * @param map Values, by column names
+     */
+    Row(final Map<String, String> map) {
+        this.cols = new ArrayMap<>(map);
+    }
+
+    /**
+     * Text value.
+     * @param col Column name
+     * @return Value or empty string if it's NULL
+     */
+    public String text(final String col) {
+        String text = "";
+        if (this.cols.containsKey(col)) {
+            text = this.cols.get(col);
+        }
+        return text;
+    }
+
+    /**
+     * Numeric value.
+     * @param col Column name
+     * @return Value or zero if it's NULL
+     */
+    public long number(final String col) {
+        long number = 0L;
+        if (this.cols.containsKey(col)) {
+            number = Long.parseLong(this.cols.get(col));
+        }
+        return number;
+    }
+
+    /**
+     * Boolean value.
+     * @param col Column name
+     * @return Value or FALSE if it's NULL
+     */
+    public boolean flag(final String col) {
+        return Boolean.parseBoolean(this.text(col));
+    }
+
+    /**
+     * Time, kept in milliseconds.
+     * @param col Column name
+     * @return Date
+     */
+    public Date date(final String col) {
+        return new Date(this.number(col));
+    }
+
+}
@@ -0,0 +1,81 @@
+/**
+ * Copyright (c) 2009-2016, netbout.com
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are PROHIBITED without prior written permission from
+ * the author. This product may NOT be used anywhere and on any computer
+ * except the server platform of netbout Inc. located at www.netbout.com.
+ * Federal copyright law prohibits unauthorized reproduction by any means
+ * and imposes fines up to $25,000 for violation. If you received
+ * this code accidentally and without intent to use it, please report this
+ * incident to the author by email.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS
+ * "AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT
+ * LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR
+ * A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT
+ * OWNER OR CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL,
+ * SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT
+ * LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE,
+ * DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON
+ * ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY,
+ * OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT
+ * OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF
+ * SUCH DAMAGE.
+ */
+package com.netbout.jdbc;
+
+import com.jcabi.jdbc.JdbcSession;
+import java.sql.Connection;
+import java.sql.SQLException;
+
+/**
+ * SQL transaction on a single connection.
+ *
+ * <p>The session commits and releases the connection itself; if it
+ * didn't get that far, {@link #rollback()} undoes whatever was executed.
+ *
+ * @author Yegor Bugayenko (yegor@teamed.io)
+ * @version $Id$
+ * @since 3.0
+ */
+final class Transaction {
+
+    /**
+     * Connection.
+     */
+    private final transient Connection conn;
+
+    /**
+     * Ctor.
+     * @param sql SQL data source
+     * @throws SQLException If fails
+     */
+    Transaction(final Sql sql) throws SQLException {
+        this.conn = sql.source().getConnection();
+    }
+
+    /**
+     * Session without auto-commit, working on this connection.
+     * @return Session
+     */
+    public JdbcSession session() {
+        return new JdbcSession(this.conn).autocommit(false);
+    }
+
+    /**
+     * Roll back and release the connection, unless already released.
+     * @throws SQLException If fails
+     */
+    public void rollback() throws SQLException {
+        if (!this.conn.isClosed()) {
+            try {
+                this.conn.rollback();
+            } finally {
+                this.conn.close();
+            }
+        }
+    }
+
+}
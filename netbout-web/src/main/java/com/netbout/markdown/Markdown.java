@@ -24,8 +24,9 @@
  * OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF
  * SUCH DAMAGE.
  */
-package com.netbout.rest;
+package com.netbout.markdown;
 
+import java.io.IOException;
 import javax.validation.constraints.NotNull;
 
 /**
@@ -46,10 +47,30 @@ public interface Markdown {
      */
     String html(@NotNull String txt);
 
+    /**
+     * Text already rendered to HTML, usually stored next to its source.
+     * @since 3.0
+     */
+    interface Rendered {
+        /**
+         * Get HTML, as {@link Markdown.Default} renders it now.
+         * @return The HTML
+         * @throws IOException If fails
+         */
+        String html() throws IOException;
+    }
+
     /**
      * Default implementation.
      */
     final class Default implements Markdown {
+        /**
+         * Version of the rendering, to be changed together with the
+         * processor, when the HTML it produces changes.
+         * @since 3.0
+         */
+        public static final String VERSION = "txtmark-2";
+
         /**
          * Markdown processor.
          */
@@ -59,7 +80,7 @@ public interface Markdown {
          * Ctor.
          */
         public Default() {
-            this.processor = new MarkdownTxtmark();
+            this.processor = new MarkdownSinglePass();
         }
 
         @Override
@@ -0,0 +1,381 @@
+/**
+ * Copyright (c) 2009-2016, netbout.com
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are PROHIBITED without prior written permission from
+ * the author. This product may NOT be used anywhere and on any computer
+ * except the server platform of netbout Inc. located at www.netbout.com.
+ * Federal copyright law prohibits unauthorized reproduction by any means
+ * and imposes fines up to $25,000 for violation. If you received
+ * this code accidentally and without intent to use it, please report this
+ * incident to the author by email.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS
+ * "AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT
+ * LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR
+ * A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT
+ * OWNER OR CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL,
+ * SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT
+ * LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE,
+ * DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON
+ * ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY,
+ * OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT
+ * OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF
+ * SUCH DAMAGE.
+ */
+package com.netbout.markdown;
+
+import com.github.rjeschke.txtmark.Configuration;
+import com.github.rjeschke.txtmark.Processor;
+import com.jcabi.aspects.Tv;
+import javax.validation.constraints.NotNull;
+
+/**
+ * Text with markdown formatting, prepared for TxtMark in a single pass.
+ *
+ * <p>The text is scanned once, char by char. Code spans and blocks, marked
+ * by one, two or three back ticks, are copied as is. In the rest of the
+ * text two spaces are added to the end of lines, which need a line break,
+ * and plain links are converted to Markdown links, unless they already
+ * are parts of Markdown links, references or HTML attributes. The result
+ * is built in a buffer, reused by the thread, rendered by TxtMark in safe
+ * mode and then code blocks are fixed in one more pass.
+ *
+ * <p>The result is the same as {@link MarkdownTxtmark} produces, except
+ * that links inside code are left intact, links inside Markdown links are
+ * never split, and unbalanced code markers may be paired differently.
+ *
+ * @author Yegor Bugayenko (yegor@teamed.io)
+ * @version $Id$
+ * @since 3.0
+ */
+public final class MarkdownSinglePass implements Markdown {
+
+    /**
+     * Configuration of TxtMark.
+     */
+    private static final Configuration CONFIG = Configuration.builder()
+        .enableSafeMode()
+        .build();
+
+    /**
+     * Code markers, by their lengths.
+     */
+    private static final String[] MARKERS = {"", "`", "``", "```"};
+
+    /**
+     * Buffer, reused by the thread.
+     */
+    private static final ThreadLocal<StringBuilder> BUFFER =
+        new ThreadLocal<StringBuilder>() {
+            @Override
+            protected StringBuilder initialValue() {
+                return new StringBuilder(0);
+            }
+        };
+
+    /**
+     * Maximum number of spaces, looked behind a link.
+     */
+    private static final int BEHIND = 256;
+
+    /**
+     * Code block start, as TxtMark renders it.
+     */
+    private static final String START = "<code>`";
+
+    /**
+     * Code block end, as TxtMark renders it.
+     */
+    private static final String END = "</code>`";
+
+    @Override
+    public String html(@NotNull final String txt) {
+        final StringBuilder buf = MarkdownSinglePass.BUFFER.get();
+        buf.setLength(0);
+        MarkdownSinglePass.prepare(txt, buf);
+        final String html = Processor.process(
+            buf.toString(), MarkdownSinglePass.CONFIG
+        );
+        buf.setLength(0);
+        return MarkdownSinglePass.fixed(html, buf);
+    }
+
+    /**
+     * Prepare the text for TxtMark.
+     * @param txt Text
+     * @param out Where to write
+     */
+    private static void prepare(final String txt, final StringBuilder out) {
+        final int len = txt.length();
+        int start = 0;
+        int pos = 0;
+        while (pos < len) {
+            if (txt.charAt(pos) == '`') {
+                MarkdownSinglePass.plain(txt, start, pos, out);
+                int ticks = 1;
+                while (ticks < MarkdownSinglePass.MARKERS.length - 1
+                    && pos + ticks < len && txt.charAt(pos + ticks) == '`') {
+                    ++ticks;
+                }
+                final String marker = MarkdownSinglePass.MARKERS[ticks];
+                final int end = txt.indexOf(marker, pos + ticks);
+                if (end < 0) {
+                    out.append(txt, pos, len).append(marker);
+                    pos = len;
+                } else {
+                    out.append(txt, pos, end + ticks);
+                    pos = end + ticks;
+                }
+                start = pos;
+            } else {
+                ++pos;
+            }
+        }
+        MarkdownSinglePass.plain(txt, start, len, out);
+    }
+
+    /**
+     * Prepare a fragment of text without code.
+     * @param txt Text
+     * @param from Start of the fragment
+     * @param upto End of the fragment, exclusive
+     * @param out Where to write
+     * @checkstyle ParameterNumberCheck (4 lines)
+     */
+    private static void plain(final String txt, final int from,
+        final int upto, final StringBuilder out) {
+        int line = from;
+        int pos = from;
+        while (pos < upto) {
+            final char chr = txt.charAt(pos);
+            if (MarkdownSinglePass.eol(chr)) {
+                if (MarkdownSinglePass.breaks(txt, line, pos)) {
+                    out.append("  ");
+                }
+                out.append(chr);
+                ++pos;
+                if (chr == '\r' && pos < upto && txt.charAt(pos) == '\n') {
+                    out.append('\n');
+                    ++pos;
+                }
+                line = pos;
+            } else if (chr == 'h') {
+                pos = MarkdownSinglePass.link(txt, pos, upto, out);
+            } else {
+                out.append(chr);
+                ++pos;
+            }
+        }
+    }
+
+    /**
+     * Copy a plain link, converting it to Markdown, or just one char.
+     * @param txt Text
+     * @param from Position of the link
+     * @param upto End of the fragment, exclusive
+     * @param out Where to write
+     * @return Position after the link
+     * @checkstyle ParameterNumberCheck (4 lines)
+     */
+    private static int link(final String txt, final int from,
+        final int upto, final StringBuilder out) {
+        int head = from;
+        if (txt.startsWith("http://", from)) {
+            head = from + "http://".length();
+        } else if (txt.startsWith("https://", from)) {
+            head = from + "https://".length();
+        }
+        int end = head;
+        if (head > from) {
+            while (end < upto && MarkdownSinglePass.inside(txt.charAt(end))) {
+                ++end;
+            }
+            while (end - head > 1
+                && !MarkdownSinglePass.last(txt.charAt(end - 1))) {
+                --end;
+            }
+        }
+        final int next;
+        if (end - head < 2) {
+            out.append(txt.charAt(from));
+            next = from + 1;
+        } else if (MarkdownSinglePass.marked(txt, from, end)) {
+            out.append(txt, from, end);
+            next = end;
+        } else {
+            out.append('[').append(txt, from, end)
+                .append("](").append(txt, from, end).append(')');
+            next = end;
+        }
+        return next;
+    }
+
+    /**
+     * The link is a part of Markdown or HTML already.
+     * @param txt Text
+     * @param from Position of the link
+     * @param end End of the link, exclusive
+     * @return TRUE if it is a target or a text of a Markdown link,
+     *  a reference or a value of an HTML attribute
+     */
+    private static boolean marked(final String txt, final int from,
+        final int end) {
+        final int target = MarkdownSinglePass.behind(txt, from - 2);
+        final int reference = MarkdownSinglePass.behind(txt, from - 1);
+        int ahead = end;
+        while (ahead < txt.length()
+            && MarkdownSinglePass.word(txt.charAt(ahead))) {
+            ++ahead;
+        }
+        return from > 0 && txt.charAt(from - 1) == '('
+            && target >= 0 && txt.charAt(target) == ']'
+            || reference > 0 && txt.charAt(reference) == ':'
+            && txt.charAt(reference - 1) == ']'
+            || txt.startsWith("](", ahead)
+            || from > 1 && txt.startsWith("=\"", from - 2);
+    }
+
+    /**
+     * Find the first char which is not a space, looking back.
+     * @param txt Text
+     * @param pos Position to start from
+     * @return Position of the char, negative if there is none
+     */
+    private static int behind(final String txt, final int pos) {
+        int back = pos;
+        while (back >= 0 && pos - back < MarkdownSinglePass.BEHIND
+            && MarkdownSinglePass.space(txt.charAt(back))) {
+            --back;
+        }
+        return back;
+    }
+
+    /**
+     * Fix code blocks marked with "```", as TxtMark renders them as
+     * code spans with back ticks around.
+     * @param html HTML made by TxtMark
+     * @param out Buffer to use
+     * @return Fixed HTML
+     */
+    private static String fixed(final String html, final StringBuilder out) {
+        final String result;
+        if (html.indexOf(MarkdownSinglePass.START) < 0
+            && html.indexOf(MarkdownSinglePass.END) < 0) {
+            result = html;
+        } else {
+            final int len = html.length();
+            int pos = 0;
+            while (pos < len) {
+                final int eol = MarkdownSinglePass.eol(html, pos);
+                if (html.startsWith(MarkdownSinglePass.START, pos)) {
+                    out.append("<pre><code>");
+                    pos += MarkdownSinglePass.START.length();
+                    pos += MarkdownSinglePass.eol(html, pos);
+                } else if (html.startsWith(MarkdownSinglePass.END, pos + eol)) {
+                    out.append("</code></pre>");
+                    pos += eol + MarkdownSinglePass.END.length();
+                } else {
+                    out.append(html.charAt(pos));
+                    ++pos;
+                }
+            }
+            result = out.toString();
+        }
+        return result;
+    }
+
+    /**
+     * The line needs a line break at its end.
+     *
+     * <p>It does, if it starts with less than four spaces and ends
+     * with less than two spaces. Otherwise, it is either a code block
+     * or TxtMark breaks it anyway.
+     *
+     * @param txt Text
+     * @param from Start of the line
+     * @param end End of the line, exclusive
+     * @return TRUE if a break is needed
+     */
+    private static boolean breaks(final String txt, final int from,
+        final int end) {
+        int first = from;
+        while (first < end && first - from < Tv.THREE
+            && txt.charAt(first) == ' ') {
+            ++first;
+        }
+        int last = end - 1;
+        if (last >= first && txt.charAt(last) == ' ') {
+            --last;
+        }
+        return last >= first && !MarkdownSinglePass.space(txt.charAt(first))
+            && !MarkdownSinglePass.space(txt.charAt(last));
+    }
+
+    /**
+     * Length of the end of line at the position.
+     * @param txt Text
+     * @param pos Position
+     * @return Length of it, zero if there is no end of line
+     */
+    private static int eol(final String txt, final int pos) {
+        int len = 0;
+        if (txt.startsWith("\r\n", pos)) {
+            len = 2;
+        } else if (pos < txt.length()
+            && (MarkdownSinglePass.eol(txt.charAt(pos))
+            || txt.charAt(pos) == '\u000B' || txt.charAt(pos) == '\f')) {
+            len = 1;
+        }
+        return len;
+    }
+
+    /**
+     * It is an end of line.
+     * @param chr Char
+     * @return TRUE if so
+     */
+    private static boolean eol(final char chr) {
+        return chr == '\n' || chr == '\r';
+    }
+
+    /**
+     * It is a white space.
+     * @param chr Char
+     * @return TRUE if so
+     */
+    private static boolean space(final char chr) {
+        return chr == ' ' || chr == '\t' || chr == '\n'
+            || chr == '\u000B' || chr == '\f' || chr == '\r';
+    }
+
+    /**
+     * It is a char of a word or a dot.
+     * @param chr Char
+     * @return TRUE if so
+     */
+    private static boolean word(final char chr) {
+        return chr >= 'a' && chr <= 'z' || chr >= 'A' && chr <= 'Z'
+            || chr >= '0' && chr <= '9' || chr == '_' || chr == '.';
+    }
+
+    /**
+     * It can be inside a link.
+     * @param chr Char
+     * @return TRUE if so
+     */
+    private static boolean inside(final char chr) {
+        return MarkdownSinglePass.last(chr) || ".:?!,;".indexOf(chr) >= 0;
+    }
+
+    /**
+     * It can be the last char of a link.
+     * @param chr Char
+     * @return TRUE if so
+     */
+    private static boolean last(final char chr) {
+        return chr >= 'a' && chr <= 'z' || chr >= 'A' && chr <= 'Z'
+            || chr >= '0' && chr <= '9' || "-_~#@$&'*+=%/".indexOf(chr) >= 0;
+    }
+}
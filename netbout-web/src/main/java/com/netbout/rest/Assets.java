@@ -0,0 +1,348 @@
+/**
+ * Copyright (c) 2009-2016, netbout.com
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are PROHIBITED without prior written permission from
+ * the author. This product may NOT be used anywhere and on any computer
+ * except the server platform of netbout Inc. located at www.netbout.com.
+ * Federal copyright law prohibits unauthorized reproduction by any means
+ * and imposes fines up to $25,000 for violation. If you received
+ * this code accidentally and without intent to use it, please report this
+ * incident to the author by email.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS
+ * "AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT
+ * LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR
+ * A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT
+ * OWNER OR CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL,
+ * SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT
+ * LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE,
+ * DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON
+ * ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY,
+ * OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT
+ * OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF
+ * SUCH DAMAGE.
+ */
+package com.netbout.rest;
+
+import com.jcabi.log.Logger;
+import com.jcabi.manifests.Manifests;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.URISyntaxException;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.jar.JarEntry;
+import java.util.jar.JarFile;
+import java.util.regex.Pattern;
+import java.util.zip.GZIPOutputStream;
+import lombok.EqualsAndHashCode;
+import lombok.ToString;
+import org.apache.commons.codec.digest.DigestUtils;
+import org.apache.commons.io.FileUtils;
+import org.apache.commons.io.IOUtils;
+import org.xembly.Directive;
+import org.xembly.Directives;
+
+/**
+ * Static assets, in memory.
+ *
+ * <p>Every asset is available by its name, like {@code /js/bout.js},
+ * and by its fingerprinted name, with a hash of its content inside,
+ * like {@code /js/bout.5d41402abc.js}. The content of the latter never
+ * changes, that's why it may be cached forever. Pages refer to scripts
+ * and stylesheets by fingerprinted names, which they find in
+ * {@link #toXembly()}. Every asset is compressed in advance, if it
+ * makes it smaller.
+ *
+ * <p>The class is thread-safe.
+ *
+ * @author Yegor Bugayenko (yegor@teamed.io)
+ * @version $Id$
+ * @since 3.0
+ */
+@ToString(of = "assets")
+@EqualsAndHashCode(of = "assets")
+final class Assets {
+
+    /**
+     * Are we in development mode, where assets are re-generated on the fly
+     * and served from disk?
+     */
+    static final boolean DEV =
+        Manifests.read("Netbout-Version").contains("LOCAL");
+
+    /**
+     * Assets of the application, loaded from its classpath at startup,
+     * or none in development mode.
+     */
+    static final Assets SHARED = Assets.load();
+
+    /**
+     * Directories with assets.
+     */
+    private static final Pattern DIRS =
+        Pattern.compile("(xsl|js|css|lang)/[a-zA-Z0-9_\\-./]+\\.[a-z]+");
+
+    /**
+     * Assets referred to by pages.
+     */
+    private static final Pattern LINKED = Pattern.compile("/(js|css)/.+");
+
+    /**
+     * Length of fingerprints, in hex digits.
+     */
+    private static final int PRINT = 10;
+
+    /**
+     * Assets, by names.
+     */
+    private final transient Map<String, Assets.Asset> assets;
+
+    /**
+     * Assets, by fingerprinted names.
+     */
+    private final transient Map<String, Assets.Asset> prints;
+
+    /**
+     * Ctor.
+     * @param files Contents of files, by names, like "/js/bout.js"
+     * @throws IOException If fails
+     */
+    Assets(final Map<String, byte[]> files) throws IOException {
+        this.assets = new TreeMap<>();
+        this.prints = new HashMap<>(files.size());
+        for (final Map.Entry<String, byte[]> file : files.entrySet()) {
+            final Assets.Asset asset = new Assets.Asset(
+                file.getKey(), file.getValue()
+            );
+            this.assets.put(asset.name(), asset);
+            this.prints.put(asset.href(), asset);
+        }
+    }
+
+    /**
+     * Find the asset by its name or fingerprinted name.
+     * @param path Path from the URI
+     * @return Asset or NULL if not found
+     */
+    public Assets.Asset find(final String path) {
+        Assets.Asset asset = this.prints.get(path);
+        if (asset == null) {
+            asset = this.assets.get(path);
+        }
+        return asset;
+    }
+
+    /**
+     * Fingerprinted names of scripts and stylesheets, for pages.
+     * @return Xembly directives
+     */
+    public Iterable<Directive> toXembly() {
+        final Directives dirs = new Directives().add("assets");
+        for (final Assets.Asset asset : this.assets.values()) {
+            if (Assets.LINKED.matcher(asset.name()).matches()) {
+                dirs.add("asset")
+                    .attr("name", asset.name())
+                    .attr("href", asset.href())
+                    .up();
+            }
+        }
+        return dirs.up();
+    }
+
+    /**
+     * Load assets of the application.
+     * @return Assets
+     */
+    private static Assets load() {
+        try {
+            final Map<String, byte[]> files;
+            if (Assets.DEV) {
+                files = Collections.emptyMap();
+            } else {
+                files = Assets.classpath();
+            }
+            Logger.info(Assets.class, "%d assets loaded", files.size());
+            return new Assets(files);
+        } catch (final IOException ex) {
+            throw new IllegalStateException(ex);
+        }
+    }
+
+    /**
+     * Read all assets from the JAR or the directory, where our classes are.
+     * @return Contents of files, by names
+     * @throws IOException If fails
+     */
+    private static Map<String, byte[]> classpath() throws IOException {
+        final File root;
+        try {
+            root = new File(
+                Assets.class.getProtectionDomain().getCodeSource()
+                    .getLocation().toURI()
+            );
+        } catch (final URISyntaxException ex) {
+            throw new IOException(ex);
+        }
+        final Map<String, byte[]> files = new HashMap<>(0);
+        if (root.isDirectory()) {
+            for (final File file : FileUtils.listFiles(root, null, true)) {
+                final String name = root.toURI().relativize(file.toURI())
+                    .getPath();
+                if (Assets.DIRS.matcher(name).matches()) {
+                    files.put(
+                        String.format("/%s", name),
+                        FileUtils.readFileToByteArray(file)
+                    );
+                }
+            }
+        } else {
+            try (final JarFile jar = new JarFile(root)) {
+                for (final JarEntry entry : Collections.list(jar.entries())) {
+                    if (!entry.isDirectory()
+                        && Assets.DIRS.matcher(entry.getName()).matches()) {
+                        files.put(
+                            String.format("/%s", entry.getName()),
+                            IOUtils.toByteArray(jar.getInputStream(entry))
+                        );
+                    }
+                }
+            }
+        }
+        return files;
+    }
+
+    /**
+     * Asset.
+     */
+    @ToString(of = "label")
+    @EqualsAndHashCode(of = "label")
+    static final class Asset {
+        /**
+         * Name, like "/js/bout.js".
+         */
+        private final transient String label;
+        /**
+         * Content.
+         */
+        private final transient byte[] content;
+        /**
+         * Compressed content or NULL, if compression doesn't help.
+         */
+        private final transient byte[] zipped;
+        /**
+         * Hash of the content, in hex.
+         */
+        private final transient String hash;
+        /**
+         * Ctor.
+         * @param name Name
+         * @param data Content
+         * @throws IOException If fails
+         */
+        Asset(final String name, final byte[] data) throws IOException {
+            this.label = name;
+            this.content = data.clone();
+            this.hash = DigestUtils.md5Hex(data);
+            final byte[] gzip = Asset.gzip(data);
+            if (gzip.length < data.length) {
+                this.zipped = gzip;
+            } else {
+                this.zipped = null;
+            }
+        }
+        /**
+         * Name.
+         * @return Name, like "/js/bout.js"
+         */
+        public String name() {
+            return this.label;
+        }
+        /**
+         * Fingerprinted name.
+         * @return Name, like "/js/bout.5d41402abc.js"
+         */
+        public String href() {
+            final int dot = this.label.lastIndexOf('.');
+            return String.format(
+                "%s.%s%s", this.label.substring(0, dot),
+                this.hash.substring(0, Assets.PRINT),
+                this.label.substring(dot)
+            );
+        }
+        /**
+         * Entity tag of the representation.
+         * @param compressed Compressed content is acceptable
+         * @return Quoted hash of the content, with "-gz" suffix if the
+         *  content is compressed, since the bytes differ
+         */
+        public String etag(final boolean compressed) {
+            final String tag;
+            if (compressed && this.zipped != null) {
+                tag = String.format("\"%s-gz\"", this.hash);
+            } else {
+                tag = String.format("\"%s\"", this.hash);
+            }
+            return tag;
+        }
+        /**
+         * Content, read right from memory, without a copy.
+         * @param compressed Compressed content is acceptable
+         * @return Content, compressed if asked and if it makes sense
+         */
+        public InputStream body(final boolean compressed) {
+            return new ByteArrayInputStream(this.bytes(compressed));
+        }
+        /**
+         * Length of the content.
+         * @param compressed Compressed content is acceptable
+         * @return Length of {@link #body(boolean)}, in bytes
+         */
+        public int length(final boolean compressed) {
+            return this.bytes(compressed).length;
+        }
+        /**
+         * Is the content compressed, if it's acceptable?
+         * @return TRUE if {@link #body(boolean)} compresses
+         */
+        public boolean compressible() {
+            return this.zipped != null;
+        }
+        /**
+         * Bytes of the content, not to be modified.
+         * @param compressed Compressed content is acceptable
+         * @return Content, compressed if asked and if it makes sense
+         */
+        private byte[] bytes(final boolean compressed) {
+            final byte[] bytes;
+            if (compressed && this.zipped != null) {
+                bytes = this.zipped;
+            } else {
+                bytes = this.content;
+            }
+            return bytes;
+        }
+        /**
+         * Compress.
+         * @param data Content
+         * @return Compressed content
+         * @throws IOException If fails
+         */
+        private static byte[] gzip(final byte[] data) throws IOException {
+            final ByteArrayOutputStream baos = new ByteArrayOutputStream();
+            try (final OutputStream out = new GZIPOutputStream(baos)) {
+                out.write(data);
+            }
+            return baos.toByteArray();
+        }
+    }
+
+}
@@ -0,0 +1,155 @@
+/**
+ * Copyright (c) 2009-2016, netbout.com
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are PROHIBITED without prior written permission from
+ * the author. This product may NOT be used anywhere and on any computer
+ * except the server platform of netbout Inc. located at www.netbout.com.
+ * Federal copyright law prohibits unauthorized reproduction by any means
+ * and imposes fines up to $25,000 for violation. If you received
+ * this code accidentally and without intent to use it, please report this
+ * incident to the author by email.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS
+ * "AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT
+ * LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR
+ * A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT
+ * OWNER OR CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL,
+ * SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT
+ * LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE,
+ * DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON
+ * ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY,
+ * OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT
+ * OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF
+ * SUCH DAMAGE.
+ */
+package com.netbout.rest;
+
+import com.google.common.net.HttpHeaders;
+import com.jcabi.manifests.Manifests;
+import java.io.IOException;
+import java.net.HttpURLConnection;
+import lombok.EqualsAndHashCode;
+import org.apache.commons.codec.digest.DigestUtils;
+import org.apache.commons.lang3.StringUtils;
+import org.takes.Request;
+import org.takes.Response;
+import org.takes.facets.flash.RsFlash;
+import org.takes.rq.RqCookies;
+import org.takes.rq.RqHeaders;
+import org.takes.rq.RqHref;
+import org.takes.rs.RsWithHeaders;
+import org.takes.rs.RsWithStatus;
+
+/**
+ * Entity tag of a page, for conditional GET.
+ *
+ * <p>The tag is a hash of the parts given, which must change every time
+ * the page changes, together with the URI of the page, the headers that
+ * select its representation and the revision of the application. If
+ * the client has the page with the same tag already, it gets an empty
+ * "304 Not Modified" and the page is not even built. A page with a flash
+ * message is never unchanged, since the message must be shown.
+ *
+ * @author Yegor Bugayenko (yegor@teamed.io)
+ * @version $Id$
+ * @since 3.0
+ */
+@EqualsAndHashCode(of = { "request", "tag" })
+public final class Etag {
+
+    /**
+     * Request.
+     */
+    private final transient Request request;
+
+    /**
+     * The tag, in quotes.
+     */
+    private final transient String tag;
+
+    /**
+     * Ctor.
+     * @param req Request
+     * @param parts Parts of the page, which change when it changes
+     * @throws IOException If fails
+     */
+    public Etag(final Request req, final Object... parts)
+        throws IOException {
+        this.request = req;
+        this.tag = Etag.make(req, parts);
+    }
+
+    /**
+     * The client has this very page already.
+     * @return TRUE if it does
+     * @throws IOException If fails
+     */
+    public boolean unchanged() throws IOException {
+        boolean same = false;
+        for (final String header : new RqHeaders.Base(this.request)
+            .header(HttpHeaders.IF_NONE_MATCH)) {
+            for (final String value : header.split(",")) {
+                final String etag = StringUtils.removeStart(
+                    value.trim(), "W/"
+                );
+                if ("*".equals(etag) || this.tag.equals(etag)) {
+                    same = true;
+                }
+            }
+        }
+        return same && !new RqCookies.Base(this.request)
+            .cookie(RsFlash.class.getSimpleName()).iterator().hasNext();
+    }
+
+    /**
+     * Empty response, telling that the page is not modified.
+     * @return Response
+     */
+    public Response unmodified() {
+        return this.tagged(
+            new RsWithStatus(HttpURLConnection.HTTP_NOT_MODIFIED)
+        );
+    }
+
+    /**
+     * Page with the tag.
+     * @param page The page
+     * @return Response
+     */
+    public Response tagged(final Response page) {
+        return new RsWithHeaders(
+            page,
+            String.format("%s: %s", HttpHeaders.ETAG, this.tag),
+            String.format("%s: private, no-cache", HttpHeaders.CACHE_CONTROL)
+        );
+    }
+
+    /**
+     * Make the tag.
+     * @param req Request
+     * @param parts Parts of the page
+     * @return The tag, in quotes
+     * @throws IOException If fails
+     */
+    private static String make(final Request req, final Object... parts)
+        throws IOException {
+        final RqHeaders hdrs = new RqHeaders.Base(req);
+        final StringBuilder text = new StringBuilder(0)
+            .append(new RqHref.Base(req).href())
+            .append('\n')
+            .append(StringUtils.join(hdrs.header(HttpHeaders.ACCEPT), ','))
+            .append('\n')
+            .append(
+                StringUtils.join(hdrs.header(HttpHeaders.USER_AGENT), ',')
+            )
+            .append('\n')
+            .append(Manifests.read("Netbout-Revision"));
+        for (final Object part : parts) {
+            text.append('\n').append(part);
+        }
+        return String.format("\"%s\"", DigestUtils.md5Hex(text.toString()));
+    }
+
+}
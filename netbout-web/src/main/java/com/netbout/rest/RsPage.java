@@ -26,6 +26,7 @@
  */
 package com.netbout.rest;
 
+import com.jcabi.manifests.Manifests;
 import com.netbout.spi.Base;
 import java.io.IOException;
 import java.util.Iterator;
@@ -40,7 +41,6 @@ import org.takes.rq.RqHeaders;
 import org.takes.rs.RsPrettyXML;
 import org.takes.rs.RsWithType;
 import org.takes.rs.RsWrap;
-import org.takes.rs.RsXSLT;
 import org.takes.rs.xe.RsXembly;
 import org.takes.rs.xe.XeSource;
 import org.takes.rs.xe.XeStylesheet;
@@ -56,6 +56,18 @@ import org.takes.rs.xe.XeStylesheet;
 @EqualsAndHashCode(callSuper = true)
 public final class RsPage extends RsWrap {
 
+    /**
+     * Are we in development mode?
+     */
+    private static final boolean DEV =
+        Manifests.read("Netbout-Version").contains("LOCAL");
+
+    /**
+     * Compiled stylesheets, re-compiled on every request in development,
+     * since they are re-generated on the fly there.
+     */
+    private static final Stylesheets SHEETS = new Stylesheets(!RsPage.DEV);
+
     /**
      * Ctor.
      * @param xsl XSL
@@ -87,36 +99,38 @@ public final class RsPage extends RsWrap {
             new XePage(base, req, src)
         );
         final Response raw = new RsWithType(xbl, "text/xml");
-        return new RsPrettyXML(
-            new RsFork(
-                req,
-                new Fork() {
-                    @Override
-                    public Opt<Response> route(final Request rst)
-                        throws IOException {
-                        final RqHeaders hdr = new RqHeaders.Base(rst);
-                        final Iterator<String> agent =
-                            hdr.header("User-Agent").iterator();
-                        final Opt<Response> opt;
-                        if (agent.hasNext()
-                            && agent.next().contains("Firefox")) {
-                            // @checkstyle MultipleStringLiteralsCheck (3 line)
-                            opt = new Opt.Single<Response>(
-                                new RsXSLT(new RsWithType(raw, "text/html"))
-                            );
-                        } else {
-                            opt = new Opt.Empty<>();
-                        }
-                        return opt;
+        final Response html = new RsXsl(
+            RsPage.SHEETS, xsl, new RsWithType(raw, "text/html")
+        );
+        final Response page = new RsFork(
+            req,
+            new Fork() {
+                @Override
+                public Opt<Response> route(final Request rst)
+                    throws IOException {
+                    final RqHeaders hdr = new RqHeaders.Base(rst);
+                    final Iterator<String> agent =
+                        hdr.header("User-Agent").iterator();
+                    final Opt<Response> opt;
+                    if (agent.hasNext()
+                        && agent.next().contains("Firefox")) {
+                        opt = new Opt.Single<Response>(html);
+                    } else {
+                        opt = new Opt.Empty<>();
                     }
-                },
-                new FkTypes("application/xml,text/xml", raw),
-                new FkTypes(
-                    "*/*",
-                    new RsXSLT(new RsWithType(raw, "text/html"))
-                )
-            )
+                    return opt;
+                }
+            },
+            new FkTypes("application/xml,text/xml", raw),
+            new FkTypes("*/*", html)
         );
+        final Response response;
+        if (RsPage.DEV) {
+            response = new RsPrettyXML(page);
+        } else {
+            response = page;
+        }
+        return response;
     }
 
 }
@@ -0,0 +1,95 @@
+/**
+ * Copyright (c) 2009-2016, netbout.com
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are PROHIBITED without prior written permission from
+ * the author. This product may NOT be used anywhere and on any computer
+ * except the server platform of netbout Inc. located at www.netbout.com.
+ * Federal copyright law prohibits unauthorized reproduction by any means
+ * and imposes fines up to $25,000 for violation. If you received
+ * this code accidentally and without intent to use it, please report this
+ * incident to the author by email.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS
+ * "AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT
+ * LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR
+ * A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT
+ * OWNER OR CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL,
+ * SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT
+ * LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE,
+ * DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON
+ * ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY,
+ * OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT
+ * OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF
+ * SUCH DAMAGE.
+ */
+package com.netbout.rest;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import lombok.EqualsAndHashCode;
+import org.takes.Response;
+
+/**
+ * Response transformed server-side by a compiled XSL stylesheet.
+ *
+ * <p>Unlike {@link org.takes.rs.RsXSLT} it doesn't look for the stylesheet
+ * in the XML and doesn't compile it on every request, but takes
+ * it from {@link Stylesheets}. The XML is read by the transformer right
+ * from the body of the origin response, without an intermediate string.
+ *
+ * @author Yegor Bugayenko (yegor@teamed.io)
+ * @version $Id$
+ * @since 3.0
+ */
+@EqualsAndHashCode(of = { "sheets", "xsl", "origin" })
+final class RsXsl implements Response {
+
+    /**
+     * Stylesheets.
+     */
+    private final transient Stylesheets sheets;
+
+    /**
+     * Path of the stylesheet.
+     */
+    private final transient String xsl;
+
+    /**
+     * Original response with XML.
+     */
+    private final transient Response origin;
+
+    /**
+     * Ctor.
+     * @param shts Stylesheets
+     * @param path Path of the stylesheet in classpath
+     * @param res Original response with XML
+     */
+    RsXsl(final Stylesheets shts, final String path, final Response res) {
+        this.sheets = shts;
+        this.xsl = path;
+        this.origin = res;
+    }
+
+    @Override
+    public Iterable<String> head() throws IOException {
+        return this.origin.head();
+    }
+
+    @Override
+    public InputStream body() throws IOException {
+        final ByteArrayOutputStream baos = new ByteArrayOutputStream();
+        final InputStream xml = this.origin.body();
+        try {
+            this.sheets.transform(this.xsl, xml, baos);
+        } finally {
+            xml.close();
+        }
+        return new ByteArrayInputStream(baos.toByteArray());
+    }
+
+}
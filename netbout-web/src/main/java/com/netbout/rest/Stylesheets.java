@@ -0,0 +1,249 @@
+/**
+ * Copyright (c) 2009-2016, netbout.com
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are PROHIBITED without prior written permission from
+ * the author. This product may NOT be used anywhere and on any computer
+ * except the server platform of netbout Inc. located at www.netbout.com.
+ * Federal copyright law prohibits unauthorized reproduction by any means
+ * and imposes fines up to $25,000 for violation. If you received
+ * this code accidentally and without intent to use it, please report this
+ * incident to the author by email.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS
+ * "AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT
+ * LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR
+ * A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT
+ * OWNER OR CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL,
+ * SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT
+ * LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE,
+ * DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON
+ * ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY,
+ * OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT
+ * OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF
+ * SUCH DAMAGE.
+ */
+package com.netbout.rest;
+
+import com.jcabi.log.Logger;
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.URI;
+import java.net.URISyntaxException;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import javax.xml.transform.Source;
+import javax.xml.transform.Templates;
+import javax.xml.transform.Transformer;
+import javax.xml.transform.TransformerException;
+import javax.xml.transform.TransformerFactory;
+import javax.xml.transform.URIResolver;
+import javax.xml.transform.stream.StreamResult;
+import javax.xml.transform.stream.StreamSource;
+import lombok.EqualsAndHashCode;
+import lombok.ToString;
+import org.apache.commons.io.IOUtils;
+
+/**
+ * Compiled XSL stylesheets from the classpath.
+ *
+ * <p>Every stylesheet is parsed and compiled into {@link Templates} only
+ * once, and every thread keeps its own {@link Transformer} for it, which
+ * is reset after each transformation. When caching is off (in development,
+ * where stylesheets are re-generated on the fly) they are compiled on
+ * every call.
+ *
+ * <p>The class is thread-safe.
+ *
+ * @author Yegor Bugayenko (yegor@teamed.io)
+ * @version $Id$
+ * @since 3.0
+ */
+@ToString(of = "cache")
+@EqualsAndHashCode(of = "cache")
+final class Stylesheets {
+
+    /**
+     * Compiled stylesheets, by their paths.
+     */
+    private final transient ConcurrentMap<String, Templates> templates;
+
+    /**
+     * Transformers of the current thread, by paths of stylesheets.
+     */
+    private final transient ThreadLocal<Map<String, Transformer>> pool;
+
+    /**
+     * Keep compiled stylesheets?
+     */
+    private final transient boolean cache;
+
+    /**
+     * Ctor.
+     * @param cch Keep compiled stylesheets between calls
+     */
+    Stylesheets(final boolean cch) {
+        this.templates = new ConcurrentHashMap<>(0);
+        this.pool = new ThreadLocal<Map<String, Transformer>>() {
+            @Override
+            protected Map<String, Transformer> initialValue() {
+                return new HashMap<>(0);
+            }
+        };
+        this.cache = cch;
+    }
+
+    /**
+     * Transform XML with a stylesheet, writing the result to the stream.
+     * @param xsl Path of the stylesheet in classpath, e.g. "/xsl/inbox.xsl"
+     * @param xml XML to transform
+     * @param output Where to write the result
+     * @throws IOException If fails
+     */
+    public void transform(final String xsl, final InputStream xml,
+        final OutputStream output) throws IOException {
+        final Transformer transformer = this.transformer(xsl);
+        try {
+            transformer.transform(
+                new StreamSource(xml), new StreamResult(output)
+            );
+        } catch (final TransformerException ex) {
+            throw new IOException(
+                String.format("failed to transform with %s", xsl), ex
+            );
+        } finally {
+            transformer.reset();
+        }
+    }
+
+    /**
+     * Transformer of the current thread for the stylesheet.
+     * @param xsl Path of the stylesheet
+     * @return Transformer
+     * @throws IOException If fails
+     */
+    private Transformer transformer(final String xsl) throws IOException {
+        Transformer transformer;
+        if (this.cache) {
+            final Map<String, Transformer> mine = this.pool.get();
+            transformer = mine.get(xsl);
+            if (transformer == null) {
+                transformer = Stylesheets.create(this.compiled(xsl));
+                mine.put(xsl, transformer);
+            }
+        } else {
+            transformer = Stylesheets.create(Stylesheets.compile(xsl));
+        }
+        return transformer;
+    }
+
+    /**
+     * Compiled stylesheet, from cache if possible.
+     * @param xsl Path of the stylesheet
+     * @return Templates
+     * @throws IOException If fails
+     */
+    private Templates compiled(final String xsl) throws IOException {
+        Templates tpl = this.templates.get(xsl);
+        if (tpl == null) {
+            tpl = Stylesheets.compile(xsl);
+            final Templates before = this.templates.putIfAbsent(xsl, tpl);
+            if (before != null) {
+                tpl = before;
+            }
+        }
+        return tpl;
+    }
+
+    /**
+     * Create new transformer.
+     * @param tpl Templates
+     * @return Transformer
+     * @throws IOException If fails
+     */
+    private static Transformer create(final Templates tpl)
+        throws IOException {
+        try {
+            final Transformer transformer = tpl.newTransformer();
+            transformer.setURIResolver(new Stylesheets.Resolver());
+            return transformer;
+        } catch (final TransformerException ex) {
+            throw new IOException(ex);
+        }
+    }
+
+    /**
+     * Parse and compile the stylesheet.
+     * @param xsl Path of the stylesheet
+     * @return Templates
+     * @throws IOException If fails
+     */
+    private static Templates compile(final String xsl) throws IOException {
+        final long start = System.currentTimeMillis();
+        final TransformerFactory factory = TransformerFactory.newInstance();
+        factory.setURIResolver(new Stylesheets.Resolver());
+        try {
+            final Templates tpl = factory.newTemplates(
+                new Stylesheets.Resolver().resolve(xsl, null)
+            );
+            Logger.info(
+                Stylesheets.class, "%s compiled in %[ms]s",
+                xsl, System.currentTimeMillis() - start
+            );
+            return tpl;
+        } catch (final TransformerException ex) {
+            throw new IOException(
+                String.format("failed to compile %s", xsl), ex
+            );
+        }
+    }
+
+    /**
+     * Resolver of stylesheets and documents in classpath.
+     */
+    private static final class Resolver implements URIResolver {
+        @Override
+        public Source resolve(final String href, final String base)
+            throws TransformerException {
+            final URI uri;
+            try {
+                uri = new URI(href);
+            } catch (final URISyntaxException ex) {
+                throw new TransformerException(ex);
+            }
+            final InputStream input;
+            try {
+                if (uri.isAbsolute()) {
+                    input = uri.toURL().openStream();
+                } else {
+                    input = Stylesheets.class.getResourceAsStream(
+                        uri.getPath()
+                    );
+                }
+            } catch (final IOException ex) {
+                throw new TransformerException(ex);
+            }
+            if (input == null) {
+                throw new TransformerException(
+                    String.format("%s not found in classpath", href)
+                );
+            }
+            try {
+                return new StreamSource(
+                    new ByteArrayInputStream(IOUtils.toByteArray(input)),
+                    href
+                );
+            } catch (final IOException ex) {
+                throw new TransformerException(ex);
+            } finally {
+                IOUtils.closeQuietly(input);
+            }
+        }
+    }
+
+}
@@ -137,9 +137,11 @@ public final class TkApp extends TkWrap {
         return new TkWithHeaders(
             new TkVersioned(
                 new TkMeasured(
-                    new TkFlash(
-                        new TkAppFallback(
-                            new TkForward(auth)
+                    new TkDynamo(
+                        new TkFlash(
+                            new TkAppFallback(
+                                new TkForward(auth)
+                            )
                         )
                     )
                 )
@@ -163,41 +165,7 @@ public final class TkApp extends TkWrap {
                 new TkRedirect()
             ),
             new FkRegex("/robots.txt", ""),
-            new FkRegex(
-                "/xsl/[a-z\\-]+\\.xsl",
-                new TkWithType(
-                    TkApp.refresh("./netbout-web/src/main/xsl"),
-                    "text/xsl"
-                )
-            ),
-            new FkRegex(
-                "/js/[a-z]+\\.js",
-                new TkWithType(
-                    TkApp.refresh("./netbout-web/src/main/js"),
-                    "text/javascript"
-                )
-            ),
-            new FkRegex(
-                "/js/thridparty/[a-z.]+\\.(js|map)",
-                new TkWithType(
-                    TkApp.refresh("./netbout-web/src/main/js/thridparty"),
-                    "text/javascript"
-                )
-            ),
-            new FkRegex(
-                "/css/[a-z]+\\.css",
-                new TkWithType(
-                    TkApp.refresh("./netbout-web/src/main/scss"),
-                    "text/css"
-                )
-            ),
-            new FkRegex(
-                "/lang/[a-z]+\\.xml",
-                new TkWithType(
-                    TkApp.refresh("./netbout-web/src/main/resources/lang"),
-                    "text/xml"
-                )
-            ),
+            new FkRegex("/(xsl|js|css|lang)/.+", TkApp.assets()),
             new FkRegex("/favicon.ico", new TkFavicon()),
             new FkRegex("/emverify/(.*)", new TkEmVerify(base)),
             new FkAnonymous(
@@ -219,6 +187,8 @@ public final class TkApp extends TkWrap {
             ),
             new FkAuthenticated(
                 new TkFork(
+                    new FkRegex("/cache", new TkCache()),
+                    new FkRegex("/dynamo", new TkThroughput()),
                     new FkRegistered(
                         base,
                         new TkWithAliasHeader(
@@ -249,6 +219,57 @@ public final class TkApp extends TkWrap {
         );
     }
 
+    /**
+     * Static assets, from memory, or from disk in development mode.
+     * @return Take
+     * @throws IOException If fails
+     */
+    private static Take assets() throws IOException {
+        final Take take;
+        if (Assets.DEV) {
+            take = new TkFork(
+                new FkRegex(
+                    "/xsl/[a-z\\-]+\\.xsl",
+                    new TkWithType(
+                        TkApp.refresh("./netbout-web/src/main/xsl"),
+                        "text/xsl"
+                    )
+                ),
+                new FkRegex(
+                    "/js/[a-z]+\\.js",
+                    new TkWithType(
+                        TkApp.refresh("./netbout-web/src/main/js"),
+                        "text/javascript"
+                    )
+                ),
+                new FkRegex(
+                    "/js/thridparty/[a-z.]+\\.(js|map)",
+                    new TkWithType(
+                        TkApp.refresh("./netbout-web/src/main/js/thridparty"),
+                        "text/javascript"
+                    )
+                ),
+                new FkRegex(
+                    "/css/[a-z]+\\.css",
+                    new TkWithType(
+                        TkApp.refresh("./netbout-web/src/main/scss"),
+                        "text/css"
+                    )
+                ),
+                new FkRegex(
+                    "/lang/[a-z]+\\.xml",
+                    new TkWithType(
+                        TkApp.refresh("./netbout-web/src/main/resources/lang"),
+                        "text/xml"
+                    )
+                )
+            );
+        } else {
+            take = new TkAssets(Assets.SHARED);
+        }
+        return take;
+    }
+
     /**
      * Hit refresh fork.
      * @param path Path of files
@@ -0,0 +1,194 @@
+/**
+ * Copyright (c) 2009-2016, netbout.com
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are PROHIBITED without prior written permission from
+ * the author. This product may NOT be used anywhere and on any computer
+ * except the server platform of netbout Inc. located at www.netbout.com.
+ * Federal copyright law prohibits unauthorized reproduction by any means
+ * and imposes fines up to $25,000 for violation. If you received
+ * this code accidentally and without intent to use it, please report this
+ * incident to the author by email.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS
+ * "AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT
+ * LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR
+ * A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT
+ * OWNER OR CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL,
+ * SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT
+ * LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE,
+ * DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON
+ * ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY,
+ * OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT
+ * OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF
+ * SUCH DAMAGE.
+ */
+package com.netbout.rest;
+
+import com.google.common.net.HttpHeaders;
+import java.io.IOException;
+import java.net.HttpURLConnection;
+import java.net.URI;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Locale;
+import org.takes.HttpException;
+import org.takes.Request;
+import org.takes.Response;
+import org.takes.Take;
+import org.takes.rq.RqHeaders;
+import org.takes.rq.RqHref;
+import org.takes.rs.RsWithBody;
+import org.takes.rs.RsWithHeaders;
+import org.takes.rs.RsWithStatus;
+import org.takes.rs.RsWithType;
+
+/**
+ * Static assets, from memory.
+ *
+ * <p>Assets requested by fingerprinted names are cached by browsers
+ * and proxies forever, the others are revalidated by their entity tags
+ * on every use. Compressed content is sent to clients that accept it.
+ *
+ * @author Yegor Bugayenko (yegor@teamed.io)
+ * @version $Id$
+ * @since 3.0
+ */
+final class TkAssets implements Take {
+
+    /**
+     * Cache control of assets requested by fingerprinted names.
+     */
+    private static final String FOREVER =
+        "public, max-age=31536000, immutable";
+
+    /**
+     * Assets.
+     */
+    private final transient Assets assets;
+
+    /**
+     * Ctor.
+     * @param all Assets
+     */
+    TkAssets(final Assets all) {
+        this.assets = all;
+    }
+
+    @Override
+    public Response act(final Request req) throws IOException {
+        final String path = URI.create(
+            new RqHref.Base(req).href().toString()
+        ).getPath();
+        final Assets.Asset asset = this.assets.find(path);
+        if (asset == null) {
+            throw new HttpException(
+                HttpURLConnection.HTTP_NOT_FOUND,
+                String.format("asset %s not found", path)
+            );
+        }
+        final boolean gzip = asset.compressible() && TkAssets.gzip(req);
+        final String etag = asset.etag(gzip);
+        final Collection<String> headers = new ArrayList<>(2);
+        headers.add(String.format("%s: %s", HttpHeaders.ETAG, etag));
+        if (path.equals(asset.href())) {
+            headers.add(
+                String.format(
+                    "%s: %s", HttpHeaders.CACHE_CONTROL, TkAssets.FOREVER
+                )
+            );
+        } else {
+            headers.add(
+                String.format("%s: public, no-cache", HttpHeaders.CACHE_CONTROL)
+            );
+        }
+        if (asset.compressible()) {
+            headers.add(
+                String.format(
+                    "%s: %s", HttpHeaders.VARY, HttpHeaders.ACCEPT_ENCODING
+                )
+            );
+        }
+        final Response response;
+        if (TkAssets.matches(req, etag)) {
+            response = new RsWithHeaders(
+                new RsWithStatus(HttpURLConnection.HTTP_NOT_MODIFIED),
+                headers
+            );
+        } else {
+            if (gzip) {
+                headers.add(
+                    String.format("%s: gzip", HttpHeaders.CONTENT_ENCODING)
+                );
+            }
+            headers.add(
+                String.format(
+                    "%s: %d", HttpHeaders.CONTENT_LENGTH, asset.length(gzip)
+                )
+            );
+            response = new RsWithHeaders(
+                new RsWithType(
+                    new RsWithBody(asset.body(gzip)),
+                    TkAssets.type(asset.name())
+                ),
+                headers
+            );
+        }
+        return response;
+    }
+
+    /**
+     * The client has this very representation of the asset already.
+     * @param req Request
+     * @param etag Entity tag of the representation
+     * @return TRUE if it has
+     * @throws IOException If fails
+     */
+    private static boolean matches(final Request req, final String etag)
+        throws IOException {
+        boolean same = false;
+        for (final String header : new RqHeaders.Base(req)
+            .header(HttpHeaders.IF_NONE_MATCH)) {
+            same |= header.contains(etag);
+        }
+        return same;
+    }
+
+    /**
+     * The client accepts compressed content.
+     * @param req Request
+     * @return TRUE if it does
+     * @throws IOException If fails
+     */
+    private static boolean gzip(final Request req) throws IOException {
+        boolean gzip = false;
+        for (final String header : new RqHeaders.Base(req)
+            .header(HttpHeaders.ACCEPT_ENCODING)) {
+            gzip |= header.toLowerCase(Locale.ENGLISH).contains("gzip");
+        }
+        return gzip;
+    }
+
+    /**
+     * Content type of the asset.
+     * @param name Name of the asset
+     * @return Content type
+     */
+    private static String type(final String name) {
+        final String type;
+        if (name.endsWith(".js")) {
+            type = "text/javascript";
+        } else if (name.endsWith(".css")) {
+            type = "text/css";
+        } else if (name.endsWith(".xsl")) {
+            type = "text/xsl";
+        } else if (name.endsWith(".xml")) {
+            type = "text/xml";
+        } else {
+            type = "application/octet-stream";
+        }
+        return type;
+    }
+
+}
@@ -0,0 +1,300 @@
+/**
+ * Copyright (c) 2009-2016, netbout.com
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are PROHIBITED without prior written permission from
+ * the author. This product may NOT be used anywhere and on any computer
+ * except the server platform of netbout Inc. located at www.netbout.com.
+ * Federal copyright law prohibits unauthorized reproduction by any means
+ * and imposes fines up to $25,000 for violation. If you received
+ * this code accidentally and without intent to use it, please report this
+ * incident to the author by email.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS
+ * "AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT
+ * LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR
+ * A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT
+ * OWNER OR CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL,
+ * SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT
+ * LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE,
+ * DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON
+ * ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY,
+ * OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT
+ * OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF
+ * SUCH DAMAGE.
+ */
+package com.netbout.rest;
+
+import com.jcabi.manifests.Manifests;
+import com.netbout.dynamo.Throughput;
+import com.netbout.dynamo.Usage;
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Locale;
+import java.util.Map;
+import java.util.regex.Pattern;
+import org.apache.commons.io.IOUtils;
+import org.takes.Request;
+import org.takes.Response;
+import org.takes.Take;
+import org.takes.rs.RsWithBody;
+import org.takes.rs.RsWithHeaders;
+
+/**
+ * Take that counts DynamoDB usage of every request.
+ *
+ * <p>Usage is counted in {@link Throughput}, by the route of the request,
+ * which is its method and path, with numbers and file names replaced by
+ * placeholders. Pages read the base when their bodies are rendered,
+ * after the take is done, that's why every read of the body is counted
+ * in the route too. Bodies are streamed as they are.
+ *
+ * <p>The usage of the request is also reported in
+ * {@code X-Netbout-Dynamo-*} headers, but only in development mode, or
+ * when the take is explicitly asked to, because they disclose tables
+ * and their load to everybody. To know the usage before the headers
+ * are sent, textual responses are rendered into memory then, except
+ * downloads and assets, which may be big and don't read the base.
+ *
+ * @author Yegor Bugayenko (yegor@teamed.io)
+ * @version $Id$
+ * @since 3.0
+ */
+final class TkDynamo implements Take {
+
+    /**
+     * Prefix of headers.
+     */
+    private static final String PREFIX = "X-Netbout-Dynamo";
+
+    /**
+     * Textual content types.
+     */
+    private static final Pattern TEXTUAL = Pattern.compile(
+        "content-type:\\s*(text/|application/(xml|json)).*"
+    );
+
+    /**
+     * Routes of downloads and assets.
+     */
+    private static final Pattern STREAMED = Pattern.compile(
+        "GET /((xsl|js|css|lang)/.*|b/\\{n}/download)"
+    );
+
+    /**
+     * Are we in development mode?
+     */
+    private static final boolean DEV =
+        Manifests.read("Netbout-Version").contains("LOCAL");
+
+    /**
+     * Original take.
+     */
+    private final transient Take origin;
+
+    /**
+     * Report usage in headers?
+     */
+    private final transient boolean report;
+
+    /**
+     * Ctor.
+     * @param take Original take
+     */
+    TkDynamo(final Take take) {
+        this(take, TkDynamo.DEV);
+    }
+
+    /**
+     * Ctor.
+     * @param take Original take
+     * @param headers Report usage in headers
+     */
+    TkDynamo(final Take take, final boolean headers) {
+        this.origin = take;
+        this.report = headers;
+    }
+
+    @Override
+    public Response act(final Request req) throws IOException {
+        final String route = TkDynamo.route(req);
+        final Throughput throughput = new Throughput();
+        final Usage usage = throughput.open(route);
+        try {
+            Response response = this.origin.act(req);
+            if (this.report) {
+                if (TkDynamo.textual(response)
+                    && !TkDynamo.STREAMED.matcher(route).matches()) {
+                    response = new RsWithBody(
+                        response, IOUtils.toByteArray(response.body())
+                    );
+                }
+                if (!usage.isEmpty()) {
+                    response = new RsWithHeaders(
+                        response, TkDynamo.headers(usage)
+                    );
+                }
+            }
+            return TkDynamo.routed(response, route);
+        } finally {
+            throughput.close();
+        }
+    }
+
+    /**
+     * Route of the request.
+     * @param req Request
+     * @return Route, like "GET /b/{n}/attachment"
+     * @throws IOException If fails
+     */
+    static String route(final Request req) throws IOException {
+        final String[] line = req.head().iterator().next().split(" ");
+        final StringBuilder route = new StringBuilder(line[0]).append(' ');
+        final int start = route.length();
+        String path = "/";
+        if (line.length > 1) {
+            path = line[1];
+        }
+        for (final String part : path.split("\\?", 2)[0].split("/")) {
+            if (part.matches("[0-9]+")) {
+                route.append("/{n}");
+            } else if (part.contains(".")) {
+                route.append("/{file}");
+            } else if (!part.isEmpty()) {
+                route.append('/').append(part);
+            }
+        }
+        if (route.length() == start) {
+            route.append('/');
+        }
+        return route.toString();
+    }
+
+    /**
+     * Response, which body is made and read in the route.
+     * @param response Response
+     * @param route Route
+     * @return Response
+     */
+    private static Response routed(final Response response,
+        final String route) {
+        return new Response() {
+            @Override
+            public Iterable<String> head() throws IOException {
+                return response.head();
+            }
+            @Override
+            public InputStream body() throws IOException {
+                final Throughput throughput = new Throughput();
+                throughput.open(route);
+                try {
+                    return new TkDynamo.Routed(response.body(), route);
+                } finally {
+                    throughput.close();
+                }
+            }
+        };
+    }
+
+    /**
+     * Is it a textual response?
+     * @param response Response
+     * @return TRUE if textual
+     * @throws IOException If fails
+     */
+    private static boolean textual(final Response response)
+        throws IOException {
+        boolean textual = false;
+        for (final String header : response.head()) {
+            if (TkDynamo.TEXTUAL.matcher(
+                header.toLowerCase(Locale.ENGLISH)
+            ).matches()) {
+                textual = true;
+                break;
+            }
+        }
+        return textual;
+    }
+
+    /**
+     * Headers with usage.
+     * @param usage Usage
+     * @return Headers
+     */
+    private static Collection<String> headers(final Usage usage) {
+        final Usage.Line total = usage.total();
+        final Collection<String> headers = new ArrayList<>(0);
+        headers.add(
+            String.format("%s-Calls: %d", TkDynamo.PREFIX, total.calls())
+        );
+        headers.add(
+            String.format("%s-Items: %d", TkDynamo.PREFIX, total.items())
+        );
+        headers.add(
+            String.format(
+                Locale.ENGLISH, "%s-Read: %.1f", TkDynamo.PREFIX, total.reads()
+            )
+        );
+        headers.add(
+            String.format(
+                Locale.ENGLISH, "%s-Write: %.1f",
+                TkDynamo.PREFIX, total.writes()
+            )
+        );
+        for (final Map.Entry<String, Usage.Line> line
+            : usage.lines().entrySet()) {
+            headers.add(
+                String.format(
+                    "%s-Table: %s %s",
+                    TkDynamo.PREFIX, line.getKey(), line.getValue()
+                )
+            );
+        }
+        return headers;
+    }
+
+    /**
+     * Stream, which counts DynamoDB usage of its reads in the route.
+     */
+    private static final class Routed extends FilterInputStream {
+        /**
+         * Route.
+         */
+        private final transient String route;
+        /**
+         * Ctor.
+         * @param stream Original stream
+         * @param rte Route
+         */
+        Routed(final InputStream stream, final String rte) {
+            super(stream);
+            this.route = rte;
+        }
+        @Override
+        public int read() throws IOException {
+            final Throughput throughput = new Throughput();
+            throughput.open(this.route);
+            try {
+                return super.read();
+            } finally {
+                throughput.close();
+            }
+        }
+        @Override
+        public int read(final byte[] buf, final int off, final int len)
+            throws IOException {
+            final Throughput throughput = new Throughput();
+            throughput.open(this.route);
+            try {
+                return super.read(buf, off, len);
+            } finally {
+                throughput.close();
+            }
+        }
+    }
+
+}
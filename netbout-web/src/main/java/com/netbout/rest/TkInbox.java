@@ -27,11 +27,14 @@
 package com.netbout.rest;
 
 import com.google.common.collect.Iterables;
+import com.google.common.collect.Lists;
+import com.netbout.spi.Alias;
 import com.netbout.spi.Base;
 import com.netbout.spi.Bout;
 import com.netbout.spi.Friend;
 import com.netbout.spi.Inbox;
 import java.io.IOException;
+import java.util.Collection;
 import java.util.Iterator;
 import org.apache.commons.lang3.StringUtils;
 import org.takes.Request;
@@ -73,14 +76,82 @@ final class TkInbox implements Take {
 
     @Override
     public Response act(final Request req) throws IOException {
+        final Alias alias = new RqAlias(this.base, req).alias();
+        final Inbox inbox = alias.inbox();
         final String query = new RqHref.Smart(new RqHref.Base(req)).single(
             "q", ""
         );
+        final Collection<Bout> bouts = Lists.newArrayList(
+            Iterables.limit(TkInbox.bouts(inbox, req, query), Inbox.PAGE)
+        );
+        final Etag etag = new Etag(
+            req, alias.name(), alias.photo(), inbox.unread(),
+            TkInbox.state(bouts)
+        );
+        final Response response;
+        if (etag.unchanged()) {
+            response = etag.unmodified();
+        } else {
+            response = etag.tagged(this.page(req, query, bouts));
+        }
+        return response;
+    }
+
+    /**
+     * Everything the page shows about the bouts: numbers, titles, times
+     * of update, unread counters, subscriptions and friends; they change
+     * when a bout is renamed, posted to, read, or when a friend is
+     * invited or kicked off. Friends and counters are kept in the cache
+     * of the base.
+     * @param bouts Bouts on the page
+     * @return Text
+     * @throws IOException If fails
+     */
+    private static String state(final Iterable<Bout> bouts)
+        throws IOException {
+        final StringBuilder text = new StringBuilder(0);
+        for (final Bout bout : bouts) {
+            text.append(bout.number()).append(' ')
+                .append(bout.title()).append(' ')
+                .append(bout.updated().getTime()).append(' ')
+                .append(bout.messages().unread()).append(' ')
+                .append(bout.attachments().unseen()).append(' ')
+                .append(bout.subscription());
+            for (final Friend friend : bout.friends().iterate()) {
+                text.append(' ').append(friend.alias());
+            }
+            text.append('\n');
+        }
+        return text.toString();
+    }
+
+    /**
+     * Build the page of the inbox.
+     * @param req Request
+     * @param query Search term
+     * @param bouts Bouts to show
+     * @return Page
+     * @throws IOException If fails
+     */
+    private Response page(final Request req, final String query,
+        final Iterable<Bout> bouts) throws IOException {
         return new RsPage(
             "/xsl/inbox.xsl",
             this.base,
             req,
-            new XeAppend("bouts", this.bouts(req, query)),
+            new XeAppend(
+                "bouts",
+                new XeTransform<>(
+                    bouts,
+                    new XeTransform.Func<Bout>() {
+                        @Override
+                        public XeSource transform(final Bout bout)
+                            throws IOException {
+                            return TkInbox.source(bout);
+                        }
+                    }
+                )
+            ),
             new XeAppend("query", query),
             new XeLink("search", new Href("/search"))
         );
@@ -88,15 +159,15 @@ final class TkInbox implements Take {
 
     /**
      * Returns searched or paginated bouts in the inbox.
+     * @param inbox Inbox
      * @param req Request
      * @param query Search term
      * @return Bouts
      * @throws IOException If fails
      */
-    private Iterable<XeSource> bouts(final Request req, final String query)
-        throws IOException {
+    private static Iterable<Bout> bouts(final Inbox inbox,
+        final Request req, final String query) throws IOException {
         final Iterable<Bout> bouts;
-        final Inbox inbox = new RqAlias(this.base, req).alias().inbox();
         if (StringUtils.isBlank(query)) {
             long since = Inbox.NEVER;
             final Iterator<String> param = new RqHref.Base(req).href()
@@ -104,19 +175,11 @@ final class TkInbox implements Take {
             if (param.hasNext()) {
                 since = TkInbox.since(param.next());
             }
-            bouts = inbox.jump(since).iterate();
+            bouts = inbox.jump(since).page(Inbox.PAGE).items();
         } else {
             bouts = inbox.search(query);
         }
-        return new XeTransform<>(
-            Iterables.limit(bouts, Inbox.PAGE),
-            new XeTransform.Func<Bout>() {
-                @Override
-                public XeSource transform(final Bout bout) throws IOException {
-                    return TkInbox.source(bout);
-                }
-            }
-        );
+        return bouts;
     }
 
     /**
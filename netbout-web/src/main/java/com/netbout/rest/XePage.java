@@ -40,6 +40,7 @@ import org.takes.facets.flash.XeFlash;
 import org.takes.rs.xe.XeAppend;
 import org.takes.rs.xe.XeChain;
 import org.takes.rs.xe.XeDate;
+import org.takes.rs.xe.XeDirectives;
 import org.takes.rs.xe.XeLinkHome;
 import org.takes.rs.xe.XeLinkSelf;
 import org.takes.rs.xe.XeLocalhost;
@@ -111,6 +112,7 @@ public final class XePage extends XeWrap {
                 new XeAppend("rev", Manifests.read("Netbout-Revision")),
                 new XeAppend("date", Manifests.read("Netbout-Date"))
             ),
+            new XeDirectives(Assets.SHARED.toXembly()),
             new XeMillis(true)
         );
     }
@@ -0,0 +1,184 @@
+/**
+ * Copyright (c) 2009-2016, netbout.com
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are PROHIBITED without prior written permission from
+ * the author. This product may NOT be used anywhere and on any computer
+ * except the server platform of netbout Inc. located at www.netbout.com.
+ * Federal copyright law prohibits unauthorized reproduction by any means
+ * and imposes fines up to $25,000 for violation. If you received
+ * this code accidentally and without intent to use it, please report this
+ * incident to the author by email.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS
+ * "AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT
+ * LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR
+ * A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT
+ * OWNER OR CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL,
+ * SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT
+ * LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE,
+ * DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON
+ * ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY,
+ * OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT
+ * OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF
+ * SUCH DAMAGE.
+ */
+package com.netbout.rest.bout;
+
+import java.io.IOException;
+import java.util.Iterator;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import lombok.EqualsAndHashCode;
+import lombok.ToString;
+import org.takes.Request;
+import org.takes.rq.RqHeaders;
+
+/**
+ * Single byte range requested in HTTP "Range" header (RFC 7233).
+ *
+ * <p>Multiple ranges and malformed headers are ignored, the way
+ * RFC 7233 allows, and the entire content has to be served.
+ *
+ * @author Yegor Bugayenko (yegor@teamed.io)
+ * @version $Id$
+ * @since 3.0
+ */
+@ToString
+@EqualsAndHashCode(of = { "first", "last" })
+final class ByteRange {
+
+    /**
+     * Pattern of a single byte range.
+     */
+    private static final Pattern PTN = Pattern.compile(
+        "\\s*bytes\\s*=\\s*(\\d{0,18})\\s*-\\s*(\\d{0,18})\\s*"
+    );
+
+    /**
+     * First byte position, inclusive, or -1 if not requested.
+     */
+    private final transient long first;
+
+    /**
+     * Last byte position, inclusive.
+     */
+    private final transient long last;
+
+    /**
+     * Total size of the content.
+     */
+    private final transient long size;
+
+    /**
+     * Ctor.
+     * @param req Request
+     * @param len Total size of the content
+     * @throws IOException If fails
+     */
+    ByteRange(final Request req, final long len) throws IOException {
+        this(ByteRange.value(req), len);
+    }
+
+    /**
+     * Ctor.
+     * @param header Value of "Range" header or empty string
+     * @param len Total size of the content
+     */
+    ByteRange(final String header, final long len) {
+        final Matcher matcher = ByteRange.PTN.matcher(header);
+        long start = -1L;
+        long end = -1L;
+        if (matcher.matches()) {
+            final String head = matcher.group(1);
+            final String tail = matcher.group(2);
+            if (head.isEmpty() && !tail.isEmpty()) {
+                final long suffix = Long.parseLong(tail);
+                if (suffix == 0L) {
+                    start = len;
+                } else {
+                    start = Math.max(0L, len - suffix);
+                }
+                end = len - 1L;
+            } else if (!head.isEmpty() && tail.isEmpty()) {
+                start = Long.parseLong(head);
+                end = len - 1L;
+            } else if (!head.isEmpty()) {
+                start = Long.parseLong(head);
+                end = Math.min(Long.parseLong(tail), len - 1L);
+                if (Long.parseLong(tail) < start) {
+                    start = -1L;
+                }
+            }
+        }
+        this.first = start;
+        this.last = end;
+        this.size = len;
+    }
+
+    /**
+     * Is it a valid range we can serve partially?
+     * @return TRUE if the range is present and satisfiable
+     */
+    public boolean partial() {
+        return this.first >= 0L && !this.unsatisfiable();
+    }
+
+    /**
+     * Is it a valid range that is out of the content?
+     * @return TRUE if HTTP 416 has to be returned
+     */
+    public boolean unsatisfiable() {
+        return this.first >= this.size;
+    }
+
+    /**
+     * First byte position, inclusive.
+     * @return Position
+     */
+    public long first() {
+        return this.first;
+    }
+
+    /**
+     * Total number of bytes in the range.
+     * @return Length
+     */
+    public long length() {
+        return this.last - this.first + 1L;
+    }
+
+    /**
+     * Value of "Content-Range" header to return.
+     * @return Header value
+     */
+    public String header() {
+        final String header;
+        if (this.unsatisfiable()) {
+            header = String.format("bytes */%d", this.size);
+        } else {
+            header = String.format(
+                "bytes %d-%d/%d", this.first, this.last, this.size
+            );
+        }
+        return header;
+    }
+
+    /**
+     * Get single "Range" header from the request.
+     * @param req Request
+     * @return Value of the header or empty string if absent
+     * @throws IOException If fails
+     */
+    private static String value(final Request req) throws IOException {
+        final Iterator<String> headers =
+            new RqHeaders.Base(req).header("Range").iterator();
+        String header = "";
+        if (headers.hasNext()) {
+            header = headers.next();
+        }
+        return header;
+    }
+
+}
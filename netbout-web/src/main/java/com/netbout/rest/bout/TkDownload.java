@@ -30,23 +30,49 @@ import com.netbout.spi.Attachment;
 import com.netbout.spi.Base;
 import com.netbout.spi.Bout;
 import java.io.IOException;
+import java.io.InputStream;
+import java.net.HttpURLConnection;
 import java.net.URLEncoder;
 import java.nio.charset.StandardCharsets;
+import org.apache.commons.io.IOUtils;
+import org.apache.commons.io.input.BoundedInputStream;
 import org.takes.Request;
 import org.takes.Response;
 import org.takes.Take;
 import org.takes.rq.RqHref;
 import org.takes.rs.RsFluent;
+import org.takes.rs.RsWithHeader;
+import org.takes.rs.RsWithStatus;
+import org.takes.rs.RsWithoutHeader;
 
 /**
  * Download.
  *
+ * <p>The content is streamed, never buffered in memory, with its
+ * length announced up front. A single byte range is supported, to let
+ * clients resume broken downloads and seek inside media.
+ *
  * @author Yegor Bugayenko (yegor@teamed.io)
  * @version $Id$
  * @since 2.14
  */
 final class TkDownload implements Take {
 
+    /**
+     * HTTP status "Range Not Satisfiable".
+     */
+    private static final int HTTP_RANGE_NOT_SATISFIABLE = 416;
+
+    /**
+     * Header with the length of the body.
+     */
+    private static final String CONTENT_LENGTH = "Content-Length";
+
+    /**
+     * Header with the range of the body.
+     */
+    private static final String CONTENT_RANGE = "Content-Range";
+
     /**
      * Base.
      */
@@ -66,18 +92,69 @@ final class TkDownload implements Take {
         final Attachment attachment = bout.attachments().get(
             new RqHref.Smart(new RqHref.Base(req)).single("name")
         );
-        return new RsFluent()
-            .withBody(attachment.read())
-            .withHeader(
-                "Content-Disposition",
-                String.format(
-                    "attachment; filename=\"%s\"",
-                    URLEncoder.encode(
-                        attachment.name(), StandardCharsets.UTF_8.toString()
+        final long size = attachment.size();
+        final ByteRange range = new ByteRange(req, size);
+        final Response response;
+        if (range.unsatisfiable()) {
+            response = new RsWithHeader(
+                new RsWithStatus(
+                    TkDownload.HTTP_RANGE_NOT_SATISFIABLE
+                ),
+                TkDownload.CONTENT_RANGE, range.header()
+            );
+        } else if (range.partial()) {
+            final InputStream stream = attachment.read();
+            final long skipped = stream.skip(range.first());
+            if (skipped < range.first()) {
+                IOUtils.skipFully(stream, range.first() - skipped);
+            }
+            response = new RsWithHeader(
+                new RsWithStatus(
+                    TkDownload.content(
+                        attachment,
+                        new BoundedInputStream(stream, range.length()),
+                        range.length()
+                    ),
+                    HttpURLConnection.HTTP_PARTIAL
+                ),
+                TkDownload.CONTENT_RANGE, range.header()
+            );
+        } else {
+            response = TkDownload.content(attachment, attachment.read(), size);
+        }
+        return response;
+    }
+
+    /**
+     * Response with the content of the attachment.
+     * @param attachment Attachment
+     * @param body Body to stream
+     * @param length Length of the body
+     * @return Response
+     * @throws IOException If fails
+     */
+    private static Response content(final Attachment attachment,
+        final InputStream body, final long length) throws IOException {
+        return new RsWithHeader(
+            new RsWithoutHeader(
+                new RsFluent()
+                    .withBody(body)
+                    .withHeader(
+                        "Content-Disposition",
+                        String.format(
+                            "attachment; filename=\"%s\"",
+                            URLEncoder.encode(
+                                attachment.name(),
+                                StandardCharsets.UTF_8.toString()
+                            )
+                        )
                     )
-                )
-            )
-            .withType(attachment.ctype());
+                    .withHeader("Accept-Ranges", "bytes")
+                    .withType(attachment.ctype()),
+                TkDownload.CONTENT_LENGTH
+            ),
+            TkDownload.CONTENT_LENGTH, Long.toString(length)
+        );
     }
 
 }
@@ -0,0 +1,388 @@
+/**
+ * Copyright (c) 2009-2016, netbout.com
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are PROHIBITED without prior written permission from
+ * the author. This product may NOT be used anywhere and on any computer
+ * except the server platform of netbout Inc. located at www.netbout.com.
+ * Federal copyright law prohibits unauthorized reproduction by any means
+ * and imposes fines up to $25,000 for violation. If you received
+ * this code accidentally and without intent to use it, please report this
+ * incident to the author by email.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS
+ * "AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT
+ * LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR
+ * A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT
+ * OWNER OR CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL,
+ * SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT
+ * LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE,
+ * DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON
+ * ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY,
+ * OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT
+ * OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF
+ * SUCH DAMAGE.
+ */
+package com.netbout.rest.bout;
+
+import com.jcabi.aspects.Tv;
+import com.jcabi.manifests.Manifests;
+import com.netbout.cached.Signals;
+import com.netbout.rest.RqAlias;
+import com.netbout.spi.Alias;
+import com.netbout.spi.Base;
+import com.netbout.spi.Bout;
+import com.netbout.spi.Message;
+import java.io.IOException;
+import java.security.SecureRandom;
+import java.util.Iterator;
+import java.util.List;
+import java.util.SortedMap;
+import java.util.TreeMap;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import org.takes.Request;
+import org.takes.Response;
+import org.takes.Take;
+import org.takes.rq.RqHeaders;
+import org.takes.rq.RqHref;
+import org.takes.rs.RsText;
+import org.takes.rs.RsWithHeaders;
+import org.takes.rs.RsWithType;
+import org.xembly.ImpossibleModificationException;
+import org.xembly.Xembler;
+
+/**
+ * Server-sent events of the bout.
+ *
+ * <p>The stream sends only what changed since the last event seen by
+ * the client, which is the number of the latest message it has: new
+ * messages, as {@code message} events with their XML, and then unread
+ * counters of the bout and the inbox, as an {@code unread} event. When
+ * there are too many new messages, a {@code reload} event is sent
+ * instead. The number of the latest message comes from
+ * {@code Last-Event-ID} header, when the client reconnects, or from
+ * {@code last} query parameter.
+ *
+ * <p>Every stream ends with the ID
+ * {@code <number>-<epoch>-<version>-<updated>}: the epoch of this
+ * server, the version of {@link Signals} of the bout and the time of
+ * its update, both taken before the bout was read. When the client
+ * reconnects with all three the same, nothing changed in the bout, and
+ * the stream goes on waiting without reading messages and counters;
+ * the time of update is the only read then, besides the check of
+ * membership, which is served by the cached base. Signals are local to
+ * the server and start over when it restarts, that's why the epoch
+ * must match; the time of update catches changes made on other
+ * servers, a bit later, since it's moved in background.
+ *
+ * <p>When nothing changed yet, the request waits for
+ * {@link Signals} of the bout. Our server has a thread per connection,
+ * that's why a stream is held not longer than {@link #HOLD} and the
+ * client is told to reconnect right after that. A held stream costs an
+ * idle thread and no reads; not more than
+ * {@code Netbout-EventHolders} of them are held at the same time, which
+ * must be less than the number of threads of the server. The others are
+ * answered at once and reconnect later.
+ *
+ * @author Yegor Bugayenko (yegor@teamed.io)
+ * @version $Id$
+ * @since 3.0
+ * @checkstyle MultipleStringLiteralsCheck (500 lines)
+ * @checkstyle ClassDataAbstractionCouplingCheck (500 lines)
+ */
+final class TkEvents implements Take {
+
+    /**
+     * Header with the ID of the last event seen.
+     */
+    private static final String LAST = "Last-Event-ID";
+
+    /**
+     * ID of the last event seen: message number and, maybe, epoch,
+     * version and time of update.
+     */
+    private static final Pattern ID = Pattern.compile(
+        "([0-9]{1,18})(?:-([0-9]{1,18})-([0-9]{1,18})-([0-9]{1,18}))?"
+    );
+
+    /**
+     * Epoch of this server.
+     */
+    private static final String EPOCH = Integer.toString(
+        new SecureRandom().nextInt(Integer.MAX_VALUE)
+    );
+
+    /**
+     * Maximum time to hold a stream, in milliseconds.
+     */
+    private static final long HOLD = TimeUnit.SECONDS.toMillis(Tv.TWENTY);
+
+    /**
+     * Delay before reconnect, when the stream was held, in milliseconds.
+     */
+    private static final long BRISK = Tv.FIVE * Tv.HUNDRED;
+
+    /**
+     * Delay before reconnect, when the stream wasn't held, in milliseconds.
+     */
+    private static final long QUIET = TimeUnit.SECONDS.toMillis(Tv.TEN);
+
+    /**
+     * Maximum number of new messages sent, before a reload is required.
+     */
+    private static final int SIZE = Tv.TWENTY;
+
+    /**
+     * Streams that are held now.
+     */
+    private static final Semaphore HOLDERS = new Semaphore(
+        Integer.parseInt(Manifests.read("Netbout-EventHolders"))
+    );
+
+    /**
+     * Base.
+     */
+    private final transient Base base;
+
+    /**
+     * Maximum time to hold a stream, in milliseconds.
+     */
+    private final transient long hold;
+
+    /**
+     * Ctor.
+     * @param bse Base
+     */
+    TkEvents(final Base bse) {
+        this(bse, TkEvents.HOLD);
+    }
+
+    /**
+     * Ctor.
+     * @param bse Base
+     * @param millis Maximum time to hold a stream, in milliseconds
+     */
+    TkEvents(final Base bse, final long millis) {
+        this.base = bse;
+        this.hold = millis;
+    }
+
+    @Override
+    public Response act(final Request req) throws IOException {
+        final Bout bout = new RqBout(this.base, req).bout();
+        final Alias alias = new RqAlias(this.base, req).alias();
+        final Signals signals = new Signals();
+        long version = signals.version(bout.number());
+        final long updated = bout.updated().getTime();
+        final Matcher seen = TkEvents.seen(req);
+        final boolean quiet = seen.matches() && seen.group(2) != null
+            && TkEvents.EPOCH.equals(seen.group(2))
+            && Long.parseLong(seen.group(3)) == version
+            && Long.parseLong(seen.group(4)) == updated;
+        final StringBuilder events = new StringBuilder(0);
+        final long last;
+        final String before;
+        long latest;
+        if (quiet) {
+            last = Long.parseLong(seen.group(1));
+            before = "";
+            latest = last;
+        } else {
+            before = TkEvents.unread(alias, bout);
+            last = TkEvents.last(req, seen, bout);
+            latest = TkEvents.messages(bout, last, events);
+        }
+        boolean changed = latest != last;
+        long retry = TkEvents.QUIET;
+        if (!changed && TkEvents.HOLDERS.tryAcquire()) {
+            retry = TkEvents.BRISK;
+            try {
+                final long deadline = System.currentTimeMillis() + this.hold;
+                while (!changed) {
+                    final long left = deadline - System.currentTimeMillis();
+                    if (left <= 0L) {
+                        break;
+                    }
+                    final long current = signals.await(
+                        bout.number(), version, left
+                    );
+                    if (current != version) {
+                        version = current;
+                        latest = TkEvents.messages(bout, last, events);
+                        changed = latest != last || quiet
+                            || !TkEvents.unread(alias, bout).equals(before);
+                    }
+                }
+            } catch (final InterruptedException ex) {
+                Thread.currentThread().interrupt();
+                throw new IllegalStateException(ex);
+            } finally {
+                TkEvents.HOLDERS.release();
+            }
+        }
+        if (changed) {
+            TkEvents.event(
+                events, "", "unread", TkEvents.unread(alias, bout)
+            );
+        } else {
+            events.append(": nothing new\n\n");
+        }
+        events.append("id: ").append(latest).append('-')
+            .append(TkEvents.EPOCH).append('-')
+            .append(version).append('-')
+            .append(updated).append('\n')
+            .append("retry: ").append(retry).append("\n\n");
+        return new RsWithHeaders(
+            new RsWithType(new RsText(events.toString()), "text/event-stream"),
+            "Cache-Control: no-cache"
+        );
+    }
+
+    /**
+     * Append events of messages newer than the last one seen.
+     * @param bout Bout
+     * @param last Number of the last message seen
+     * @param events Events to append to
+     * @return Number of the latest message, the same as the last one
+     *  seen if there are no new messages
+     * @throws IOException If fails
+     */
+    private static long messages(final Bout bout, final long last,
+        final StringBuilder events) throws IOException {
+        final SortedMap<Long, Message> fresh = new TreeMap<>();
+        for (final Message msg : TkEvents.recent(bout)) {
+            if (msg.number() > last) {
+                fresh.put(msg.number(), msg);
+            }
+        }
+        long latest = last;
+        if (!fresh.isEmpty()) {
+            latest = fresh.lastKey();
+        }
+        if (fresh.size() >= TkEvents.SIZE) {
+            TkEvents.event(events, "", "reload", "");
+        } else {
+            for (final Message msg : fresh.values()) {
+                TkEvents.event(
+                    events, Long.toString(msg.number()), "message",
+                    TkEvents.xml(bout, msg)
+                );
+            }
+        }
+        return latest;
+    }
+
+    /**
+     * ID of the last event seen by the client, from the header.
+     * @param req Request
+     * @return Matcher of {@link #ID}, which may not match
+     * @throws IOException If fails
+     */
+    private static Matcher seen(final Request req) throws IOException {
+        final List<String> header = new RqHeaders.Base(req)
+            .header(TkEvents.LAST);
+        String id = "";
+        if (!header.isEmpty()) {
+            id = header.get(0).trim();
+        }
+        return TkEvents.ID.matcher(id);
+    }
+
+    /**
+     * Number of the last message seen by the client.
+     * @param req Request
+     * @param seen ID of the last event seen, from the header
+     * @param bout Bout
+     * @return Number, the latest in the bout if the client didn't say
+     * @throws IOException If fails
+     */
+    private static long last(final Request req, final Matcher seen,
+        final Bout bout) throws IOException {
+        final Iterator<String> param = new RqHref.Base(req).href()
+            .param("last").iterator();
+        String value = "";
+        if (param.hasNext()) {
+            value = param.next();
+        }
+        long last = 0L;
+        if (seen.matches()) {
+            last = Long.parseLong(seen.group(1));
+        } else if (value.matches("[0-9]+")) {
+            last = Long.parseLong(value);
+        } else {
+            for (final Message msg : TkEvents.recent(bout)) {
+                last = Math.max(last, msg.number());
+            }
+        }
+        return last;
+    }
+
+    /**
+     * Most recent messages of the bout, without marking them as seen.
+     * @param bout Bout
+     * @return Messages
+     * @throws IOException If fails
+     */
+    private static Iterable<Message> recent(final Bout bout)
+        throws IOException {
+        return bout.messages().jump(Long.MAX_VALUE)
+            .page(TkEvents.SIZE).items();
+    }
+
+    /**
+     * Unread counters, in JSON.
+     * @param alias Alias of the client
+     * @param bout Bout
+     * @return JSON
+     * @throws IOException If fails
+     */
+    private static String unread(final Alias alias, final Bout bout)
+        throws IOException {
+        return String.format(
+            "{\"messages\":%d,\"attachments\":%d,\"inbox\":%d}",
+            bout.messages().unread(), bout.attachments().unseen(),
+            alias.inbox().unread()
+        );
+    }
+
+    /**
+     * Message in XML.
+     * @param bout Bout
+     * @param msg Message
+     * @return XML
+     * @throws IOException If fails
+     */
+    private static String xml(final Bout bout, final Message msg)
+        throws IOException {
+        try {
+            return new Xembler(new XeMessage(bout, msg).toXembly()).xml();
+        } catch (final ImpossibleModificationException ex) {
+            throw new IllegalStateException(ex);
+        }
+    }
+
+    /**
+     * Append an event.
+     * @param events Events to append to
+     * @param id ID of the event or empty
+     * @param name Name of the event
+     * @param data Data, maybe multi-line
+     * @checkstyle ParameterNumberCheck (4 lines)
+     */
+    private static void event(final StringBuilder events, final String id,
+        final String name, final String data) {
+        if (!id.isEmpty()) {
+            events.append("id: ").append(id).append('\n');
+        }
+        events.append("event: ").append(name).append('\n');
+        for (final String line : data.split("\r?\n", -1)) {
+            events.append("data: ").append(line).append('\n');
+        }
+        events.append('\n');
+    }
+
+}
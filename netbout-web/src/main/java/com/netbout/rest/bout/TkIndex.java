@@ -26,10 +26,12 @@
  */
 package com.netbout.rest.bout;
 
-import com.google.common.collect.Iterables;
 import com.google.common.net.HttpHeaders;
+import com.netbout.rest.Etag;
+import com.netbout.rest.RqAlias;
 import com.netbout.rest.RqWithDefaultHeader;
 import com.netbout.rest.RsPage;
+import com.netbout.spi.Alias;
 import com.netbout.spi.Attachment;
 import com.netbout.spi.Base;
 import com.netbout.spi.Bout;
@@ -49,6 +51,7 @@ import org.takes.rs.xe.XeDirectives;
 import org.takes.rs.xe.XeLink;
 import org.takes.rs.xe.XeSource;
 import org.takes.rs.xe.XeTransform;
+import org.takes.rs.xe.XeWhen;
 import org.xembly.Directives;
 
 /**
@@ -76,16 +79,43 @@ final class TkIndex implements Take {
 
     @Override
     public Response act(final Request req) throws IOException {
+        final Bout bout = new RqBout(this.base, req).bout();
+        final Alias alias = new RqAlias(this.base, req).alias();
+        final Etag etag = new Etag(
+            req, alias.name(), alias.photo(), alias.inbox().unread(),
+            bout.updated().getTime(), TkIndex.latest(bout), bout.title(),
+            bout.subscription(), bout.messages().unread(),
+            bout.attachments().unseen(), TkIndex.friends(bout),
+            TkIndex.attachments(bout)
+        );
+        final Response response;
+        if (etag.unchanged()) {
+            response = etag.unmodified();
+        } else {
+            response = etag.tagged(TkIndex.page(this.base, req, bout));
+        }
+        return response;
+    }
+
+    /**
+     * Build the page of the bout.
+     * @param base Base
+     * @param req Request
+     * @param bout Bout
+     * @return Page
+     * @throws IOException If fails
+     */
+    private static Response page(final Base base, final Request req,
+        final Bout bout) throws IOException {
         final String query = new RqHref.Smart(new RqHref.Base(req)).single(
             "q", ""
         );
-        final Bout bout = new RqBout(this.base, req).bout();
         final Href home = new Href("/b").path(bout.number());
         final RqWithDefaultHeader request =
             new RqWithDefaultHeader(req, HttpHeaders.ACCEPT, "text/xml");
         return new RsPage(
             "/xsl/bout.xsl",
-            this.base,
+            base,
             request,
             new XeAppend(
                 "bout",
@@ -150,9 +180,63 @@ final class TkIndex implements Take {
             new XeLink("upload", home.path("upload")),
             new XeLink("create", home.path("create")),
             new XeLink("attach", home.path("attach")),
-            new XeLink("subscribe", home.path("subscribe"))
+            new XeLink("subscribe", home.path("subscribe")),
+            new XeWhen(
+                query.isEmpty() && !new RqHref.Base(req).href()
+                    .param("start").iterator().hasNext(),
+                new XeLink("events", home.path("events"))
+            )
         );
     }
+
+    /**
+     * Number of the latest message in the bout, which is written by
+     * the post itself, while the time of update is changed later.
+     * @param bout Bout
+     * @return Number or zero, if there are no messages
+     * @throws IOException If fails
+     */
+    private static long latest(final Bout bout) throws IOException {
+        long number = 0L;
+        for (final Message msg
+            : bout.messages().jump(Long.MAX_VALUE).page(1).items()) {
+            number = msg.number();
+        }
+        return number;
+    }
+
+    /**
+     * Names of friends in the bout, which the page shows; they are
+     * kept in the cache of the base, together with the counters.
+     * @param bout Bout
+     * @return Names
+     * @throws IOException If fails
+     */
+    private static String friends(final Bout bout) throws IOException {
+        final StringBuilder names = new StringBuilder(0);
+        for (final Friend friend : bout.friends().iterate()) {
+            names.append(friend.alias()).append(' ');
+        }
+        return names.toString();
+    }
+
+    /**
+     * Names, tags and flags of attachments in the bout, which the page
+     * shows; they are kept in the cache of the base too.
+     * @param bout Bout
+     * @return Text
+     * @throws IOException If fails
+     */
+    private static String attachments(final Bout bout) throws IOException {
+        final StringBuilder text = new StringBuilder(0);
+        for (final Attachment atmt : bout.attachments().iterate()) {
+            text.append(atmt.name()).append(' ')
+                .append(atmt.etag()).append(' ')
+                .append(atmt.unseen()).append('\n');
+        }
+        return text.toString();
+    }
+
     /**
      * Returns searched or paginated messages.
      * @param bout Bout
@@ -171,10 +255,8 @@ final class TkIndex implements Take {
                     Long.toString(Inbox.NEVER)
                 )
             );
-            messages = Iterables.limit(
-                bout.messages().jump(start).iterate(),
-                Messages.PAGE
-            );
+            messages = bout.messages().jump(start)
+                .page(Messages.PAGE).items();
         } else {
             messages = bout.messages().search(query);
         }
@@ -26,7 +26,7 @@
  */
 package com.netbout.rest.bout;
 
-import com.netbout.rest.Markdown;
+import com.netbout.markdown.Markdown;
 import com.netbout.spi.Attachment;
 import com.netbout.spi.Bout;
 import java.io.IOException;
@@ -95,6 +95,7 @@ final class XeAttachment extends XeWrap {
                     .add("etag").set(atmt.etag()).up()
                     .add("unseen").set(Boolean.toString(atmt.unseen())).up()
                     .add("author").set(atmt.author()).up()
+                    .add("size").set(atmt.size()).up()
                     .add("date").set(atmt.date().getTime())
             ),
             new XeLink(
@@ -26,7 +26,7 @@
  */
 package com.netbout.rest.bout;
 
-import com.netbout.rest.Markdown;
+import com.netbout.markdown.Markdown;
 import com.netbout.spi.Bout;
 import com.netbout.spi.Message;
 import java.io.IOException;
@@ -83,9 +83,7 @@ final class XeMessage extends XeWrap {
                     .add("text").set(Xembler.escape(msg.text())).up()
                     .add("html")
                     .set(
-                        Xembler.escape(
-                            new Markdown.Default().html(msg.text())
-                        )
+                        Xembler.escape(XeMessage.html(msg))
                     ).up()
                     .add("timeago")
                     .set(new PrettyTime().format(msg.date())).up()
@@ -111,4 +109,20 @@ final class XeMessage extends XeWrap {
         );
     }
 
+    /**
+     * HTML of the message, stored if possible, rendered otherwise.
+     * @param msg Message
+     * @return HTML
+     * @throws IOException In case of failure
+     */
+    private static String html(final Message msg) throws IOException {
+        final String html;
+        if (msg instanceof Markdown.Rendered) {
+            html = Markdown.Rendered.class.cast(msg).html();
+        } else {
+            html = new Markdown.Default().html(msg.text());
+        }
+        return html;
+    }
+
 }
@@ -68,6 +68,54 @@ function previewContent() {
 }
 
 
+function messageHtml($msg) {
+  "use strict";
+  return [
+    '<div class="message" id="msg',
+    $msg.find('number').text(),
+    '"><div class="left"><img class="photo" src="',
+    $msg.find('link[rel="photo"]').attr('href'),
+    '"/>',
+    '</div><div class="right"><div class="meta"><strong>',
+    escapeHTML($msg.find('author').text()),
+    '</strong> said <a href="',
+    location.origin,
+    location.pathname,
+    '#msg',
+    $msg.find('number').text(),
+    '">',
+    escapeHTML($msg.find('timeago').text()),
+    '</a> </div><div class="text">',
+    $msg.find('html').text(),
+    '</div></div></div>'
+  ].join('');
+}
+
+function listen() {
+  "use strict";
+  var $box = $('#messages'), url = $box.attr('data-events'), source;
+  if (!url || typeof window.EventSource === 'undefined') {
+    return;
+  }
+  source = new window.EventSource(url);
+  source.addEventListener('message', function (event) {
+    var $msg = $($.parseXML(event.data)).find('message');
+    if ($('#msg' + $msg.find('number').text()).length === 0) {
+      $box.prepend(messageHtml($msg));
+    }
+  });
+  source.addEventListener('unread', function (event) {
+    var unread = $.parseJSON(event.data);
+    $('link[rel="shortcut icon"]').attr(
+      'href', '/favicon.ico?unread=' + unread.inbox
+    );
+  });
+  source.addEventListener('reload', function () {
+    source.close();
+    location.reload();
+  });
+}
+
 function readMore(retFunction) {
   var $box = $('#messages'), $tail = $('#tail'), more = $box.attr('data-more');
   $box.removeAttr('data-more', '');
@@ -85,32 +133,11 @@ function readMore(retFunction) {
             xml = $data.find('message'),
             html = $data.find('#messages');
         more = '';
-        function msgXmlToHtml($msg) {
-          return [
-            '<div class="message" id="msg',
-            $msg.find('number').text(),
-            '"><div class="left"><img class="photo" src="',
-            $msg.find('link[rel="photo"]').attr('href'),
-            '"/>',
-            '</div><div class="right"><div class="meta"><strong>',
-            escapeHTML($msg.find('author').text()),
-            '</strong> said <a href="',
-            location.origin,
-            location.pathname,
-            '#msg',
-            $msg.find('number').text(),
-            '">',
-            escapeHTML($msg.find('timeago').text()),
-            '</a> </div><div class="text">',
-            $msg.find('html').text(),
-            '</div></div></div>'
-          ].join('');
-        }
         function msgsXmlToHtml() {
           xml.each(
               function (idx, msg) {
                 var $msg = $(msg);
-                appendix += msgXmlToHtml($msg);
+                appendix += messageHtml($msg);
                 more = $msg.find('link[rel="more"]').attr('href');
               }
           );
@@ -240,6 +267,7 @@ $(document).ready(
         debounce: 0 }
       );
     scrollOrLoad(1);
+    listen();
     $("#write-link").on(
       "click",
       function(event) {
@@ -42,14 +42,29 @@
             <xsl:text>: </xsl:text>
             <xsl:value-of select="bout/title"/>
         </title>
-        <script src="/js/thridparty/jquery.textcomplete.min.js?{version/name}">
+        <script>
+            <xsl:attribute name="src">
+                <xsl:call-template name="asset">
+                    <xsl:with-param name="name" select="'/js/thridparty/jquery.textcomplete.min.js'"/>
+                </xsl:call-template>
+            </xsl:attribute>
             <xsl:text> </xsl:text>
         </script>
-        <script src="/js/friends.js?{version/name}">
+        <script>
+            <xsl:attribute name="src">
+                <xsl:call-template name="asset">
+                    <xsl:with-param name="name" select="'/js/friends.js'"/>
+                </xsl:call-template>
+            </xsl:attribute>
             <xsl:text> </xsl:text>
             <!-- this is for W3C compliance -->
         </script>
-        <script src="/js/bout.js?{version/name}">
+        <script>
+            <xsl:attribute name="src">
+                <xsl:call-template name="asset">
+                    <xsl:with-param name="name" select="'/js/bout.js'"/>
+                </xsl:call-template>
+            </xsl:attribute>
             <xsl:text> </xsl:text>
             <!-- this is for W3C compliance -->
         </script>
@@ -127,6 +142,13 @@
             </form>
         </div>
         <div id="messages" data-more="{messages/message[position()=last()]/links/link[@rel='more']/@href}">
+            <xsl:if test="/page/links/link[@rel='events']">
+                <xsl:attribute name="data-events">
+                    <xsl:value-of select="/page/links/link[@rel='events']/@href"/>
+                    <xsl:text>?last=</xsl:text>
+                    <xsl:value-of select="number(concat('0', messages/message[1]/number))"/>
+                </xsl:attribute>
+            </xsl:if>
             <xsl:apply-templates select="messages/message"/>
             <div id="tail"/>
         </div>
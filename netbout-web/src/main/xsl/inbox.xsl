@@ -47,11 +47,21 @@
                 <xsl:text>)</xsl:text>
             </xsl:if>
         </title>
-        <script src="/js/inbox.js?{version/name}">
+        <script>
+            <xsl:attribute name="src">
+                <xsl:call-template name="asset">
+                    <xsl:with-param name="name" select="'/js/inbox.js'"/>
+                </xsl:call-template>
+            </xsl:attribute>
             <xsl:text> </xsl:text>
             <!-- this is for W3C compliance -->
         </script>
-        <script src="/js/friends.js?{version/name}">
+        <script>
+            <xsl:attribute name="src">
+                <xsl:call-template name="asset">
+                    <xsl:with-param name="name" select="'/js/friends.js'"/>
+                </xsl:call-template>
+            </xsl:attribute>
             <xsl:text> </xsl:text>
             <!-- this is for W3C compliance -->
         </script>
@@ -47,10 +47,21 @@
                 <script type="text/javascript" src="//code.jquery.com/jquery-2.1.1-rc1.min.js">
                     <xsl:text> </xsl:text>
                 </script>
-                <script type="text/javascript" src="/js/supplementary.js?{version/name}">
+                <script type="text/javascript">
+                    <xsl:attribute name="src">
+                        <xsl:call-template name="asset">
+                            <xsl:with-param name="name" select="'/js/supplementary.js'"/>
+                        </xsl:call-template>
+                    </xsl:attribute>
                     <xsl:text> </xsl:text>
                 </script>
-                <link rel="stylesheet" type="text/css" media="all" href="/css/style.css?{version/name}"/>
+                <link rel="stylesheet" type="text/css" media="all">
+                    <xsl:attribute name="href">
+                        <xsl:call-template name="asset">
+                            <xsl:with-param name="name" select="'/css/style.css'"/>
+                        </xsl:call-template>
+                    </xsl:attribute>
+                </link>
                 <link rel="shortcut icon" type="image/png" href="{links/link[@rel='favicon']/@href}"/>
                 <link rel="stylesheet" href="//maxcdn.bootstrapcdn.com/font-awesome/4.3.0/css/font-awesome.min.css"/>
                 <xsl:apply-templates select="." mode="head"/>
@@ -36,9 +36,20 @@
             <head>
                 <meta charset="UTF-8"/>
                 <meta name="viewport" content="width=device-width, initial-scale=1.0"/>
-                <link rel="stylesheet" type="text/css" media="all" href="/css/style.css?{version/name}"/>
+                <link rel="stylesheet" type="text/css" media="all">
+                    <xsl:attribute name="href">
+                        <xsl:call-template name="asset">
+                            <xsl:with-param name="name" select="'/css/style.css'"/>
+                        </xsl:call-template>
+                    </xsl:attribute>
+                </link>
                 <link rel="shortcut icon" type="image/png" href="{links/link[@rel='favicon']/@href}"/>
-                <script type="text/javascript" src="/js/supplementary.js?{version/name}">
+                <script type="text/javascript">
+                    <xsl:attribute name="src">
+                        <xsl:call-template name="asset">
+                            <xsl:with-param name="name" select="'/js/supplementary.js'"/>
+                        </xsl:call-template>
+                    </xsl:attribute>
                     <xsl:text> </xsl:text>
                 </script>
                 <script type="text/javascript" src="//code.jquery.com/jquery-2.1.1-rc1.min.js">
@@ -35,7 +35,12 @@
     <xsl:output method="html" doctype-system="about:legacy-compat" encoding="UTF-8" indent="yes" />
     <xsl:include href="/xsl/login-layout.xsl"/>
     <xsl:template match="page" mode="head">
-        <script src="/js/register.js?{version/name}">
+        <script>
+            <xsl:attribute name="src">
+                <xsl:call-template name="asset">
+                    <xsl:with-param name="name" select="'/js/register.js'"/>
+                </xsl:call-template>
+            </xsl:attribute>
             <xsl:text> </xsl:text>
             <!-- this is for W3C compliance -->
         </script>
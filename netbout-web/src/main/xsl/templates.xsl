@@ -45,6 +45,20 @@
             </xsl:otherwise>
         </xsl:choose>
     </xsl:template>
+    <xsl:template name="asset">
+        <xsl:param name="name"/>
+        <xsl:variable name="asset" select="/page/assets/asset[@name=$name]"/>
+        <xsl:choose>
+            <xsl:when test="$asset">
+                <xsl:value-of select="$asset/@href"/>
+            </xsl:when>
+            <xsl:otherwise>
+                <xsl:value-of select="$name"/>
+                <xsl:text>?</xsl:text>
+                <xsl:value-of select="/page/version/name"/>
+            </xsl:otherwise>
+        </xsl:choose>
+    </xsl:template>
     <xsl:template name="crop">
         <xsl:param name="text"/>
         <xsl:param name="length"/>
@@ -0,0 +1,79 @@
+/**
+ * Copyright (c) 2009-2016, netbout.com
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are PROHIBITED without prior written permission from
+ * the author. This product may NOT be used anywhere and on any computer
+ * except the server platform of netbout Inc. located at www.netbout.com.
+ * Federal copyright law prohibits unauthorized reproduction by any means
+ * and imposes fines up to $25,000 for violation. If you received
+ * this code accidentally and without intent to use it, please report this
+ * incident to the author by email.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS
+ * "AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT
+ * LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR
+ * A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT
+ * OWNER OR CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL,
+ * SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT
+ * LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE,
+ * DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON
+ * ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY,
+ * OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT
+ * OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF
+ * SUCH DAMAGE.
+ */
+package com.netbout.cached;
+
+import com.netbout.spi.Bout;
+import com.netbout.spi.Friend;
+import com.netbout.spi.Friends;
+import com.netbout.spi.Messages;
+import java.util.Collections;
+import org.hamcrest.MatcherAssert;
+import org.hamcrest.Matchers;
+import org.junit.Test;
+import org.mockito.Mockito;
+
+/**
+ * Test case for {@link CdBout}.
+ * @author Yegor Bugayenko (yegor@teamed.io)
+ * @version $Id$
+ * @since 3.0
+ */
+public final class CdBoutTest {
+
+    /**
+     * CdBout can keep subscriptions of friends when a message is posted.
+     * @throws Exception If there is some problem inside
+     */
+    @Test
+    public void keepsSubscriptionsOnPost() throws Exception {
+        final String friend = "kate";
+        final Bout origin = Mockito.mock(Bout.class);
+        Mockito.doReturn(Long.MAX_VALUE - 1L).when(origin).number();
+        Mockito.doReturn(Mockito.mock(Messages.class))
+            .when(origin).messages();
+        final Friends friends = Mockito.mock(Friends.class);
+        Mockito.doReturn(friends).when(origin).friends();
+        final Friend row = Mockito.mock(Friend.class);
+        Mockito.doReturn(friend).when(row).alias();
+        Mockito.doReturn(Collections.singletonList(row))
+            .when(friends).iterate();
+        Mockito.doReturn(false).when(origin).subscription(friend);
+        Mockito.doReturn("first").doReturn("second").when(origin).title();
+        final Bout bout = new CdBout(origin, friend);
+        MatcherAssert.assertThat(
+            bout.subscription(friend), Matchers.is(false)
+        );
+        MatcherAssert.assertThat(bout.title(), Matchers.equalTo("first"));
+        bout.messages().post("hi, kate");
+        MatcherAssert.assertThat(
+            bout.subscription(friend), Matchers.is(false)
+        );
+        MatcherAssert.assertThat(bout.title(), Matchers.equalTo("second"));
+        Mockito.verify(origin).subscription(friend);
+    }
+
+}
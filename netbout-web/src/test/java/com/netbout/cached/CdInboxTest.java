@@ -49,7 +49,7 @@ public final class CdInboxTest {
     public void flushesUnreadNumber() throws Exception {
         final Inbox origin = Mockito.mock(Inbox.class);
         Mockito.doReturn(1L).doReturn(2L).when(origin).unread();
-        final Inbox inbox = new CdInbox(origin);
+        final Inbox inbox = new CdInbox(origin, "jeff");
         MatcherAssert.assertThat(inbox.unread(), Matchers.equalTo(1L));
         MatcherAssert.assertThat(inbox.unread(), Matchers.equalTo(1L));
         Mockito.doReturn(Collections.emptyList()).when(origin).iterate();
@@ -26,6 +26,7 @@
  */
 package com.netbout.cached;
 
+import com.netbout.spi.Bout;
 import com.netbout.spi.Messages;
 import java.util.Collections;
 import org.hamcrest.MatcherAssert;
@@ -49,7 +50,9 @@ public final class CdMessagesTest {
     public void flushesUnreadNumber() throws Exception {
         final Messages origin = Mockito.mock(Messages.class);
         Mockito.doReturn(1L).doReturn(2L).when(origin).unread();
-        final Messages messages = new CdMessages(origin);
+        final Messages messages = new CdMessages(
+            origin, Mockito.mock(Bout.class), "mary"
+        );
         MatcherAssert.assertThat(messages.unread(), Matchers.equalTo(1L));
         MatcherAssert.assertThat(messages.unread(), Matchers.equalTo(1L));
         Mockito.doReturn(Collections.emptyList()).when(origin).iterate();
@@ -0,0 +1,131 @@
+/**
+ * Copyright (c) 2009-2016, netbout.com
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are PROHIBITED without prior written permission from
+ * the author. This product may NOT be used anywhere and on any computer
+ * except the server platform of netbout Inc. located at www.netbout.com.
+ * Federal copyright law prohibits unauthorized reproduction by any means
+ * and imposes fines up to $25,000 for violation. If you received
+ * this code accidentally and without intent to use it, please report this
+ * incident to the author by email.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS
+ * "AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT
+ * LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR
+ * A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT
+ * OWNER OR CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL,
+ * SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT
+ * LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE,
+ * DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON
+ * ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY,
+ * OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT
+ * OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF
+ * SUCH DAMAGE.
+ */
+package com.netbout.cached;
+
+import com.jcabi.aspects.Tv;
+import java.io.IOException;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.hamcrest.MatcherAssert;
+import org.hamcrest.Matchers;
+import org.junit.Test;
+
+/**
+ * Test case for {@link Store}.
+ * @author Yegor Bugayenko (yegor@teamed.io)
+ * @version $Id$
+ * @since 3.0
+ */
+public final class StoreTest {
+
+    /**
+     * Store can cache values until their group is invalidated.
+     * @throws Exception If there is some problem inside
+     */
+    @Test
+    public void cachesUntilInvalidated() throws Exception {
+        final Store store = new Store(Tv.TEN);
+        final AtomicInteger loads = new AtomicInteger();
+        final Store.Source<Integer> src = StoreTest.counting(loads);
+        store.get("a", "x", Groups.LONG, src);
+        store.get("a", "x", Groups.LONG, src);
+        store.invalidate("b");
+        MatcherAssert.assertThat(
+            store.get("a", "x", Groups.LONG, src),
+            Matchers.equalTo(1)
+        );
+        store.invalidate("a");
+        MatcherAssert.assertThat(
+            store.get("a", "x", Groups.LONG, src),
+            Matchers.equalTo(2)
+        );
+        MatcherAssert.assertThat(
+            store.stats().get("hits"),
+            Matchers.equalTo(2L)
+        );
+    }
+
+    /**
+     * Store can expire values.
+     * @throws Exception If there is some problem inside
+     */
+    @Test
+    public void expiresValues() throws Exception {
+        final Store store = new Store(Tv.TEN);
+        final AtomicInteger loads = new AtomicInteger();
+        final Store.Source<Integer> src = StoreTest.counting(loads);
+        store.get("c", "y", -1L, src);
+        MatcherAssert.assertThat(
+            store.get("c", "y", -1L, src),
+            Matchers.equalTo(2)
+        );
+    }
+
+    /**
+     * Store can stay within its capacity and keep frequent values.
+     * @throws Exception If there is some problem inside
+     */
+    @Test
+    public void keepsFrequentValuesWithinCapacity() throws Exception {
+        final Store store = new Store(Tv.TEN);
+        final AtomicInteger loads = new AtomicInteger();
+        final Store.Source<Integer> src = StoreTest.counting(loads);
+        for (int idx = 0; idx < Tv.FIVE; ++idx) {
+            store.get("d", "hot", Groups.LONG, src);
+        }
+        for (int idx = 0; idx < Tv.HUNDRED; ++idx) {
+            store.get("e", Integer.toString(idx), Groups.LONG, src);
+            store.get("d", "hot", Groups.LONG, src);
+        }
+        MatcherAssert.assertThat(
+            store.get("d", "hot", Groups.LONG, src),
+            Matchers.equalTo(1)
+        );
+        MatcherAssert.assertThat(
+            store.stats().get("size"),
+            Matchers.lessThanOrEqualTo((long) Tv.TEN)
+        );
+        MatcherAssert.assertThat(
+            store.stats().get("evictions"),
+            Matchers.greaterThan(0L)
+        );
+    }
+
+    /**
+     * Source that counts its loads.
+     * @param loads Counter of loads
+     * @return Source, returning the number of the load
+     */
+    private static Store.Source<Integer> counting(final AtomicInteger loads) {
+        return new Store.Source<Integer>() {
+            @Override
+            public Integer load() throws IOException {
+                return loads.incrementAndGet();
+            }
+        };
+    }
+
+}
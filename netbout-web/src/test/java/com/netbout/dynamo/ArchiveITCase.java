@@ -0,0 +1,99 @@
+/**
+ * Copyright (c) 2009-2016, netbout.com
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are PROHIBITED without prior written permission from
+ * the author. This product may NOT be used anywhere and on any computer
+ * except the server platform of netbout Inc. located at www.netbout.com.
+ * Federal copyright law prohibits unauthorized reproduction by any means
+ * and imposes fines up to $25,000 for violation. If you received
+ * this code accidentally and without intent to use it, please report this
+ * incident to the author by email.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS
+ * "AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT
+ * LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR
+ * A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT
+ * OWNER OR CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL,
+ * SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT
+ * LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE,
+ * DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON
+ * ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY,
+ * OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT
+ * OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF
+ * SUCH DAMAGE.
+ */
+package com.netbout.dynamo;
+
+import com.jcabi.aspects.Tv;
+import com.jcabi.dynamo.Attributes;
+import com.jcabi.dynamo.Conditions;
+import com.jcabi.dynamo.Region;
+import com.jcabi.s3.mock.MkRegion;
+import com.netbout.spi.Message;
+import java.util.List;
+import org.hamcrest.MatcherAssert;
+import org.hamcrest.Matchers;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+/**
+ * Integration case for {@link Archive}.
+ * @author Yegor Bugayenko (yegor@teamed.io)
+ * @version $Id$
+ * @since 3.0
+ */
+public final class ArchiveITCase {
+
+    /**
+     * Temporary folder.
+     * @checkstyle VisibilityModifierCheck (3 lines)
+     */
+    @Rule
+    public final transient TemporaryFolder temp = new TemporaryFolder();
+
+    /**
+     * Archive can move old messages into segments and read them back.
+     * @throws Exception If there is some problem inside
+     */
+    @Test
+    public void compactsAndReadsOldMessages() throws Exception {
+        final Region region = DyBase.region();
+        final long bout = 8_274_551L;
+        final int total = Tv.HUNDRED + Tv.FIFTY;
+        for (long num = 1L; num <= total; ++num) {
+            region.table(DyMessages.TBL).put(
+                new Attributes()
+                    .with(DyMessages.HASH, bout)
+                    .with(DyMessages.RANGE, num)
+                    .with(DyMessages.ATTR_TEXT, String.format("old #%d", num))
+                    .with(DyMessages.ATTR_ALIAS, "arthur")
+                    .with(DyMessages.ATTR_DATE, num)
+            );
+        }
+        final Archive archive = new Archive(
+            region, new MkRegion(this.temp.newFolder()).bucket("segments"),
+            bout
+        );
+        MatcherAssert.assertThat(archive.compact(0L), Matchers.equalTo(total));
+        MatcherAssert.assertThat(
+            region.table(DyMessages.TBL).frame()
+                .where(DyMessages.HASH, Conditions.equalTo(bout)),
+            Matchers.emptyIterable()
+        );
+        final List<Message> page = archive.messages(
+            Tv.TEN, Long.MAX_VALUE, Tv.TWENTY
+        );
+        MatcherAssert.assertThat(page, Matchers.hasSize(Tv.TWENTY));
+        MatcherAssert.assertThat(
+            page.get(0).number(), Matchers.equalTo((long) total)
+        );
+        MatcherAssert.assertThat(
+            archive.message(Tv.FORTY).text(),
+            Matchers.equalTo("old #40")
+        );
+    }
+
+}
@@ -34,6 +34,7 @@ import com.netbout.spi.Attachments;
 import com.netbout.spi.Bout;
 import com.netbout.spi.Inbox;
 import java.io.ByteArrayInputStream;
+import java.util.concurrent.TimeUnit;
 import javax.ws.rs.core.MediaType;
 import org.apache.commons.io.IOUtils;
 import org.hamcrest.MatcherAssert;
@@ -83,6 +84,43 @@ public final class DyAttachmentITCase {
             attachments.get(name).etag(),
             Matchers.equalTo(etag)
         );
+        MatcherAssert.assertThat(
+            attachments.get(name).size(),
+            Matchers.equalTo((long) bytes.length)
+        );
+    }
+
+    /**
+     * DyAttachment can store and load a big attachment.
+     * @throws Exception If there is some problem inside
+     */
+    @Test
+    public void storesAndLoadsBigAttachment() throws Exception {
+        final Aliases aliases =
+            new DyBase().user(new URN("urn:test:89634")).aliases();
+        aliases.add("vincent");
+        final Inbox inbox = aliases.iterate().iterator().next().inbox();
+        final Attachments attachments = inbox.bout(inbox.start())
+            .attachments();
+        final String name = "big";
+        attachments.create(name);
+        final byte[] bytes = new byte[Tv.HUNDRED * Tv.THOUSAND];
+        for (int idx = 0; idx < bytes.length; ++idx) {
+            bytes[idx] = (byte) (idx * Tv.THREE);
+        }
+        attachments.get(name).write(
+            new ByteArrayInputStream(bytes),
+            MediaType.APPLICATION_OCTET_STREAM,
+            "first"
+        );
+        MatcherAssert.assertThat(
+            IOUtils.toByteArray(attachments.get(name).read()),
+            Matchers.equalTo(bytes)
+        );
+        MatcherAssert.assertThat(
+            attachments.get(name).size(),
+            Matchers.equalTo((long) bytes.length)
+        );
     }
 
     /**
@@ -133,4 +171,59 @@ public final class DyAttachmentITCase {
         );
         attachments.delete(name);
     }
+
+    /**
+     * DyAttachment can track unseen attachments of friends.
+     * @throws Exception If there is some problem inside
+     */
+    @Test
+    public void tracksUnseenAttachments() throws Exception {
+        final Aliases first =
+            new DyBase().user(new URN("urn:test:89638")).aliases();
+        first.add("pamela");
+        final Aliases second =
+            new DyBase().user(new URN("urn:test:89639")).aliases();
+        second.add("patrick");
+        final Inbox inbox = first.iterate().iterator().next().inbox();
+        final Bout bout = inbox.bout(inbox.start());
+        bout.friends().invite("patrick");
+        final String name = "report";
+        bout.attachments().create(name);
+        bout.attachments().get(name).write(
+            new ByteArrayInputStream(new byte[] {1, 2, 3}),
+            MediaType.APPLICATION_OCTET_STREAM, "v1"
+        );
+        final Attachments other = second.iterate().iterator().next()
+            .inbox().bout(bout.number()).attachments();
+        MatcherAssert.assertThat(
+            DyAttachmentITCase.await(other, 1),
+            Matchers.equalTo(1)
+        );
+        final Attachment attachment = other.iterate().iterator().next();
+        MatcherAssert.assertThat("seen already", attachment.unseen());
+        IOUtils.toByteArray(attachment.read());
+        MatcherAssert.assertThat(
+            DyAttachmentITCase.await(other, 0),
+            Matchers.equalTo(0)
+        );
+    }
+
+    /**
+     * Wait for the number of unseen attachments.
+     * @param attachments Attachments
+     * @param expected Number expected
+     * @return Number of unseen attachments
+     * @throws Exception If fails
+     */
+    private static int await(final Attachments attachments,
+        final int expected) throws Exception {
+        int unseen = attachments.unseen();
+        for (int attempt = 0; attempt < Tv.FIFTY && unseen != expected;
+            ++attempt) {
+            TimeUnit.MILLISECONDS.sleep(Tv.HUNDRED);
+            unseen = attachments.unseen();
+        }
+        return unseen;
+    }
+
 }
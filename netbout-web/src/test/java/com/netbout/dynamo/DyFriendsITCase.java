@@ -27,11 +27,13 @@
 package com.netbout.dynamo;
 
 import com.jcabi.urn.URN;
+import com.netbout.spi.Alias;
 import com.netbout.spi.Aliases;
 import com.netbout.spi.Bout;
 import com.netbout.spi.Friend;
 import com.netbout.spi.Friends;
 import com.netbout.spi.Inbox;
+import java.net.URI;
 import org.hamcrest.MatcherAssert;
 import org.hamcrest.Matchers;
 import org.junit.Test;
@@ -66,4 +68,27 @@ public final class DyFriendsITCase {
         );
     }
 
+    /**
+     * DyFriends can show a new photo of a friend.
+     * @throws Exception If there is some problem inside
+     */
+    @Test
+    public void showsChangedPhotoOfFriend() throws Exception {
+        final Aliases aliases =
+            new DyBase().user(new URN("urn:test:8531")).aliases();
+        final Alias alias = aliases.add("lenny");
+        final Inbox inbox = alias.inbox();
+        final Bout bout = inbox.bout(inbox.start());
+        MatcherAssert.assertThat(
+            bout.friends().iterate().iterator().next().photo(),
+            Matchers.equalTo(Alias.BLANK)
+        );
+        final URI photo = new URI("http://img.netbout.com/lenny.png");
+        alias.photo(photo);
+        MatcherAssert.assertThat(
+            bout.friends().iterate().iterator().next().photo(),
+            Matchers.equalTo(photo)
+        );
+    }
+
 }
@@ -64,7 +64,8 @@ public final class DyInboxITCase {
         final Bout second = inbox.bout(inbox.start());
         first.messages().post("hello");
         second.messages().post("world");
-        final Iterator<Bout> result = inbox.search("ell").iterator();
+        final Iterator<Bout> result = DyInboxITCase.search(inbox, "hel")
+            .iterator();
         MatcherAssert.assertThat(
             "search result is empty",
             result.hasNext()
@@ -127,6 +128,68 @@ public final class DyInboxITCase {
         );
     }
 
+    /**
+     * DyInbox can keep the total of unread messages of a friend.
+     * @throws Exception If there is some problem inside
+     */
+    @Test
+    public void keepsUnreadTotalOfFriend() throws Exception {
+        final DyBase base = new DyBase();
+        final Aliases mine = base.user(new URN("urn:test:88027")).aliases();
+        mine.add("susan");
+        final Aliases his = base.user(new URN("urn:test:88028")).aliases();
+        final String friend = "samuel";
+        his.add(friend);
+        final Inbox inbox = mine.iterate().iterator().next().inbox();
+        final Bout bout = inbox.bout(inbox.start());
+        bout.friends().invite(friend);
+        bout.messages().post("first");
+        bout.messages().post("second");
+        final Inbox other = his.iterate().iterator().next().inbox();
+        MatcherAssert.assertThat(
+            DyInboxITCase.await(other, 2L),
+            Matchers.equalTo(2L)
+        );
+        other.bout(bout.number()).messages().iterate();
+        MatcherAssert.assertThat(
+            DyInboxITCase.await(other, 0L),
+            Matchers.equalTo(0L)
+        );
+    }
+
+    /**
+     * DyInbox can list bouts with the state of myself in them.
+     * @throws Exception If there is some problem inside
+     */
+    @Test
+    public void listsBoutsWithFriendState() throws Exception {
+        final Aliases aliases =
+            new DyBase().user(new URN("urn:test:88029")).aliases();
+        aliases.add("martha");
+        final Inbox inbox = aliases.iterate().iterator().next().inbox();
+        final int total = Tv.THREE;
+        for (int idx = 0; idx < total; ++idx) {
+            inbox.bout(inbox.start()).messages().post("hi");
+        }
+        int listed = 0;
+        for (final Bout bout : inbox.iterate()) {
+            MatcherAssert.assertThat(
+                bout.messages().unread(),
+                Matchers.equalTo(0L)
+            );
+            MatcherAssert.assertThat(
+                bout.attachments().unseen(),
+                Matchers.equalTo(0)
+            );
+            MatcherAssert.assertThat(
+                "not subscribed",
+                bout.subscription()
+            );
+            ++listed;
+        }
+        MatcherAssert.assertThat(listed, Matchers.equalTo(total));
+    }
+
     /**
      * DyInbox can jump over the list.
      * @throws Exception If there is some problem inside
@@ -159,4 +222,40 @@ public final class DyInboxITCase {
         MatcherAssert.assertThat(found, Matchers.equalTo(bouts));
     }
 
+    /**
+     * Wait until the inbox has the expected number of unread messages.
+     * @param inbox The inbox
+     * @param expected Expected number
+     * @return Number of unread messages in the end
+     * @throws Exception If there is some problem inside
+     */
+    private static long await(final Inbox inbox, final long expected)
+        throws Exception {
+        long unread = inbox.unread();
+        for (int attempt = 0; attempt < Tv.FIFTY && unread != expected;
+            ++attempt) {
+            TimeUnit.MILLISECONDS.sleep(Tv.HUNDRED);
+            unread = inbox.unread();
+        }
+        return unread;
+    }
+
+    /**
+     * Wait until the search index of the inbox finds something.
+     * @param inbox The inbox
+     * @param term Search term
+     * @return Bouts found
+     * @throws Exception If there is some problem inside
+     */
+    private static Iterable<Bout> search(final Inbox inbox, final String term)
+        throws Exception {
+        Iterable<Bout> found = inbox.search(term);
+        for (int attempt = 0; attempt < Tv.FIFTY
+            && !found.iterator().hasNext(); ++attempt) {
+            TimeUnit.MILLISECONDS.sleep(Tv.HUNDRED);
+            found = inbox.search(term);
+        }
+        return found;
+    }
+
 }
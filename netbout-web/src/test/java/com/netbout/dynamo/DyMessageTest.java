@@ -0,0 +1,99 @@
+/**
+ * Copyright (c) 2009-2016, netbout.com
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are PROHIBITED without prior written permission from
+ * the author. This product may NOT be used anywhere and on any computer
+ * except the server platform of netbout Inc. located at www.netbout.com.
+ * Federal copyright law prohibits unauthorized reproduction by any means
+ * and imposes fines up to $25,000 for violation. If you received
+ * this code accidentally and without intent to use it, please report this
+ * incident to the author by email.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS
+ * "AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT
+ * LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR
+ * A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT
+ * OWNER OR CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL,
+ * SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT
+ * LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE,
+ * DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON
+ * ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY,
+ * OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT
+ * OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF
+ * SUCH DAMAGE.
+ */
+package com.netbout.dynamo;
+
+import com.jcabi.dynamo.Attributes;
+import com.netbout.markdown.Markdown;
+import org.hamcrest.MatcherAssert;
+import org.hamcrest.Matchers;
+import org.junit.Test;
+
+/**
+ * Test case for {@link DyMessage}.
+ * @author Yegor Bugayenko (yegor@teamed.io)
+ * @version $Id$
+ * @since 3.0
+ */
+public final class DyMessageTest {
+
+    /**
+     * DyMessage can use HTML, stored by the current renderer.
+     * @throws Exception If there is some problem inside
+     */
+    @Test
+    public void usesStoredHtml() throws Exception {
+        MatcherAssert.assertThat(
+            new DyMessage(
+                DyMessageTest.item()
+                    .with(DyMessages.ATTR_HTML, "<p>stored</p>")
+                    .with(DyMessages.ATTR_MARKDOWN, Markdown.Default.VERSION)
+            ).html(),
+            Matchers.equalTo("<p>stored</p>")
+        );
+    }
+
+    /**
+     * DyMessage can render HTML again, if stored by an older renderer.
+     * @throws Exception If there is some problem inside
+     */
+    @Test
+    public void rendersStaleHtmlAgain() throws Exception {
+        MatcherAssert.assertThat(
+            new DyMessage(
+                DyMessageTest.item()
+                    .with(DyMessages.ATTR_HTML, "<p>stale</p>")
+                    .with(DyMessages.ATTR_MARKDOWN, "txtmark-0")
+            ).html(),
+            Matchers.containsString("<strong>fresh</strong>")
+        );
+    }
+
+    /**
+     * DyMessage can render HTML, if nothing is stored.
+     * @throws Exception If there is some problem inside
+     */
+    @Test
+    public void rendersMissingHtml() throws Exception {
+        MatcherAssert.assertThat(
+            new DyMessage(DyMessageTest.item()).html(),
+            Matchers.containsString("<strong>fresh</strong>")
+        );
+    }
+
+    /**
+     * Make an item of "messages" table, without HTML.
+     * @return Item
+     */
+    private static Attributes item() {
+        return new Attributes()
+            .with(DyMessages.RANGE, 1L)
+            .with(DyMessages.ATTR_TEXT, "**fresh**")
+            .with(DyMessages.ATTR_ALIAS, "jeff")
+            .with(DyMessages.ATTR_DATE, System.currentTimeMillis());
+    }
+
+}
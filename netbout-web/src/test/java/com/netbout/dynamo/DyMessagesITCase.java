@@ -26,6 +26,7 @@
  */
 package com.netbout.dynamo;
 
+import com.google.common.collect.Iterables;
 import com.jcabi.aspects.Tv;
 import com.jcabi.urn.URN;
 import com.netbout.spi.Alias;
@@ -38,7 +39,11 @@ import com.netbout.spi.Messages;
 import com.netbout.spi.Pageable;
 import java.io.IOException;
 import java.net.URISyntaxException;
+import java.util.Collection;
+import java.util.HashSet;
 import java.util.Iterator;
+import java.util.LinkedList;
+import java.util.concurrent.TimeUnit;
 import org.hamcrest.MatcherAssert;
 import org.hamcrest.Matchers;
 import org.junit.Rule;
@@ -106,6 +111,65 @@ public final class DyMessagesITCase {
         MatcherAssert.assertThat(found, Matchers.equalTo(total));
     }
 
+    /**
+     * DyMessages can take pages by the cursor of the previous page.
+     * @throws Exception If there is some problem inside
+     */
+    @Test
+    public void takesPagesByCursor() throws Exception {
+        final Aliases aliases =
+            new DyBase().user(new URN("urn:test:844839")).aliases();
+        aliases.add("rosalind");
+        final Inbox inbox = aliases.iterate().iterator().next().inbox();
+        final Messages messages = inbox.bout(inbox.start()).messages();
+        final int total = Tv.SEVEN;
+        for (int idx = 0; idx < total; ++idx) {
+            messages.post(String.format("page msg #%d", idx));
+        }
+        final Collection<Long> numbers = new LinkedList<>();
+        Pageable.Page<Message> page = messages.page(Tv.THREE);
+        while (true) {
+            for (final Message msg : page.items()) {
+                numbers.add(msg.number());
+            }
+            if (page.last()) {
+                break;
+            }
+            page = messages.jump(page.next()).page(Tv.THREE);
+        }
+        MatcherAssert.assertThat(numbers, Matchers.hasSize(total));
+        MatcherAssert.assertThat(
+            new HashSet<>(numbers), Matchers.hasSize(total)
+        );
+    }
+
+    /**
+     * DyMessages can iterate many pages of messages.
+     * @throws Exception If there is some problem inside
+     */
+    @Test
+    public void iteratesManyPages() throws Exception {
+        final Aliases aliases =
+            new DyBase().user(new URN("urn:test:844840")).aliases();
+        aliases.add("rosaline");
+        final Inbox inbox = aliases.iterate().iterator().next().inbox();
+        final Messages messages = inbox.bout(inbox.start()).messages();
+        final int total = Messages.PAGE * Tv.THREE + 1;
+        for (int idx = 0; idx < total; ++idx) {
+            messages.post(String.format("many msg #%d", idx));
+        }
+        long previous = Long.MAX_VALUE;
+        int found = 0;
+        for (final Message msg : messages.jump(Inbox.NEVER).iterate()) {
+            MatcherAssert.assertThat(
+                msg.number(), Matchers.lessThan(previous)
+            );
+            previous = msg.number();
+            ++found;
+        }
+        MatcherAssert.assertThat(found, Matchers.equalTo(total));
+    }
+
     /**
      * DyMessages can search for text in messages.
      * @throws Exception If there is some problem inside
@@ -122,7 +186,8 @@ public final class DyMessagesITCase {
         // @checkstyle MultipleStringLiteralsCheck (1 line)
         bout.messages().post("world");
         bout.messages().post("foo");
-        final Iterator<Message> result = bout.messages().search("r").iterator();
+        final Iterator<Message> result =
+            DyMessagesITCase.search(bout, "wor", 1).iterator();
         MatcherAssert.assertThat(
             "search result is empty",
             result.hasNext()
@@ -138,6 +203,37 @@ public final class DyMessagesITCase {
         );
     }
 
+    /**
+     * DyMessages can find messages by word prefixes, exact words first.
+     * @throws Exception If there is some problem inside
+     */
+    @Test
+    public void ranksSearchResults() throws Exception {
+        final String alias = "frodo";
+        final Aliases aliases =
+            new DyBase().user(new URN("urn:test:8831416")).aliases();
+        aliases.add(alias);
+        final Inbox inbox = aliases.iterate().iterator().next().inbox();
+        final Bout bout = inbox.bout(inbox.start());
+        bout.messages().post("the ring is mine");
+        bout.messages().post("they are ringing, Sam");
+        bout.messages().post("nothing here");
+        final Iterator<Message> result =
+            DyMessagesITCase.search(bout, "RING", 2).iterator();
+        MatcherAssert.assertThat(
+            result.next().text(),
+            Matchers.equalTo("the ring is mine")
+        );
+        MatcherAssert.assertThat(
+            result.next().text(),
+            Matchers.equalTo("they are ringing, Sam")
+        );
+        MatcherAssert.assertThat(
+            "more results than expected",
+            !result.hasNext()
+        );
+    }
+
     /**
      * DyMessages can retain leading spaces as code markdown.
      * @throws Exception If there is some problem inside
@@ -188,4 +284,24 @@ public final class DyMessagesITCase {
             messages.unread();
         }
     }
+
+    /**
+     * Wait until the search index of the bout finds enough messages.
+     * @param bout The bout
+     * @param term Search term
+     * @param expected How many messages to expect
+     * @return Messages found
+     * @throws Exception If there is some problem inside
+     */
+    private static Iterable<Message> search(final Bout bout,
+        final String term, final int expected) throws Exception {
+        Iterable<Message> found = bout.messages().search(term);
+        for (int attempt = 0; attempt < Tv.FIFTY
+            && Iterables.size(found) < expected; ++attempt) {
+            TimeUnit.MILLISECONDS.sleep(Tv.HUNDRED);
+            found = bout.messages().search(term);
+        }
+        return found;
+    }
+
 }
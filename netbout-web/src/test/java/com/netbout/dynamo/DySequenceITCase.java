@@ -0,0 +1,108 @@
+/**
+ * Copyright (c) 2009-2016, netbout.com
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are PROHIBITED without prior written permission from
+ * the author. This product may NOT be used anywhere and on any computer
+ * except the server platform of netbout Inc. located at www.netbout.com.
+ * Federal copyright law prohibits unauthorized reproduction by any means
+ * and imposes fines up to $25,000 for violation. If you received
+ * this code accidentally and without intent to use it, please report this
+ * incident to the author by email.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS
+ * "AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT
+ * LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR
+ * A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT
+ * OWNER OR CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL,
+ * SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT
+ * LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE,
+ * DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON
+ * ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY,
+ * OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT
+ * OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF
+ * SUCH DAMAGE.
+ */
+package com.netbout.dynamo;
+
+import co.stateful.Counter;
+import com.jcabi.aspects.Tv;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentSkipListSet;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import org.hamcrest.MatcherAssert;
+import org.hamcrest.Matchers;
+import org.junit.Test;
+import org.mockito.Mockito;
+
+/**
+ * Integration case for {@link DySequence}.
+ * @author Yegor Bugayenko (yegor@teamed.io)
+ * @version $Id$
+ * @since 3.0
+ */
+public final class DySequenceITCase {
+
+    /**
+     * DySequence can start from the legacy counter, with a gap.
+     * @throws Exception If there is some problem inside
+     */
+    @Test
+    public void startsFromLegacyCounter() throws Exception {
+        final Counter legacy = Mockito.mock(Counter.class);
+        Mockito.doReturn(Tv.THOUSAND * 1L).when(legacy).incrementAndGet(0L);
+        final Sequence seq = new DySequence(
+            DyBase.region(), "test-legacy", Tv.TEN, legacy
+        );
+        MatcherAssert.assertThat(seq.next(), Matchers.equalTo(101001L));
+        MatcherAssert.assertThat(seq.next(), Matchers.equalTo(101002L));
+    }
+
+    /**
+     * DySequence can give unique numbers to many threads.
+     * @throws Exception If there is some problem inside
+     */
+    @Test
+    public void givesUniqueNumbersConcurrently() throws Exception {
+        final Sequence seq = new DySequence(
+            DyBase.region(), "test-concurrent", Tv.SEVEN,
+            Mockito.mock(Counter.class)
+        );
+        final Collection<Long> numbers = new ConcurrentSkipListSet<>();
+        final ExecutorService threads = Executors.newFixedThreadPool(Tv.FIVE);
+        final Collection<Future<Void>> futures =
+            new ArrayList<>(Tv.FIVE);
+        try {
+            for (int thread = 0; thread < Tv.FIVE; ++thread) {
+                futures.add(
+                    threads.submit(
+                        new Callable<Void>() {
+                            @Override
+                            public Void call() throws Exception {
+                                for (int idx = 0; idx < Tv.FIFTY; ++idx) {
+                                    numbers.add(seq.next());
+                                }
+                                return null;
+                            }
+                        }
+                    )
+                );
+            }
+            for (final Future<Void> future : futures) {
+                future.get();
+            }
+        } finally {
+            threads.shutdown();
+        }
+        MatcherAssert.assertThat(
+            numbers.size(),
+            Matchers.equalTo(Tv.FIVE * Tv.FIFTY)
+        );
+    }
+
+}
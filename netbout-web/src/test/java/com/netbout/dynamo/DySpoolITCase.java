@@ -0,0 +1,87 @@
+/**
+ * Copyright (c) 2009-2016, netbout.com
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are PROHIBITED without prior written permission from
+ * the author. This product may NOT be used anywhere and on any computer
+ * except the server platform of netbout Inc. located at www.netbout.com.
+ * Federal copyright law prohibits unauthorized reproduction by any means
+ * and imposes fines up to $25,000 for violation. If you received
+ * this code accidentally and without intent to use it, please report this
+ * incident to the author by email.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS
+ * "AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT
+ * LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR
+ * A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT
+ * OWNER OR CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL,
+ * SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT
+ * LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE,
+ * DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON
+ * ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY,
+ * OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT
+ * OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF
+ * SUCH DAMAGE.
+ */
+package com.netbout.dynamo;
+
+import com.netbout.email.Spool;
+import java.util.Collections;
+import org.hamcrest.MatcherAssert;
+import org.hamcrest.Matchers;
+import org.junit.Test;
+
+/**
+ * Integration case for {@link DySpool}.
+ * @author Yegor Bugayenko (yegor@teamed.io)
+ * @version $Id$
+ * @since 3.0
+ */
+public final class DySpoolITCase {
+
+    /**
+     * DySpool can save and delete notifications.
+     * @throws Exception If there is some problem inside
+     */
+    @Test
+    public void savesAndDeletesNotifications() throws Exception {
+        final Spool spool = new DySpool();
+        final String id = spool.save(
+            Collections.singletonMap("subject", "#1: hello")
+        );
+        MatcherAssert.assertThat(
+            spool.pending().get(id),
+            Matchers.hasEntry("subject", "#1: hello")
+        );
+        spool.delete(id);
+        MatcherAssert.assertThat(
+            spool.pending(),
+            Matchers.not(Matchers.hasKey(id))
+        );
+    }
+
+    /**
+     * DySpool can claim a notification only once in a while.
+     * @throws Exception If there is some problem inside
+     */
+    @Test
+    public void claimsNotificationOnce() throws Exception {
+        final Spool spool = new DySpool();
+        final String id = spool.save(
+            Collections.singletonMap("subject", "#2: claim me")
+        );
+        final long before = System.currentTimeMillis() + 1L;
+        MatcherAssert.assertThat(
+            spool.claim(id, before), Matchers.is(true)
+        );
+        MatcherAssert.assertThat(
+            spool.claim(id, before - 1L), Matchers.is(false)
+        );
+        spool.delete(id);
+        MatcherAssert.assertThat(
+            spool.claim(id, Long.MAX_VALUE), Matchers.is(false)
+        );
+    }
+
+}
@@ -28,7 +28,11 @@ package com.netbout.dynamo;
 
 import com.jcabi.urn.URN;
 import com.netbout.spi.Alias;
+import com.netbout.spi.Base;
+import com.netbout.spi.Friend;
 import com.netbout.spi.User;
+import java.util.Collection;
+import java.util.LinkedList;
 import org.hamcrest.MatcherAssert;
 import org.hamcrest.Matchers;
 import org.junit.Test;
@@ -55,4 +59,24 @@ public final class DyUserITCase {
         );
     }
 
+    /**
+     * DyUser can suggest friends by prefix, the exact match first.
+     * @throws Exception If there is some problem inside
+     */
+    @Test
+    public void suggestsFriendsByPrefix() throws Exception {
+        final Base base = new DyBase();
+        base.user(new URN("urn:test:7701")).aliases().add("marcus");
+        base.user(new URN("urn:test:7702")).aliases().add("marc");
+        base.user(new URN("urn:test:7703")).aliases().add("martin");
+        final Collection<String> names = new LinkedList<>();
+        for (final Friend friend
+            : base.user(new URN("urn:test:7704")).friends("marc")) {
+            names.add(friend.alias());
+        }
+        MatcherAssert.assertThat(
+            names, Matchers.contains("marc", "marcus")
+        );
+    }
+
 }
@@ -0,0 +1,102 @@
+/**
+ * Copyright (c) 2009-2016, netbout.com
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are PROHIBITED without prior written permission from
+ * the author. This product may NOT be used anywhere and on any computer
+ * except the server platform of netbout Inc. located at www.netbout.com.
+ * Federal copyright law prohibits unauthorized reproduction by any means
+ * and imposes fines up to $25,000 for violation. If you received
+ * this code accidentally and without intent to use it, please report this
+ * incident to the author by email.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS
+ * "AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT
+ * LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR
+ * A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT
+ * OWNER OR CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL,
+ * SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT
+ * LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE,
+ * DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON
+ * ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY,
+ * OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT
+ * OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF
+ * SUCH DAMAGE.
+ */
+package com.netbout.dynamo;
+
+import com.amazonaws.services.dynamodbv2.model.AttributeValue;
+import com.jcabi.dynamo.Attributes;
+import com.jcabi.s3.mock.MkRegion;
+import com.netbout.spi.Message;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import org.hamcrest.MatcherAssert;
+import org.hamcrest.Matchers;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+/**
+ * Test case for {@link Segment}.
+ * @author Yegor Bugayenko (yegor@teamed.io)
+ * @version $Id$
+ * @since 3.0
+ */
+public final class SegmentTest {
+
+    /**
+     * Temporary folder.
+     * @checkstyle VisibilityModifierCheck (3 lines)
+     */
+    @Rule
+    public final transient TemporaryFolder temp = new TemporaryFolder();
+
+    /**
+     * Segment can save messages and load them back.
+     * @throws Exception If there is some problem inside
+     */
+    @Test
+    public void savesAndLoadsMessages() throws Exception {
+        final Segment segment = new Segment(
+            new MkRegion(this.temp.newFolder()).bucket("test")
+                .ocket("segments/1/2-3.gz")
+        );
+        segment.save(
+            Arrays.<Map<String, AttributeValue>>asList(
+                SegmentTest.item(2L, "hi there"),
+                SegmentTest.item(3L, "bye, bye!")
+            )
+        );
+        final List<Message> messages = segment.load();
+        MatcherAssert.assertThat(messages, Matchers.hasSize(2));
+        MatcherAssert.assertThat(
+            messages.get(1).number(), Matchers.equalTo(3L)
+        );
+        MatcherAssert.assertThat(
+            messages.get(1).text(), Matchers.equalTo("bye, bye!")
+        );
+        MatcherAssert.assertThat(
+            messages.get(0).author(), Matchers.equalTo("walter")
+        );
+    }
+
+    /**
+     * Make an item of "messages" table.
+     * @param number Message number
+     * @param text Text of the message
+     * @return Item
+     */
+    private static Map<String, AttributeValue> item(final long number,
+        final String text) {
+        return new Attributes()
+            .with(DyMessages.HASH, 1L)
+            .with(DyMessages.RANGE, number)
+            .with(DyMessages.ATTR_TEXT, text)
+            .with(DyMessages.ATTR_ALIAS, "walter")
+            .with(DyMessages.ATTR_DATE, System.currentTimeMillis());
+    }
+
+}
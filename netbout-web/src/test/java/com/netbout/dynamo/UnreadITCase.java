@@ -0,0 +1,86 @@
+/**
+ * Copyright (c) 2009-2016, netbout.com
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are PROHIBITED without prior written permission from
+ * the author. This product may NOT be used anywhere and on any computer
+ * except the server platform of netbout Inc. located at www.netbout.com.
+ * Federal copyright law prohibits unauthorized reproduction by any means
+ * and imposes fines up to $25,000 for violation. If you received
+ * this code accidentally and without intent to use it, please report this
+ * incident to the author by email.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS
+ * "AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT
+ * LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR
+ * A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT
+ * OWNER OR CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL,
+ * SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT
+ * LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE,
+ * DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON
+ * ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY,
+ * OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT
+ * OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF
+ * SUCH DAMAGE.
+ */
+package com.netbout.dynamo;
+
+import com.amazonaws.services.dynamodbv2.model.AttributeAction;
+import com.amazonaws.services.dynamodbv2.model.AttributeValueUpdate;
+import com.jcabi.dynamo.AttributeUpdates;
+import com.jcabi.dynamo.Region;
+import com.jcabi.urn.URN;
+import org.hamcrest.MatcherAssert;
+import org.hamcrest.Matchers;
+import org.junit.Test;
+
+/**
+ * Integration case for {@link Unread}.
+ * @author Yegor Bugayenko (yegor@teamed.io)
+ * @version $Id$
+ * @since 3.0
+ */
+public final class UnreadITCase {
+
+    /**
+     * Unread can calculate the total before changing it.
+     * @throws Exception If there is some problem inside
+     */
+    @Test
+    public void calculatesAbsentTotalBeforeAdding() throws Exception {
+        final String alias = "olga";
+        new DyBase().user(new URN("urn:test:99017")).aliases().add(alias);
+        final Region region = DyBase.region();
+        region.table(DyAliases.TBL).frame()
+            .where(DyAliases.HASH, alias)
+            .iterator().next()
+            .put(
+                new AttributeUpdates().with(
+                    DyAliases.ATTR_UNREAD,
+                    new AttributeValueUpdate().withAction(
+                        AttributeAction.DELETE
+                    )
+                )
+            );
+        final Unread unread = new Unread(region, alias);
+        unread.add(2L);
+        unread.add(1L);
+        MatcherAssert.assertThat(unread.value(), Matchers.equalTo(2L + 1L));
+    }
+
+    /**
+     * Unread can calculate a negative total again.
+     * @throws Exception If there is some problem inside
+     */
+    @Test
+    public void repairsNegativeTotal() throws Exception {
+        final String alias = "oksana";
+        new DyBase().user(new URN("urn:test:99018")).aliases().add(alias);
+        final Unread unread = new Unread(DyBase.region(), alias);
+        unread.add(-2L);
+        MatcherAssert.assertThat(unread.value(), Matchers.equalTo(0L));
+        MatcherAssert.assertThat(unread.value(), Matchers.equalTo(0L));
+    }
+
+}
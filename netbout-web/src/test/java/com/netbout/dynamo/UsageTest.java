@@ -0,0 +1,63 @@
+/**
+ * Copyright (c) 2009-2016, netbout.com
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are PROHIBITED without prior written permission from
+ * the author. This product may NOT be used anywhere and on any computer
+ * except the server platform of netbout Inc. located at www.netbout.com.
+ * Federal copyright law prohibits unauthorized reproduction by any means
+ * and imposes fines up to $25,000 for violation. If you received
+ * this code accidentally and without intent to use it, please report this
+ * incident to the author by email.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS
+ * "AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT
+ * LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR
+ * A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT
+ * OWNER OR CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL,
+ * SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT
+ * LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE,
+ * DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON
+ * ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY,
+ * OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT
+ * OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF
+ * SUCH DAMAGE.
+ */
+package com.netbout.dynamo;
+
+import org.hamcrest.MatcherAssert;
+import org.hamcrest.Matchers;
+import org.junit.Test;
+
+/**
+ * Test case for {@link Usage}.
+ * @author Yegor Bugayenko (yegor@teamed.io)
+ * @version $Id$
+ * @since 3.0
+ */
+public final class UsageTest {
+
+    /**
+     * Usage can sum up tables, but not their indexes.
+     * @throws Exception If there is some problem inside
+     */
+    @Test
+    public void sumsUpTablesOnly() throws Exception {
+        final Usage usage = new Usage();
+        usage.call("friends", 3L, 2.0d, false);
+        usage.call("friends:updated", 3L, 0.0d, false);
+        usage.consume("friends:updated", 1.5d, false);
+        usage.call("messages", 1L, 1.0d, true);
+        final Usage.Line total = usage.total();
+        MatcherAssert.assertThat(total.calls(), Matchers.equalTo(2L));
+        MatcherAssert.assertThat(total.items(), Matchers.equalTo(4L));
+        MatcherAssert.assertThat(total.reads(), Matchers.closeTo(2.0d, 0.01d));
+        MatcherAssert.assertThat(total.writes(), Matchers.closeTo(1.0d, 0.01d));
+        MatcherAssert.assertThat(
+            usage.lines().get("friends:updated").reads(),
+            Matchers.closeTo(1.5d, 0.01d)
+        );
+    }
+
+}
@@ -26,6 +26,7 @@
  */
 package com.netbout.email;
 
+import com.jcabi.aspects.Tv;
 import com.jcabi.email.Envelope;
 import com.jcabi.email.Postman;
 import com.netbout.mock.MkBase;
@@ -63,7 +64,8 @@ public final class EmAliasTest {
         bout.messages().post("how are you?");
         final ArgumentCaptor<Envelope> captor =
             ArgumentCaptor.forClass(Envelope.class);
-        Mockito.verify(postman).send(captor.capture());
+        Mockito.verify(postman, Mockito.timeout(Tv.FIVE * Tv.THOUSAND))
+            .send(captor.capture());
         final Message msg = captor.getValue().unwrap();
         MatcherAssert.assertThat(msg.getFrom().length, Matchers.is(1));
         MatcherAssert.assertThat(msg.getAllRecipients().length, Matchers.is(1));
@@ -92,7 +94,9 @@ public final class EmAliasTest {
         bout.messages().post("hello");
         final ArgumentCaptor<Envelope> captor =
             ArgumentCaptor.forClass(Envelope.class);
-        Mockito.verify(postman, Mockito.times(1)).send(captor.capture());
+        Mockito.verify(
+            postman, Mockito.timeout(Tv.FIVE * Tv.THOUSAND).times(1)
+        ).send(captor.capture());
         final Message msg = captor.getValue().unwrap();
         MatcherAssert.assertThat(
             (InternetAddress[]) msg.getAllRecipients(),
@@ -26,6 +26,7 @@
  */
 package com.netbout.email;
 
+import com.jcabi.aspects.Tv;
 import com.jcabi.email.Envelope;
 import com.jcabi.email.Postman;
 import com.jcabi.urn.URN;
@@ -68,7 +69,8 @@ public final class EmMessagesITCase {
         bout.messages().post("Are you using GMail?");
         final ArgumentCaptor<Envelope> captor =
             ArgumentCaptor.forClass(Envelope.class);
-        Mockito.verify(postman).send(captor.capture());
+        Mockito.verify(postman, Mockito.timeout(Tv.FIVE * Tv.THOUSAND))
+            .send(captor.capture());
         final Message msg = captor.getValue().unwrap();
         final ByteArrayOutputStream baos = new ByteArrayOutputStream();
         MimeMultipart.class.cast(msg.getContent()).writeTo(baos);
@@ -101,13 +103,19 @@ public final class EmMessagesITCase {
         friend.inbox().bout(bout.number()).subscribe(false);
         final String dontsend = "don't send it";
         bout.messages().post(dontsend);
+        Mockito.verify(postman, Mockito.after(Tv.THOUSAND).never())
+            .send(Mockito.any(Envelope.class));
         friend.inbox().bout(bout.number()).subscribe(true);
         final String send = "send it";
         bout.messages().post(send);
         bout.messages().post(send);
+        Mockito.verify(
+            postman, Mockito.timeout(Tv.FIVE * Tv.THOUSAND).times(2)
+        ).send(Mockito.any(Envelope.class));
         friend.inbox().bout(bout.number()).subscribe(false);
         bout.messages().post(dontsend);
-        Mockito.verify(postman, Mockito.times(2)).send(captor.capture());
+        Mockito.verify(postman, Mockito.after(Tv.THOUSAND).times(2))
+            .send(captor.capture());
         final List<Envelope> messages = captor.getAllValues();
         for (final Envelope envelope : messages) {
             final ByteArrayOutputStream baos = new ByteArrayOutputStream();
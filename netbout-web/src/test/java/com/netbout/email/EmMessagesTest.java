@@ -26,6 +26,7 @@
  */
 package com.netbout.email;
 
+import com.jcabi.aspects.Tv;
 import com.jcabi.email.Envelope;
 import com.jcabi.email.Postman;
 import com.netbout.mock.MkBase;
@@ -37,7 +38,6 @@ import org.hamcrest.Matchers;
 import org.junit.Test;
 import org.mockito.ArgumentCaptor;
 import org.mockito.Mockito;
-import org.takes.facets.forward.RsFailure;
 
 /**
  * Test case for {@link EmMessages}.
@@ -48,26 +48,28 @@ import org.takes.facets.forward.RsFailure;
 public final class EmMessagesTest {
 
     /**
-     * Can throw a user-friendly exception in case of email
-     * delivery failure.
+     * Doesn't fail the post in case of email delivery failure.
      * @throws Exception If there is some problem inside
      */
-    @Test(expected = RsFailure.class)
-    public void throwsUserFriendlyExceptionOnFailure() throws Exception {
+    @Test
+    public void postsDespiteDeliveryFailure() throws Exception {
         final Postman postman = Mockito.mock(Postman.class);
         final MkBase base = new MkBase();
-        final Alias alias = new EmAlias(base.randomAlias(), postman);
+        final Alias alias = base.randomAlias();
         final Bout bout = alias.inbox().bout(alias.inbox().start());
         bout.friends().invite(base.randomAlias().name());
         Mockito.doThrow(new IOException()).when(postman)
             .send(Mockito.any(Envelope.class));
-        final EmMessages messages = new EmMessages(
-            bout.messages(),
-            postman,
-            bout,
-            alias.name()
+        final String text = "are you there?";
+        new EmMessages(
+            bout.messages(), postman, new Spool.Memory(), bout, alias.name()
+        ).post(text);
+        Mockito.verify(postman, Mockito.timeout(Tv.FIVE * Tv.THOUSAND))
+            .send(Mockito.any(Envelope.class));
+        MatcherAssert.assertThat(
+            bout.messages().iterate().iterator().next().text(),
+            Matchers.equalTo(text)
         );
-        messages.post("how are you?");
     }
 
     /**
@@ -84,7 +86,7 @@ public final class EmMessagesTest {
         bout.messages().post("reply-to header test");
         final ArgumentCaptor<Envelope> argument =
             ArgumentCaptor.forClass(Envelope.class);
-        Mockito.verify(postman)
+        Mockito.verify(postman, Mockito.timeout(Tv.FIVE * Tv.THOUSAND))
             .send(argument.capture());
         final String[] reply =
             argument.getValue().unwrap().getReplyTo()[0].toString().split("@");
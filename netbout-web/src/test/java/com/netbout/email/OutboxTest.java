@@ -0,0 +1,131 @@
+/**
+ * Copyright (c) 2009-2016, netbout.com
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are PROHIBITED without prior written permission from
+ * the author. This product may NOT be used anywhere and on any computer
+ * except the server platform of netbout Inc. located at www.netbout.com.
+ * Federal copyright law prohibits unauthorized reproduction by any means
+ * and imposes fines up to $25,000 for violation. If you received
+ * this code accidentally and without intent to use it, please report this
+ * incident to the author by email.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS
+ * "AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT
+ * LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR
+ * A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT
+ * OWNER OR CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL,
+ * SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT
+ * LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE,
+ * DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON
+ * ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY,
+ * OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT
+ * OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF
+ * SUCH DAMAGE.
+ */
+package com.netbout.email;
+
+import com.jcabi.aspects.Tv;
+import com.jcabi.email.Envelope;
+import com.jcabi.email.Postman;
+import com.netbout.mock.MkBase;
+import com.netbout.spi.Alias;
+import com.netbout.spi.Bout;
+import java.util.Collections;
+import java.util.Map;
+import org.hamcrest.MatcherAssert;
+import org.hamcrest.Matchers;
+import org.junit.Test;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mockito;
+
+/**
+ * Test case for {@link Outbox}.
+ * @author Yegor Bugayenko (yegor@teamed.io)
+ * @version $Id$
+ * @since 3.0
+ */
+public final class OutboxTest {
+
+    /**
+     * Outbox can spool a notification and delete it when delivered.
+     * @throws Exception If there is some problem inside
+     */
+    @Test
+    @SuppressWarnings("unchecked")
+    public void deletesDeliveredNotification() throws Exception {
+        final Postman postman = Mockito.mock(Postman.class);
+        final Spool spool = Mockito.mock(Spool.class);
+        final String id = "42";
+        Mockito.doReturn(id).when(spool)
+            .save(Mockito.<Map<String, String>>any());
+        final MkBase base = new MkBase();
+        final Alias alias = new EmAlias(base.randomAlias(), postman, spool);
+        final Bout bout = alias.inbox().bout(alias.inbox().start());
+        bout.friends().invite(base.randomAlias().name());
+        bout.messages().post("are you spooled?");
+        Mockito.verify(spool).save(Mockito.<Map<String, String>>any());
+        Mockito.verify(spool, Mockito.timeout(Tv.FIVE * Tv.THOUSAND))
+            .delete(id);
+        Mockito.verify(postman).send(Mockito.any(Envelope.class));
+    }
+
+    /**
+     * Outbox can deliver notifications left in the spool.
+     * @throws Exception If there is some problem inside
+     */
+    @Test
+    public void resumesPendingNotifications() throws Exception {
+        final Postman postman = Mockito.mock(Postman.class);
+        final Spool spool = Mockito.mock(Spool.class);
+        final String id = "43";
+        final String subject = "#1: resumed";
+        Mockito.doReturn(
+            Collections.singletonMap(
+                id,
+                new EmCourier.Letter(
+                    postman, subject, "reply@netbout.com", "<p>hi", "</p>"
+                ).parcel("jeff", "jeff@example.com")
+            )
+        ).when(spool).pending();
+        Mockito.doReturn(true).when(spool)
+            .claim(Mockito.eq(id), Mockito.anyLong());
+        Outbox.resume(postman, spool);
+        final ArgumentCaptor<Envelope> captor =
+            ArgumentCaptor.forClass(Envelope.class);
+        Mockito.verify(postman, Mockito.timeout(Tv.FIVE * Tv.THOUSAND))
+            .send(captor.capture());
+        Mockito.verify(spool, Mockito.timeout(Tv.FIVE * Tv.THOUSAND))
+            .delete(id);
+        MatcherAssert.assertThat(
+            captor.getValue().unwrap().getSubject(),
+            Matchers.equalTo(subject)
+        );
+    }
+
+    /**
+     * Outbox can skip notifications claimed by another server.
+     * @throws Exception If there is some problem inside
+     */
+    @Test
+    public void skipsClaimedNotifications() throws Exception {
+        final Postman postman = Mockito.mock(Postman.class);
+        final Spool spool = Mockito.mock(Spool.class);
+        final String id = "44";
+        Mockito.doReturn(
+            Collections.singletonMap(
+                id,
+                new EmCourier.Letter(
+                    postman, "#2: claimed", "reply@netbout.com", "<p>", "</p>"
+                ).parcel("jeff", "jeff@example.com")
+            )
+        ).when(spool).pending();
+        Outbox.resume(postman, spool);
+        Mockito.verify(spool).claim(Mockito.eq(id), Mockito.anyLong());
+        Mockito.verify(postman, Mockito.never())
+            .send(Mockito.any(Envelope.class));
+        Mockito.verify(spool, Mockito.never()).delete(id);
+    }
+
+}
@@ -0,0 +1,69 @@
+/**
+ * Copyright (c) 2009-2016, netbout.com
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are PROHIBITED without prior written permission from
+ * the author. This product may NOT be used anywhere and on any computer
+ * except the server platform of netbout Inc. located at www.netbout.com.
+ * Federal copyright law prohibits unauthorized reproduction by any means
+ * and imposes fines up to $25,000 for violation. If you received
+ * this code accidentally and without intent to use it, please report this
+ * incident to the author by email.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS
+ * "AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT
+ * LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR
+ * A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT
+ * OWNER OR CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL,
+ * SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT
+ * LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE,
+ * DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON
+ * ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY,
+ * OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT
+ * OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF
+ * SUCH DAMAGE.
+ */
+package com.netbout.email;
+
+import com.jcabi.email.Envelope;
+import com.jcabi.email.Wire;
+import com.jcabi.email.enclosure.EnPlain;
+import com.jcabi.email.stamp.StRecipient;
+import javax.mail.Address;
+import javax.mail.Message;
+import javax.mail.Transport;
+import org.junit.Test;
+import org.mockito.Mockito;
+
+/**
+ * Test case for {@link PostKeepAlive}.
+ * @author Yegor Bugayenko (yegor@teamed.io)
+ * @version $Id$
+ * @since 3.0
+ */
+public final class PostKeepAliveTest {
+
+    /**
+     * PostKeepAlive can reuse an open connection.
+     * @throws Exception If there is some problem inside
+     */
+    @Test
+    public void reusesOpenConnection() throws Exception {
+        final Transport transport = Mockito.mock(Transport.class);
+        Mockito.doReturn(true).when(transport).isConnected();
+        final Wire wire = Mockito.mock(Wire.class);
+        Mockito.doReturn(transport).when(wire).connect();
+        final PostKeepAlive postman = new PostKeepAlive(wire);
+        final Envelope env = new Envelope.MIME()
+            .with(new StRecipient("Jeff", "jeff@example.com"))
+            .with(new EnPlain("hello!"));
+        postman.send(env);
+        postman.send(env);
+        Mockito.verify(wire, Mockito.times(1)).connect();
+        Mockito.verify(transport, Mockito.times(2)).sendMessage(
+            Mockito.any(Message.class), Mockito.any(Address[].class)
+        );
+    }
+
+}
@@ -0,0 +1,160 @@
+/**
+ * Copyright (c) 2009-2016, netbout.com
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are PROHIBITED without prior written permission from
+ * the author. This product may NOT be used anywhere and on any computer
+ * except the server platform of netbout Inc. located at www.netbout.com.
+ * Federal copyright law prohibits unauthorized reproduction by any means
+ * and imposes fines up to $25,000 for violation. If you received
+ * this code accidentally and without intent to use it, please report this
+ * incident to the author by email.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS
+ * "AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT
+ * LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR
+ * A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT
+ * OWNER OR CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL,
+ * SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT
+ * LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE,
+ * DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON
+ * ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY,
+ * OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT
+ * OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF
+ * SUCH DAMAGE.
+ */
+package com.netbout.jdbc;
+
+import com.google.common.collect.Iterables;
+import com.jcabi.urn.URN;
+import com.netbout.spi.Alias;
+import com.netbout.spi.Attachment;
+import com.netbout.spi.Bout;
+import com.netbout.spi.Inbox;
+import com.netbout.spi.Message;
+import com.netbout.spi.Pageable;
+import com.netbout.spi.User;
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.security.SecureRandom;
+import org.hamcrest.MatcherAssert;
+import org.hamcrest.Matchers;
+import org.junit.Test;
+
+/**
+ * Test case for {@link JdBase}.
+ * @author Yegor Bugayenko (yegor@teamed.io)
+ * @version $Id$
+ * @since 3.0
+ */
+public final class JdBaseTest {
+
+    /**
+     * JdBase can page messages and count unread ones.
+     * @throws Exception If there is some problem inside
+     */
+    @Test
+    public void pagesMessagesAndCountsUnread() throws Exception {
+        final JdBase base = JdBaseTest.base();
+        final Alias alice = JdBaseTest.alias(base, "alice");
+        final Alias bob = JdBaseTest.alias(base, "bob");
+        final Bout bout = alice.inbox().bout(alice.inbox().start());
+        bout.friends().invite(bob.name());
+        for (int idx = 0; idx < 5; ++idx) {
+            bout.messages().post(String.format("hello, #%d", idx));
+        }
+        MatcherAssert.assertThat(
+            bob.inbox().unread(),
+            Matchers.equalTo(5L)
+        );
+        final Pageable.Page<Message> page =
+            bob.inbox().bout(bout.number()).messages()
+                .jump(Inbox.NEVER).page(3);
+        MatcherAssert.assertThat(
+            Iterables.size(page.items()),
+            Matchers.equalTo(3)
+        );
+        MatcherAssert.assertThat(page.last(), Matchers.is(false));
+        MatcherAssert.assertThat(
+            Iterables.size(
+                bout.messages().jump(page.next()).page(3).items()
+            ),
+            Matchers.equalTo(2)
+        );
+        MatcherAssert.assertThat(
+            bob.inbox().unread(),
+            Matchers.equalTo(0L)
+        );
+    }
+
+    /**
+     * JdBase can track unseen attachments.
+     * @throws Exception If there is some problem inside
+     */
+    @Test
+    public void tracksUnseenAttachments() throws Exception {
+        final JdBase base = JdBaseTest.base();
+        final Alias alice = JdBaseTest.alias(base, "jeff");
+        final Alias bob = JdBaseTest.alias(base, "walter");
+        final Bout bout = alice.inbox().bout(alice.inbox().start());
+        bout.friends().invite(bob.name());
+        final String name = "notes.txt";
+        bout.attachments().create(name);
+        bout.attachments().get(name).write(
+            new ByteArrayInputStream(
+                "some text".getBytes(StandardCharsets.UTF_8)
+            ),
+            "text/plain", "etag-1"
+        );
+        final Bout other = bob.inbox().bout(bout.number());
+        MatcherAssert.assertThat(
+            other.attachments().unseen(),
+            Matchers.equalTo(1)
+        );
+        final Attachment attachment = other.attachments().get(name);
+        MatcherAssert.assertThat(attachment.unseen(), Matchers.is(true));
+        attachment.read().close();
+        MatcherAssert.assertThat(
+            other.attachments().unseen(),
+            Matchers.equalTo(0)
+        );
+        MatcherAssert.assertThat(
+            bout.attachments().unseen(),
+            Matchers.equalTo(0)
+        );
+    }
+
+    /**
+     * Make a base in a fresh in-memory database.
+     * @return Base
+     */
+    private static JdBase base() {
+        return new JdBase(
+            String.format(
+                "jdbc:h2:mem:%d;DB_CLOSE_DELAY=-1",
+                new SecureRandom().nextInt(Integer.MAX_VALUE)
+            )
+        );
+    }
+
+    /**
+     * Make an alias of a new user.
+     * @param base Base
+     * @param name Name of the alias
+     * @return Alias
+     * @throws IOException If fails
+     */
+    private static Alias alias(final JdBase base, final String name)
+        throws IOException {
+        final User user = base.user(
+            URN.create(String.format("urn:test:%s", name))
+        );
+        user.aliases().add(name);
+        final Alias alias = user.aliases().iterate().iterator().next();
+        alias.email(String.format("%s@example.com", name));
+        return alias;
+    }
+
+}
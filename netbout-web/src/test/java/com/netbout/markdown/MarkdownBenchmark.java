@@ -0,0 +1,137 @@
+/**
+ * Copyright (c) 2009-2016, netbout.com
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are PROHIBITED without prior written permission from
+ * the author. This product may NOT be used anywhere and on any computer
+ * except the server platform of netbout Inc. located at www.netbout.com.
+ * Federal copyright law prohibits unauthorized reproduction by any means
+ * and imposes fines up to $25,000 for violation. If you received
+ * this code accidentally and without intent to use it, please report this
+ * incident to the author by email.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS
+ * "AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT
+ * LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR
+ * A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT
+ * OWNER OR CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL,
+ * SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT
+ * LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE,
+ * DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON
+ * ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY,
+ * OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT
+ * OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF
+ * SUCH DAMAGE.
+ */
+package com.netbout.markdown;
+
+import com.google.common.base.Joiner;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ * Benchmark of {@link MarkdownSinglePass} against {@link MarkdownTxtmark}.
+ *
+ * <p>Throughput is measured in messages per second, allocation per
+ * message is reported by the GC profiler as "gc.alloc.rate.norm". Run it
+ * with {@code mvn test-compile exec:java -Dexec.classpathScope=test
+ * -Dexec.mainClass=com.netbout.markdown.MarkdownBenchmark}.
+ *
+ * @author Yegor Bugayenko (yegor@teamed.io)
+ * @version $Id$
+ * @since 3.0
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 5)
+@Measurement(iterations = 5)
+@Fork(1)
+public class MarkdownBenchmark {
+
+    /**
+     * Number of paragraphs in the message.
+     * @checkstyle VisibilityModifierCheck (3 lines)
+     */
+    @Param({ "1", "10", "50" })
+    public transient int paragraphs;
+
+    /**
+     * Message to render.
+     */
+    private transient String text;
+
+    /**
+     * Make the message.
+     */
+    @Setup
+    public void setup() {
+        final StringBuilder msg = new StringBuilder(0);
+        for (int idx = 0; idx < this.paragraphs; ++idx) {
+            msg.append(
+                Joiner.on('\n').join(
+                    "Hi **there**, see http://www.netbout.com/b/1 and",
+                    "[the docs](http://www.netbout.com/docs), _please_:",
+                    "",
+                    "```",
+                    "final String url = \"http://localhost:8080\";",
+                    "```",
+                    "",
+                    "* `one` http://example.com/?a=1&b=2",
+                    "* two",
+                    "",
+                    ""
+                )
+            );
+        }
+        this.text = msg.toString();
+    }
+
+    /**
+     * Render by TxtMark with regular expressions around it.
+     * @return HTML
+     */
+    @Benchmark
+    public String txtmark() {
+        return new MarkdownTxtmark().html(this.text);
+    }
+
+    /**
+     * Render by TxtMark with a single pass around it.
+     * @return HTML
+     */
+    @Benchmark
+    public String single() {
+        return new MarkdownSinglePass().html(this.text);
+    }
+
+    /**
+     * Run the benchmark.
+     * @param args Command line arguments, ignored
+     * @throws RunnerException If fails
+     */
+    public static void main(final String... args) throws RunnerException {
+        new Runner(
+            new OptionsBuilder()
+                .include(MarkdownBenchmark.class.getSimpleName())
+                .addProfiler(GCProfiler.class)
+                .build()
+        ).run();
+    }
+
+}
@@ -0,0 +1,124 @@
+/**
+ * Copyright (c) 2009-2016, netbout.com
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are PROHIBITED without prior written permission from
+ * the author. This product may NOT be used anywhere and on any computer
+ * except the server platform of netbout Inc. located at www.netbout.com.
+ * Federal copyright law prohibits unauthorized reproduction by any means
+ * and imposes fines up to $25,000 for violation. If you received
+ * this code accidentally and without intent to use it, please report this
+ * incident to the author by email.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS
+ * "AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT
+ * LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR
+ * A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT
+ * OWNER OR CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL,
+ * SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT
+ * LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE,
+ * DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON
+ * ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY,
+ * OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT
+ * OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF
+ * SUCH DAMAGE.
+ */
+package com.netbout.markdown;
+
+import com.google.common.base.Joiner;
+import org.hamcrest.MatcherAssert;
+import org.hamcrest.Matchers;
+import org.junit.Test;
+
+/**
+ * Test case for {@link MarkdownSinglePass}.
+ *
+ * @author Yegor Bugayenko (yegor@teamed.io)
+ * @version $Id$
+ * @since 3.0
+ */
+public final class MarkdownSinglePassTest {
+
+    /**
+     * End of line.
+     */
+    private static final String EOL = "\n";
+
+    /**
+     * MarkdownSinglePass can render texts exactly as MarkdownTxtmark does.
+     * @throws Exception If there is some problem inside
+     */
+    @Test
+    public void rendersAsTxtmark() throws Exception {
+        final String[] texts = {
+            "Hi [google](http://www.google.com) how are you?",
+            Joiner.on(MarkdownSinglePassTest.EOL).join(
+                "**hi**, _dude_!\r", "", "     b**o", "       ",
+                "        ", "    o**m", ""
+            ),
+            Joiner.on(MarkdownSinglePassTest.EOL).join("**", ""),
+            "__",
+            "",
+            "**hi there! {{{",
+            Joiner.on(MarkdownSinglePassTest.EOL).join(
+                "    ", " ", "      ", "     ", ""
+            ),
+            // @checkstyle LineLengthCheck (1 line)
+            "Reference-style: \n![alt text][logo]\n\n[logo]: https://camo.githubusercontent.com/f60dcff129bbc252ab48a4bace2aa92cc982774a/687474703a2f2f696d672e7465616d65642e696f2f62746e2e737667",
+            "<script>alert()</script>",
+            "wazzup, ***dude***!",
+            "x: `oops`",
+            "}}}",
+            "```\ncode\nanother line of code\n```",
+            "``code span not block\nextra line``",
+            "`single char\nextra line with eol\n`",
+            Joiner.on(MarkdownSinglePassTest.EOL).join(
+                "my list:", "", "* line one", "* line two", "",
+                "normal text now"
+            ),
+            Joiner.on(MarkdownSinglePassTest.EOL)
+                .join("line1 line", "line2", "", "line3"),
+            "<div>hey<svg viewBox='444'/></div>",
+            "<a href=\"http://_google_.com\">g</a>",
+            "http://foo.com",
+            "(http://foo?com)",
+            "(https://a?b=c)",
+            "[http://bar.com](http://bar.com)",
+            "[http://googl.com]",
+            Joiner.on(MarkdownSinglePassTest.EOL).join(
+                "http://yahoo.com",
+                "http://bar.com [http://af.com](http://af.com) end"
+            ),
+            "![logo]  (http://img.qulice.com/logo.svg)",
+            "backslash \\ and group reference $3\n",
+        };
+        for (final String text : texts) {
+            MatcherAssert.assertThat(
+                new MarkdownSinglePass().html(text),
+                Matchers.equalTo(new MarkdownTxtmark().html(text))
+            );
+        }
+    }
+
+    /**
+     * MarkdownSinglePass can leave links inside code intact.
+     * @throws Exception If there is some problem inside
+     */
+    @Test
+    public void leavesLinksInCodeIntact() throws Exception {
+        MatcherAssert.assertThat(
+            new MarkdownSinglePass().html(
+                "```\nhttp://foo.com\n```\n\nsee `http://bar.com`"
+            ),
+            Matchers.allOf(
+                Matchers.containsString(
+                    "<pre><code>http://foo.com</code></pre>"
+                ),
+                Matchers.containsString("<code>http://bar.com</code>"),
+                Matchers.not(Matchers.containsString("href"))
+            )
+        );
+    }
+
+}
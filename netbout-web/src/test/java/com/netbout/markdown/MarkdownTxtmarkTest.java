@@ -24,7 +24,7 @@
  * OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF
  * SUCH DAMAGE.
  */
-package com.netbout.rest;
+package com.netbout.markdown;
 
 import com.google.common.base.Joiner;
 import com.jcabi.matchers.XhtmlMatchers;
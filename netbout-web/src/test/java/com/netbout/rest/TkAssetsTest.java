@@ -0,0 +1,137 @@
+/**
+ * Copyright (c) 2009-2016, netbout.com
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are PROHIBITED without prior written permission from
+ * the author. This product may NOT be used anywhere and on any computer
+ * except the server platform of netbout Inc. located at www.netbout.com.
+ * Federal copyright law prohibits unauthorized reproduction by any means
+ * and imposes fines up to $25,000 for violation. If you received
+ * this code accidentally and without intent to use it, please report this
+ * incident to the author by email.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS
+ * "AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT
+ * LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR
+ * A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT
+ * OWNER OR CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL,
+ * SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT
+ * LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE,
+ * DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON
+ * ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY,
+ * OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT
+ * OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF
+ * SUCH DAMAGE.
+ */
+package com.netbout.rest;
+
+import com.jcabi.aspects.Tv;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.Collections;
+import java.util.zip.GZIPInputStream;
+import org.apache.commons.io.IOUtils;
+import org.apache.commons.lang3.StringUtils;
+import org.hamcrest.MatcherAssert;
+import org.hamcrest.Matchers;
+import org.junit.Test;
+import org.takes.Response;
+import org.takes.rq.RqFake;
+import org.takes.rq.RqMethod;
+import org.takes.rq.RqWithHeader;
+import org.takes.rs.RsPrint;
+
+/**
+ * Test case for {@link TkAssets}.
+ * @author Yegor Bugayenko (yegor@teamed.io)
+ * @version $Id$
+ * @since 3.0
+ */
+public final class TkAssetsTest {
+
+    /**
+     * Name of the asset.
+     */
+    private static final String NAME = "/js/test.js";
+
+    /**
+     * Content of the asset.
+     */
+    private static final String CONTENT = StringUtils.repeat(
+        "var hello = 'world';\n", Tv.HUNDRED
+    );
+
+    /**
+     * TkAssets can serve compressed asset by fingerprinted name.
+     * @throws Exception If there is some problem inside
+     */
+    @Test
+    public void servesFingerprintedAsset() throws Exception {
+        final Assets assets = TkAssetsTest.assets();
+        final Response response = new TkAssets(assets).act(
+            new RqWithHeader(
+                new RqFake(
+                    RqMethod.GET,
+                    assets.find(TkAssetsTest.NAME).href()
+                ),
+                "Accept-Encoding", "gzip, deflate"
+            )
+        );
+        MatcherAssert.assertThat(
+            new RsPrint(response).printHead(),
+            Matchers.allOf(
+                Matchers.startsWith("HTTP/1.1 200"),
+                Matchers.containsString("Content-Type: text/javascript"),
+                Matchers.containsString("Content-Encoding: gzip"),
+                Matchers.containsString("-gz\""),
+                Matchers.containsString("immutable")
+            )
+        );
+        MatcherAssert.assertThat(
+            IOUtils.toString(
+                new GZIPInputStream(response.body()), StandardCharsets.UTF_8
+            ),
+            Matchers.equalTo(TkAssetsTest.CONTENT)
+        );
+    }
+
+    /**
+     * TkAssets can revalidate asset requested by its name.
+     * @throws Exception If there is some problem inside
+     */
+    @Test
+    public void revalidatesAssetByName() throws Exception {
+        final Assets assets = TkAssetsTest.assets();
+        MatcherAssert.assertThat(
+            new RsPrint(
+                new TkAssets(assets).act(
+                    new RqWithHeader(
+                        new RqFake(RqMethod.GET, TkAssetsTest.NAME),
+                        "If-None-Match",
+                        assets.find(TkAssetsTest.NAME).etag(false)
+                    )
+                )
+            ).printHead(),
+            Matchers.allOf(
+                Matchers.startsWith("HTTP/1.1 304"),
+                Matchers.not(Matchers.containsString("immutable"))
+            )
+        );
+    }
+
+    /**
+     * Assets with one script.
+     * @return Assets
+     * @throws IOException If fails
+     */
+    private static Assets assets() throws IOException {
+        return new Assets(
+            Collections.singletonMap(
+                TkAssetsTest.NAME,
+                TkAssetsTest.CONTENT.getBytes(StandardCharsets.UTF_8)
+            )
+        );
+    }
+
+}
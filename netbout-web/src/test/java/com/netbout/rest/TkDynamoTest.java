@@ -0,0 +1,186 @@
+/**
+ * Copyright (c) 2009-2016, netbout.com
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are PROHIBITED without prior written permission from
+ * the author. This product may NOT be used anywhere and on any computer
+ * except the server platform of netbout Inc. located at www.netbout.com.
+ * Federal copyright law prohibits unauthorized reproduction by any means
+ * and imposes fines up to $25,000 for violation. If you received
+ * this code accidentally and without intent to use it, please report this
+ * incident to the author by email.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS
+ * "AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT
+ * LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR
+ * A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT
+ * OWNER OR CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL,
+ * SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT
+ * LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE,
+ * DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON
+ * ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY,
+ * OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT
+ * OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF
+ * SUCH DAMAGE.
+ */
+package com.netbout.rest;
+
+import com.netbout.dynamo.Throughput;
+import java.io.IOException;
+import java.io.InputStream;
+import org.hamcrest.MatcherAssert;
+import org.hamcrest.Matchers;
+import org.junit.Test;
+import org.takes.Request;
+import org.takes.Response;
+import org.takes.Take;
+import org.takes.rq.RqFake;
+import org.takes.rs.RsPrint;
+import org.takes.rs.RsText;
+
+/**
+ * Test case for {@link TkDynamo}.
+ * @author Yegor Bugayenko (yegor@teamed.io)
+ * @version $Id$
+ * @since 3.0
+ */
+public final class TkDynamoTest {
+
+    /**
+     * TkDynamo can replace numbers and file names in routes.
+     * @throws Exception If there is some problem inside
+     */
+    @Test
+    public void makesRoutes() throws Exception {
+        MatcherAssert.assertThat(
+            TkDynamo.route(new RqFake("GET", "/b/123/attachment?name=x")),
+            Matchers.equalTo("GET /b/{n}/attachment")
+        );
+        MatcherAssert.assertThat(
+            TkDynamo.route(new RqFake("POST", "/f/jeff.png")),
+            Matchers.equalTo("POST /f/{file}")
+        );
+        MatcherAssert.assertThat(
+            TkDynamo.route(new RqFake("GET", "/")),
+            Matchers.equalTo("GET /")
+        );
+    }
+
+    /**
+     * TkDynamo can report calls made while the body is rendered.
+     * @throws Exception If there is some problem inside
+     */
+    @Test
+    public void reportsUsageInHeaders() throws Exception {
+        final String body = new RsPrint(
+            new TkDynamo(
+                new Take() {
+                    @Override
+                    public Response act(final Request req) {
+                        return new Response() {
+                            @Override
+                            public Iterable<String> head()
+                                throws IOException {
+                                return new RsText("hello").head();
+                            }
+                            @Override
+                            public InputStream body() throws IOException {
+                                new Throughput().call(
+                                    "friends", 2L, 1.5d, false
+                                );
+                                return new RsText("hello").body();
+                            }
+                        };
+                    }
+                },
+                true
+            ).act(new RqFake("GET", "/b/1"))
+        ).print();
+        MatcherAssert.assertThat(
+            body,
+            Matchers.allOf(
+                Matchers.containsString("X-Netbout-Dynamo-Calls: 1"),
+                Matchers.containsString("X-Netbout-Dynamo-Items: 2"),
+                Matchers.containsString("X-Netbout-Dynamo-Read: 1.5"),
+                Matchers.containsString(
+                    "X-Netbout-Dynamo-Table: friends calls=1"
+                ),
+                Matchers.endsWith("hello")
+            )
+        );
+        MatcherAssert.assertThat(
+            new Throughput().routes(),
+            Matchers.hasKey("GET /b/{n}")
+        );
+    }
+
+    /**
+     * TkDynamo can count usage without reporting it in headers.
+     * @throws Exception If there is some problem inside
+     */
+    @Test
+    public void hidesUsageFromHeaders() throws Exception {
+        final String body = new RsPrint(
+            new TkDynamo(
+                new Take() {
+                    @Override
+                    public Response act(final Request req) throws IOException {
+                        new Throughput().call("aliases", 1L, 0.5d, false);
+                        return new RsText("hidden");
+                    }
+                },
+                false
+            ).act(new RqFake("GET", "/acc/hidden"))
+        ).print();
+        MatcherAssert.assertThat(
+            body, Matchers.not(Matchers.containsString("X-Netbout-Dynamo"))
+        );
+        MatcherAssert.assertThat(
+            new Throughput().routes(),
+            Matchers.hasKey("GET /acc/hidden")
+        );
+    }
+
+    /**
+     * TkDynamo can count usage of rendering in the route, without
+     * rendering the body into memory.
+     * @throws Exception If there is some problem inside
+     */
+    @Test
+    public void countsRenderingInRoute() throws Exception {
+        final Response response = new TkDynamo(
+            new Take() {
+                @Override
+                public Response act(final Request req) {
+                    return new Response() {
+                        @Override
+                        public Iterable<String> head() throws IOException {
+                            return new RsText("").head();
+                        }
+                        @Override
+                        public InputStream body() throws IOException {
+                            new Throughput().call("bouts", 1L, 0.5d, false);
+                            return new RsText("streamed").body();
+                        }
+                    };
+                }
+            },
+            false
+        ).act(new RqFake("GET", "/acc/streamed"));
+        MatcherAssert.assertThat(
+            new Throughput().routes(),
+            Matchers.not(Matchers.hasKey("GET /acc/streamed"))
+        );
+        MatcherAssert.assertThat(
+            new RsPrint(response).printBody(),
+            Matchers.equalTo("streamed")
+        );
+        MatcherAssert.assertThat(
+            new Throughput().routes().get("GET /acc/streamed")
+                .total().calls(),
+            Matchers.equalTo(1L)
+        );
+    }
+
+}
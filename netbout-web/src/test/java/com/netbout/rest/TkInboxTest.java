@@ -31,14 +31,19 @@ import com.netbout.mock.MkBase;
 import com.netbout.spi.Aliases;
 import com.netbout.spi.Bout;
 import com.netbout.spi.Inbox;
+import java.io.IOException;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
 import org.hamcrest.MatcherAssert;
 import org.hamcrest.Matchers;
 import org.junit.Test;
+import org.takes.Response;
 import org.takes.facets.auth.Identity;
 import org.takes.facets.auth.PsFixed;
 import org.takes.facets.auth.TkAuth;
 import org.takes.rq.RqFake;
 import org.takes.rq.RqMethod;
+import org.takes.rq.RqWithHeader;
 import org.takes.rs.RsPrint;
 
 /**
@@ -46,7 +51,7 @@ import org.takes.rs.RsPrint;
  * @author Endrigo Antonini (teamed@endrigo.com.br)
  * @version $Id$
  * @since 2.14.17
- * @checkstyle ClassDataAbstractionCouplingCheck (100 lines)
+ * @checkstyle ClassDataAbstractionCouplingCheck (500 lines)
  */
 public final class TkInboxTest {
 
@@ -131,6 +136,37 @@ public final class TkInboxTest {
         );
     }
 
+    /**
+     * TkInbox can change the tag of the page, when an older bout is renamed.
+     * @throws Exception If there is some problem inside
+     */
+    @Test
+    public void changesTagOnRename() throws Exception {
+        final String urn = "urn:test:5";
+        final MkBase base = new MkBase();
+        final Aliases aliases = base.user(new URN(urn)).aliases();
+        aliases.add("test5");
+        final Inbox inbox = aliases.iterate().iterator().next().inbox();
+        final Bout older = inbox.bout(inbox.start());
+        older.messages().post("first");
+        inbox.bout(inbox.start()).messages().post("second");
+        final Matcher matcher = Pattern.compile("ETag: (\"[0-9a-f]+\")")
+            .matcher(
+                new RsPrint(TkInboxTest.inbox(base, urn, "")).printHead()
+            );
+        MatcherAssert.assertThat(matcher.find(), Matchers.is(true));
+        final String etag = matcher.group(1);
+        MatcherAssert.assertThat(
+            new RsPrint(TkInboxTest.inbox(base, urn, etag)).print(),
+            Matchers.startsWith("HTTP/1.1 304")
+        );
+        older.rename("renamed");
+        MatcherAssert.assertThat(
+            new RsPrint(TkInboxTest.inbox(base, urn, etag)).print(),
+            Matchers.startsWith("HTTP/1.1 200")
+        );
+    }
+
     /**
      * TkInbox can handle invalid 'since' filter.
      * @throws Exception If there is some problem inside
@@ -191,4 +227,25 @@ public final class TkInboxTest {
         );
     }
 
+    /**
+     * Get the inbox page.
+     * @param base Base
+     * @param urn URN of the user
+     * @param etag ETag the client has, empty if none
+     * @return Response
+     * @throws IOException If fails
+     */
+    private static Response inbox(final MkBase base, final String urn,
+        final String etag) throws IOException {
+        return new TkAuth(
+            new TkInbox(base),
+            new PsFixed(new Identity.Simple(urn))
+        ).act(
+            new RqWithHeader(
+                new RqFake(RqMethod.GET, "/"),
+                "If-None-Match", etag
+            )
+        );
+    }
+
 }
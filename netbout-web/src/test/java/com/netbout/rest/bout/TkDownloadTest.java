@@ -0,0 +1,182 @@
+/**
+ * Copyright (c) 2009-2016, netbout.com
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are PROHIBITED without prior written permission from
+ * the author. This product may NOT be used anywhere and on any computer
+ * except the server platform of netbout Inc. located at www.netbout.com.
+ * Federal copyright law prohibits unauthorized reproduction by any means
+ * and imposes fines up to $25,000 for violation. If you received
+ * this code accidentally and without intent to use it, please report this
+ * incident to the author by email.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS
+ * "AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT
+ * LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR
+ * A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT
+ * OWNER OR CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL,
+ * SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT
+ * LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE,
+ * DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON
+ * ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY,
+ * OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT
+ * OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF
+ * SUCH DAMAGE.
+ */
+package com.netbout.rest.bout;
+
+import com.jcabi.urn.URN;
+import com.netbout.mock.MkBase;
+import com.netbout.spi.Alias;
+import com.netbout.spi.Base;
+import com.netbout.spi.Bout;
+import com.netbout.spi.User;
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import org.hamcrest.MatcherAssert;
+import org.hamcrest.Matchers;
+import org.junit.Test;
+import org.takes.Request;
+import org.takes.facets.auth.RqWithAuth;
+import org.takes.rq.RqFake;
+import org.takes.rq.RqMethod;
+import org.takes.rq.RqWithHeader;
+import org.takes.rs.RsPrint;
+
+/**
+ * Test case for {@link TkDownload}.
+ * @author Yegor Bugayenko (yegor@teamed.io)
+ * @version $Id$
+ * @since 3.0
+ */
+public final class TkDownloadTest {
+
+    /**
+     * Bout fork regex.
+     */
+    private static final String REGEX = ".*";
+
+    /**
+     * URN of the user.
+     */
+    private static final String USER = "urn:test:7";
+
+    /**
+     * Name of the attachment.
+     */
+    private static final String NAME = "a7";
+
+    /**
+     * TkDownload can download the entire attachment.
+     * @throws Exception If there is some problem inside
+     */
+    @Test
+    public void downloadsEntireAttachment() throws Exception {
+        final Base base = new MkBase();
+        final Bout bout = TkDownloadTest.bout(base);
+        MatcherAssert.assertThat(
+            new RsPrint(
+                new FkBout(TkDownloadTest.REGEX, new TkDownload(base)).route(
+                    TkDownloadTest.request(bout)
+                ).get()
+            ).print(),
+            Matchers.allOf(
+                Matchers.startsWith("HTTP/1.1 200"),
+                Matchers.containsString("Content-Length: 13"),
+                Matchers.containsString("Accept-Ranges: bytes"),
+                Matchers.endsWith("hello, world!")
+            )
+        );
+    }
+
+    /**
+     * TkDownload can download a range of the attachment.
+     * @throws Exception If there is some problem inside
+     */
+    @Test
+    public void downloadsRangeOfAttachment() throws Exception {
+        final Base base = new MkBase();
+        final Bout bout = TkDownloadTest.bout(base);
+        MatcherAssert.assertThat(
+            new RsPrint(
+                new FkBout(TkDownloadTest.REGEX, new TkDownload(base)).route(
+                    new RqWithHeader(
+                        TkDownloadTest.request(bout), "Range", "bytes=7-11"
+                    )
+                ).get()
+            ).print(),
+            Matchers.allOf(
+                Matchers.startsWith("HTTP/1.1 206"),
+                Matchers.containsString("Content-Length: 5"),
+                Matchers.containsString("Content-Range: bytes 7-11/13"),
+                Matchers.endsWith("world")
+            )
+        );
+    }
+
+    /**
+     * TkDownload can reject a range out of the attachment.
+     * @throws Exception If there is some problem inside
+     */
+    @Test
+    public void rejectsUnsatisfiableRange() throws Exception {
+        final Base base = new MkBase();
+        final Bout bout = TkDownloadTest.bout(base);
+        MatcherAssert.assertThat(
+            new RsPrint(
+                new FkBout(TkDownloadTest.REGEX, new TkDownload(base)).route(
+                    new RqWithHeader(
+                        TkDownloadTest.request(bout), "Range", "bytes=50-"
+                    )
+                ).get()
+            ).print(),
+            Matchers.allOf(
+                Matchers.startsWith("HTTP/1.1 416"),
+                Matchers.containsString("Content-Range: bytes */13")
+            )
+        );
+    }
+
+    /**
+     * Create a bout with an attachment.
+     * @param base Base
+     * @return Bout
+     * @throws IOException If fails
+     */
+    private static Bout bout(final Base base) throws IOException {
+        final User user = base.user(URN.create(TkDownloadTest.USER));
+        user.aliases().add("jeff7");
+        final Alias alias = user.aliases().iterate().iterator().next();
+        final Bout bout = alias.inbox().bout(alias.inbox().start());
+        bout.friends().invite(alias.name());
+        bout.attachments().create(TkDownloadTest.NAME);
+        bout.attachments().get(TkDownloadTest.NAME).write(
+            new ByteArrayInputStream(
+                "hello, world!".getBytes(StandardCharsets.UTF_8)
+            ),
+            "text/plain", "etag-7"
+        );
+        return bout;
+    }
+
+    /**
+     * Download request.
+     * @param bout Bout
+     * @return Request
+     * @throws IOException If fails
+     */
+    private static Request request(final Bout bout) throws IOException {
+        return new RqWithAuth(
+            TkDownloadTest.USER,
+            new RqFake(
+                RqMethod.GET,
+                String.format(
+                    "/b/%d/download?name=%s", bout.number(), TkDownloadTest.NAME
+                )
+            )
+        );
+    }
+
+}
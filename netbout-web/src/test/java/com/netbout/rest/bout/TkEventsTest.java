@@ -0,0 +1,319 @@
+/**
+ * Copyright (c) 2009-2016, netbout.com
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are PROHIBITED without prior written permission from
+ * the author. This product may NOT be used anywhere and on any computer
+ * except the server platform of netbout Inc. located at www.netbout.com.
+ * Federal copyright law prohibits unauthorized reproduction by any means
+ * and imposes fines up to $25,000 for violation. If you received
+ * this code accidentally and without intent to use it, please report this
+ * incident to the author by email.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS
+ * "AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT
+ * LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR
+ * A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT
+ * OWNER OR CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL,
+ * SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT
+ * LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE,
+ * DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON
+ * ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY,
+ * OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT
+ * OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF
+ * SUCH DAMAGE.
+ */
+package com.netbout.rest.bout;
+
+import com.jcabi.aspects.Tv;
+import com.jcabi.urn.URN;
+import com.netbout.cached.CdBase;
+import com.netbout.mock.MkBase;
+import com.netbout.spi.Alias;
+import com.netbout.spi.Base;
+import com.netbout.spi.Bout;
+import com.netbout.spi.User;
+import java.io.IOException;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import org.hamcrest.MatcherAssert;
+import org.hamcrest.Matchers;
+import org.junit.Test;
+import org.takes.Request;
+import org.takes.facets.auth.RqWithAuth;
+import org.takes.rq.RqFake;
+import org.takes.rq.RqMethod;
+import org.takes.rq.RqWithHeader;
+import org.takes.rs.RsPrint;
+
+/**
+ * Test case for {@link TkEvents}.
+ * @author Yegor Bugayenko (yegor@teamed.io)
+ * @version $Id$
+ * @since 3.0
+ */
+public final class TkEventsTest {
+
+    /**
+     * Bout fork regex.
+     */
+    private static final String REGEX = ".*";
+
+    /**
+     * URN of the user.
+     */
+    private static final String USER = "urn:test:24";
+
+    /**
+     * URN of the user, who waits for messages. Aliases and bouts are
+     * cached by URNs and names, that's why tests of the cached base need
+     * different users.
+     */
+    private static final String WAITER = "urn:test:25";
+
+    /**
+     * URN of the user, who comes back.
+     */
+    private static final String RETURNER = "urn:test:26";
+
+    /**
+     * URN of the user, who comes back from another server.
+     */
+    private static final String STRANGER = "urn:test:27";
+
+    /**
+     * TkEvents can send messages newer than the last event seen.
+     * @throws Exception If there is some problem inside
+     */
+    @Test
+    public void sendsNewMessages() throws Exception {
+        final Base base = new MkBase();
+        final Bout bout = TkEventsTest.bout(base);
+        bout.messages().post("first message");
+        bout.messages().post("second message");
+        final long first = bout.messages().iterate().iterator().next()
+            .number();
+        MatcherAssert.assertThat(
+            new RsPrint(
+                new FkBout(TkEventsTest.REGEX, new TkEvents(base, 0L)).route(
+                    new RqWithHeader(
+                        TkEventsTest.request(bout),
+                        "Last-Event-ID", Long.toString(first)
+                    )
+                ).get()
+            ).print(),
+            Matchers.allOf(
+                Matchers.containsString("Content-Type: text/event-stream"),
+                Matchers.containsString("event: message"),
+                Matchers.containsString("second message"),
+                Matchers.not(Matchers.containsString("first message")),
+                Matchers.containsString("event: unread")
+            )
+        );
+    }
+
+    /**
+     * TkEvents can wait for a message posted to the bout.
+     * @throws Exception If there is some problem inside
+     */
+    @Test
+    public void waitsForPostedMessage() throws Exception {
+        final Base base = new CdBase(new MkBase());
+        final Bout bout = TkEventsTest.bout(base, TkEventsTest.WAITER);
+        final ExecutorService service = Executors.newSingleThreadExecutor();
+        try {
+            final Future<String> events = service.submit(
+                new Callable<String>() {
+                    @Override
+                    public String call() throws IOException {
+                        return new RsPrint(
+                            new FkBout(
+                                TkEventsTest.REGEX,
+                                new TkEvents(
+                                    base, TimeUnit.MINUTES.toMillis(1L)
+                                )
+                            ).route(
+                                TkEventsTest.request(bout, TkEventsTest.WAITER)
+                            ).get()
+                        ).printBody();
+                    }
+                }
+            );
+            TimeUnit.MILLISECONDS.sleep((long) Tv.HUNDRED);
+            bout.messages().post("how are you?");
+            MatcherAssert.assertThat(
+                events.get(1L, TimeUnit.MINUTES),
+                Matchers.containsString("how are you?")
+            );
+        } finally {
+            service.shutdown();
+        }
+    }
+
+    /**
+     * TkEvents can tell the client that nothing changed, when it comes
+     * back with the version it saw.
+     * @throws Exception If there is some problem inside
+     */
+    @Test
+    public void remembersVersionInEventId() throws Exception {
+        final Base base = new CdBase(new MkBase());
+        final Bout bout = TkEventsTest.bout(base, TkEventsTest.RETURNER);
+        bout.messages().post("hello");
+        final Matcher matcher = Pattern.compile("id: ([0-9]+(?:-[0-9]+){3})")
+            .matcher(
+                new RsPrint(
+                    new FkBout(
+                        TkEventsTest.REGEX, new TkEvents(base, 0L)
+                    ).route(
+                        TkEventsTest.request(bout, TkEventsTest.RETURNER)
+                    ).get()
+                ).printBody()
+            );
+        MatcherAssert.assertThat(matcher.find(), Matchers.is(true));
+        final String id = matcher.group(1);
+        MatcherAssert.assertThat(
+            new RsPrint(
+                new FkBout(TkEventsTest.REGEX, new TkEvents(base, 0L)).route(
+                    new RqWithHeader(
+                        TkEventsTest.request(bout, TkEventsTest.RETURNER),
+                        "Last-Event-ID", id
+                    )
+                ).get()
+            ).printBody(),
+            Matchers.allOf(
+                Matchers.containsString(": nothing new"),
+                Matchers.containsString(String.format("id: %s", id))
+            )
+        );
+    }
+
+    /**
+     * TkEvents can read the bout again, when the client comes back with
+     * the ID given by another server.
+     * @throws Exception If there is some problem inside
+     */
+    @Test
+    public void readsAgainAfterAnotherServer() throws Exception {
+        final Base origin = new MkBase();
+        final Base base = new CdBase(origin);
+        final Bout bout = TkEventsTest.bout(base, TkEventsTest.STRANGER);
+        final Matcher matcher = Pattern.compile(
+            "id: ([0-9]+)-[0-9]+-([0-9]+-[0-9]+)"
+        ).matcher(
+            new RsPrint(
+                new FkBout(TkEventsTest.REGEX, new TkEvents(base, 0L)).route(
+                    TkEventsTest.request(bout, TkEventsTest.STRANGER)
+                ).get()
+            ).printBody()
+        );
+        MatcherAssert.assertThat(matcher.find(), Matchers.is(true));
+        origin.user(URN.create(TkEventsTest.STRANGER)).aliases().iterate()
+            .iterator().next().inbox().bout(bout.number()).messages()
+            .post("posted elsewhere");
+        MatcherAssert.assertThat(
+            new RsPrint(
+                new FkBout(TkEventsTest.REGEX, new TkEvents(base, 0L)).route(
+                    new RqWithHeader(
+                        TkEventsTest.request(bout, TkEventsTest.STRANGER),
+                        "Last-Event-ID",
+                        String.format(
+                            "%s-0-%s", matcher.group(1), matcher.group(2)
+                        )
+                    )
+                ).get()
+            ).printBody(),
+            Matchers.containsString("posted elsewhere")
+        );
+    }
+
+    /**
+     * TkEvents can ignore a broken number of the last message.
+     * @throws Exception If there is some problem inside
+     */
+    @Test
+    public void ignoresBrokenLastNumber() throws Exception {
+        final Base base = new MkBase();
+        final Bout bout = TkEventsTest.bout(base);
+        MatcherAssert.assertThat(
+            new RsPrint(
+                new FkBout(TkEventsTest.REGEX, new TkEvents(base, 0L)).route(
+                    new RqWithAuth(
+                        TkEventsTest.USER,
+                        new RqFake(
+                            RqMethod.GET,
+                            String.format(
+                                "/b/%d/events?last=abc", bout.number()
+                            )
+                        )
+                    )
+                ).get()
+            ).print(),
+            Matchers.startsWith("HTTP/1.1 200")
+        );
+    }
+
+    /**
+     * Create a bout.
+     * @param base Base
+     * @return Bout
+     * @throws IOException If fails
+     */
+    private static Bout bout(final Base base) throws IOException {
+        return TkEventsTest.bout(base, TkEventsTest.USER);
+    }
+
+    /**
+     * Create a bout of the user, with an alias named after the URN.
+     * @param base Base
+     * @param urn URN of the user
+     * @return Bout
+     * @throws IOException If fails
+     */
+    private static Bout bout(final Base base, final String urn)
+        throws IOException {
+        final User user = base.user(URN.create(urn));
+        user.aliases().add(
+            String.format("jeff%s", urn.substring(urn.lastIndexOf(':') + 1))
+        );
+        final Alias alias = user.aliases().iterate().iterator().next();
+        final Bout bout = alias.inbox().bout(alias.inbox().start());
+        bout.friends().invite(alias.name());
+        return bout;
+    }
+
+    /**
+     * Events request.
+     * @param bout Bout
+     * @return Request
+     * @throws IOException If fails
+     */
+    private static Request request(final Bout bout) throws IOException {
+        return TkEventsTest.request(bout, TkEventsTest.USER);
+    }
+
+    /**
+     * Events request of the user.
+     * @param bout Bout
+     * @param urn URN of the user
+     * @return Request
+     * @throws IOException If fails
+     */
+    private static Request request(final Bout bout, final String urn)
+        throws IOException {
+        return new RqWithAuth(
+            urn,
+            new RqFake(
+                RqMethod.GET,
+                String.format("/b/%d/events?last=0", bout.number())
+            )
+        );
+    }
+
+}
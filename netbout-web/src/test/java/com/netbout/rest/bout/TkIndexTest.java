@@ -32,11 +32,18 @@ import com.netbout.mock.MkBase;
 import com.netbout.spi.Alias;
 import com.netbout.spi.Bout;
 import com.netbout.spi.User;
+import java.io.IOException;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
 import org.hamcrest.MatcherAssert;
+import org.hamcrest.Matchers;
 import org.junit.Test;
+import org.takes.Request;
+import org.takes.Response;
 import org.takes.facets.auth.RqWithAuth;
 import org.takes.rq.RqFake;
 import org.takes.rq.RqMethod;
+import org.takes.rq.RqWithHeader;
 import org.takes.rs.RsPrint;
 
 /**
@@ -88,10 +95,52 @@ public final class TkIndexTest {
                 "/page/bout/friends/friend/links/link[@rel='photo']",
                 "/page/bout/friends/friend/links/link[@rel='kick']",
                 "/page/bout/attachments/attachment/links/link[@rel='delete']",
+                "/page/bout/attachments/attachment[size=0]",
                 "/page/bout/messages/message[text='hello, world!']"
             )
         );
     }
+
+    /**
+     * TkIndex can answer 304, when the bout is not modified.
+     * @throws Exception If there is some problem inside
+     */
+    @Test
+    public void answersNotModified() throws Exception {
+        final MkBase base = new MkBase();
+        final String urn = "urn:test:3";
+        final User user = base.user(new URN(urn));
+        user.aliases().add("jeff3");
+        final Alias alias = user.aliases().iterate().iterator().next();
+        final Bout bout = alias.inbox().bout(alias.inbox().start());
+        bout.messages().post("how are you?");
+        bout.friends().invite(alias.name());
+        final Response page = new FkBout(
+            TkIndexTest.REGEX, new TkIndex(base)
+        ).route(TkIndexTest.request(urn, bout, "")).get();
+        final Matcher matcher = Pattern.compile("ETag: (\"[0-9a-f]+\")")
+            .matcher(new RsPrint(page).printHead());
+        MatcherAssert.assertThat(matcher.find(), Matchers.is(true));
+        final String etag = matcher.group(1);
+        MatcherAssert.assertThat(
+            new RsPrint(
+                new FkBout(TkIndexTest.REGEX, new TkIndex(base)).route(
+                    TkIndexTest.request(urn, bout, etag)
+                ).get()
+            ).print(),
+            Matchers.startsWith("HTTP/1.1 304")
+        );
+        bout.rename("new title");
+        MatcherAssert.assertThat(
+            new RsPrint(
+                new FkBout(TkIndexTest.REGEX, new TkIndex(base)).route(
+                    TkIndexTest.request(urn, bout, etag)
+                ).get()
+            ).print(),
+            Matchers.startsWith("HTTP/1.1 200")
+        );
+    }
+
     /**
      * TkIndex can search bout messages.
      * @throws Exception If there is some problem inside
@@ -133,4 +182,73 @@ public final class TkIndexTest {
         );
     }
 
+    /**
+     * TkIndex can change the tag when a message is posted or a friend
+     * is invited.
+     * @throws Exception If there is some problem inside
+     */
+    @Test
+    public void changesTagOnPostAndInvite() throws Exception {
+        final MkBase base = new MkBase();
+        final String urn = "urn:test:31";
+        final User user = base.user(new URN(urn));
+        user.aliases().add("jeff31");
+        base.user(new URN("urn:test:32")).aliases().add("walter32");
+        final Alias alias = user.aliases().iterate().iterator().next();
+        final Bout bout = alias.inbox().bout(alias.inbox().start());
+        bout.messages().post("first");
+        final String before = TkIndexTest.etag(base, urn, bout);
+        bout.messages().post("second");
+        final String posted = TkIndexTest.etag(base, urn, bout);
+        MatcherAssert.assertThat(posted, Matchers.not(before));
+        bout.friends().invite("walter32");
+        MatcherAssert.assertThat(
+            TkIndexTest.etag(base, urn, bout), Matchers.not(posted)
+        );
+    }
+
+    /**
+     * ETag of the bout page.
+     * @param base Base
+     * @param urn URN of the user
+     * @param bout Bout
+     * @return ETag
+     * @throws Exception If fails
+     */
+    private static String etag(final MkBase base, final String urn,
+        final Bout bout) throws Exception {
+        final Matcher matcher = Pattern.compile("ETag: (\"[0-9a-f]+\")")
+            .matcher(
+                new RsPrint(
+                    new FkBout(TkIndexTest.REGEX, new TkIndex(base)).route(
+                        TkIndexTest.request(urn, bout, "")
+                    ).get()
+                ).printHead()
+            );
+        MatcherAssert.assertThat(matcher.find(), Matchers.is(true));
+        return matcher.group(1);
+    }
+
+    /**
+     * Request of the bout page.
+     * @param urn URN of the user
+     * @param bout Bout
+     * @param etag ETag the client has, empty if none
+     * @return Request
+     * @throws IOException If fails
+     */
+    private static Request request(final String urn, final Bout bout,
+        final String etag) throws IOException {
+        return new RqWithAuth(
+            urn,
+            new RqWithHeader(
+                new RqFake(
+                    RqMethod.GET,
+                    String.format("/b/%d", bout.number())
+                ),
+                "If-None-Match", etag
+            )
+        );
+    }
+
 }